@@ -121,6 +121,7 @@ public class AASServerComponent implements IComponent {
 	protected Collection<AASBundle> aasBundles;
 
 	private IAASAggregator aggregator;
+	private MongoDBAASServerComponentFactory mongoDBComponentFactory;
 	// Watcher for AAS Aggregator functionality
 	private boolean isAASXUploadEnabled = false;
 	
@@ -352,6 +353,10 @@ public class AASServerComponent implements IComponent {
 		cleanUpAASServerFeatures();
 
 		server.shutdown();
+
+		if (mongoDBComponentFactory != null) {
+			mongoDBComponentFactory.close();
+		}
 	}
 	
 	private void deregisterAASAndSmAddedDuringRuntime() {
@@ -463,7 +468,7 @@ public class AASServerComponent implements IComponent {
 		}
 
 		if (isAASXUploadEnabled) {
-			return new AASAggregatorAASXUploadServlet(new AASAggregatorAASXUpload(aggregator));
+			return new AASAggregatorAASXUploadServlet(new AASAggregatorAASXUpload(aggregator), aggregator);
 		} else {
 			return new AASAggregatorServlet(aggregator);
 		}
@@ -471,7 +476,8 @@ public class AASServerComponent implements IComponent {
 
 	private IAASAggregator createAASAggregator() {
 		if (isMongoDBBackend()) {
-			return new MongoDBAASServerComponentFactory(createMongoDbConfiguration(), createAASServerDecoratorList(), registry).create();
+			mongoDBComponentFactory = new MongoDBAASServerComponentFactory(createMongoDbConfiguration(), createAASServerDecoratorList(), registry);
+			return mongoDBComponentFactory.create();
 		}
 		if(isS3Backend()) {
 			return new S3AASServerComponentFactory(this.s3Config, createAASServerDecoratorList(), registry).create();
@@ -36,9 +36,9 @@ import org.eclipse.basyx.components.aas.mongodb.MongoDBSubmodelAggregatorFactory
 import org.eclipse.basyx.components.configuration.BaSyxMongoDBConfiguration;
 import org.eclipse.basyx.submodel.aggregator.api.ISubmodelAggregatorFactory;
 import org.eclipse.basyx.submodel.restapi.api.ISubmodelAPIFactory;
+import org.eclipse.basyx.tools.mongodb.MongoDBClientRegistry;
 
 import com.mongodb.client.MongoClient;
-import com.mongodb.client.MongoClients;
 
 /**
  * 
@@ -52,23 +52,35 @@ public class MongoDBAASServerComponentFactory extends AbstractAASServerComponent
 
 	private BaSyxMongoDBConfiguration mongoDBConfig;
 	private MongoClient client;
+	private MongoDBSubmodelAPIFactory submodelAPIFactory;
 
 	public MongoDBAASServerComponentFactory(BaSyxMongoDBConfiguration config, List<IAASServerDecorator> decorators, IAASRegistry aasServerRegistry) {
 		this.mongoDBConfig = config;
 		this.aasServerRegistry = aasServerRegistry;
 		this.aasServerDecorators = decorators;
-		this.client = MongoClients.create(config.getConnectionUrl());
+		this.client = MongoDBClientRegistry.getClient(config);
 	}
 
 	public MongoDBAASServerComponentFactory(BaSyxMongoDBConfiguration config, IAASRegistry aasServerRegistry) {
 		this.mongoDBConfig = config;
 		this.aasServerRegistry = aasServerRegistry;
-		this.client = MongoClients.create(config.getConnectionUrl());
+		this.client = MongoDBClientRegistry.getClient(config);
 	}
 
 	@Override
 	protected ISubmodelAPIFactory createSubmodelAPIFactory() {
-		return new MongoDBSubmodelAPIFactory(mongoDBConfig, client);
+		submodelAPIFactory = new MongoDBSubmodelAPIFactory(mongoDBConfig, client);
+		return submodelAPIFactory;
+	}
+
+	/**
+	 * Writes the values that are still pending in the write-behind buffer of the
+	 * created submodel APIs
+	 */
+	public void close() {
+		if (submodelAPIFactory != null) {
+			submodelAPIFactory.close();
+		}
 	}
 
 	@Override
@@ -83,6 +95,6 @@ public class MongoDBAASServerComponentFactory extends AbstractAASServerComponent
 
 	@Override
 	protected IAASAggregatorFactory createAASAggregatorFactory(IAASAPIFactory aasAPIFactory, ISubmodelAggregatorFactory submodelAggregatorFactory) {
-		return new MongoDBAASAggregatorFactory(mongoDBConfig, aasServerRegistry, aasAPIFactory, submodelAggregatorFactory, client);
+		return new MongoDBAASAggregatorFactory(mongoDBConfig, aasServerRegistry, aasAPIFactory, submodelAggregatorFactory, this.submodelAPIFactory, client);
 	}
 }
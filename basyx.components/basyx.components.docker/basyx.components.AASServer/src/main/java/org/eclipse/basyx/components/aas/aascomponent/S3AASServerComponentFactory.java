@@ -10,6 +10,7 @@ import org.eclipse.basyx.components.aas.s3.S3AASAPIFactory;
 import org.eclipse.basyx.components.aas.s3.S3AASAggregatorFactory;
 import org.eclipse.basyx.components.aas.s3.S3SubmodelAPIFactory;
 import org.eclipse.basyx.components.aas.s3.S3SubmodelAggregatorFactory;
+import org.eclipse.basyx.components.aas.s3.S3SubmodelBucket;
 import org.eclipse.basyx.components.aas.s3.S3Helper;
 import org.eclipse.basyx.submodel.aggregator.api.ISubmodelAggregatorFactory;
 import org.eclipse.basyx.submodel.restapi.api.ISubmodelAPIFactory;
@@ -19,24 +20,30 @@ import com.amazonaws.services.s3.AmazonS3;
 public class S3AASServerComponentFactory extends AbstractAASServerComponentFactory {
 	private BaSyxS3Configuration config;
 	private AmazonS3 s3Client;
+	private S3SubmodelBucket submodelBucket;
 	private IAASRegistry registry;
 	
 	public S3AASServerComponentFactory(BaSyxS3Configuration config, List<IAASServerDecorator> decorators, IAASRegistry registry) {
 		this.config = config;
 		this.aasServerDecorators = decorators;
 		this.s3Client = S3Helper.createS3Client(config);
+		this.submodelBucket = new S3SubmodelBucket(s3Client, config.getSubmodelBucketName());
 		this.registry = registry;
+		submodelBucket.getCache().setMaxSize(config.getSubmodelCacheSize());
+		submodelBucket.setVersionIndexEnabled(config.isVersionIndexEnabled());
 	}
 	
 
 	@Override
 	protected ISubmodelAPIFactory createSubmodelAPIFactory() {
-		return new S3SubmodelAPIFactory(s3Client,config.getSubmodelBucketName());
+		S3SubmodelAPIFactory factory = new S3SubmodelAPIFactory(submodelBucket, config.isShardedSubmodelsEnabled());
+		factory.setContentEncoding(config.getContentEncoding());
+		return factory;
 	}
 
 	@Override
 	protected ISubmodelAggregatorFactory createSubmodelAggregatorFactory(ISubmodelAPIFactory submodelAPIFactory) {
-		return new S3SubmodelAggregatorFactory(s3Client, config.getSubmodelBucketName(), submodelAPIFactory);
+		return new S3SubmodelAggregatorFactory(submodelBucket, submodelAPIFactory);
 	}
 
 	@Override
@@ -47,7 +54,7 @@ public class S3AASServerComponentFactory extends AbstractAASServerComponentFacto
 	@Override
 	protected IAASAggregatorFactory createAASAggregatorFactory(IAASAPIFactory aasAPIFactory,
 			ISubmodelAggregatorFactory submodelAggregatorFactory) {
-		return new S3AASAggregatorFactory(registry, config, aasAPIFactory, submodelAggregatorFactory, s3Client);
+		return new S3AASAggregatorFactory(registry, config, aasAPIFactory, submodelAggregatorFactory, submodelBucket);
 	}
 
 }
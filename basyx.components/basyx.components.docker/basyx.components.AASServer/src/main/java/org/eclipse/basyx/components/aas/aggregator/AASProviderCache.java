@@ -0,0 +1,192 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.components.aas.aggregator;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.basyx.aas.restapi.MultiSubmodelProvider;
+
+/**
+ * Bounded cache for the MultiSubmodelProviders of an AAS aggregator. Entries
+ * are evicted in least-recently-used order as soon as the maximum size is
+ * exceeded and, if an expiry time is configured, when they have not been
+ * accessed for longer than that time. Evicted providers are rebuilt from the
+ * backend by the aggregator on the next access.
+ * 
+ * Reads do not lock. They only record the access in the entry, and the least
+ * recently used entry is searched when an entry is added. Adding is preceded by
+ * loading the provider from the backend, so the scan over the entries does not
+ * add noticeably to its cost.
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class AASProviderCache {
+	private final int maxSize;
+	private final long expiryMillis;
+	private final Map<String, CacheEntry> providers = new ConcurrentHashMap<>();
+	// Serializes the evictions, so that concurrent puts do not evict twice
+	private final Object evictionLock = new Object();
+	// Orders the accesses, as several accesses can happen in the same millisecond
+	private final AtomicLong accessCounter = new AtomicLong();
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+
+	/**
+	 * @param maxSize
+	 *            the maximum number of cached providers. Values &lt;= 0 disable the
+	 *            size limit
+	 * @param expiryMillis
+	 *            the time in milliseconds after which a provider that has not been
+	 *            accessed is evicted. Values &lt;= 0 disable the time-based eviction
+	 */
+	public AASProviderCache(int maxSize, long expiryMillis) {
+		this.maxSize = maxSize;
+		this.expiryMillis = expiryMillis;
+	}
+
+	/**
+	 * Returns the cached provider for the AAS or null, if there is none
+	 */
+	public MultiSubmodelProvider get(String aasId) {
+		CacheEntry entry = providers.get(aasId);
+		if (entry == null || isExpired(entry)) {
+			if (entry != null && providers.remove(aasId, entry)) {
+				evictions.incrementAndGet();
+			}
+			misses.incrementAndGet();
+			return null;
+		}
+		entry.access(accessCounter.incrementAndGet());
+		hits.incrementAndGet();
+		return entry.provider;
+	}
+
+	/**
+	 * Returns the cached provider for the AAS or null, if there is none. In
+	 * contrast to {@link #get(String)}, neither the access order nor the counters
+	 * are changed.
+	 */
+	public MultiSubmodelProvider peek(String aasId) {
+		CacheEntry entry = providers.get(aasId);
+		if (entry == null || isExpired(entry)) {
+			return null;
+		}
+		return entry.provider;
+	}
+
+	public void put(String aasId, MultiSubmodelProvider provider) {
+		providers.put(aasId, new CacheEntry(provider, accessCounter.incrementAndGet()));
+		if (expiryMillis > 0 || (maxSize > 0 && providers.size() > maxSize)) {
+			evict();
+		}
+	}
+
+	public void remove(String aasId) {
+		providers.remove(aasId);
+	}
+
+	public void clear() {
+		providers.clear();
+	}
+
+	public int size() {
+		return providers.size();
+	}
+
+	public long getHitCount() {
+		return hits.get();
+	}
+
+	public long getMissCount() {
+		return misses.get();
+	}
+
+	public long getEvictionCount() {
+		return evictions.get();
+	}
+
+	/**
+	 * Returns the share of accesses that were answered from the cache
+	 */
+	public double getHitRate() {
+		long hitCount = getHitCount();
+		long total = hitCount + getMissCount();
+		return total == 0 ? 0 : (double) hitCount / total;
+	}
+
+	/**
+	 * Removes the expired entries and, if the cache is still too large, the least
+	 * recently used entries
+	 */
+	private void evict() {
+		synchronized (evictionLock) {
+			Iterator<CacheEntry> iterator = providers.values().iterator();
+			while (iterator.hasNext()) {
+				if (isExpired(iterator.next())) {
+					iterator.remove();
+					evictions.incrementAndGet();
+				}
+			}
+
+			while (maxSize > 0 && providers.size() > maxSize) {
+				Map.Entry<String, CacheEntry> eldest = null;
+				for (Map.Entry<String, CacheEntry> entry : providers.entrySet()) {
+					if (eldest == null || entry.getValue().lastAccessOrder < eldest.getValue().lastAccessOrder) {
+						eldest = entry;
+					}
+				}
+				if (eldest != null && providers.remove(eldest.getKey(), eldest.getValue())) {
+					evictions.incrementAndGet();
+				}
+			}
+		}
+	}
+
+	private boolean isExpired(CacheEntry entry) {
+		return expiryMillis > 0 && System.currentTimeMillis() - entry.lastAccess > expiryMillis;
+	}
+
+	private static class CacheEntry {
+		private final MultiSubmodelProvider provider;
+		private volatile long lastAccess;
+		private volatile long lastAccessOrder;
+
+		private CacheEntry(MultiSubmodelProvider provider, long accessOrder) {
+			this.provider = provider;
+			access(accessOrder);
+		}
+
+		private void access(long accessOrder) {
+			this.lastAccess = System.currentTimeMillis();
+			this.lastAccessOrder = accessOrder;
+		}
+	}
+}
@@ -0,0 +1,56 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.components.aas.aggregator;
+
+import java.util.function.Consumer;
+
+import org.eclipse.basyx.aas.aggregator.api.IAASAggregator;
+import org.eclipse.basyx.aas.metamodel.api.IAssetAdministrationShell;
+
+/**
+ * An IAASAggregator that can pass its AAS page-wise to a consumer, directly
+ * from its backend, instead of collecting all of them in a list
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public interface IStreamingAASAggregator extends IAASAggregator {
+	/**
+	 * Passes the AAS of one page to the consumer, in the order of the backend.
+	 * 
+	 * @param continuationToken
+	 *            the token returned for the previous page or null for the first
+	 *            page
+	 * @param limit
+	 *            the maximum number of AAS in the page. Values &lt;= 0 pass all
+	 *            remaining AAS.
+	 * @param consumer
+	 *            receives each AAS of the page
+	 * @return the token of the next page or null, if there are no more AAS
+	 * @throws org.eclipse.basyx.vab.exception.provider.MalformedRequestException
+	 *             if the continuation token is not valid for this backend
+	 */
+	public String streamAASList(String continuationToken, int limit, Consumer<IAssetAdministrationShell> consumer);
+}
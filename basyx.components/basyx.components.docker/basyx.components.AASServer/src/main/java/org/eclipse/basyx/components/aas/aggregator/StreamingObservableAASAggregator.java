@@ -0,0 +1,51 @@
+/*******************************************************************************
+ * Copyright (C) 2022 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.components.aas.aggregator;
+
+import java.util.function.Consumer;
+
+import org.eclipse.basyx.aas.aggregator.observing.ObservableAASAggregator;
+import org.eclipse.basyx.aas.metamodel.api.IAssetAdministrationShell;
+
+/**
+ * ObservableAASAggregator that keeps the streaming capability of the
+ * aggregator it observes. Streaming only reads, so no observer is notified.
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class StreamingObservableAASAggregator extends ObservableAASAggregator implements IStreamingAASAggregator {
+	private IStreamingAASAggregator aasAggregator;
+
+	public StreamingObservableAASAggregator(IStreamingAASAggregator aasAggregator) {
+		super(aasAggregator);
+		this.aasAggregator = aasAggregator;
+	}
+
+	@Override
+	public String streamAASList(String continuationToken, int limit, Consumer<IAssetAdministrationShell> consumer) {
+		return aasAggregator.streamAASList(continuationToken, limit, consumer);
+	}
+}
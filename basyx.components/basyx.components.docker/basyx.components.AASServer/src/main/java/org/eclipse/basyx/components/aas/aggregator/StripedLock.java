@@ -0,0 +1,62 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.components.aas.aggregator;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A fixed set of locks, of which each AAS id is assigned to one. Writes to the
+ * same AAS are serialized, while writes to different AAS only block each other
+ * if their ids happen to share a stripe.
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class StripedLock {
+	public static final int DEFAULT_STRIPES = 64;
+
+	private final ReentrantLock[] stripes;
+
+	public StripedLock() {
+		this(DEFAULT_STRIPES);
+	}
+
+	public StripedLock(int stripeCount) {
+		stripes = new ReentrantLock[stripeCount];
+		for (int i = 0; i < stripeCount; i++) {
+			stripes[i] = new ReentrantLock();
+		}
+	}
+
+	/**
+	 * Returns the lock that is responsible for the given id
+	 */
+	public ReentrantLock get(String id) {
+		// Spread the hash, so that similar ids are distributed over the stripes
+		int hash = id.hashCode();
+		hash ^= (hash >>> 16);
+		return stripes[Math.floorMod(hash, stripes.length)];
+	}
+}
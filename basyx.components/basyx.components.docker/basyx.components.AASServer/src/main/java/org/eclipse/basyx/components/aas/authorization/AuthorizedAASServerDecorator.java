@@ -27,7 +27,6 @@ package org.eclipse.basyx.components.aas.authorization;
 import org.eclipse.basyx.aas.aggregator.api.IAASAggregatorFactory;
 import org.eclipse.basyx.aas.restapi.api.IAASAPIFactory;
 import org.eclipse.basyx.components.aas.aascomponent.IAASServerDecorator;
-import org.eclipse.basyx.extensions.aas.aggregator.authorization.AuthorizedDecoratingAASAggregatorFactory;
 import org.eclipse.basyx.extensions.aas.api.authorization.AuthorizedDecoratingAASAPIFactory;
 import org.eclipse.basyx.extensions.submodel.aggregator.authorization.AuthorizedDecoratingSubmodelAggregatorFactory;
 import org.eclipse.basyx.extensions.submodel.authorization.AuthorizedDecoratingSubmodelAPIFactory;
@@ -60,7 +59,7 @@ public class AuthorizedAASServerDecorator implements IAASServerDecorator {
 
 	@Override
 	public IAASAggregatorFactory decorateAASAggregatorFactory(IAASAggregatorFactory aasAggregatorFactory) {
-		return new AuthorizedDecoratingAASAggregatorFactory(aasAggregatorFactory);
+		return new AuthorizedStreamingAASAggregatorFactory(aasAggregatorFactory);
 	}
 
 }
@@ -0,0 +1,56 @@
+/*******************************************************************************
+ * Copyright (C) 2022 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.components.aas.authorization;
+
+import org.eclipse.basyx.aas.aggregator.api.IAASAggregator;
+import org.eclipse.basyx.aas.aggregator.api.IAASAggregatorFactory;
+import org.eclipse.basyx.components.aas.aggregator.IStreamingAASAggregator;
+import org.eclipse.basyx.extensions.aas.aggregator.authorization.AuthorizedAASAggregator;
+
+/**
+ * Creates AASAggregators with authorization like the
+ * {@link org.eclipse.basyx.extensions.aas.aggregator.authorization.AuthorizedDecoratingAASAggregatorFactory},
+ * but keeps them streaming, if the decorated aggregator is an
+ * {@link IStreamingAASAggregator}
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class AuthorizedStreamingAASAggregatorFactory implements IAASAggregatorFactory {
+	private IAASAggregatorFactory aasAggregatorFactory;
+
+	public AuthorizedStreamingAASAggregatorFactory(IAASAggregatorFactory aasAggregatorFactory) {
+		this.aasAggregatorFactory = aasAggregatorFactory;
+	}
+
+	@Override
+	public IAASAggregator create() {
+		IAASAggregator aasAggregator = aasAggregatorFactory.create();
+		if (aasAggregator instanceof IStreamingAASAggregator) {
+			return new AuthorizedStreamingAASAggregator((IStreamingAASAggregator) aasAggregator);
+		}
+		return new AuthorizedAASAggregator(aasAggregator);
+	}
+}
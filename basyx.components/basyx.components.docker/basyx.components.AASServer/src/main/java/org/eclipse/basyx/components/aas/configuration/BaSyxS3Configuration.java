@@ -27,9 +27,13 @@ package org.eclipse.basyx.components.aas.configuration;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.eclipse.basyx.components.aas.s3.S3ContentEncoding;
 import org.eclipse.basyx.components.aas.s3.S3Helper;
 import org.eclipse.basyx.components.configuration.BaSyxConfiguration;
 
+import com.amazonaws.ClientConfiguration;
+import com.amazonaws.retry.PredefinedRetryPolicies;
+
 /**
  * Represents a simple BaSyx S3 configuration for an AAS Server that can be
  * loaded from a properties file.
@@ -55,6 +59,25 @@ public class BaSyxS3Configuration extends BaSyxConfiguration {
 	public static final String SUBMODEL_BUCKET_NAME = "submodelBucketName";
 	public static final String DISABLE_CERT_CHECKING = "diableCertChecking";
 	public static final String PATH_STYLE_ACCESS_ENABLED = "pathStyleAccessEnabled";
+	public static final String LAZY_PROVIDERS = "lazyProviders";
+	public static final String PROVIDER_CACHE_SIZE = "providerCacheSize";
+	public static final String PROVIDER_CACHE_EXPIRY = "providerCacheExpiry";
+	public static final String LOADING_PARALLELISM = "loadingParallelism";
+	public static final String SUBMODEL_CACHE_SIZE = "submodelCacheSize";
+	public static final String SHARDED_SUBMODELS = "shardedSubmodels";
+	public static final String VERSION_INDEX = "versionIndex";
+	public static final String MAX_CONNECTIONS = "maxConnections";
+	public static final String MAX_CONCURRENCY = "maxConcurrency";
+	public static final String MAX_ERROR_RETRY = "maxErrorRetry";
+	public static final String CONTENT_ENCODING = "contentEncoding";
+
+	// Defaults for optional properties
+	public static final int DEFAULT_PROVIDER_CACHE_SIZE = 1000;
+	public static final long DEFAULT_PROVIDER_CACHE_EXPIRY = 0;
+	public static final int DEFAULT_LOADING_PARALLELISM = 16;
+	public static final int DEFAULT_SUBMODEL_CACHE_SIZE = 100;
+	public static final int DEFAULT_MAX_CONNECTIONS = ClientConfiguration.DEFAULT_MAX_CONNECTIONS;
+	public static final int DEFAULT_MAX_ERROR_RETRY = PredefinedRetryPolicies.DEFAULT_MAX_ERROR_RETRY;
 
 	public BaSyxS3Configuration(Map<String, String> values) {
 		super(values);
@@ -203,4 +226,149 @@ public class BaSyxS3Configuration extends BaSyxConfiguration {
 		setProperty(PATH_STYLE_ACCESS_ENABLED, Boolean.toString(pathStyleAccessEnabled));
 	}
 
+	/**
+	 * Returns true, if the AAS aggregator creates the providers of an AAS on first
+	 * access instead of creating the providers for all AAS on startup
+	 */
+	public boolean isLazyProvidersEnabled() {
+		return Boolean.parseBoolean(getProperty(LAZY_PROVIDERS));
+	}
+
+	public void setLazyProvidersEnabled(boolean enabled) {
+		setProperty(LAZY_PROVIDERS, Boolean.toString(enabled));
+	}
+
+	/**
+	 * Returns the maximum number of AAS providers that are kept if lazy providers
+	 * are enabled. Values &lt;= 0 disable the limit.
+	 */
+	public int getProviderCacheSize() {
+		String size = getProperty(PROVIDER_CACHE_SIZE);
+		return size == null ? DEFAULT_PROVIDER_CACHE_SIZE : Integer.parseInt(size);
+	}
+
+	public void setProviderCacheSize(int size) {
+		setProperty(PROVIDER_CACHE_SIZE, Integer.toString(size));
+	}
+
+	/**
+	 * Returns the time in milliseconds after which an unused AAS provider is
+	 * evicted if lazy providers are enabled. Values &lt;= 0 disable the expiry.
+	 */
+	public long getProviderCacheExpiry() {
+		String expiry = getProperty(PROVIDER_CACHE_EXPIRY);
+		return expiry == null ? DEFAULT_PROVIDER_CACHE_EXPIRY : Long.parseLong(expiry);
+	}
+
+	public void setProviderCacheExpiry(long millis) {
+		setProperty(PROVIDER_CACHE_EXPIRY, Long.toString(millis));
+	}
+
+	/**
+	 * Returns the number of AAS that are downloaded concurrently when the AAS
+	 * aggregator loads the bucket on startup. The downloads are additionally
+	 * limited by the maximum concurrency.
+	 */
+	public int getLoadingParallelism() {
+		String parallelism = getProperty(LOADING_PARALLELISM);
+		return parallelism == null ? DEFAULT_LOADING_PARALLELISM : Integer.parseInt(parallelism);
+	}
+
+	public void setLoadingParallelism(int parallelism) {
+		setProperty(LOADING_PARALLELISM, Integer.toString(parallelism));
+	}
+
+	/**
+	 * Returns the maximum number of parsed submodels that are cached per submodel
+	 * bucket. Cached submodels are revalidated by their ETag on each read. Values
+	 * &lt;= 0 disable the cache.
+	 */
+	public int getSubmodelCacheSize() {
+		String size = getProperty(SUBMODEL_CACHE_SIZE);
+		return size == null ? DEFAULT_SUBMODEL_CACHE_SIZE : Integer.parseInt(size);
+	}
+
+	public void setSubmodelCacheSize(int size) {
+		setProperty(SUBMODEL_CACHE_SIZE, Integer.toString(size));
+	}
+
+	/**
+	 * Returns true, if submodels are stored as a manifest and one object per top
+	 * level element instead of one object per submodel. Submodels are read in
+	 * either layout.
+	 */
+	public boolean isShardedSubmodelsEnabled() {
+		return Boolean.parseBoolean(getProperty(SHARDED_SUBMODELS));
+	}
+
+	public void setShardedSubmodelsEnabled(boolean enabled) {
+		setProperty(SHARDED_SUBMODELS, Boolean.toString(enabled));
+	}
+
+	/**
+	 * Returns true, if the versions of the submodels are recorded in a version
+	 * index, so that submodels can be read as of a point in time. Each upload to
+	 * a versioned bucket then costs an additional HEAD and PUT request, and
+	 * deleted submodels keep their versions. Disabled by default.
+	 */
+	public boolean isVersionIndexEnabled() {
+		return Boolean.parseBoolean(getProperty(VERSION_INDEX));
+	}
+
+	public void setVersionIndexEnabled(boolean enabled) {
+		setProperty(VERSION_INDEX, Boolean.toString(enabled));
+	}
+
+	/**
+	 * Returns the size of the HTTP connection pool of the S3 client
+	 */
+	public int getMaxConnections() {
+		String connections = getProperty(MAX_CONNECTIONS);
+		return connections == null ? DEFAULT_MAX_CONNECTIONS : Integer.parseInt(connections);
+	}
+
+	public void setMaxConnections(int connections) {
+		setProperty(MAX_CONNECTIONS, Integer.toString(connections));
+	}
+
+	/**
+	 * Returns the maximum number of requests that the asynchronous S3 client runs
+	 * concurrently. Further requests are queued. Defaults to the size of the
+	 * connection pool, since more concurrent requests would wait for a connection.
+	 */
+	public int getMaxConcurrency() {
+		String concurrency = getProperty(MAX_CONCURRENCY);
+		return concurrency == null ? getMaxConnections() : Integer.parseInt(concurrency);
+	}
+
+	public void setMaxConcurrency(int concurrency) {
+		setProperty(MAX_CONCURRENCY, Integer.toString(concurrency));
+	}
+
+	/**
+	 * Returns the number of retries of a failed S3 request. Requests are retried
+	 * with exponential backoff if they failed due to throttling, server errors or
+	 * I/O errors.
+	 */
+	public int getMaxErrorRetry() {
+		String retries = getProperty(MAX_ERROR_RETRY);
+		return retries == null ? DEFAULT_MAX_ERROR_RETRY : Integer.parseInt(retries);
+	}
+
+	public void setMaxErrorRetry(int retries) {
+		setProperty(MAX_ERROR_RETRY, Integer.toString(retries));
+	}
+
+	/**
+	 * Returns the encoding that uploaded submodels are compressed with, i.e.
+	 * "gzip" or "zstd". Defaults to uncompressed objects. Submodels are read in
+	 * any encoding, so the setting can be changed for existing buckets.
+	 */
+	public S3ContentEncoding getContentEncoding() {
+		return S3ContentEncoding.fromName(getProperty(CONTENT_ENCODING));
+	}
+
+	public void setContentEncoding(S3ContentEncoding encoding) {
+		setProperty(CONTENT_ENCODING, encoding.getName());
+	}
 }
@@ -39,13 +39,13 @@ import org.eclipse.basyx.submodel.metamodel.api.reference.IKey;
 import org.eclipse.basyx.submodel.metamodel.api.reference.IReference;
 import org.eclipse.basyx.submodel.metamodel.map.identifier.Identifier;
 import org.eclipse.basyx.submodel.metamodel.map.qualifier.Identifiable;
+import org.eclipse.basyx.tools.mongodb.MongoDBClientRegistry;
 import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
 import org.springframework.data.mongodb.core.MongoOperations;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Query;
 
 import com.mongodb.client.MongoClient;
-import com.mongodb.client.MongoClients;
 
 /**
  * Implements the IAASAPI for a mongoDB backend.
@@ -69,7 +69,7 @@ public class MongoDBAASAPI implements IAASAPI {
 	 */
 	@Deprecated
 	public MongoDBAASAPI(BaSyxMongoDBConfiguration config, String aasId) {
-		this(config, aasId, MongoClients.create(config.getConnectionUrl()));
+		this(config, aasId, MongoDBClientRegistry.getClient(config));
 	}
 
 	/**
@@ -124,7 +124,7 @@ public class MongoDBAASAPI implements IAASAPI {
 
 	@Deprecated
 	public void setConfiguration(BaSyxMongoDBConfiguration config) {
-		MongoClient client = MongoClients.create(config.getConnectionUrl());
+		MongoClient client = MongoDBClientRegistry.getClient(config);
 		setConfiguration(config, client);
 	}
 
@@ -28,9 +28,9 @@ import org.eclipse.basyx.aas.metamodel.map.AssetAdministrationShell;
 import org.eclipse.basyx.aas.restapi.api.IAASAPI;
 import org.eclipse.basyx.aas.restapi.api.IAASAPIFactory;
 import org.eclipse.basyx.components.configuration.BaSyxMongoDBConfiguration;
+import org.eclipse.basyx.tools.mongodb.MongoDBClientRegistry;
 
 import com.mongodb.client.MongoClient;
-import com.mongodb.client.MongoClients;
 
 /**
  * 
@@ -46,7 +46,7 @@ public class MongoDBAASAPIFactory implements IAASAPIFactory {
 
 	@Deprecated
 	public MongoDBAASAPIFactory(BaSyxMongoDBConfiguration config) {
-		this(config, MongoClients.create(config.getConnectionUrl()));
+		this(config, MongoDBClientRegistry.getClient(config));
 	}
 
 	public MongoDBAASAPIFactory(BaSyxMongoDBConfiguration config, MongoClient client) {
@@ -29,13 +29,24 @@ import static org.springframework.data.mongodb.core.query.Query.query;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+import org.bson.Document;
+import org.bson.types.ObjectId;
 import org.eclipse.basyx.aas.aggregator.AASAggregator;
-import org.eclipse.basyx.aas.aggregator.api.IAASAggregator;
 import org.eclipse.basyx.aas.metamodel.api.IAssetAdministrationShell;
 import org.eclipse.basyx.aas.metamodel.map.AssetAdministrationShell;
 import org.eclipse.basyx.aas.registration.api.IAASRegistry;
@@ -44,6 +55,9 @@ import org.eclipse.basyx.aas.restapi.MultiSubmodelProvider;
 import org.eclipse.basyx.aas.restapi.api.IAASAPI;
 import org.eclipse.basyx.aas.restapi.api.IAASAPIFactory;
 import org.eclipse.basyx.components.aas.aascomponent.MongoDBAASServerComponentFactory;
+import org.eclipse.basyx.components.aas.aggregator.AASProviderCache;
+import org.eclipse.basyx.components.aas.aggregator.IStreamingAASAggregator;
+import org.eclipse.basyx.components.aas.aggregator.StripedLock;
 import org.eclipse.basyx.components.configuration.BaSyxMongoDBConfiguration;
 import org.eclipse.basyx.submodel.aggregator.SubmodelAggregatorFactory;
 import org.eclipse.basyx.submodel.aggregator.api.ISubmodelAggregator;
@@ -59,18 +73,23 @@ import org.eclipse.basyx.submodel.metamodel.map.qualifier.Referable;
 import org.eclipse.basyx.submodel.restapi.SubmodelProvider;
 import org.eclipse.basyx.submodel.restapi.api.ISubmodelAPI;
 import org.eclipse.basyx.submodel.restapi.api.ISubmodelAPIFactory;
+import org.eclipse.basyx.tools.mongodb.MongoDBClientRegistry;
+import org.eclipse.basyx.tools.mongodb.MongoDBIndex;
+import org.eclipse.basyx.tools.mongodb.MongoDBIndexManager;
+import org.eclipse.basyx.vab.exception.provider.MalformedRequestException;
 import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
 import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
 import org.eclipse.basyx.vab.protocol.api.IConnectorFactory;
 import org.eclipse.basyx.vab.protocol.http.connector.HTTPConnectorFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoOperations;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
 
 import com.mongodb.client.MongoClient;
-import com.mongodb.client.MongoClients;
 
 /**
  * An IAASAggregator for persistent storage in a MongoDB.
@@ -80,14 +99,31 @@ import com.mongodb.client.MongoClients;
  * @author espen
  *
  */
-public class MongoDBAASAggregator implements IAASAggregator {
+public class MongoDBAASAggregator implements IStreamingAASAggregator {
 	private static Logger logger = LoggerFactory.getLogger(MongoDBAASAggregator.class);
 
 	private static final String IDSHORTPATH = Referable.IDSHORT;
 	private static final String IDPATH = Identifiable.IDENTIFICATION + "." + Identifier.ID;
+	private static final String MONGO_ID = "_id";
 
-	protected Map<String, MultiSubmodelProvider> aasProviderMap = new HashMap<>();
+	// Number of AAS that are read and created together on startup
+	private static final int INIT_BATCH_SIZE = 1000;
+	private static final int INIT_THREADS = Runtime.getRuntime().availableProcessors();
+
+	protected Map<String, MultiSubmodelProvider> aasProviderMap = new ConcurrentHashMap<>();
+
+	/**
+	 * Cache of the AAS providers, if lazy providers are enabled in the
+	 * configuration. Otherwise, all providers are kept in {@link #aasProviderMap}.
+	 */
+	protected AASProviderCache providerCache;
+
+	/**
+	 * Serializes writes to the same AAS. Reads of the providers do not lock.
+	 */
+	private final StripedLock aasLocks = new StripedLock();
 	protected BaSyxMongoDBConfiguration config;
+	protected MongoClient client;
 	protected MongoOperations mongoOps;
 	protected String aasCollection;
 	protected String smCollection;
@@ -104,6 +140,12 @@ public class MongoDBAASAggregator implements IAASAggregator {
 	 */
 	protected ISubmodelAPIFactory smApiProvider;
 
+	/**
+	 * Creates the APIs of the submodels that are loaded from the DB, so that they
+	 * share the write-behind buffer with the APIs of newly created submodels
+	 */
+	protected MongoDBSubmodelAPIFactory persistedSmApiProvider;
+
 	/**
 	 * Store SubmodelAggregator. By default, uses standard SubmodelAggregator
 	 * 
@@ -226,7 +268,7 @@ public class MongoDBAASAggregator implements IAASAggregator {
 	 */
 	@Deprecated
 	public MongoDBAASAggregator(BaSyxMongoDBConfiguration config, IAASRegistry registry, IAASAPIFactory aasAPIFactory, ISubmodelAggregatorFactory submodelAggregatorFactory) {
-		this(config, registry, aasAPIFactory, submodelAggregatorFactory, MongoClients.create(config.getConnectionUrl()));
+		this(config, registry, aasAPIFactory, submodelAggregatorFactory, MongoDBClientRegistry.getClient(config));
 	}
 
 	/**
@@ -249,6 +291,32 @@ public class MongoDBAASAggregator implements IAASAggregator {
 		init();
 	}
 
+	/**
+	 * Receives a BaSyxMongoDBConfiguration, IAASRegistry, IAASAPIFactory,
+	 * ISubmodelAggregatorFactory, the undecorated MongoDBSubmodelAPIFactory of the
+	 * submodel aggregators and a MongoClient to create a persistent MongoDB
+	 * backend. The submodels that are loaded from the DB use the write-behind
+	 * buffer of the given MongoDBSubmodelAPIFactory.
+	 * 
+	 * @param config
+	 * @param registry
+	 *            the registry or null
+	 * @param aasAPIFactory
+	 * @param submodelAggregatorFactory
+	 * @param submodelAPIFactory
+	 * @param client
+	 * 
+	 */
+	public MongoDBAASAggregator(BaSyxMongoDBConfiguration config, IAASRegistry registry, IAASAPIFactory aasAPIFactory, ISubmodelAggregatorFactory submodelAggregatorFactory, MongoDBSubmodelAPIFactory submodelAPIFactory, MongoClient client) {
+		setMongoDBConfiguration(config, client);
+		this.config = config;
+		this.registry = registry;
+		this.aasApiProvider = aasAPIFactory;
+		this.submodelAggregatorFactory = submodelAggregatorFactory;
+		this.persistedSmApiProvider = submodelAPIFactory;
+		init();
+	}
+
 	/**
 	 * Receives a BaSyxMongoDBConfiguration, IAASAPIFactory and a
 	 * ISubmodelAggregatorFactory to create a persistent MongoDB backend.
@@ -260,7 +328,7 @@ public class MongoDBAASAggregator implements IAASAggregator {
 	 */
 	@Deprecated
 	public MongoDBAASAggregator(BaSyxMongoDBConfiguration config, IAASAPIFactory aasAPIFactory, ISubmodelAggregatorFactory submodelAggregatorFactory) {
-		this(config, aasAPIFactory, submodelAggregatorFactory, MongoClients.create(config.getConnectionUrl()));
+		this(config, aasAPIFactory, submodelAggregatorFactory, MongoDBClientRegistry.getClient(config));
 	}
 
 	/**
@@ -296,7 +364,7 @@ public class MongoDBAASAggregator implements IAASAggregator {
 	public MongoDBAASAggregator(String resourceConfigPath, IAASRegistry registry, IAASAPIFactory aasAPIFactory, ISubmodelAggregatorFactory submodelAggregatorFactory) {
 		config = new BaSyxMongoDBConfiguration();
 		config.loadFromResource(resourceConfigPath);
-		setMongoDBConfiguration(config, MongoClients.create(config.getConnectionUrl()));
+		setMongoDBConfiguration(config, MongoDBClientRegistry.getClient(config));
 		this.registry = registry;
 		this.aasApiProvider = aasAPIFactory;
 		this.submodelAggregatorFactory = submodelAggregatorFactory;
@@ -339,7 +407,7 @@ public class MongoDBAASAggregator implements IAASAggregator {
 	public MongoDBAASAggregator(String resourceConfigPath, IAASAPIFactory aasAPIFactory, ISubmodelAggregatorFactory submodelAggregatorFactory) {
 		config = new BaSyxMongoDBConfiguration();
 		config.loadFromResource(resourceConfigPath);
-		setMongoDBConfiguration(config, MongoClients.create(config.getConnectionUrl()));
+		setMongoDBConfiguration(config, MongoDBClientRegistry.getClient(config));
 		this.aasApiProvider = aasAPIFactory;
 		this.submodelAggregatorFactory = submodelAggregatorFactory;
 		init();
@@ -419,26 +487,24 @@ public class MongoDBAASAggregator implements IAASAggregator {
 	public void setConfiguration(BaSyxMongoDBConfiguration config) {
 		// set mongoDB configuration
 		this.config = config;
-		MongoClient client = MongoClients.create(config.getConnectionUrl());
+		this.client = MongoDBClientRegistry.getClient(config);
 		this.mongoOps = new MongoTemplate(client, config.getDatabase());
 		this.aasCollection = config.getAASCollection();
 		this.smCollection = config.getSubmodelCollection();
 
 		// Create API factories with the given configuration
 		this.aasApiProvider = aas -> {
-			MongoDBAASAPI api = new MongoDBAASAPI(config, aas.getIdentification().getId());
+			MongoDBAASAPI api = new MongoDBAASAPI(config, aas.getIdentification().getId(), client);
 			api.setAAS(aas);
 			return api;
 		};
-		this.smApiProvider = sm -> {
-			MongoDBSubmodelAPI api = new MongoDBSubmodelAPI(config, sm.getIdentification().getId());
-			api.setSubmodel(sm);
-			return api;
-		};
+		this.persistedSmApiProvider = new MongoDBSubmodelAPIFactory(config, client);
+		this.smApiProvider = persistedSmApiProvider;
 	}
 
 	private void setMongoDBConfiguration(BaSyxMongoDBConfiguration config, MongoClient client) {
 		this.config = config;
+		this.client = client;
 		this.mongoOps = new MongoTemplate(client, config.getDatabase());
 		this.aasCollection = config.getAASCollection();
 		this.smCollection = config.getSubmodelCollection();
@@ -450,19 +516,77 @@ public class MongoDBAASAggregator implements IAASAggregator {
 	public void reset() {
 		mongoOps.dropCollection(aasCollection);
 		mongoOps.dropCollection(smCollection);
+		ensureIndexes();
 		aasProviderMap.clear();
+		if (providerCache != null) {
+			providerCache.clear();
+		}
+	}
+
+	/**
+	 * Returns the cache of the AAS providers or null, if lazy providers are not
+	 * enabled
+	 */
+	public AASProviderCache getProviderCache() {
+		return providerCache;
+	}
+
+	/**
+	 * Ensures the indexes for the lookups by identifier and of the submodel ids
+	 * by idShort
+	 */
+	private void ensureIndexes() {
+		MongoDBIndexManager indexManager = new MongoDBIndexManager(config);
+		indexManager.ensureIndexes(mongoOps.getCollection(aasCollection), MongoDBIndex.unique(IDPATH));
+		indexManager.ensureIndexes(mongoOps.getCollection(smCollection), MongoDBIndex.unique(IDPATH), MongoDBIndex.ascending(IDSHORTPATH));
 	}
 
 	private void init() {
-		List<AssetAdministrationShell> data = mongoOps.findAll(AssetAdministrationShell.class, aasCollection);
-		for (AssetAdministrationShell aas : data) {
-			String aasId = aas.getIdentification().getId();
-			logger.info("Adding AAS from DB: " + aasId);
-			MongoDBAASAPI aasApi = new MongoDBAASAPI(config, aasId);
-			MultiSubmodelProvider provider = createMultiSubmodelProvider(aasApi);
-			addSubmodelsFromDB(provider, aas);
-			aasProviderMap.put(aas.getIdentification().getId(), provider);
+		ensureIndexes();
+		resolvePersistedSubmodelAPIFactory();
+
+		if (config.isLazyProvidersEnabled()) {
+			providerCache = new AASProviderCache(config.getProviderCacheSize(), config.getProviderCacheExpiry());
+			logger.info("Lazy AAS providers enabled - providers are created on first access");
+			return;
 		}
+
+		long start = System.currentTimeMillis();
+		long readTime = 0;
+		long resolveTime = 0;
+		long createTime = 0;
+		int aasCount = 0;
+		int smCount = 0;
+
+		ExecutorService executor = Executors.newFixedThreadPool(INIT_THREADS);
+		Query all = new Query().cursorBatchSize(INIT_BATCH_SIZE);
+		try (CloseableIterator<AssetAdministrationShell> cursor = mongoOps.stream(all, AssetAdministrationShell.class, aasCollection)) {
+			while (cursor.hasNext()) {
+				// Read the next batch of shells from the cursor
+				long phaseStart = System.currentTimeMillis();
+				List<AssetAdministrationShell> batch = new ArrayList<>();
+				while (cursor.hasNext() && batch.size() < INIT_BATCH_SIZE) {
+					batch.add(cursor.next());
+				}
+				readTime += System.currentTimeMillis() - phaseStart;
+
+				// Resolve all submodels that are referenced by idShort in a single query
+				phaseStart = System.currentTimeMillis();
+				Map<String, String> idShortToId = getSubmodelIds(batch);
+				resolveTime += System.currentTimeMillis() - phaseStart;
+
+				// Create the providers in parallel
+				phaseStart = System.currentTimeMillis();
+				smCount += createProvidersFromDB(batch, idShortToId, executor);
+				createTime += System.currentTimeMillis() - phaseStart;
+				aasCount += batch.size();
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		logger.info("Loaded " + aasCount + " AAS with " + smCount + " submodels from DB in " + (System.currentTimeMillis() - start) + " ms (reading AAS: " + readTime + " ms, resolving submodel idShorts: " + resolveTime + " ms, creating providers: "
+				+ createTime + " ms)");
 	}
 
 	/**
@@ -487,55 +611,209 @@ public class MongoDBAASAggregator implements IAASAggregator {
 	}
 
 	/**
-	 * Adds submodel providers for submodels in the MongoDB
+	 * Creates the providers for a batch of AAS in parallel and adds them to the
+	 * provider map. Returns the number of added submodels.
+	 */
+	private int createProvidersFromDB(List<AssetAdministrationShell> batch, Map<String, String> idShortToId, ExecutorService executor) {
+		List<Future<Integer>> futures = new ArrayList<>();
+		Map<String, MultiSubmodelProvider> created = new ConcurrentHashMap<>();
+		for (AssetAdministrationShell aas : batch) {
+			futures.add(executor.submit(() -> {
+				String aasId = aas.getIdentification().getId();
+				logger.debug("Adding AAS from DB: " + aasId);
+				MongoDBAASAPI aasApi = new MongoDBAASAPI(config, aasId, client);
+				MultiSubmodelProvider provider = createMultiSubmodelProvider(aasApi);
+				int added = addSubmodelsFromDB(provider, aas, idShortToId);
+				created.put(aasId, provider);
+				return added;
+			}));
+		}
+
+		int smCount = 0;
+		for (Future<Integer> future : futures) {
+			smCount += waitFor(future);
+		}
+		aasProviderMap.putAll(created);
+		return smCount;
+	}
+
+	/**
+	 * Creates the provider for an AAS in the DB or returns null, if there is no
+	 * such AAS
 	 */
-	private void addSubmodelsFromDB(MultiSubmodelProvider provider, AssetAdministrationShell aas) {
+	private MultiSubmodelProvider loadProviderFromDB(String aasId) {
+		Query hasId = query(where(IDPATH).is(aasId));
+		AssetAdministrationShell aas = mongoOps.findOne(hasId, AssetAdministrationShell.class, aasCollection);
+		if (aas == null) {
+			return null;
+		}
+
+		logger.debug("Creating provider for AAS from DB: " + aasId);
+		MultiSubmodelProvider provider = createMultiSubmodelProvider(new MongoDBAASAPI(config, aasId, client));
+		addSubmodelsFromDB(provider, aas, getSubmodelIds(Collections.singletonList(aas)));
+		return provider;
+	}
+
+	private MultiSubmodelProvider findProvider(String aasId) {
+		if (providerCache == null) {
+			return aasProviderMap.get(aasId);
+		}
+
+		MultiSubmodelProvider provider = providerCache.get(aasId);
+		if (provider != null) {
+			return provider;
+		}
+
+		// Create the provider only once, even if it is requested concurrently
+		Lock lock = aasLocks.get(aasId);
+		lock.lock();
+		try {
+			provider = providerCache.peek(aasId);
+			if (provider == null) {
+				provider = loadProviderFromDB(aasId);
+				if (provider != null) {
+					providerCache.put(aasId, provider);
+				}
+			}
+			return provider;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void putProvider(String aasId, MultiSubmodelProvider provider) {
+		if (providerCache == null) {
+			aasProviderMap.put(aasId, provider);
+		} else {
+			providerCache.put(aasId, provider);
+		}
+	}
+
+	private void removeProvider(String aasId) {
+		aasProviderMap.remove(aasId);
+		if (providerCache != null) {
+			providerCache.remove(aasId);
+		}
+	}
+
+	private int waitFor(Future<Integer> future) {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Interrupted while loading AAS from DB", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new RuntimeException("Could not load AAS from DB", e.getCause());
+		}
+	}
+
+	/**
+	 * Adds submodel providers for submodels in the MongoDB. Returns the number of
+	 * added submodels.
+	 */
+	private int addSubmodelsFromDB(MultiSubmodelProvider provider, AssetAdministrationShell aas, Map<String, String> idShortToId) {
 		// Get ids and idShorts from aas
-		Collection<IReference> submodelRefs = aas.getSubmodelReferences();
 		List<String> smIds = new ArrayList<>();
-		List<String> smIdShorts = new ArrayList<>();
-		for (IReference ref : submodelRefs) {
-			List<IKey> keys = ref.getKeys();
-			IKey lastKey = keys.get(keys.size() - 1);
+		for (IKey lastKey : getLastKeys(aas)) {
 			if (lastKey.getIdType() == KeyType.IDSHORT) {
-				smIdShorts.add(lastKey.getValue());
+				// Add submodel ids by id shorts
+				String id = idShortToId.get(lastKey.getValue());
+				if (id != null) {
+					smIds.add(id);
+				}
 			} else {
 				smIds.add(lastKey.getValue());
 			}
 		}
 
-		// Add submodel ids by id shorts
-		for (String idShort : smIdShorts) {
-			String id = getSubmodelId(idShort);
-			if (id != null) {
-				smIds.add(id);
-			}
-		}
-
 		// Create a provider for each submodel
 		for (String id : smIds) {
-			logger.info("Adding Submodel from DB: " + id);
+			logger.debug("Adding Submodel from DB: " + id);
 			addSubmodelProvidersById(id, provider);
 		}
+		return smIds.size();
+	}
+
+	/**
+	 * Returns the submodel ids for all submodels that are referenced by idShort in
+	 * the given AAS
+	 */
+	private Map<String, String> getSubmodelIds(List<AssetAdministrationShell> shells) {
+		Set<String> idShorts = new HashSet<>();
+		for (AssetAdministrationShell aas : shells) {
+			for (IKey lastKey : getLastKeys(aas)) {
+				if (lastKey.getIdType() == KeyType.IDSHORT) {
+					idShorts.add(lastKey.getValue());
+				}
+			}
+		}
+
+		Map<String, String> idShortToId = new HashMap<>();
+		if (idShorts.isEmpty()) {
+			return idShortToId;
+		}
+
+		Query hasIdShort = query(where(IDSHORTPATH).in(idShorts));
+		hasIdShort.fields().include(IDSHORTPATH).include(IDPATH);
+		for (Document sm : mongoOps.find(hasIdShort, Document.class, smCollection)) {
+			Document identification = sm.get(Identifiable.IDENTIFICATION, Document.class);
+			if (identification != null) {
+				idShortToId.putIfAbsent(sm.getString(IDSHORTPATH), identification.getString(Identifier.ID));
+			}
+		}
+		return idShortToId;
 	}
 
-	private String getSubmodelId(String idShort) {
-		Submodel sm = mongoOps.findOne(query(where(IDSHORTPATH).is(idShort)), Submodel.class);
-		if (sm != null) {
-			return sm.getIdentification().getId();
+	private List<IKey> getLastKeys(AssetAdministrationShell aas) {
+		Collection<IReference> submodelRefs = aas.getSubmodelReferences();
+		List<IKey> lastKeys = new ArrayList<>();
+		for (IReference ref : submodelRefs) {
+			List<IKey> keys = ref.getKeys();
+			lastKeys.add(keys.get(keys.size() - 1));
+		}
+		return lastKeys;
+	}
+
+	/**
+	 * Uses the MongoDBSubmodelAPIFactory of the submodel aggregators for the
+	 * submodels loaded from the DB, if it has not been passed explicitly
+	 */
+	private void resolvePersistedSubmodelAPIFactory() {
+		if (persistedSmApiProvider == null && submodelAggregatorFactory instanceof MongoDBSubmodelAggregatorFactory) {
+			ISubmodelAPIFactory factory = ((MongoDBSubmodelAggregatorFactory) submodelAggregatorFactory).getSubmodelAPIFactory();
+			if (factory instanceof MongoDBSubmodelAPIFactory) {
+				persistedSmApiProvider = (MongoDBSubmodelAPIFactory) factory;
+			}
+		}
+
+		if (persistedSmApiProvider == null && config.isWriteBehindEnabled()) {
+			logger.warn("Write-behind is enabled, but the MongoDBSubmodelAPIFactory is unknown - updates of submodels loaded from the DB are written directly");
 		}
-		return null;
 	}
 
 	private void addSubmodelProvidersById(String smId, MultiSubmodelProvider provider) {
-		ISubmodelAPI smApi = new MongoDBSubmodelAPI(config, smId);
+		ISubmodelAPI smApi = createPersistedSubmodelAPI(smId);
 		SubmodelProvider smProvider = new SubmodelProvider(smApi);
 		provider.addSubmodel(smProvider);
 	}
 
+	private ISubmodelAPI createPersistedSubmodelAPI(String smId) {
+		if (persistedSmApiProvider == null) {
+			return new MongoDBSubmodelAPI(config, smId, client);
+		}
+		return persistedSmApiProvider.getSubmodelAPI(smId);
+	}
+
 	@SuppressWarnings("unchecked")
 	@Override
 	public Collection<IAssetAdministrationShell> getAASList() {
+		if (providerCache != null) {
+			return getAASListFromDB();
+		}
+
 		return aasProviderMap.values().stream().map(p -> {
 			try {
 				return p.getValue("/aas");
@@ -550,6 +828,54 @@ public class MongoDBAASAggregator implements IAASAggregator {
 		}).collect(Collectors.toList());
 	}
 
+	/**
+	 * Reads all AAS directly from the DB without creating their providers
+	 */
+	private Collection<IAssetAdministrationShell> getAASListFromDB() {
+		List<IAssetAdministrationShell> shells = new ArrayList<>();
+		streamAASList(null, 0, shells::add);
+		return shells;
+	}
+
+	/**
+	 * Streams the AAS from a cursor over the collection, ordered by their MongoDB
+	 * _id. The continuation token is the _id of the last AAS of the previous page.
+	 */
+	@Override
+	public String streamAASList(String continuationToken, int limit, Consumer<IAssetAdministrationShell> consumer) {
+		Query page = new Query().with(Sort.by(MONGO_ID)).cursorBatchSize(INIT_BATCH_SIZE);
+		if (continuationToken != null) {
+			page.addCriteria(where(MONGO_ID).gt(parseContinuationToken(continuationToken)));
+		}
+		if (limit > 0) {
+			// Read one additional AAS to know whether there is a next page
+			page.limit(limit + 1);
+		}
+
+		int count = 0;
+		Object lastId = null;
+		try (CloseableIterator<AssetAdministrationShell> cursor = mongoOps.stream(page, AssetAdministrationShell.class, aasCollection)) {
+			while (cursor.hasNext()) {
+				AssetAdministrationShell aas = cursor.next();
+				if (limit > 0 && count == limit) {
+					return lastId.toString();
+				}
+				// Remove mongoDB-specific map attribute
+				lastId = aas.remove(MONGO_ID);
+				consumer.accept(aas);
+				count++;
+			}
+		}
+		return null;
+	}
+
+	private ObjectId parseContinuationToken(String continuationToken) {
+		if (!ObjectId.isValid(continuationToken)) {
+			throw new MalformedRequestException("Invalid continuation token '" + continuationToken + "'");
+		}
+		return new ObjectId(continuationToken);
+	}
+
 	@SuppressWarnings("unchecked")
 	@Override
 	public IAssetAdministrationShell getAAS(IIdentifier aasId) {
@@ -562,37 +888,55 @@ public class MongoDBAASAggregator implements IAASAggregator {
 
 	@Override
 	public void createAAS(AssetAdministrationShell aas) {
-		IAASAPI aasApi = this.aasApiProvider.create(aas);
-		MultiSubmodelProvider provider = createMultiSubmodelProvider(aasApi);
-		aasProviderMap.put(aas.getIdentification().getId(), provider);
+		Lock lock = aasLocks.get(aas.getIdentification().getId());
+		lock.lock();
+		try {
+			IAASAPI aasApi = this.aasApiProvider.create(aas);
+			MultiSubmodelProvider provider = createMultiSubmodelProvider(aasApi);
+			putProvider(aas.getIdentification().getId(), provider);
+		} finally {
+			lock.unlock();
+		}
 	}
 
 	@Override
 	public void updateAAS(AssetAdministrationShell aas) {
-		MultiSubmodelProvider oldProvider = (MultiSubmodelProvider) getAASProvider(aas.getIdentification());
-		IAASAPI aasApi = aasApiProvider.create(aas);
-		AASModelProvider contentProvider = new AASModelProvider(aasApi);
-		IConnectorFactory connectorFactory = oldProvider.getConnectorFactory();
-
-		MultiSubmodelProvider updatedProvider = new MultiSubmodelProvider(contentProvider, registry, connectorFactory, aasApiProvider, oldProvider.getSmAggregator());
-
-		aasProviderMap.put(aas.getIdentification().getId(), updatedProvider);
+		Lock lock = aasLocks.get(aas.getIdentification().getId());
+		lock.lock();
+		try {
+			MultiSubmodelProvider oldProvider = (MultiSubmodelProvider) getAASProvider(aas.getIdentification());
+			IAASAPI aasApi = aasApiProvider.create(aas);
+			AASModelProvider contentProvider = new AASModelProvider(aasApi);
+			IConnectorFactory connectorFactory = oldProvider.getConnectorFactory();
+
+			MultiSubmodelProvider updatedProvider = new MultiSubmodelProvider(contentProvider, registry, connectorFactory, aasApiProvider, oldProvider.getSmAggregator());
+
+			putProvider(aas.getIdentification().getId(), updatedProvider);
+		} finally {
+			lock.unlock();
+		}
 	}
 
 	@Override
 	public void deleteAAS(IIdentifier aasId) {
-		Query hasId = query(where(IDPATH).is(aasId.getId()));
-		mongoOps.remove(hasId, aasCollection);
-		aasProviderMap.remove(aasId.getId());
+		Lock lock = aasLocks.get(aasId.getId());
+		lock.lock();
+		try {
+			Query hasId = query(where(IDPATH).is(aasId.getId()));
+			mongoOps.remove(hasId, aasCollection);
+			removeProvider(aasId.getId());
+		} finally {
+			lock.unlock();
+		}
 	}
 
 	public MultiSubmodelProvider getProviderForAASId(String aasId) {
-		return aasProviderMap.get(aasId);
+		return findProvider(aasId);
 	}
 
 	@Override
 	public IModelProvider getAASProvider(IIdentifier aasId) {
-		MultiSubmodelProvider provider = aasProviderMap.get(aasId.getId());
+		MultiSubmodelProvider provider = findProvider(aasId.getId());
 
 		if (provider == null) {
 			throw new ResourceNotFoundException("AAS with Id " + aasId.getId() + " does not exist");
@@ -30,9 +30,9 @@ import org.eclipse.basyx.aas.registration.api.IAASRegistry;
 import org.eclipse.basyx.aas.restapi.api.IAASAPIFactory;
 import org.eclipse.basyx.components.configuration.BaSyxMongoDBConfiguration;
 import org.eclipse.basyx.submodel.aggregator.api.ISubmodelAggregatorFactory;
+import org.eclipse.basyx.tools.mongodb.MongoDBClientRegistry;
 
 import com.mongodb.client.MongoClient;
-import com.mongodb.client.MongoClients;
 
 /**
  * 
@@ -47,17 +47,18 @@ public class MongoDBAASAggregatorFactory implements IAASAggregatorFactory {
 	private IAASRegistry registry;
 	private IAASAPIFactory aasAPIFactory;
 	private ISubmodelAggregatorFactory submodelAggregatorFactory;
+	private MongoDBSubmodelAPIFactory submodelAPIFactory;
 	private String resourceConfigPath;
 	private MongoClient client;
 
 	@Deprecated
 	public MongoDBAASAggregatorFactory(BaSyxMongoDBConfiguration config, IAASRegistry registry, IAASAPIFactory aasAPIFactory, ISubmodelAggregatorFactory submodelAggregatorFactory) {
-		this(config, registry, aasAPIFactory, submodelAggregatorFactory, MongoClients.create(config.getConnectionUrl()));
+		this(config, registry, aasAPIFactory, submodelAggregatorFactory, MongoDBClientRegistry.getClient(config));
 	}
 
 	@Deprecated
 	public MongoDBAASAggregatorFactory(BaSyxMongoDBConfiguration config, IAASAPIFactory aasAPIFactory, ISubmodelAggregatorFactory submodelAggregatorFactory) {
-		this(config, aasAPIFactory, submodelAggregatorFactory, MongoClients.create(config.getConnectionUrl()));
+		this(config, aasAPIFactory, submodelAggregatorFactory, MongoDBClientRegistry.getClient(config));
 	}
 
 	@Deprecated
@@ -66,7 +67,7 @@ public class MongoDBAASAggregatorFactory implements IAASAggregatorFactory {
 		this.registry = registry;
 		this.aasAPIFactory = aasAPIFactory;
 		this.submodelAggregatorFactory = submodelAggregatorFactory;
-		this.client = MongoClients.create(config.getConnectionUrl());
+		this.client = MongoDBClientRegistry.getClient(config);
 	}
 
 	@Deprecated
@@ -74,7 +75,7 @@ public class MongoDBAASAggregatorFactory implements IAASAggregatorFactory {
 		this.resourceConfigPath = resourceConfigPath;
 		this.aasAPIFactory = aasAPIFactory;
 		this.submodelAggregatorFactory = submodelAggregatorFactory;
-		this.client = MongoClients.create(config.getConnectionUrl());
+		this.client = MongoDBClientRegistry.getClient(config);
 	}
 
 	@Deprecated
@@ -90,6 +91,15 @@ public class MongoDBAASAggregatorFactory implements IAASAggregatorFactory {
 		this.client = client;
 	}
 
+	/**
+	 * The submodels loaded from the DB by the created aggregators use the given,
+	 * undecorated submodelAPIFactory, so that they share its write-behind buffer
+	 */
+	public MongoDBAASAggregatorFactory(BaSyxMongoDBConfiguration config, IAASRegistry registry, IAASAPIFactory aasAPIFactory, ISubmodelAggregatorFactory submodelAggregatorFactory, MongoDBSubmodelAPIFactory submodelAPIFactory, MongoClient client) {
+		this(config, registry, aasAPIFactory, submodelAggregatorFactory, client);
+		this.submodelAPIFactory = submodelAPIFactory;
+	}
+
 	public MongoDBAASAggregatorFactory(BaSyxMongoDBConfiguration config, IAASAPIFactory aasAPIFactory, ISubmodelAggregatorFactory submodelAggregatorFactory, MongoClient client) {
 		this.config = config;
 		this.aasAPIFactory = aasAPIFactory;
@@ -118,7 +128,9 @@ public class MongoDBAASAggregatorFactory implements IAASAggregatorFactory {
 
 	@Override
 	public IAASAggregator create() {
-		if (this.config != null && this.registry != null) {
+		if (this.config != null && this.submodelAPIFactory != null) {
+			return new MongoDBAASAggregator(this.config, this.registry, this.aasAPIFactory, this.submodelAggregatorFactory, this.submodelAPIFactory, this.client);
+		} else if (this.config != null && this.registry != null) {
 			return new MongoDBAASAggregator(this.config, this.registry, this.aasAPIFactory, this.submodelAggregatorFactory, this.client);
 		} else if (this.config != null) {
 			return new MongoDBAASAggregator(this.config, this.aasAPIFactory, this.submodelAggregatorFactory, this.client);
@@ -27,21 +27,31 @@ package org.eclipse.basyx.components.aas.mongodb;
 import static org.springframework.data.mongodb.core.query.Criteria.where;
 import static org.springframework.data.mongodb.core.query.Query.query;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
 
+import org.bson.Document;
 import org.eclipse.basyx.components.configuration.BaSyxMongoDBConfiguration;
 import org.eclipse.basyx.submodel.metamodel.api.ISubmodel;
 import org.eclipse.basyx.submodel.metamodel.api.submodelelement.ISubmodelElement;
 import org.eclipse.basyx.submodel.metamodel.api.submodelelement.operation.IOperation;
 import org.eclipse.basyx.submodel.metamodel.facade.submodelelement.SubmodelElementFacadeFactory;
 import org.eclipse.basyx.submodel.metamodel.map.Submodel;
+import org.eclipse.basyx.submodel.metamodel.api.reference.IReference;
+import org.eclipse.basyx.submodel.metamodel.api.reference.enums.KeyElements;
 import org.eclipse.basyx.submodel.metamodel.map.identifier.Identifier;
+import org.eclipse.basyx.submodel.metamodel.map.modeltype.ModelType;
 import org.eclipse.basyx.submodel.metamodel.map.qualifier.Identifiable;
+import org.eclipse.basyx.submodel.metamodel.map.qualifier.Referable;
 import org.eclipse.basyx.submodel.metamodel.map.submodelelement.SubmodelElement;
 import org.eclipse.basyx.submodel.metamodel.map.submodelelement.SubmodelElementCollection;
 import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.Property;
@@ -49,18 +59,23 @@ import org.eclipse.basyx.submodel.metamodel.map.submodelelement.operation.Operat
 import org.eclipse.basyx.submodel.restapi.SubmodelElementProvider;
 import org.eclipse.basyx.submodel.restapi.api.ISubmodelAPI;
 import org.eclipse.basyx.submodel.restapi.operation.DelegatedInvocationManager;
+import org.eclipse.basyx.tools.mongodb.MongoDBClientRegistry;
 import org.eclipse.basyx.vab.exception.provider.MalformedRequestException;
+import org.eclipse.basyx.vab.exception.provider.ProviderException;
 import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
 import org.eclipse.basyx.vab.modelprovider.VABPathTools;
 import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
 import org.eclipse.basyx.vab.modelprovider.map.VABMapProvider;
 import org.eclipse.basyx.vab.protocol.http.connector.HTTPConnectorFactory;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.mongodb.core.MongoOperations;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 
 import com.mongodb.client.MongoClient;
-import com.mongodb.client.MongoClients;
+import com.mongodb.client.result.UpdateResult;
 
 /**
  * Implements the ISubmodelAPI for a mongoDB backend.
@@ -70,6 +85,10 @@ import com.mongodb.client.MongoClients;
 public class MongoDBSubmodelAPI implements ISubmodelAPI {
 	private static final String DEFAULT_CONFIG_PATH = "mongodb.properties";
 	public static final String SMIDPATH = Identifiable.IDENTIFICATION + "." + Identifier.ID;
+	// Incremented on each write, so that concurrent modifications can be detected
+	public static final String VERSION = "_version";
+
+	private static final MongoDBWriteStatistics writeStatistics = new MongoDBWriteStatistics();
 
 	protected DelegatedInvocationManager invocationHelper;
 
@@ -77,6 +96,9 @@ public class MongoDBSubmodelAPI implements ISubmodelAPI {
 	protected MongoOperations mongoOps;
 	protected String collection;
 	protected String smId;
+	protected boolean partialUpdates;
+	protected int writeRetries;
+	protected long writeRetryBackoff;
 	private MongoClient client;
 
 	/**
@@ -101,7 +123,7 @@ public class MongoDBSubmodelAPI implements ISubmodelAPI {
 
 	@Deprecated
 	public MongoDBSubmodelAPI(BaSyxMongoDBConfiguration config, String smId, DelegatedInvocationManager invocationHelper) {
-		this(config, smId, invocationHelper, MongoClients.create(config.getConnectionUrl()));
+		this(config, smId, invocationHelper, MongoDBClientRegistry.getClient(config));
 	}
 
 	public MongoDBSubmodelAPI(BaSyxMongoDBConfiguration config, String smId, DelegatedInvocationManager invocationHelper, MongoClient client) {
@@ -132,7 +154,7 @@ public class MongoDBSubmodelAPI implements ISubmodelAPI {
 	public MongoDBSubmodelAPI(String resourceConfigPath, String smId, DelegatedInvocationManager invocationHelper) {
 		config = new BaSyxMongoDBConfiguration();
 		config.loadFromResource(resourceConfigPath);
-		this.client = MongoClients.create(config.getConnectionUrl());
+		this.client = MongoDBClientRegistry.getClient(config);
 		this.setConfiguration(config);
 		this.setSubmodelId(smId);
 		this.invocationHelper = invocationHelper;
@@ -182,6 +204,16 @@ public class MongoDBSubmodelAPI implements ISubmodelAPI {
 		this.config = config;
 		this.mongoOps = new MongoTemplate(client, config.getDatabase());
 		this.collection = config.getSubmodelCollection();
+		this.partialUpdates = config.isPartialUpdatesEnabled();
+		this.writeRetries = config.getWriteRetries();
+		this.writeRetryBackoff = config.getWriteRetryBackoff();
+	}
+
+	/**
+	 * Returns the statistics of the conditional writes of all submodel APIs
+	 */
+	public static MongoDBWriteStatistics getWriteStatistics() {
+		return writeStatistics;
 	}
 
 	/**
@@ -194,6 +226,10 @@ public class MongoDBSubmodelAPI implements ISubmodelAPI {
 		this.smId = smId;
 	}
 
+	public String getSubmodelId() {
+		return smId;
+	}
+
 	/**
 	 * Depending on whether the model is already in the db, this method inserts or
 	 * replaces the existing data. The new submodel id for this API is taken from
@@ -205,18 +241,29 @@ public class MongoDBSubmodelAPI implements ISubmodelAPI {
 		String id = sm.getIdentification().getId();
 		this.setSubmodelId(id);
 
-		Query hasId = query(where(SMIDPATH).is(smId));
-		Object replaced = mongoOps.findAndReplace(hasId, sm, collection);
-		if (replaced == null) {
-			mongoOps.insert(sm, collection);
+		for (int attempt = 0;; attempt++) {
+			Query hasId = query(where(SMIDPATH).is(smId));
+			hasId.fields().include(VERSION);
+			Document current = mongoOps.findOne(hasId, Document.class, collection);
+			if (current == null ? insert(sm) : replaceIfUnchanged(sm, current.get(VERSION))) {
+				return;
+			}
+			handleConflict(attempt);
 		}
-
-		sm.remove("_id");
 	}
 
-	@SuppressWarnings("unchecked")
 	@Override
 	public ISubmodel getSubmodel() {
+		Submodel result = findSubmodel();
+		result.remove(VERSION);
+		return result;
+	}
+
+	/**
+	 * Reads the submodel including its version
+	 */
+	@SuppressWarnings("unchecked")
+	private Submodel findSubmodel() {
 		// Query Submodel from MongoDB
 		Query hasId = query(where(SMIDPATH).is(smId));
 		Submodel result = mongoOps.findOne(hasId, Submodel.class, collection);
@@ -243,18 +290,110 @@ public class MongoDBSubmodelAPI implements ISubmodelAPI {
 		return result;
 	}
 
+	/**
+	 * Reads the submodel, applies the modification and writes the submodel back,
+	 * if it has not been modified concurrently. Otherwise, the modification is
+	 * applied again to the current submodel after a backoff. This way, concurrent
+	 * writers of the same submodel do not overwrite each other's changes.
+	 * 
+	 * @param modification
+	 *            modifies the given submodel and returns false, if there is
+	 *            nothing to write
+	 */
+	private void modifySubmodel(Predicate<Submodel> modification) {
+		for (int attempt = 0;; attempt++) {
+			Submodel sm = findSubmodel();
+			Object version = sm.remove(VERSION);
+			if (!modification.test(sm) || replaceIfUnchanged(sm, version)) {
+				return;
+			}
+			handleConflict(attempt);
+		}
+	}
+
+	/**
+	 * Replaces the submodel in the db, if its version is still the given version
+	 */
+	private boolean replaceIfUnchanged(Submodel sm, Object version) {
+		Criteria unchanged = where(SMIDPATH).is(smId);
+		if (version == null) {
+			// Submodels written before versioning was introduced
+			unchanged.and(VERSION).exists(false);
+		} else {
+			unchanged.and(VERSION).is(version);
+		}
+
+		sm.put(VERSION, version == null ? 1L : ((Number) version).longValue() + 1);
+		try {
+			boolean replaced = mongoOps.findAndReplace(query(unchanged), sm, collection) != null;
+			if (replaced) {
+				writeStatistics.recordWrite();
+			}
+			return replaced;
+		} finally {
+			sm.remove(VERSION);
+		}
+	}
+
+	/**
+	 * Inserts a new submodel. Fails, if the submodel has been inserted
+	 * concurrently and the identifiers are indexed as unique.
+	 */
+	private boolean insert(Submodel sm) {
+		sm.put(VERSION, 1L);
+		try {
+			mongoOps.insert(sm, collection);
+			writeStatistics.recordWrite();
+			return true;
+		} catch (DuplicateKeyException e) {
+			return false;
+		} finally {
+			sm.remove(VERSION);
+			sm.remove("_id");
+		}
+	}
+
+	/**
+	 * Waits with an exponential backoff before a conflicting write is retried
+	 */
+	private void handleConflict(int attempt) {
+		writeStatistics.recordConflict();
+		if (attempt >= writeRetries) {
+			writeStatistics.recordFailure();
+			throw new ProviderException("The submodel " + smId + " could not be written after " + attempt + " retries due to concurrent modifications");
+		}
+
+		long maxBackoff = writeRetryBackoff << Math.min(attempt, 10);
+		if (maxBackoff > 0) {
+			try {
+				// Jitter spreads the retries of writers that conflicted at the same time
+				Thread.sleep(ThreadLocalRandom.current().nextLong(maxBackoff / 2, maxBackoff + 1));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new ProviderException("Interrupted while writing the submodel " + smId);
+			}
+		}
+		writeStatistics.recordRetry();
+	}
+
 	@Override
 	public void addSubmodelElement(ISubmodelElement elem) {
-		// Get sm from db
-		Submodel sm = (Submodel) getSubmodel();
-		// Add element
-		sm.addSubmodelElement(elem);
-		// Replace db entry
-		Query hasId = query(where(SMIDPATH).is(smId));
-		mongoOps.findAndReplace(hasId, sm, collection);
+		if (isPartialUpdate(Collections.singletonList(elem.getIdShort()))) {
+			addSubmodelElementPartially(Collections.emptyList(), elem);
+			return;
+		}
+
+		modifySubmodel(sm -> {
+			sm.addSubmodelElement(elem);
+			return true;
+		});
 	}
 
 	private ISubmodelElement getTopLevelSubmodelElement(String idShort) {
+		if (isFieldPath(Collections.singletonList(idShort))) {
+			return convertSubmodelElement(findElementMap(Collections.singletonList(idShort)));
+		}
+
 		Submodel sm = (Submodel) getSubmodel();
 		Map<String, ISubmodelElement> submodelElements = sm.getSubmodelElements();
 		ISubmodelElement element = submodelElements.get(idShort);
@@ -266,21 +405,27 @@ public class MongoDBSubmodelAPI implements ISubmodelAPI {
 
 	@SuppressWarnings("unchecked")
 	private ISubmodelElement convertSubmodelElement(ISubmodelElement element) {
+		return convertSubmodelElement((Map<String, Object>) element);
+	}
+
+	@SuppressWarnings("unchecked")
+	private ISubmodelElement convertSubmodelElement(Map<String, Object> elementMap) {
 		// FIXME: Convert internal data structure of ISubmodelElement
-		Map<String, Object> elementMap = (Map<String, Object>) element;
 		IModelProvider elementProvider = new SubmodelElementProvider(new VABMapProvider(elementMap));
 		Object elementVABObj = elementProvider.getValue("");
 		return SubmodelElement.createAsFacade((Map<String, Object>) elementVABObj);
 	}
 
 	private void deleteTopLevelSubmodelElement(String idShort) {
-		// Get sm from db
-		Submodel sm = (Submodel) getSubmodel();
-		// Remove element
-		sm.getSubmodelElements().remove(idShort);
-		// Replace db entry
-		Query hasId = query(where(SMIDPATH).is(smId));
-		mongoOps.findAndReplace(hasId, sm, collection);
+		if (isPartialUpdate(Collections.singletonList(idShort))) {
+			deleteSubmodelElementPartially(Collections.singletonList(idShort));
+			return;
+		}
+
+		modifySubmodel(sm -> {
+			sm.getSubmodelElements().remove(idShort);
+			return true;
+		});
 	}
 
 	@Override
@@ -290,25 +435,26 @@ public class MongoDBSubmodelAPI implements ISubmodelAPI {
 	}
 
 	private void addNestedSubmodelElement(List<String> idShorts, ISubmodelElement elem) {
-		Submodel sm = (Submodel) getSubmodel();
-		// > 1 idShorts => add new sm element to an existing sm element
-		if (idShorts.size() > 1) {
-			idShorts = idShorts.subList(0, idShorts.size() - 1);
-			// Get parent SM element if more than 1 idShort
-			ISubmodelElement parentElement = getNestedSubmodelElement(sm, idShorts);
-			if (parentElement instanceof SubmodelElementCollection) {
+		if (isPartialUpdate(idShorts)) {
+			addSubmodelElementPartially(idShorts.subList(0, idShorts.size() - 1), elem);
+			return;
+		}
+
+		modifySubmodel(sm -> {
+			// > 1 idShorts => add new sm element to an existing sm element
+			if (idShorts.size() > 1) {
+				// Get parent SM element if more than 1 idShort
+				ISubmodelElement parentElement = getNestedSubmodelElement(sm, idShorts.subList(0, idShorts.size() - 1));
+				if (!(parentElement instanceof SubmodelElementCollection)) {
+					throw new ResourceNotFoundException(idShorts.get(idShorts.size() - 2) + " in the nested submodel element path could not be resolved.");
+				}
 				((SubmodelElementCollection) parentElement).addSubmodelElement(elem);
-				// Replace db entry
-				Query hasId = query(where(SMIDPATH).is(smId));
-				mongoOps.findAndReplace(hasId, sm, collection);
+			} else {
+				// else => directly add it to the submodel
+				sm.addSubmodelElement(elem);
 			}
-		} else {
-			// else => directly add it to the submodel
-			sm.addSubmodelElement(elem);
-			// Replace db entry
-			Query hasId = query(where(SMIDPATH).is(smId));
-			mongoOps.findAndReplace(hasId, sm, collection);
-		}
+			return true;
+		});
 	}
 
 	@Override
@@ -318,41 +464,56 @@ public class MongoDBSubmodelAPI implements ISubmodelAPI {
 	}
 
 	private void updateTopLevelSubmodelElement(String idShort, Object newValue) {
-		// Get sm from db
-		Submodel sm = (Submodel) getSubmodel();
 		// Unwrap value
 		newValue = unwrapParameter(newValue);
-		// Get and update property value
-		getElementProvider(sm, idShort).setValue(Property.VALUE, newValue);
-		// Replace db entry
-		Query hasId = query(where(SMIDPATH).is(smId));
-		mongoOps.findAndReplace(hasId, sm, collection);
+
+		if (isPartialUpdate(Collections.singletonList(idShort))) {
+			updateSubmodelElementPartially(Collections.singletonList(idShort), newValue);
+			return;
+		}
+
+		Object value = newValue;
+		modifySubmodel(sm -> {
+			// Get and update property value
+			getElementProvider(sm, idShort).setValue(Property.VALUE, value);
+			return true;
+		});
 	}
 
 	@SuppressWarnings("unchecked")
 	private void updateNestedSubmodelElement(List<String> idShorts, Object newValue) {
-		Submodel sm = (Submodel) getSubmodel();
-
-		// Get parent SM element
-		ISubmodelElement element = getNestedSubmodelElement(sm, idShorts);
+		if (isPartialUpdate(idShorts)) {
+			updateSubmodelElementPartially(idShorts, newValue);
+			return;
+		}
 
-		// Update value
-		IModelProvider mapProvider = new VABMapProvider((Map<String, Object>) element);
-		IModelProvider elemProvider = SubmodelElementProvider.getElementProvider(mapProvider);
-		elemProvider.setValue(Property.VALUE, newValue);
+		modifySubmodel(sm -> {
+			// Get parent SM element
+			ISubmodelElement element = getNestedSubmodelElement(sm, idShorts);
 
-		// Replace db entry
-		Query hasId = query(where(SMIDPATH).is(smId));
-		mongoOps.findAndReplace(hasId, sm, collection);
+			// Update value
+			IModelProvider mapProvider = new VABMapProvider((Map<String, Object>) element);
+			IModelProvider elemProvider = SubmodelElementProvider.getElementProvider(mapProvider);
+			elemProvider.setValue(Property.VALUE, newValue);
+			return true;
+		});
 	}
 
 	private Object getTopLevelSubmodelElementValue(String idShort) {
+		if (isFieldPath(Collections.singletonList(idShort))) {
+			return getElementValue(findElementMap(Collections.singletonList(idShort)));
+		}
+
 		Submodel sm = (Submodel) getSubmodel();
 		return getElementProvider(sm, idShort).getValue("/value");
 	}
 
 	@SuppressWarnings("unchecked")
 	private Object getNestedSubmodelElementValue(List<String> idShorts) {
+		if (isFieldPath(idShorts)) {
+			return getElementValue(findElementMap(idShorts));
+		}
+
 		ISubmodelElement lastElement = getNestedSubmodelElement(idShorts);
 		IModelProvider mapProvider = new VABMapProvider((Map<String, Object>) lastElement);
 		return SubmodelElementProvider.getElementProvider(mapProvider).getValue("/value");
@@ -398,7 +559,17 @@ public class MongoDBSubmodelAPI implements ISubmodelAPI {
 		return elemMap.get(lastIdShort);
 	}
 
+	private Object getElementValue(Map<String, Object> elementMap) {
+		IModelProvider mapProvider = new VABMapProvider(elementMap);
+		return SubmodelElementProvider.getElementProvider(mapProvider).getValue("/value");
+	}
+
 	private ISubmodelElement getNestedSubmodelElement(List<String> idShorts) {
+		if (isFieldPath(idShorts)) {
+			// Only the element is loaded and converted
+			return convertSubmodelElement(findElementMap(idShorts));
+		}
+
 		// Get sm from db
 		Submodel sm = (Submodel) getSubmodel();
 		// Get nested sm element from this sm
@@ -411,17 +582,211 @@ public class MongoDBSubmodelAPI implements ISubmodelAPI {
 			return;
 		}
 
-		// Get sm from db
-		Submodel sm = (Submodel) getSubmodel();
-		// Get parent collection
-		List<String> parentIds = idShorts.subList(0, idShorts.size() - 1);
-		ISubmodelElement parentElement = getNestedSubmodelElement(sm, parentIds);
-		// Remove element
-		SubmodelElementCollection coll = (SubmodelElementCollection) parentElement;
-		coll.deleteSubmodelElement(idShorts.get(idShorts.size() - 1));
-		// Replace db entry
+		if (isPartialUpdate(idShorts)) {
+			deleteSubmodelElementPartially(idShorts);
+			return;
+		}
+
+		modifySubmodel(sm -> {
+			// Get parent collection
+			List<String> parentIds = idShorts.subList(0, idShorts.size() - 1);
+			ISubmodelElement parentElement = getNestedSubmodelElement(sm, parentIds);
+			// Remove element
+			SubmodelElementCollection coll = (SubmodelElementCollection) parentElement;
+			coll.deleteSubmodelElement(idShorts.get(idShorts.size() - 1));
+			return true;
+		});
+	}
+
+	/**
+	 * Checks if the element at the given idShort path can be changed with a
+	 * field-level update. IdShorts that can not be addressed as MongoDB field
+	 * (e.g. containing a '.') fall back to replacing the whole submodel.
+	 */
+	private boolean isPartialUpdate(List<String> idShorts) {
+		return partialUpdates && isFieldPath(idShorts);
+	}
+
+	/**
+	 * Checks if the element at the idShort path is a property with a value type, so
+	 * that updating its value only has to set its value field
+	 */
+	boolean isValueTypedProperty(String idShortPath) {
+		List<String> idShorts = Arrays.asList(VABPathTools.splitPath(idShortPath));
+		if (!isFieldPath(idShorts)) {
+			return false;
+		}
+		try {
+			Map<String, Object> element = findElementMap(idShorts, ModelType.MODELTYPE, Property.VALUETYPE);
+			Object valueType = element.get(Property.VALUETYPE);
+			return Property.isProperty(element) && valueType != null && !valueType.toString().isEmpty();
+		} catch (ResourceNotFoundException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Checks if all idShorts of the path can be addressed as MongoDB field, so that
+	 * the element can be read with a projection
+	 */
+	private boolean isFieldPath(List<String> idShorts) {
+		for (String idShort : idShorts) {
+			if (idShort == null || idShort.isEmpty() || idShort.contains(".") || idShort.startsWith("$")) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Translates an idShort path to the MongoDB field path of the element, e.g.
+	 * [coll, prop] => submodelElements.coll.value.prop
+	 */
+	protected static String getElementFieldPath(List<String> idShorts) {
+		StringBuilder fieldPath = new StringBuilder(Submodel.SUBMODELELEMENT);
+		for (int i = 0; i < idShorts.size(); i++) {
+			if (i > 0) {
+				fieldPath.append(".").append(Property.VALUE);
+			}
+			fieldPath.append(".").append(idShorts.get(i));
+		}
+		return fieldPath.toString();
+	}
+
+	/**
+	 * Queries a single element from the db. Only the element (or the given fields
+	 * of it) is projected, instead of loading the whole submodel.
+	 */
+	@SuppressWarnings("unchecked")
+	private Map<String, Object> findElementMap(List<String> idShorts, String... fields) {
 		Query hasId = query(where(SMIDPATH).is(smId));
-		mongoOps.findAndReplace(hasId, sm, collection);
+		String elementPath = getElementFieldPath(idShorts);
+		if (fields.length == 0) {
+			hasId.fields().include(elementPath);
+		} else {
+			for (String field : fields) {
+				hasId.fields().include(elementPath + "." + field);
+			}
+		}
+		// The model type of each parent is needed to ensure that the path only
+		// traverses collections
+		for (int i = 1; i < idShorts.size(); i++) {
+			hasId.fields().include(getElementFieldPath(idShorts.subList(0, i)) + "." + ModelType.MODELTYPE);
+		}
+
+		Submodel result = mongoOps.findOne(hasId, Submodel.class, collection);
+		if (result == null) {
+			throw new ResourceNotFoundException("The submodel " + smId + " could not be found in the database.");
+		}
+
+		Map<String, Object> elements = (Map<String, Object>) result.get(Submodel.SUBMODELELEMENT);
+		Map<String, Object> element = null;
+		for (String idShort : idShorts) {
+			if (element != null) {
+				if (!SubmodelElementCollection.isSubmodelElementCollection(element)) {
+					throw new ResourceNotFoundException(element.get(Referable.IDSHORT) + " in the nested submodel element path could not be resolved.");
+				}
+				elements = (Map<String, Object>) element.get(Property.VALUE);
+			}
+			element = elements == null ? null : (Map<String, Object>) elements.get(idShort);
+			if (element == null && idShorts.size() == 1) {
+				throw new ResourceNotFoundException("The element \"" + idShort + "\" could not be found");
+			} else if (element == null) {
+				throw new ResourceNotFoundException(idShort + " in the nested submodel element path could not be resolved.");
+			}
+		}
+		return element;
+	}
+
+	/**
+	 * Adds the element to the submodel or to the collection at the parent idShort
+	 * path with a single $set, without replacing the submodel.
+	 */
+	private void addSubmodelElementPartially(List<String> parentIdShorts, ISubmodelElement elem) {
+		IReference parentReference;
+		if (parentIdShorts.isEmpty()) {
+			Query hasId = query(where(SMIDPATH).is(smId));
+			hasId.fields().include(Identifiable.IDENTIFICATION);
+			Submodel sm = mongoOps.findOne(hasId, Submodel.class, collection);
+			if (sm == null) {
+				throw new ResourceNotFoundException("The submodel " + smId + " could not be found in the database.");
+			}
+			parentReference = Identifiable.createAsFacadeNonStrict(sm, KeyElements.SUBMODEL).getReference();
+		} else {
+			Map<String, Object> parentElement = findElementMap(parentIdShorts, Referable.IDSHORT, Referable.PARENT, ModelType.MODELTYPE);
+			if (!SubmodelElementCollection.isSubmodelElementCollection(parentElement)) {
+				throw new ResourceNotFoundException(parentIdShorts.get(parentIdShorts.size() - 1) + " in the nested submodel element path could not be resolved.");
+			}
+			parentReference = Referable.createAsFacadeNonStrict(parentElement, KeyElements.SUBMODELELEMENTCOLLECTION).getReference();
+		}
+
+		if (elem instanceof SubmodelElement) {
+			((SubmodelElement) elem).setParent(parentReference);
+		}
+
+		List<String> idShorts = new ArrayList<>(parentIdShorts);
+		idShorts.add(elem.getIdShort());
+		// The version is incremented, so that concurrent writers of the whole submodel
+		// do not overwrite this element. A parent collection that has been deleted in
+		// the meantime is not recreated.
+		Criteria target = where(SMIDPATH).is(smId);
+		if (!parentIdShorts.isEmpty()) {
+			target = target.and(getElementFieldPath(parentIdShorts)).exists(true);
+		}
+		Update update = new Update().set(getElementFieldPath(idShorts), elem).inc(VERSION, 1);
+		UpdateResult result = mongoOps.updateFirst(query(target), update, collection);
+		if (result.getMatchedCount() == 0) {
+			throw new ResourceNotFoundException(String.join("/", parentIdShorts) + " could not be found in submodel " + smId);
+		}
+	}
+
+	/**
+	 * Updates the value of a single element with a $set of only the fields that
+	 * are changed by the new value, e.g. value and valueType of a property. The
+	 * element is only read to let its provider convert the value.
+	 */
+	private void updateSubmodelElementPartially(List<String> idShorts, Object newValue) {
+		Map<String, Object> element = findElementMap(idShorts);
+		Map<String, Object> previous = new HashMap<>(element);
+
+		IModelProvider mapProvider = new VABMapProvider(element);
+		IModelProvider elemProvider = SubmodelElementProvider.getElementProvider(mapProvider);
+		elemProvider.setValue(Property.VALUE, newValue);
+
+		String elementPath = getElementFieldPath(idShorts);
+		Update update = new Update();
+		for (Entry<String, Object> field : element.entrySet()) {
+			if (field.getKey().equals(Property.VALUE) || !Objects.equals(field.getValue(), previous.get(field.getKey()))) {
+				update.set(elementPath + "." + field.getKey(), field.getValue());
+			}
+		}
+		update.inc(VERSION, 1);
+
+		// An element that has been deleted in the meantime is not recreated
+		Query hasElement = query(where(SMIDPATH).is(smId).and(elementPath).exists(true));
+		UpdateResult result = mongoOps.updateFirst(hasElement, update, collection);
+		if (result.getMatchedCount() == 0) {
+			throw new ResourceNotFoundException(String.join("/", idShorts) + " could not be found in submodel " + smId);
+		}
+	}
+
+	/**
+	 * Removes a single element with an $unset on its field path
+	 */
+	private void deleteSubmodelElementPartially(List<String> idShorts) {
+		String elementPath = getElementFieldPath(idShorts);
+		Query hasElement = query(where(SMIDPATH).is(smId).and(elementPath).exists(true));
+		UpdateResult result = mongoOps.updateFirst(hasElement, new Update().unset(elementPath).inc(VERSION, 1), collection);
+		if (result.getMatchedCount() > 0) {
+			return;
+		}
+
+		// Deleting a non-existing top level element is tolerated, as long as the
+		// submodel itself exists
+		if (idShorts.size() == 1 && mongoOps.exists(query(where(SMIDPATH).is(smId)), collection)) {
+			return;
+		}
+		throw new ResourceNotFoundException(String.join("/", idShorts) + " could not be found in submodel " + smId);
 	}
 
 	private Object invokeNestedOperationAsync(List<String> idShorts, Object... params) {
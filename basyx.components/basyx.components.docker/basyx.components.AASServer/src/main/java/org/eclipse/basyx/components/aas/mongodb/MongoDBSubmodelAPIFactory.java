@@ -24,41 +24,89 @@
  ******************************************************************************/
 package org.eclipse.basyx.components.aas.mongodb;
 
+import java.io.Closeable;
+
 import org.eclipse.basyx.components.configuration.BaSyxMongoDBConfiguration;
 import org.eclipse.basyx.submodel.metamodel.map.Submodel;
 import org.eclipse.basyx.submodel.restapi.api.ISubmodelAPI;
 import org.eclipse.basyx.submodel.restapi.api.ISubmodelAPIFactory;
+import org.eclipse.basyx.tools.mongodb.MongoDBClientRegistry;
 
 import com.mongodb.client.MongoClient;
-import com.mongodb.client.MongoClients;
 
 /**
  * 
- * Factory for creating a MongoDBSubmodelAPI
+ * Factory for creating a MongoDBSubmodelAPI. If write-behind is enabled in the
+ * configuration, the APIs are decorated to share a
+ * {@link MongoDBWriteBehindBuffer}, which has to be closed on shutdown.
  * 
  * @author fried
  *
  */
-public class MongoDBSubmodelAPIFactory implements ISubmodelAPIFactory {
+public class MongoDBSubmodelAPIFactory implements ISubmodelAPIFactory, Closeable {
 
 	private BaSyxMongoDBConfiguration config;
 	private MongoClient client;
+	private MongoDBWriteBehindBuffer writeBehindBuffer;
 
 	@Deprecated
 	public MongoDBSubmodelAPIFactory(BaSyxMongoDBConfiguration config) {
-		this(config, MongoClients.create(config.getConnectionUrl()));
+		this(config, MongoDBClientRegistry.getClient(config));
 	}
 
 	public MongoDBSubmodelAPIFactory(BaSyxMongoDBConfiguration config, MongoClient client) {
 		this.config = config;
 		this.client = client;
+		if (config.isWriteBehindEnabled()) {
+			this.writeBehindBuffer = new MongoDBWriteBehindBuffer(config, client);
+		}
 	}
 
 	@Override
 	public ISubmodelAPI getSubmodelAPI(Submodel submodel) {
-		MongoDBSubmodelAPI api = new MongoDBSubmodelAPI(config, submodel.getIdentification().getId(), client);
+		String smId = submodel.getIdentification().getId();
+		MongoDBSubmodelAPI api = new MongoDBSubmodelAPI(config, smId, client);
+		if (writeBehindBuffer == null) {
+			api.setSubmodel(submodel);
+			return api;
+		}
+
+		// Pending values of a previous submodel with the same id must not overwrite
+		// the new submodel
+		writeBehindBuffer.flush(smId);
+		writeBehindBuffer.invalidate(smId);
 		api.setSubmodel(submodel);
-		return api;
+		return new MongoDBWriteBehindSubmodelAPI(api, writeBehindBuffer);
+	}
+
+	/**
+	 * Returns the API of a submodel that is already persisted, e.g. after a
+	 * restart. In contrast to {@link #getSubmodelAPI(Submodel)}, the submodel is
+	 * not written.
+	 */
+	public ISubmodelAPI getSubmodelAPI(String smId) {
+		MongoDBSubmodelAPI api = new MongoDBSubmodelAPI(config, smId, client);
+		if (writeBehindBuffer == null) {
+			return api;
+		}
+		return new MongoDBWriteBehindSubmodelAPI(api, writeBehindBuffer);
+	}
+
+	/**
+	 * Returns the write-behind buffer or null, if write-behind is not enabled
+	 */
+	public MongoDBWriteBehindBuffer getWriteBehindBuffer() {
+		return writeBehindBuffer;
+	}
+
+	/**
+	 * Writes the pending values of the write-behind buffer, if it is enabled
+	 */
+	@Override
+	public void close() {
+		if (writeBehindBuffer != null) {
+			writeBehindBuffer.close();
+		}
 	}
 
 }
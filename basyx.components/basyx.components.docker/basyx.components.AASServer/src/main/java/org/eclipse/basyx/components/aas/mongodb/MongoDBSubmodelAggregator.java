@@ -33,12 +33,12 @@ import org.eclipse.basyx.submodel.aggregator.SubmodelAggregator;
 import org.eclipse.basyx.submodel.metamodel.api.ISubmodel;
 import org.eclipse.basyx.submodel.metamodel.api.identifier.IIdentifier;
 import org.eclipse.basyx.submodel.restapi.api.ISubmodelAPIFactory;
+import org.eclipse.basyx.tools.mongodb.MongoDBClientRegistry;
 import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Query;
 
 import com.mongodb.client.MongoClient;
-import com.mongodb.client.MongoClients;
 
 /**
  * Extends the {@link SubmodelAggregator} for the needs of MongoDB
@@ -53,7 +53,7 @@ public class MongoDBSubmodelAggregator extends SubmodelAggregator {
 
 	@Deprecated
 	public MongoDBSubmodelAggregator(ISubmodelAPIFactory smApiFactory, BaSyxMongoDBConfiguration config) {
-		this(smApiFactory, config, MongoClients.create(config.getConnectionUrl()));
+		this(smApiFactory, config, MongoDBClientRegistry.getClient(config));
 	}
 
 	public MongoDBSubmodelAggregator(ISubmodelAPIFactory smApiFactory, BaSyxMongoDBConfiguration config, MongoClient client) {
@@ -82,7 +82,22 @@ public class MongoDBSubmodelAggregator extends SubmodelAggregator {
 	}
 
 	private void deleteSubmodelFromDB(IIdentifier identifier) {
+		discardPendingValues(identifier.getId());
 		Query hasId = query(where(MongoDBSubmodelAPI.SMIDPATH).is(identifier.getId()));
 		mongoOps.remove(hasId, smCollection);
 	}
+
+	/**
+	 * Drops the values of the submodel that are still pending in the write-behind
+	 * buffer. If the factory is decorated, they are dropped with the next flush,
+	 * since their submodel no longer exists.
+	 */
+	private void discardPendingValues(String smId) {
+		if (smApiFactory instanceof MongoDBSubmodelAPIFactory) {
+			MongoDBWriteBehindBuffer buffer = ((MongoDBSubmodelAPIFactory) smApiFactory).getWriteBehindBuffer();
+			if (buffer != null) {
+				buffer.discard(smId);
+			}
+		}
+	}
 }
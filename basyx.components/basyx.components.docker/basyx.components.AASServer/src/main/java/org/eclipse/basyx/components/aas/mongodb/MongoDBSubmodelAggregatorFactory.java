@@ -29,9 +29,9 @@ import org.eclipse.basyx.components.configuration.BaSyxMongoDBConfiguration;
 import org.eclipse.basyx.submodel.aggregator.api.ISubmodelAggregator;
 import org.eclipse.basyx.submodel.aggregator.api.ISubmodelAggregatorFactory;
 import org.eclipse.basyx.submodel.restapi.api.ISubmodelAPIFactory;
+import org.eclipse.basyx.tools.mongodb.MongoDBClientRegistry;
 
 import com.mongodb.client.MongoClient;
-import com.mongodb.client.MongoClients;
 
 /**
  * Factory for creating a {@link MongoDBSubmodelAggregator}
@@ -47,7 +47,7 @@ public class MongoDBSubmodelAggregatorFactory implements ISubmodelAggregatorFact
 
 	@Deprecated
 	public MongoDBSubmodelAggregatorFactory(BaSyxMongoDBConfiguration config, ISubmodelAPIFactory submodelAPIFactory) {
-		this(config, submodelAPIFactory, MongoClients.create(config.getConnectionUrl()));
+		this(config, submodelAPIFactory, MongoDBClientRegistry.getClient(config));
 	}
 
 	public MongoDBSubmodelAggregatorFactory(BaSyxMongoDBConfiguration config, ISubmodelAPIFactory submodelAPIFactory, MongoClient client) {
@@ -56,6 +56,13 @@ public class MongoDBSubmodelAggregatorFactory implements ISubmodelAggregatorFact
 		this.submodelAPIFactory = submodelAPIFactory;
 	}
 
+	/**
+	 * Returns the factory of the submodel APIs of the created aggregators
+	 */
+	public ISubmodelAPIFactory getSubmodelAPIFactory() {
+		return submodelAPIFactory;
+	}
+
 	@Override
 	public ISubmodelAggregator create() {
 		return new MongoDBSubmodelAggregator(submodelAPIFactory, config, client);
@@ -0,0 +1,323 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.components.aas.mongodb;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.eclipse.basyx.components.configuration.BaSyxMongoDBConfiguration;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.Property;
+import org.eclipse.basyx.vab.modelprovider.VABPathTools;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.mongodb.client.MongoClient;
+
+/**
+ * Collects property value updates of all submodels in memory and writes them to
+ * the database as bulk write. Multiple updates of the same property between two
+ * flushes are coalesced into a single write. The buffer is flushed when the
+ * maximum number of pending values is reached, periodically and on close.
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class MongoDBWriteBehindBuffer implements Closeable {
+	private static Logger logger = LoggerFactory.getLogger(MongoDBWriteBehindBuffer.class);
+
+	// ConcurrentHashMaps do not support null values
+	private static final Object NULL = new Object();
+
+	private final MongoOperations mongoOps;
+	private final String collection;
+	private final int maxSize;
+
+	// smId => idShort path => pending value
+	private final Map<String, Map<String, Object>> pending = new ConcurrentHashMap<>();
+	// smId => idShort path => whether the element is a property that can be buffered
+	private final Map<String, Map<String, Boolean>> bufferable = new ConcurrentHashMap<>();
+	private final AtomicInteger size = new AtomicInteger();
+	private final Object flushLock = new Object();
+
+	private final ScheduledExecutorService scheduler;
+	private final Thread shutdownHook;
+	private volatile boolean closed;
+
+	private final AtomicLong bufferedWrites = new AtomicLong();
+	private final AtomicLong flushedWrites = new AtomicLong();
+	private final AtomicLong flushes = new AtomicLong();
+
+	public MongoDBWriteBehindBuffer(BaSyxMongoDBConfiguration config, MongoClient client) {
+		this.mongoOps = new MongoTemplate(client, config.getDatabase());
+		this.collection = config.getSubmodelCollection();
+		this.maxSize = config.getWriteBehindMaxSize();
+
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "mongodb-write-behind");
+			thread.setDaemon(true);
+			return thread;
+		});
+		long interval = config.getWriteBehindInterval();
+		scheduler.scheduleWithFixedDelay(this::flushPeriodically, interval, interval, TimeUnit.MILLISECONDS);
+
+		// Pending values are also written, if the process is terminated without
+		// closing the buffer
+		this.shutdownHook = new Thread(this::flush, "mongodb-write-behind-shutdown");
+		Runtime.getRuntime().addShutdownHook(shutdownHook);
+	}
+
+	/**
+	 * Returns true, if updates of the element can be buffered. This is the case for
+	 * properties with a value type, since only their value field has to be set.
+	 */
+	boolean isBufferable(MongoDBSubmodelAPI api, String idShortPath) {
+		Map<String, Boolean> paths = bufferable.computeIfAbsent(api.getSubmodelId(), id -> new ConcurrentHashMap<>());
+		return paths.computeIfAbsent(idShortPath, api::isValueTypedProperty);
+	}
+
+	/**
+	 * Forgets which elements of the submodel can be buffered, e.g. after elements
+	 * have been added or removed
+	 */
+	void invalidate(String smId) {
+		bufferable.remove(smId);
+	}
+
+	/**
+	 * Drops the pending values of a deleted submodel
+	 */
+	void discard(String smId) {
+		pending.computeIfPresent(smId, (id, values) -> {
+			size.addAndGet(-values.size());
+			return null;
+		});
+		bufferable.remove(smId);
+	}
+
+	/**
+	 * Adds a pending value. Replaces the value, if there already is a pending value
+	 * for the element.
+	 * 
+	 * @return false, if the buffer is closed and the value has to be written
+	 *         directly
+	 */
+	boolean put(String smId, String idShortPath, Object value) {
+		if (closed) {
+			return false;
+		}
+		// The map of the submodel is removed when it becomes empty, so it is only
+		// modified atomically with its mapping
+		pending.compute(smId, (id, values) -> {
+			Map<String, Object> result = values == null ? new ConcurrentHashMap<>() : values;
+			if (result.put(idShortPath, value == null ? NULL : value) == null) {
+				size.incrementAndGet();
+			}
+			return result;
+		});
+		bufferedWrites.incrementAndGet();
+
+		// The buffer might have been closed concurrently after its final flush
+		if (closed || size.get() >= maxSize) {
+			flush();
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the pending value of the element or the persisted value, if there is
+	 * no pending value
+	 */
+	Object getValue(String smId, String idShortPath, Supplier<Object> persisted) {
+		Map<String, Object> values = pending.get(smId);
+		Object value = values == null ? null : values.get(idShortPath);
+		if (value == null) {
+			return persisted.get();
+		}
+		return value == NULL ? null : value;
+	}
+
+	/**
+	 * Writes all pending values
+	 */
+	public void flush() {
+		flush(pending.keySet());
+	}
+
+	/**
+	 * Writes the pending values of a single submodel, e.g. before the whole
+	 * submodel is read or written
+	 */
+	public void flush(String smId) {
+		Map<String, Object> values = pending.get(smId);
+		if (values != null && !values.isEmpty()) {
+			flush(Arrays.asList(smId));
+		}
+	}
+
+	private void flush(Collection<String> smIds) {
+		synchronized (flushLock) {
+			List<PendingValue> flushed = new ArrayList<>();
+			BulkOperations bulk = mongoOps.bulkOps(BulkMode.UNORDERED, collection);
+			for (String smId : smIds) {
+				Map<String, Object> values = pending.get(smId);
+				if (values == null) {
+					continue;
+				}
+				for (Entry<String, Object> entry : values.entrySet()) {
+					PendingValue value = new PendingValue(smId, entry.getKey(), entry.getValue());
+					bulk.updateOne(value.getQuery(), value.getUpdate());
+					flushed.add(value);
+				}
+			}
+			if (flushed.isEmpty()) {
+				return;
+			}
+
+			bulk.execute();
+			for (PendingValue value : flushed) {
+				// Values that have been replaced during the flush stay pending
+				pending.computeIfPresent(value.smId, (id, values) -> {
+					if (values.remove(value.idShortPath, value.value)) {
+						size.decrementAndGet();
+					}
+					return values.isEmpty() ? null : values;
+				});
+			}
+			flushedWrites.addAndGet(flushed.size());
+			flushes.incrementAndGet();
+		}
+	}
+
+	private void flushPeriodically() {
+		try {
+			flush();
+		} catch (RuntimeException e) {
+			// The values stay pending and are written with the next flush
+			logger.error("Could not write the pending property values", e);
+		}
+	}
+
+	/**
+	 * Stops the periodic flushes and writes all pending values. Afterwards, updates
+	 * are no longer buffered.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		scheduler.shutdown();
+		try {
+			scheduler.awaitTermination(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		flush();
+		try {
+			Runtime.getRuntime().removeShutdownHook(shutdownHook);
+		} catch (IllegalStateException e) {
+			// Already shutting down
+		}
+		logger.info("Write-behind buffer closed: " + this);
+	}
+
+	/**
+	 * Returns the number of pending values
+	 */
+	public int size() {
+		return size.get();
+	}
+
+	/**
+	 * Returns the number of updates that have been buffered
+	 */
+	public long getBufferedWriteCount() {
+		return bufferedWrites.get();
+	}
+
+	/**
+	 * Returns the number of values that have been written to the database. The
+	 * difference to the buffered writes is the number of coalesced updates.
+	 */
+	public long getFlushedWriteCount() {
+		return flushedWrites.get();
+	}
+
+	/**
+	 * Returns the number of bulk writes
+	 */
+	public long getFlushCount() {
+		return flushes.get();
+	}
+
+	@Override
+	public String toString() {
+		return "buffered=" + getBufferedWriteCount() + ", flushed=" + getFlushedWriteCount() + ", flushes=" + getFlushCount() + ", pending=" + size();
+	}
+
+	private static class PendingValue {
+		private final String smId;
+		private final String idShortPath;
+		private final Object value;
+
+		private PendingValue(String smId, String idShortPath, Object value) {
+			this.smId = smId;
+			this.idShortPath = idShortPath;
+			this.value = value;
+		}
+
+		private Query getQuery() {
+			// Values of elements that have been removed in the meantime are dropped
+			return query(where(MongoDBSubmodelAPI.SMIDPATH).is(smId).and(getElementPath()).exists(true));
+		}
+
+		private Update getUpdate() {
+			return new Update().set(getElementPath() + "." + Property.VALUE, value == NULL ? null : value).inc(MongoDBSubmodelAPI.VERSION, 1);
+		}
+
+		private String getElementPath() {
+			return MongoDBSubmodelAPI.getElementFieldPath(Arrays.asList(VABPathTools.splitPath(idShortPath)));
+		}
+	}
+}
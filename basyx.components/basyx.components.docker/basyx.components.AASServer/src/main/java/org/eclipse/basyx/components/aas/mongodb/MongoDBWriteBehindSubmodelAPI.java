@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.components.aas.mongodb;
+
+import java.util.Collection;
+
+import org.eclipse.basyx.submodel.metamodel.api.ISubmodel;
+import org.eclipse.basyx.submodel.metamodel.api.submodelelement.ISubmodelElement;
+import org.eclipse.basyx.submodel.metamodel.api.submodelelement.operation.IOperation;
+import org.eclipse.basyx.submodel.restapi.api.ISubmodelAPI;
+
+/**
+ * Decorates a MongoDBSubmodelAPI, so that property value updates are collected
+ * in a {@link MongoDBWriteBehindBuffer} instead of being written directly. Reads
+ * of single values return the pending value. All other reads and writes first
+ * write the pending values of the submodel.
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class MongoDBWriteBehindSubmodelAPI implements ISubmodelAPI {
+	private final MongoDBSubmodelAPI submodelAPI;
+	private final MongoDBWriteBehindBuffer buffer;
+
+	public MongoDBWriteBehindSubmodelAPI(MongoDBSubmodelAPI submodelAPI, MongoDBWriteBehindBuffer buffer) {
+		this.submodelAPI = submodelAPI;
+		this.buffer = buffer;
+	}
+
+	@Override
+	public ISubmodel getSubmodel() {
+		flush();
+		return submodelAPI.getSubmodel();
+	}
+
+	@Override
+	public void addSubmodelElement(ISubmodelElement elem) {
+		flush();
+		buffer.invalidate(getSubmodelId());
+		submodelAPI.addSubmodelElement(elem);
+	}
+
+	@Override
+	public void addSubmodelElement(String idShortPath, ISubmodelElement elem) {
+		flush();
+		buffer.invalidate(getSubmodelId());
+		submodelAPI.addSubmodelElement(idShortPath, elem);
+	}
+
+	@Override
+	public ISubmodelElement getSubmodelElement(String idShortPath) {
+		flush();
+		return submodelAPI.getSubmodelElement(idShortPath);
+	}
+
+	@Override
+	public void deleteSubmodelElement(String idShortPath) {
+		flush();
+		buffer.invalidate(getSubmodelId());
+		submodelAPI.deleteSubmodelElement(idShortPath);
+	}
+
+	@Override
+	public Collection<IOperation> getOperations() {
+		flush();
+		return submodelAPI.getOperations();
+	}
+
+	@Override
+	public Collection<ISubmodelElement> getSubmodelElements() {
+		flush();
+		return submodelAPI.getSubmodelElements();
+	}
+
+	@Override
+	public void updateSubmodelElement(String idShortPath, Object newValue) {
+		Object value = submodelAPI.unwrapParameter(newValue);
+		if (buffer.isBufferable(submodelAPI, idShortPath) && buffer.put(getSubmodelId(), idShortPath, value)) {
+			return;
+		}
+		flush();
+		submodelAPI.updateSubmodelElement(idShortPath, newValue);
+	}
+
+	@Override
+	public Object getSubmodelElementValue(String idShortPath) {
+		return buffer.getValue(getSubmodelId(), idShortPath, () -> submodelAPI.getSubmodelElementValue(idShortPath));
+	}
+
+	@Override
+	public Object invokeOperation(String idShortPath, Object... params) {
+		return submodelAPI.invokeOperation(idShortPath, params);
+	}
+
+	@Override
+	public Object invokeAsync(String idShortPath, Object... params) {
+		return submodelAPI.invokeAsync(idShortPath, params);
+	}
+
+	@Override
+	public Object getOperationResult(String idShort, String requestId) {
+		return submodelAPI.getOperationResult(idShort, requestId);
+	}
+
+	private void flush() {
+		buffer.flush(getSubmodelId());
+	}
+
+	private String getSubmodelId() {
+		return submodelAPI.getSubmodelId();
+	}
+}
@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.components.aas.mongodb;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the conditional writes of the MongoDBSubmodelAPI to tune the retry
+ * settings for the contention under load.
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class MongoDBWriteStatistics {
+	private final AtomicLong writes = new AtomicLong();
+	private final AtomicLong conflicts = new AtomicLong();
+	private final AtomicLong retries = new AtomicLong();
+	private final AtomicLong failures = new AtomicLong();
+
+	void recordWrite() {
+		writes.incrementAndGet();
+	}
+
+	void recordConflict() {
+		conflicts.incrementAndGet();
+	}
+
+	void recordRetry() {
+		retries.incrementAndGet();
+	}
+
+	void recordFailure() {
+		failures.incrementAndGet();
+	}
+
+	/**
+	 * Returns the number of successful writes
+	 */
+	public long getWriteCount() {
+		return writes.get();
+	}
+
+	/**
+	 * Returns the number of writes that failed, because the submodel has been
+	 * modified concurrently
+	 */
+	public long getConflictCount() {
+		return conflicts.get();
+	}
+
+	/**
+	 * Returns the number of writes that have been retried after a conflict
+	 */
+	public long getRetryCount() {
+		return retries.get();
+	}
+
+	/**
+	 * Returns the number of writes that have been given up after all retries
+	 */
+	public long getFailureCount() {
+		return failures.get();
+	}
+
+	public void reset() {
+		writes.set(0);
+		conflicts.set(0);
+		retries.set(0);
+		failures.set(0);
+	}
+
+	@Override
+	public String toString() {
+		return "writes=" + getWriteCount() + ", conflicts=" + getConflictCount() + ", retries=" + getRetryCount() + ", failures=" + getFailureCount();
+	}
+}
@@ -27,7 +27,6 @@ package org.eclipse.basyx.components.aas.mqtt;
 import org.eclipse.basyx.aas.aggregator.api.IAASAggregatorFactory;
 import org.eclipse.basyx.aas.restapi.api.IAASAPIFactory;
 import org.eclipse.basyx.components.aas.aascomponent.IAASServerDecorator;
-import org.eclipse.basyx.extensions.aas.aggregator.mqtt.MqttDecoratingAASAggregatorFactory;
 import org.eclipse.basyx.extensions.aas.api.mqtt.MqttDecoratingAASAPIFactory;
 import org.eclipse.basyx.extensions.submodel.aggregator.mqtt.MqttDecoratingSubmodelAggregatorFactory;
 import org.eclipse.basyx.extensions.submodel.mqtt.MqttDecoratingSubmodelAPIFactory;
@@ -67,7 +66,7 @@ public class MqttAASServerDecorator implements IAASServerDecorator {
 
 	@Override
 	public IAASAggregatorFactory decorateAASAggregatorFactory(IAASAggregatorFactory aasAggregatorFactory) {
-		return new MqttDecoratingAASAggregatorFactory(aasAggregatorFactory, client);
+		return new MqttStreamingAASAggregatorFactory(aasAggregatorFactory, client);
 	}
 
 }
@@ -49,14 +49,14 @@ public class S3AASAPI implements IAASAPI {
 	@SuppressWarnings("unchecked")
 	@Override
 	public IAssetAdministrationShell getAAS() {
-		String aasJson="";
+		Object aasMap = null;
 		try {
 			logger.info(String.format("get aas with id %s ", aasId));
-			aasJson = S3Helper.getBaSyxObjectContent(s3Client, bucketName, aasId);
+			aasMap = S3Helper.getBaSyxObject(s3Client, bucketName, aasId);
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
-		return AssetAdministrationShell.createAsFacade((Map<String, Object>)gsonTools.deserialize(aasJson));
+		return AssetAdministrationShell.createAsFacade((Map<String, Object>) aasMap);
 	}
 
 	@Override
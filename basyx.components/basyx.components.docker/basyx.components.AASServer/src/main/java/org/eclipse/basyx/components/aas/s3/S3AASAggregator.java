@@ -2,15 +2,22 @@ package org.eclipse.basyx.components.aas.s3;
 
 
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.Iterator;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
-import org.eclipse.basyx.aas.aggregator.api.IAASAggregator;
 import org.eclipse.basyx.aas.metamodel.api.IAssetAdministrationShell;
 import org.eclipse.basyx.aas.metamodel.map.AssetAdministrationShell;
 import org.eclipse.basyx.aas.registration.api.IAASRegistry;
@@ -18,6 +25,9 @@ import org.eclipse.basyx.aas.restapi.AASModelProvider;
 import org.eclipse.basyx.aas.restapi.MultiSubmodelProvider;
 import org.eclipse.basyx.aas.restapi.api.IAASAPI;
 import org.eclipse.basyx.aas.restapi.api.IAASAPIFactory;
+import org.eclipse.basyx.components.aas.aggregator.AASProviderCache;
+import org.eclipse.basyx.components.aas.aggregator.IStreamingAASAggregator;
+import org.eclipse.basyx.components.aas.aggregator.StripedLock;
 import org.eclipse.basyx.components.aas.configuration.BaSyxS3Configuration;
 import org.eclipse.basyx.submodel.aggregator.api.ISubmodelAggregator;
 import org.eclipse.basyx.submodel.aggregator.api.ISubmodelAggregatorFactory;
@@ -26,10 +36,8 @@ import org.eclipse.basyx.submodel.metamodel.api.reference.IKey;
 import org.eclipse.basyx.submodel.metamodel.api.reference.IReference;
 import org.eclipse.basyx.submodel.metamodel.api.reference.enums.KeyType;
 import org.eclipse.basyx.submodel.restapi.SubmodelProvider;
-import org.eclipse.basyx.submodel.restapi.api.ISubmodelAPI;
 import org.eclipse.basyx.submodel.restapi.api.ISubmodelAPIFactory;
-import org.eclipse.basyx.vab.coder.json.serialization.DefaultTypeFactory;
-import org.eclipse.basyx.vab.coder.json.serialization.GSONTools;
+import org.eclipse.basyx.vab.exception.provider.MalformedRequestException;
 import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
 import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
 import org.eclipse.basyx.vab.protocol.api.IConnectorFactory;
@@ -39,12 +47,9 @@ import org.slf4j.Logger;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.model.AmazonS3Exception;
 import com.amazonaws.services.s3.model.DeleteObjectRequest;
-import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.ListObjectsV2Request;
 import com.amazonaws.services.s3.model.ListObjectsV2Result;
-import com.amazonaws.services.s3.model.S3Object;
 import com.amazonaws.services.s3.model.S3ObjectSummary;
-import com.amazonaws.services.s3.model.S3VersionSummary;
-import com.amazonaws.services.s3.model.VersionListing;
 
 /**
  * AAS Aggregator with S3 backend
@@ -52,24 +57,52 @@ import com.amazonaws.services.s3.model.VersionListing;
  * @author zhangzai
  *
  */
-public class S3AASAggregator implements IAASAggregator {
-	private static final String IDENTIFIER_TAG = "identifier";
-	private static final String IDSHORT_TAG = "idShort";
+public class S3AASAggregator implements IStreamingAASAggregator {
 	private AmazonS3 s3Client;
 	private String aasBucketName;
 	private String submodelBucketName;
+	private int loadingParallelism;
+	private boolean shardedSubmodels;
+	private S3ContentEncoding contentEncoding = S3ContentEncoding.IDENTITY;
+	private S3AsyncClient asyncClient;
+	private S3SubmodelBucket submodelBucket;
+	// Requested on first delete
+	private volatile Boolean versionedAASBucket;
 	protected IAASAPIFactory aasApiProvider;
 	protected ISubmodelAPIFactory smApiProvider;
 	protected ISubmodelAggregatorFactory submodelAggregatorFactory;
-	protected Map<String, MultiSubmodelProvider> aasProviderMap = new HashMap<>();
+	protected Map<String, MultiSubmodelProvider> aasProviderMap = new ConcurrentHashMap<>();
+
+	/**
+	 * Cache of the AAS providers, if lazy providers are enabled in the
+	 * configuration. Otherwise, all providers are kept in {@link #aasProviderMap}.
+	 */
+	protected AASProviderCache providerCache;
+
+	/**
+	 * Serializes writes to the same AAS. Reads of the providers do not lock.
+	 */
+	private final StripedLock aasLocks = new StripedLock();
 	private IAASRegistry registry;
 
-	private GSONTools gsonTools = new GSONTools(new DefaultTypeFactory());
 	private static Logger logger = org.slf4j.LoggerFactory.getLogger(S3AASAggregator.class);
 
 	public S3AASAggregator(IAASRegistry registry, BaSyxS3Configuration config, IAASAPIFactory aasAPIFactory,
 			ISubmodelAggregatorFactory submodelAggregatorFactory, AmazonS3 client) throws IOException {
+		this(registry, config, aasAPIFactory, submodelAggregatorFactory, getSubmodelBucket(submodelAggregatorFactory, client, config.getSubmodelBucketName()));
+	}
+
+	/**
+	 * @param submodelBucket
+	 *            the submodel bucket shared with the submodel aggregators and APIs
+	 *            of the component
+	 */
+	public S3AASAggregator(IAASRegistry registry, BaSyxS3Configuration config, IAASAPIFactory aasAPIFactory,
+			ISubmodelAggregatorFactory submodelAggregatorFactory, S3SubmodelBucket submodelBucket) throws IOException {
 		setS3Configuration(config);
+		this.submodelBucket = submodelBucket;
+		submodelBucket.getCache().setMaxSize(config.getSubmodelCacheSize());
+		submodelBucket.setVersionIndexEnabled(config.isVersionIndexEnabled());
 		this.aasApiProvider = aasAPIFactory;
 		this.submodelAggregatorFactory = submodelAggregatorFactory;
 		this.registry = registry;
@@ -80,20 +113,190 @@ public class S3AASAggregator implements IAASAggregator {
 		this.aasBucketName = config.getAASBucketName();
 		this.submodelBucketName = config.getSubmodelBucketName();
 		this.s3Client = S3Helper.createS3Client(config);
+		this.loadingParallelism = config.getLoadingParallelism();
+		this.shardedSubmodels = config.isShardedSubmodelsEnabled();
+		this.contentEncoding = config.getContentEncoding();
+		this.asyncClient = new S3AsyncClient(s3Client, config);
+		if (config.isLazyProvidersEnabled()) {
+			this.providerCache = new AASProviderCache(config.getProviderCacheSize(), config.getProviderCacheExpiry());
+		}
+	}
+
+	private static S3SubmodelBucket getSubmodelBucket(ISubmodelAggregatorFactory submodelAggregatorFactory, AmazonS3 client, String bucketName) {
+		if (submodelAggregatorFactory instanceof S3SubmodelAggregatorFactory) {
+			S3SubmodelBucket bucket = ((S3SubmodelAggregatorFactory) submodelAggregatorFactory).getBucket();
+			if (bucket.getBucketName().equals(bucketName)) {
+				return bucket;
+			}
+		}
+		return new S3SubmodelBucket(client, bucketName);
+	}
+
+	/**
+	 * Returns the cache of the AAS providers or null, if lazy providers are not
+	 * enabled
+	 */
+	public AASProviderCache getProviderCache() {
+		return providerCache;
 	}
 
-	@SuppressWarnings({ "deprecation", "unchecked" })
 	private void init() throws IOException {
-		ListObjectsV2Result result = s3Client.listObjectsV2(aasBucketName);
-		List<S3ObjectSummary> objects = result.getObjectSummaries();
-		for (S3ObjectSummary os : objects) {
-			String aasJson = S3Helper.getBaSyxObjectContent(s3Client, os.getBucketName(), os.getKey());
-			AssetAdministrationShell aas = AssetAdministrationShell
-					.createAsFacade((Map<String, Object>) gsonTools.deserialize(aasJson));
-			S3AASAPI aasApi = (S3AASAPI) aasApiProvider.getAASApi(aas);
-			MultiSubmodelProvider provider = createMultiSubmodelProvider(aasApi);
-			addSubmodelsFromDB(provider, aas);
-			aasProviderMap.put(aas.getIdentification().getId(), provider);
+		if (providerCache != null) {
+			logger.info("Lazy AAS providers enabled - providers are created on first access");
+			return;
+		}
+
+		try (S3RequestMetrics.Scope scope = S3RequestMetrics.begin("loadAAS")) {
+			loadProviders();
+		}
+	}
+
+	private void loadProviders() throws IOException {
+		long start = System.currentTimeMillis();
+		// Limits the downloads in flight, while the next page of the bucket is listed
+		Semaphore inFlight = new Semaphore(loadingParallelism);
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		List<CompletableFuture<Void>> loads = new ArrayList<>();
+		try {
+			ListObjectsV2Request request = new ListObjectsV2Request().withBucketName(aasBucketName);
+			ListObjectsV2Result result;
+			do {
+				result = s3Client.listObjectsV2(request);
+				for (S3ObjectSummary os : result.getObjectSummaries()) {
+					inFlight.acquire();
+					loads.add(asyncClient.getBaSyxObject(aasBucketName, os.getKey()).thenAccept(this::addProviderFromS3).whenComplete((loaded, e) -> {
+						if (e != null) {
+							failure.compareAndSet(null, unwrap(e));
+						}
+						inFlight.release();
+					}));
+				}
+				request.setContinuationToken(result.getNextContinuationToken());
+			} while (result.isTruncated() && failure.get() == null);
+
+			CompletableFuture.allOf(loads.toArray(new CompletableFuture<?>[0])).exceptionally(e -> null).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while loading AAS from bucket " + aasBucketName, e);
+		} catch (ExecutionException e) {
+			failure.compareAndSet(null, e.getCause());
+		}
+
+		if (failure.get() != null) {
+			throw new IOException("Could not load AAS from bucket " + aasBucketName, failure.get());
+		}
+		logger.info("Loaded {} AAS from bucket '{}' in {} ms", aasProviderMap.size(), aasBucketName, System.currentTimeMillis() - start);
+	}
+
+	/**
+	 * Creates the provider of a downloaded AAS. Runs on the threads of the
+	 * asynchronous client, so that the deserialization overlaps with the
+	 * downloads.
+	 */
+	private void addProviderFromS3(Object aasMap) {
+		if (aasMap == null) {
+			// Deleted after listing the bucket
+			return;
+		}
+		AssetAdministrationShell aas = toAAS(aasMap);
+		aasProviderMap.put(aas.getIdentification().getId(), createProviderFromS3(aas));
+	}
+
+	private static Throwable unwrap(Throwable e) {
+		if (e instanceof CompletionException && e.getCause() != null) {
+			return e.getCause();
+		}
+		return e;
+	}
+
+	/**
+	 * Waits for the result of a request of the asynchronous client and rethrows
+	 * its failure
+	 */
+	private static <T> T join(CompletableFuture<T> future) {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			Throwable cause = unwrap(e);
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new RuntimeException(cause);
+		}
+	}
+
+	private MultiSubmodelProvider createProviderFromS3(AssetAdministrationShell aas) {
+		// The AAS is already stored in the bucket. In contrast to the API factory,
+		// which uploads the AAS, the API is only bound to it.
+		S3AASAPI aasApi = new S3AASAPI(s3Client, aasBucketName, aas.getIdentification().getId());
+		MultiSubmodelProvider provider = createMultiSubmodelProvider(aasApi);
+		addSubmodelsFromDB(provider, aas);
+		return provider;
+	}
+
+	/**
+	 * Creates the provider for an AAS in the bucket or returns null, if there is
+	 * no such AAS
+	 */
+	private MultiSubmodelProvider loadProviderFromS3(String aasId) {
+		Object aasMap;
+		try {
+			aasMap = S3Helper.getBaSyxObject(s3Client, aasBucketName, aasId);
+		} catch (IOException e) {
+			throw new RuntimeException("Could not read AAS " + aasId + " from bucket " + aasBucketName, e);
+		}
+		if (aasMap == null) {
+			return null;
+		}
+
+		logger.debug("Creating provider for AAS from bucket: {}", aasId);
+		return createProviderFromS3(toAAS(aasMap));
+	}
+
+	@SuppressWarnings("unchecked")
+	private AssetAdministrationShell toAAS(Object aasMap) {
+		return AssetAdministrationShell.createAsFacade((Map<String, Object>) aasMap);
+	}
+
+	private MultiSubmodelProvider findProvider(String aasId) {
+		if (providerCache == null) {
+			return aasProviderMap.get(aasId);
+		}
+
+		MultiSubmodelProvider provider = providerCache.get(aasId);
+		if (provider != null) {
+			return provider;
+		}
+
+		// Create the provider only once, even if it is requested concurrently
+		Lock lock = aasLocks.get(aasId);
+		lock.lock();
+		try {
+			provider = providerCache.peek(aasId);
+			if (provider == null) {
+				provider = loadProviderFromS3(aasId);
+				if (provider != null) {
+					providerCache.put(aasId, provider);
+				}
+			}
+			return provider;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void putProvider(String aasId, MultiSubmodelProvider provider) {
+		if (providerCache == null) {
+			aasProviderMap.put(aasId, provider);
+		} else {
+			providerCache.put(aasId, provider);
+		}
+	}
+
+	private void removeProvider(String aasId) {
+		aasProviderMap.remove(aasId);
+		if (providerCache != null) {
+			providerCache.remove(aasId);
 		}
 	}
 
@@ -125,28 +328,12 @@ public class S3AASAggregator implements IAASAggregator {
 	}
 	
 	private String getSubmodelId(String idShort) {
-		List<S3ObjectSummary> osList = s3Client.listObjectsV2(submodelBucketName).getObjectSummaries();
-		for(S3ObjectSummary os : osList) {
-			try {
-				S3Object smObject = s3Client.getObject(new GetObjectRequest(submodelBucketName, os.getKey()));
-				String idshortValue = (String)(smObject.getObjectMetadata().getRawMetadataValue(IDSHORT_TAG));
-				
-				if(idshortValue.equals(idShort)) {
-					return (String)(smObject.getObjectMetadata().getRawMetadataValue(IDENTIFIER_TAG));
-				}
-				smObject.close();
-			}catch(AmazonS3Exception e) {
-				System.err.println("Cannot find the data object "+ os.getKey());
-			}catch(IOException e) {
-				e.printStackTrace();
-				System.err.println("Cannot close the fetched data obejct");
-			}
-		}
-		return null;
+		return submodelBucket.getIdShortIndex().getSubmodelId(idShort);
 	}
 
 	private void addSubmodelProvidersById(String smId, MultiSubmodelProvider provider) {
-		ISubmodelAPI smApi = new S3SubmodelAPI(s3Client, submodelBucketName, smId);
+		S3SubmodelAPI smApi = new S3SubmodelAPI(submodelBucket, smId, shardedSubmodels);
+		smApi.setContentEncoding(contentEncoding);
 		SubmodelProvider smProvider = new SubmodelProvider(smApi);
 		provider.addSubmodel(smProvider);
 	}
@@ -160,104 +347,201 @@ public class S3AASAggregator implements IAASAggregator {
 		return new MultiSubmodelProvider(aasProvider, registry, connProvider, aasApiProvider, usedAggregator);
 	}
 
-	@SuppressWarnings("unchecked")
 	@Override
 	public Collection<IAssetAdministrationShell> getAASList() {
-		return aasProviderMap.values().stream().map(p -> {
-			try {
-				return p.getValue("/aas");
-			} catch (Exception e1) {
-				e1.printStackTrace();
-				throw new RuntimeException();
-			}
-		}).map(m -> {
+		try (S3RequestMetrics.Scope scope = S3RequestMetrics.begin("getAASList")) {
+			return getAASListFromProviders();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private Collection<IAssetAdministrationShell> getAASListFromProviders() {
+		if (providerCache != null) {
+			return getAASListFromS3();
+		}
+
+		// The shells are requested concurrently
+		List<CompletableFuture<Object>> shells = aasProviderMap.values().stream().map(p -> asyncClient.submit(client -> p.getValue("/aas"))).collect(Collectors.toList());
+		return shells.stream().map(S3AASAggregator::join).map(m -> {
 			AssetAdministrationShell aas = new AssetAdministrationShell();
 			aas.putAll((Map<? extends String, ? extends Object>) m);
 			return aas;
 		}).collect(Collectors.toList());
 	}
 
+	/**
+	 * Reads all AAS directly from the bucket without creating their providers
+	 */
+	private Collection<IAssetAdministrationShell> getAASListFromS3() {
+		List<IAssetAdministrationShell> shells = new ArrayList<>();
+		streamAASList(null, 0, shells::add);
+		return shells;
+	}
+
+	/**
+	 * Streams the AAS from the listing of the bucket. The continuation token is the
+	 * S3 continuation token of the listing.
+	 */
+	@Override
+	public String streamAASList(String continuationToken, int limit, Consumer<IAssetAdministrationShell> consumer) {
+		try (S3RequestMetrics.Scope scope = S3RequestMetrics.begin("streamAASList")) {
+			return streamAASListFromS3(continuationToken, limit, consumer);
+		}
+	}
+
+	private String streamAASListFromS3(String continuationToken, int limit, Consumer<IAssetAdministrationShell> consumer) {
+		ListObjectsV2Request request = new ListObjectsV2Request().withBucketName(aasBucketName).withContinuationToken(continuationToken);
+		if (limit > 0) {
+			request.setMaxKeys(limit);
+		}
+
+		ListObjectsV2Result result;
+		do {
+			result = listAASObjects(request);
+			streamAASObjects(result.getObjectSummaries(), consumer);
+			request.setContinuationToken(result.getNextContinuationToken());
+		} while (limit <= 0 && result.isTruncated());
+
+		return result.isTruncated() ? result.getNextContinuationToken() : null;
+	}
+
+	/**
+	 * Downloads the AAS of a page of the listing and passes them to the consumer in
+	 * the order of the listing. The downloads are pipelined, but only a window of
+	 * downloaded AAS is kept in memory.
+	 */
+	private void streamAASObjects(List<S3ObjectSummary> objects, Consumer<IAssetAdministrationShell> consumer) {
+		int windowSize = 2 * asyncClient.getMaxConcurrency();
+		Deque<CompletableFuture<Object>> window = new ArrayDeque<>();
+		for (S3ObjectSummary os : objects) {
+			if (window.size() >= windowSize) {
+				acceptAAS(join(window.poll()), consumer);
+			}
+			window.add(asyncClient.getBaSyxObject(aasBucketName, os.getKey()));
+		}
+		while (!window.isEmpty()) {
+			acceptAAS(join(window.poll()), consumer);
+		}
+	}
+
+	private void acceptAAS(Object aasMap, Consumer<IAssetAdministrationShell> consumer) {
+		if (aasMap != null) {
+			consumer.accept(toAAS(aasMap));
+		}
+	}
+
+	private ListObjectsV2Result listAASObjects(ListObjectsV2Request request) {
+		try {
+			return s3Client.listObjectsV2(request);
+		} catch (AmazonS3Exception e) {
+			if (request.getContinuationToken() != null && e.getStatusCode() == 400) {
+				throw new MalformedRequestException("Invalid continuation token '" + request.getContinuationToken() + "'");
+			}
+			throw e;
+		}
+	}
+
 	@Override
 	public IAssetAdministrationShell getAAS(IIdentifier aasId) throws ResourceNotFoundException {
-		IModelProvider aasProvider = getAASProvider(aasId);
+		try (S3RequestMetrics.Scope scope = S3RequestMetrics.begin("getAAS")) {
+			IModelProvider aasProvider = getAASProvider(aasId);
 
-		@SuppressWarnings("unchecked")
-		Map<String, Object> aasMap = (Map<String, Object>) aasProvider.getValue("/aas");
-		return AssetAdministrationShell.createAsFacade(aasMap);
+			@SuppressWarnings("unchecked")
+			Map<String, Object> aasMap = (Map<String, Object>) aasProvider.getValue("/aas");
+			return AssetAdministrationShell.createAsFacade(aasMap);
+		}
 	}
 
 	@Override
 	public IModelProvider getAASProvider(IIdentifier aasId) throws ResourceNotFoundException {
-		MultiSubmodelProvider provider = aasProviderMap.get(aasId.getId());
-		if (provider == null) {
-			throw new ResourceNotFoundException("AAS with Id " + aasId.getId() + " does not exist");
+		try (S3RequestMetrics.Scope scope = S3RequestMetrics.begin("getAASProvider")) {
+			MultiSubmodelProvider provider = findProvider(aasId.getId());
+			if (provider == null) {
+				throw new ResourceNotFoundException("AAS with Id " + aasId.getId() + " does not exist");
+			}
+			return provider;
 		}
-		return provider;
 	}
 
 	@Override
 	public void createAAS(AssetAdministrationShell aas) {
-		IAASAPI aasApi = this.aasApiProvider.create(aas);
-		MultiSubmodelProvider provider = createMultiSubmodelProvider(aasApi);
-		aasProviderMap.put(aas.getIdentification().getId(), provider);
+		Lock lock = aasLocks.get(aas.getIdentification().getId());
+		lock.lock();
+		try (S3RequestMetrics.Scope scope = S3RequestMetrics.begin("createAAS")) {
+			IAASAPI aasApi = this.aasApiProvider.create(aas);
+			MultiSubmodelProvider provider = createMultiSubmodelProvider(aasApi);
+			putProvider(aas.getIdentification().getId(), provider);
+		} finally {
+			lock.unlock();
+		}
 	}
 
 	@Override
 	public void updateAAS(AssetAdministrationShell aas) throws ResourceNotFoundException {
-		MultiSubmodelProvider oldProvider = (MultiSubmodelProvider) getAASProvider(aas.getIdentification());
-		IAASAPI aasApi = aasApiProvider.create(aas);
-		AASModelProvider contentProvider = new AASModelProvider(aasApi);
-		IConnectorFactory connectorFactory = oldProvider.getConnectorFactory();
+		Lock lock = aasLocks.get(aas.getIdentification().getId());
+		lock.lock();
+		try (S3RequestMetrics.Scope scope = S3RequestMetrics.begin("updateAAS")) {
+			MultiSubmodelProvider oldProvider = (MultiSubmodelProvider) getAASProvider(aas.getIdentification());
+			IAASAPI aasApi = aasApiProvider.create(aas);
+			AASModelProvider contentProvider = new AASModelProvider(aasApi);
+			IConnectorFactory connectorFactory = oldProvider.getConnectorFactory();
 
-		MultiSubmodelProvider updatedProvider = new MultiSubmodelProvider(contentProvider, registry, connectorFactory,
-				aasApiProvider, oldProvider.getSmAggregator());
+			MultiSubmodelProvider updatedProvider = new MultiSubmodelProvider(contentProvider, registry, connectorFactory,
+					aasApiProvider, oldProvider.getSmAggregator());
 
-		aasProviderMap.put(aas.getIdentification().getId(), updatedProvider);
-		logger.info("update aas with id {}", aas.getIdentification().getId());
+			putProvider(aas.getIdentification().getId(), updatedProvider);
+			logger.info("update aas with id {}", aas.getIdentification().getId());
+		} finally {
+			lock.unlock();
+		}
 	}
 
 	@Override
 	public void deleteAAS(IIdentifier aasId) {
-		if (!S3Helper.isVersionedBucket(s3Client, aasBucketName)) {
+		Lock lock = aasLocks.get(aasId.getId());
+		lock.lock();
+		try (S3RequestMetrics.Scope scope = S3RequestMetrics.begin("deleteAAS")) {
+			deleteAASFromBucket(aasId);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void deleteAASFromBucket(IIdentifier aasId) {
+		if (!isVersionedAASBucket()) {
 			try {
 				s3Client.deleteObject(new DeleteObjectRequest(aasBucketName, aasId.getId()));
 			} catch (AmazonS3Exception e) {
 				throw new ResourceNotFoundException("No aas found with id " + aasId.getId());
 			}
+			removeProvider(aasId.getId());
 			return;
 		}
 
-		VersionListing versionListing = S3Helper.listBucketVersions(s3Client, aasBucketName);
-		while (true) {
-			for (Iterator<?> iterator = versionListing.getVersionSummaries().iterator(); iterator.hasNext();) {
-				S3VersionSummary versionSummary = (S3VersionSummary) iterator.next();
-				String key = versionSummary.getKey();
-				if (key.equals(aasId.getId())) {
-					String versionId = versionSummary.getVersionId();
-					s3Client.deleteVersion(aasBucketName, key, versionId);
-				}
-			}
+		S3Helper.deleteAllVersions(s3Client, aasBucketName, aasId.getId());
+		removeProvider(aasId.getId());
+	}
 
-			if (versionListing.isTruncated()) {
-				versionListing = s3Client.listNextBatchOfVersions(versionListing);
-			} else {
-				break;
-			}
+	/**
+	 * Returns whether the AAS bucket is versioned, see
+	 * {@link S3Helper#isVersionedBucket(AmazonS3, String)}. The status is only
+	 * requested once.
+	 */
+	private boolean isVersionedAASBucket() {
+		if (versionedAASBucket == null) {
+			versionedAASBucket = S3Helper.isVersionedBucket(s3Client, aasBucketName);
 		}
-		aasProviderMap.remove(aasId.getId());
+		return versionedAASBucket;
 	}
 
 	public void reset() {
-		deleteBucket(s3Client, aasBucketName);
-		deleteBucket(s3Client, submodelBucketName);
+		try (S3RequestMetrics.Scope scope = S3RequestMetrics.begin("reset")) {
+			S3Helper.wipeBucket(s3Client, aasBucketName);
+			submodelBucket.wipe();
+		}
 		aasProviderMap.clear();
-	}
-
-	private void deleteBucket(AmazonS3 s3Client, String bucketName) {
-		if (S3Helper.isVersionedBucket(s3Client, bucketName)) {
-			S3Helper.wipeVersionedBucket(s3Client, bucketName);
-			return;
+		if (providerCache != null) {
+			providerCache.clear();
 		}
-		S3Helper.wipeUnversionedBucket(s3Client, bucketName);
 	}
 }
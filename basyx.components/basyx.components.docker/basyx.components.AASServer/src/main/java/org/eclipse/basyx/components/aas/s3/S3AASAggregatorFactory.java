@@ -16,6 +16,7 @@ public class S3AASAggregatorFactory implements IAASAggregatorFactory {
 	private IAASAPIFactory aasAPIFactory;
 	private ISubmodelAggregatorFactory smAggregatorFactory;
 	private AmazonS3 s3Client;
+	private S3SubmodelBucket submodelBucket;
 	private IAASRegistry registry;
 	
 
@@ -29,9 +30,23 @@ public class S3AASAggregatorFactory implements IAASAggregatorFactory {
 		this.registry = registry;
 	}
 
+	/**
+	 * @param submodelBucket
+	 *            the submodel bucket shared with the submodel aggregators and APIs
+	 *            of the component
+	 */
+	public S3AASAggregatorFactory(IAASRegistry registry, BaSyxS3Configuration config, IAASAPIFactory aasAPIFactory,
+			ISubmodelAggregatorFactory smAggregatorFactory, S3SubmodelBucket submodelBucket) {
+		this(registry, config, aasAPIFactory, smAggregatorFactory, submodelBucket.getS3Client());
+		this.submodelBucket = submodelBucket;
+	}
+
 	@Override
 	public IAASAggregator create() {
 		try {
+			if (submodelBucket != null) {
+				return new S3AASAggregator(registry, config, aasAPIFactory, smAggregatorFactory, submodelBucket);
+			}
 			return new S3AASAggregator(registry, config, aasAPIFactory, smAggregatorFactory, s3Client);
 		} catch (IOException e) {
 			// TODO Auto-generated catch block
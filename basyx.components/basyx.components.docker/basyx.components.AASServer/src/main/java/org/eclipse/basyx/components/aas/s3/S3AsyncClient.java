@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (C) 2022 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.components.aas.s3;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.eclipse.basyx.components.aas.configuration.BaSyxS3Configuration;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.ListObjectsV2Request;
+import com.amazonaws.services.s3.model.ListObjectsV2Result;
+
+/**
+ * Futures-based access to a S3 client. Requests are submitted without blocking
+ * the caller and run on a bounded pool of I/O threads, so that many requests
+ * are pipelined over the connection pool of the client. Requests exceeding the
+ * maximum concurrency are queued.
+ * 
+ * Idle threads are released after a minute, so that the client does not have
+ * to be shut down.
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class S3AsyncClient {
+	private static final long KEEP_ALIVE_SECONDS = 60;
+	private static final AtomicInteger threadCount = new AtomicInteger();
+
+	private final AmazonS3 s3Client;
+	private final ThreadPoolExecutor executor;
+
+	public S3AsyncClient(AmazonS3 s3Client, int maxConcurrency) {
+		this.s3Client = s3Client;
+		int threads = Math.max(maxConcurrency, 1);
+		this.executor = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+			Thread thread = new Thread(runnable, "s3-async-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.executor.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * Creates an asynchronous client with the maximum concurrency of the
+	 * configuration
+	 */
+	public S3AsyncClient(AmazonS3 s3Client, BaSyxS3Configuration config) {
+		this(s3Client, config.getMaxConcurrency());
+	}
+
+	public AmazonS3 getS3Client() {
+		return s3Client;
+	}
+
+	public int getMaxConcurrency() {
+		return executor.getMaximumPoolSize();
+	}
+
+	/**
+	 * Submits a request. The request is counted for the S3 operation of the
+	 * calling thread, see {@link S3RequestMetrics}.
+	 * 
+	 * @return a future completed with the result of the request or with the
+	 *         exception thrown by the request
+	 */
+	public <T> CompletableFuture<T> submit(Function<AmazonS3, T> request) {
+		CompletableFuture<T> future = new CompletableFuture<>();
+		executor.execute(S3RequestMetrics.wrap(() -> {
+			try {
+				future.complete(request.apply(s3Client));
+			} catch (Throwable e) {
+				future.completeExceptionally(e);
+			}
+		}));
+		return future;
+	}
+
+	/**
+	 * Downloads and parses a BaSyx object, see
+	 * {@link S3Helper#getBaSyxObject(AmazonS3, String, String)}
+	 * 
+	 * @return a future completed with the object or with null, if there is no
+	 *         such object
+	 */
+	public CompletableFuture<Object> getBaSyxObject(String bucketName, String key) {
+		return submit(client -> {
+			try {
+				return S3Helper.getBaSyxObject(client, bucketName, key);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+	}
+
+	public CompletableFuture<ListObjectsV2Result> listObjects(ListObjectsV2Request request) {
+		return submit(client -> client.listObjectsV2(request));
+	}
+
+	/**
+	 * Returns the number of submitted requests that have not been started yet
+	 */
+	public int getQueuedRequestCount() {
+		return executor.getQueue().size();
+	}
+}
@@ -0,0 +1,202 @@
+/*******************************************************************************
+ * Copyright (C) 2022 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.components.aas.s3;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest.KeyVersion;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException;
+
+/**
+ * Deletes objects or object versions of a bucket with multi-object delete
+ * requests of up to {@value #MAX_BATCH_SIZE} keys each. The requests are sent
+ * by a small worker pool, while the caller keeps listing the bucket. Instead of
+ * logging each deletion, the progress is summarized periodically.
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class S3BatchDeleter implements AutoCloseable {
+	private static Logger logger = LoggerFactory.getLogger(S3BatchDeleter.class);
+
+	/**
+	 * The maximum number of keys of a multi-object delete request
+	 */
+	public static final int MAX_BATCH_SIZE = 1000;
+	public static final int DEFAULT_PARALLELISM = 4;
+	private static final long PROGRESS_INTERVAL = 5000;
+
+	private final AmazonS3 s3Client;
+	private final String bucketName;
+	private final ExecutorService workers;
+	// Limits the number of batches waiting for a worker
+	private final Semaphore pendingBatches;
+	private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+	private final AtomicLong submitted = new AtomicLong();
+	private final AtomicLong deleted = new AtomicLong();
+	private final AtomicLong requests = new AtomicLong();
+	private final long start = System.currentTimeMillis();
+	private long lastProgress = start;
+
+	/**
+	 * @param parallelism
+	 *            the number of concurrent delete requests. Values &lt;= 1 delete
+	 *            in the calling thread
+	 */
+	public S3BatchDeleter(AmazonS3 s3Client, String bucketName, int parallelism) {
+		this.s3Client = s3Client;
+		this.bucketName = bucketName;
+		if (parallelism > 1) {
+			this.workers = Executors.newFixedThreadPool(parallelism, runnable -> {
+				Thread thread = new Thread(runnable, "s3-delete-" + bucketName);
+				thread.setDaemon(true);
+				return thread;
+			});
+			this.pendingBatches = new Semaphore(2 * parallelism);
+		} else {
+			this.workers = null;
+			this.pendingBatches = null;
+		}
+	}
+
+	/**
+	 * Deletes the given keys, split into batches of at most
+	 * {@value #MAX_BATCH_SIZE} keys. Returns as soon as the batches have been
+	 * handed to the workers.
+	 * 
+	 * @throws RuntimeException
+	 *             the failure of a previous batch
+	 */
+	public void delete(List<KeyVersion> keys) {
+		for (int from = 0; from < keys.size(); from += MAX_BATCH_SIZE) {
+			List<KeyVersion> batch = new ArrayList<>(keys.subList(from, Math.min(from + MAX_BATCH_SIZE, keys.size())));
+			submitted.addAndGet(batch.size());
+			submit(batch);
+		}
+	}
+
+	/**
+	 * Waits for all batches to be deleted and logs a summary
+	 * 
+	 * @return the number of deleted keys
+	 * @throws RuntimeException
+	 *             the first failure of a batch
+	 */
+	public long finish() {
+		if (workers != null) {
+			workers.shutdown();
+			try {
+				while (!workers.awaitTermination(PROGRESS_INTERVAL, TimeUnit.MILLISECONDS)) {
+					logProgress();
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while deleting from bucket " + bucketName, e);
+			}
+		}
+		throwFailure();
+		logger.debug("Deleted {} objects from bucket '{}' with {} requests in {} ms.", deleted.get(), bucketName, requests.get(), System.currentTimeMillis() - start);
+		return deleted.get();
+	}
+
+	/**
+	 * Stops the workers, e.g. if the listing of the bucket failed
+	 */
+	@Override
+	public void close() {
+		if (workers != null) {
+			workers.shutdownNow();
+		}
+	}
+
+	private void submit(List<KeyVersion> batch) {
+		throwFailure();
+		if (workers == null) {
+			deleteBatch(batch);
+			throwFailure();
+			return;
+		}
+
+		try {
+			pendingBatches.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while deleting from bucket " + bucketName, e);
+		}
+		workers.execute(S3RequestMetrics.wrap(() -> {
+			try {
+				deleteBatch(batch);
+			} finally {
+				pendingBatches.release();
+			}
+		}));
+	}
+
+	private void deleteBatch(List<KeyVersion> batch) {
+		if (failure.get() != null) {
+			return;
+		}
+		try {
+			s3Client.deleteObjects(new DeleteObjectsRequest(bucketName).withKeys(batch).withQuiet(true));
+			deleted.addAndGet(batch.size());
+		} catch (MultiObjectDeleteException e) {
+			deleted.addAndGet(batch.size() - e.getErrors().size());
+			failure.compareAndSet(null, e);
+		} catch (RuntimeException e) {
+			failure.compareAndSet(null, e);
+		}
+		requests.incrementAndGet();
+		logProgress();
+	}
+
+	private synchronized void logProgress() {
+		long now = System.currentTimeMillis();
+		if (now - lastProgress >= PROGRESS_INTERVAL) {
+			lastProgress = now;
+			logger.info("Deleted {} of {} listed objects from bucket '{}' so far.", deleted.get(), submitted.get(), bucketName);
+		}
+	}
+
+	private void throwFailure() {
+		RuntimeException e = failure.get();
+		if (e != null) {
+			close();
+			throw e;
+		}
+	}
+}
@@ -0,0 +1,187 @@
+/*******************************************************************************
+ * Copyright (C) 2022 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.components.aas.s3;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+
+/**
+ * The content encodings that objects in S3 buckets can be compressed with. The
+ * encoding of an object is stored as its Content-Encoding, so that a reader
+ * does not need to know the configuration of the writer.
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public enum S3ContentEncoding {
+	IDENTITY("identity", new byte[0]) {
+		@Override
+		public OutputStream encode(OutputStream out) {
+			return out;
+		}
+
+		@Override
+		public InputStream decode(InputStream in) {
+			return in;
+		}
+	},
+	GZIP("gzip", new byte[] { (byte) 0x1f, (byte) 0x8b }) {
+		@Override
+		public OutputStream encode(OutputStream out) throws IOException {
+			return new GZIPOutputStream(out, BUFFER_SIZE);
+		}
+
+		@Override
+		public InputStream decode(InputStream in) throws IOException {
+			return new GZIPInputStream(in, BUFFER_SIZE);
+		}
+	},
+	ZSTD("zstd", new byte[] { (byte) 0x28, (byte) 0xb5, (byte) 0x2f, (byte) 0xfd }) {
+		@Override
+		public OutputStream encode(OutputStream out) throws IOException {
+			return new ZstdOutputStream(out);
+		}
+
+		@Override
+		public InputStream decode(InputStream in) throws IOException {
+			return new ZstdInputStream(in);
+		}
+	};
+
+	private static final int BUFFER_SIZE = 8 * 1024;
+	private static final int MAX_MAGIC_LENGTH = 4;
+
+	private final String name;
+	private final byte[] magic;
+
+	private S3ContentEncoding(String name, byte[] magic) {
+		this.name = name;
+		this.magic = magic;
+	}
+
+	/**
+	 * Returns the name of the encoding as used in the Content-Encoding header
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Wraps a stream, so that the written bytes are compressed. Closing the
+	 * returned stream finishes the compressed data and closes the given stream.
+	 */
+	public abstract OutputStream encode(OutputStream out) throws IOException;
+
+	/**
+	 * Wraps a stream, so that the read bytes are decompressed
+	 */
+	public abstract InputStream decode(InputStream in) throws IOException;
+
+	/**
+	 * Sets the Content-Encoding of an object to this encoding. Uncompressed
+	 * objects do not state an encoding.
+	 */
+	public void applyTo(ObjectMetadata metadata) {
+		if (this != IDENTITY) {
+			metadata.setContentEncoding(name);
+		}
+	}
+
+	/**
+	 * Returns the encoding of a name, ignoring its case. Null and empty names are
+	 * the identity.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the encoding is not supported
+	 */
+	public static S3ContentEncoding fromName(String name) {
+		if (name == null || name.isBlank()) {
+			return IDENTITY;
+		}
+		for (S3ContentEncoding encoding : values()) {
+			if (encoding.name.equalsIgnoreCase(name.trim())) {
+				return encoding;
+			}
+		}
+		throw new IllegalArgumentException("Unsupported content encoding " + name);
+	}
+
+	/**
+	 * Returns the encoding of an object as stated by its Content-Encoding
+	 */
+	public static S3ContentEncoding of(ObjectMetadata metadata) {
+		return fromName(metadata.getContentEncoding());
+	}
+
+	/**
+	 * Decodes the content of an object. If the object does not state an encoding,
+	 * e.g. because a client dropped the header, the encoding is detected from the
+	 * leading bytes of the content. This cannot misdetect JSON, which never starts
+	 * with these bytes.
+	 */
+	public static InputStream decode(ObjectMetadata metadata, InputStream content) throws IOException {
+		S3ContentEncoding stated = of(metadata);
+		if (stated != IDENTITY) {
+			return stated.decode(content);
+		}
+		InputStream in = new BufferedInputStream(content, BUFFER_SIZE);
+		in.mark(MAX_MAGIC_LENGTH);
+		byte[] head = in.readNBytes(MAX_MAGIC_LENGTH);
+		in.reset();
+		return detect(head).decode(in);
+	}
+
+	/**
+	 * Returns the encoding of content by its leading bytes
+	 */
+	static S3ContentEncoding detect(byte[] head) {
+		for (S3ContentEncoding encoding : values()) {
+			if (encoding != IDENTITY && startsWith(head, encoding.magic)) {
+				return encoding;
+			}
+		}
+		return IDENTITY;
+	}
+
+	private static boolean startsWith(byte[] head, byte[] prefix) {
+		if (head.length < prefix.length) {
+			return false;
+		}
+		for (int i = 0; i < prefix.length; i++) {
+			if (head[i] != prefix[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
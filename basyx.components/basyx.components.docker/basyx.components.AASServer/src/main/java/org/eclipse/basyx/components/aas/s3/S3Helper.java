@@ -24,16 +24,16 @@
  ******************************************************************************/
 package org.eclipse.basyx.components.aas.s3;
 
-import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
+import java.util.Base64;
 import java.util.Date;
-import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -41,10 +41,13 @@ import java.util.stream.Collectors;
 import org.eclipse.basyx.components.aas.configuration.BaSyxS3Configuration;
 import org.eclipse.basyx.components.aas.submodelserializer.SubmodelSerializer;
 import org.eclipse.basyx.submodel.metamodel.api.ISubmodel;
+import org.eclipse.basyx.vab.exception.provider.ProviderException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.amazonaws.AmazonClientException;
 import com.amazonaws.AmazonServiceException;
+import com.amazonaws.ClientConfiguration;
 import com.amazonaws.SDKGlobalConfiguration;
 import com.amazonaws.auth.AWSCredentialsProvider;
 import com.amazonaws.auth.AWSStaticCredentialsProvider;
@@ -56,15 +59,14 @@ import com.amazonaws.services.s3.AmazonS3ClientBuilder;
 import com.amazonaws.services.s3.model.AmazonS3Exception;
 import com.amazonaws.services.s3.model.Bucket;
 import com.amazonaws.services.s3.model.BucketVersioningConfiguration;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest.KeyVersion;
 import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.ListObjectsV2Request;
 import com.amazonaws.services.s3.model.ListObjectsV2Result;
 import com.amazonaws.services.s3.model.ListVersionsRequest;
-import com.amazonaws.services.s3.model.ObjectListing;
 import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.amazonaws.services.s3.model.S3Object;
-import com.amazonaws.services.s3.model.S3ObjectInputStream;
 import com.amazonaws.services.s3.model.S3ObjectSummary;
-import com.amazonaws.services.s3.model.S3VersionSummary;
 import com.amazonaws.services.s3.model.SetBucketVersioningConfigurationRequest;
 import com.amazonaws.services.s3.model.VersionListing;
 import com.google.gson.Gson;
@@ -77,12 +79,20 @@ import com.google.gson.Gson;
 public class S3Helper {
 	private static Logger logger = LoggerFactory.getLogger(S3Helper.class);
 
+	/**
+	 * Prefix of the objects in a bucket that are maintained by BaSyx itself, e.g.
+	 * indexes, instead of representing an AAS or submodel
+	 */
+	public static final String INTERNAL_KEY_PREFIX = ".basyx/";
+
 	public static AmazonS3 createS3Client(BaSyxS3Configuration config) {
 		handleCertCheckingPolicy(config);
 		logger.info("Create AmazonS3 client...");
 		EndpointConfiguration endpointConfiguration = createEndpointConfiguration(config);
 		AmazonS3ClientBuilder amazonS3ClientBuilder = AmazonS3ClientBuilder.standard()
-				.withEndpointConfiguration(endpointConfiguration).withCredentials(createCredentials(config));
+				.withEndpointConfiguration(endpointConfiguration).withCredentials(createCredentials(config))
+				.withClientConfiguration(createClientConfiguration(config))
+				.withRequestHandlers(S3RequestMetrics.getRequestHandler());
 
 		if (isPathStyleAccessEnabled(config)) {
 			// needed for testing with io.findify.s3mock.S3Mock
@@ -124,60 +134,137 @@ public class S3Helper {
 		}
 
 		if (!isBucketBlank(s3Client, bucketName)) {
-			if (isVersionedBucket(s3Client, bucketName)) {
-				wipeVersionedBucket(s3Client, bucketName);
-			} else {
-				wipeUnversionedBucket(s3Client, bucketName);
-			}
+			wipeBucket(s3Client, bucketName);
 		}
 		s3Client.deleteBucket(bucketName);
 		logger.info("Deleted bucket '{}'.", bucketName);
 	}
 
+	/**
+	 * Deletes all objects or, if the bucket is versioned, all object versions of a
+	 * bucket
+	 */
+	public static void wipeBucket(AmazonS3 s3Client, String bucketName) {
+		if (isVersionedBucket(s3Client, bucketName)) {
+			wipeVersionedBucket(s3Client, bucketName);
+		} else {
+			wipeUnversionedBucket(s3Client, bucketName);
+		}
+	}
+
 	public static void wipeUnversionedBucket(AmazonS3 s3Client, String bucketName) {
-		ObjectListing object_listing = s3Client.listObjects(bucketName);
-		while (true) {
-			for (Iterator<?> iterator = object_listing.getObjectSummaries().iterator(); iterator.hasNext();) {
-				S3ObjectSummary summary = (S3ObjectSummary) iterator.next();
-				String key = summary.getKey();
-				deleteObjectFromUnversionedBucket(s3Client, bucketName, key);
-			}
+		wipeUnversionedBucket(s3Client, bucketName, S3BatchDeleter.DEFAULT_PARALLELISM);
+	}
 
-			if (object_listing.isTruncated()) {
-				object_listing = s3Client.listNextBatchOfObjects(object_listing);
-			} else {
-				break;
-			}
+	/**
+	 * Deletes all objects of a bucket with multi-object delete requests
+	 * 
+	 * @param parallelism
+	 *            the number of concurrent delete requests
+	 */
+	public static void wipeUnversionedBucket(AmazonS3 s3Client, String bucketName, int parallelism) {
+		// S3 lists at most 1000 keys per page, i.e. one batch
+		ListObjectsV2Request request = new ListObjectsV2Request().withBucketName(bucketName);
+		try (S3RequestMetrics.Scope scope = S3RequestMetrics.begin("wipeBucket"); S3BatchDeleter deleter = new S3BatchDeleter(s3Client, bucketName, parallelism)) {
+			ListObjectsV2Result result;
+			do {
+				result = s3Client.listObjectsV2(request);
+				deleter.delete(result.getObjectSummaries().stream().map(summary -> new KeyVersion(summary.getKey())).collect(Collectors.toList()));
+				request.setContinuationToken(result.getNextContinuationToken());
+			} while (result.isTruncated());
+			deleter.finish();
 		}
 	}
 
 	public static void wipeVersionedBucket(AmazonS3 s3Client, String bucketName) {
-		VersionListing version_listing = listBucketVersions(s3Client, bucketName);
-		while (true) {
-			for (Iterator<?> iterator = version_listing.getVersionSummaries().iterator(); iterator.hasNext();) {
-				S3VersionSummary versionSummary = (S3VersionSummary) iterator.next();
-				String key = versionSummary.getKey();
-				String versionId = versionSummary.getVersionId();
-				deleteObjectFromVersionedBucket(s3Client, bucketName, key, versionId);
-			}
+		wipeVersionedBucket(s3Client, bucketName, S3BatchDeleter.DEFAULT_PARALLELISM);
+	}
 
-			if (version_listing.isTruncated()) {
-				version_listing = s3Client.listNextBatchOfVersions(version_listing);
-			} else {
-				break;
+	/**
+	 * Deletes all object versions of a bucket with multi-object delete requests
+	 * 
+	 * @param parallelism
+	 *            the number of concurrent delete requests
+	 */
+	public static void wipeVersionedBucket(AmazonS3 s3Client, String bucketName, int parallelism) {
+		try (S3RequestMetrics.Scope scope = S3RequestMetrics.begin("wipeBucket"); S3BatchDeleter deleter = new S3BatchDeleter(s3Client, bucketName, parallelism)) {
+			deleteVersions(s3Client, new ListVersionsRequest().withBucketName(bucketName), deleter, key -> true);
+			deleter.finish();
+		}
+	}
+
+	/**
+	 * Deletes all versions of an object with multi-object delete requests
+	 * 
+	 * @return the number of deleted versions
+	 */
+	public static long deleteAllVersions(AmazonS3 s3Client, String bucketName, String key) {
+		try (S3BatchDeleter deleter = new S3BatchDeleter(s3Client, bucketName, 1)) {
+			// The prefix also lists other keys starting with the key
+			deleteVersions(s3Client, new ListVersionsRequest().withBucketName(bucketName).withPrefix(key), deleter, key::equals);
+			return deleter.finish();
+		}
+	}
+
+	/**
+	 * Deletes all versions of all objects with the given key prefix
+	 * 
+	 * @return the number of deleted versions
+	 */
+	public static long deleteAllVersionsByPrefix(AmazonS3 s3Client, String bucketName, String prefix) {
+		try (S3BatchDeleter deleter = new S3BatchDeleter(s3Client, bucketName, 1)) {
+			deleteVersions(s3Client, new ListVersionsRequest().withBucketName(bucketName).withPrefix(prefix), deleter, key -> true);
+			return deleter.finish();
+		}
+	}
+
+	/**
+	 * Deletes all objects with the given key prefix from an unversioned bucket
+	 * 
+	 * @return the number of deleted objects
+	 */
+	public static long deleteObjectsByPrefix(AmazonS3 s3Client, String bucketName, String prefix) {
+		ListObjectsV2Request request = new ListObjectsV2Request().withBucketName(bucketName).withPrefix(prefix);
+		try (S3BatchDeleter deleter = new S3BatchDeleter(s3Client, bucketName, 1)) {
+			ListObjectsV2Result result;
+			do {
+				result = s3Client.listObjectsV2(request);
+				deleter.delete(result.getObjectSummaries().stream().map(summary -> new KeyVersion(summary.getKey())).collect(Collectors.toList()));
+				request.setContinuationToken(result.getNextContinuationToken());
+			} while (result.isTruncated());
+			return deleter.finish();
+		}
+	}
+
+	private static void deleteVersions(AmazonS3 s3Client, ListVersionsRequest request, S3BatchDeleter deleter, Predicate<String> keyFilter) {
+		VersionListing listing = s3Client.listVersions(request);
+		while (true) {
+			deleter.delete(listing.getVersionSummaries().stream().filter(version -> keyFilter.test(version.getKey()))
+					.map(version -> new KeyVersion(version.getKey(), version.getVersionId())).collect(Collectors.toList()));
+			if (!listing.isTruncated()) {
+				return;
 			}
+			listing = s3Client.listNextBatchOfVersions(listing);
 		}
 	}
 
 	public static void deleteObjectFromUnversionedBucket(AmazonS3 s3Client, String bucketName, String key) {
 		s3Client.deleteObject(bucketName, key);
-		logger.info("Removed object '{}' from bucket '{}'.", key, bucketName);
+		logger.debug("Removed object '{}' from bucket '{}'.", key, bucketName);
 	}
 
 	public static void deleteObjectFromVersionedBucket(AmazonS3 s3Client, String bucketName, String key,
 			String versionId) {
 		s3Client.deleteVersion(bucketName, key, versionId);
-		logger.info("Removed version '{}' of object '{}' from bucket '{}'.", versionId, key, bucketName);
+		logger.debug("Removed version '{}' of object '{}' from bucket '{}'.", versionId, key, bucketName);
+	}
+
+	/**
+	 * Creates the configuration of the connection pool and the retry policy of a
+	 * S3 client
+	 */
+	public static ClientConfiguration createClientConfiguration(BaSyxS3Configuration config) {
+		return new ClientConfiguration().withMaxConnections(config.getMaxConnections()).withMaxErrorRetry(config.getMaxErrorRetry());
 	}
 
 	private static void handleCertCheckingPolicy(BaSyxS3Configuration config) {
@@ -220,12 +307,19 @@ public class S3Helper {
 	}
 
 	private static boolean isBucketBlank(AmazonS3 s3Client, String bucketName) {
-		return listBucketContentKeys(s3Client, bucketName) == null
-				|| listBucketContentKeys(s3Client, bucketName).size() == 0;
+		ListObjectsV2Request request = new ListObjectsV2Request().withBucketName(bucketName).withMaxKeys(1);
+		return s3Client.listObjectsV2(request).getObjectSummaries().isEmpty();
 	}
 
+	/**
+	 * Returns whether versioning is or has been enabled for the bucket. Buckets
+	 * with suspended versioning count as versioned: they keep the versions written
+	 * before the suspension, and a plain delete only adds a delete marker on top
+	 * of them, so all versions of an object have to be deleted.
+	 */
 	public static boolean isVersionedBucket(AmazonS3 s3Client, String bucketName) {
-		return listBucketVersions(s3Client, bucketName) != null;
+		String status = s3Client.getBucketVersioningConfiguration(bucketName).getStatus();
+		return !BucketVersioningConfiguration.OFF.equals(status);
 	}
 
 	public static VersionListing listBucketVersions(AmazonS3 s3Client, String bucketName) {
@@ -244,13 +338,88 @@ public class S3Helper {
 		S3Object fullObject;
 		try {
 			fullObject = s3Client.getObject(new GetObjectRequest(bucketName, key));
-			byte[] objectJsonBytes = fullObject.getObjectContent().readAllBytes();
-			String jsonString = new String(objectJsonBytes);
-			fullObject.close();
-			return jsonString;
 		} catch (AmazonServiceException e) {
 			return null;
-        } 
+		}
+		return readContent(fullObject);
+	}
+
+	/**
+	 * Get an AAS or Submodel deserialized from its JSON with the GSONTools
+	 * 
+	 * @param s3Client
+	 * @param bucketName
+	 * @param key
+	 *            - id of aas or submodel
+	 * @return - aas or submodel as map or null, if there is no such object
+	 * @throws IOException
+	 */
+	public static Object getBaSyxObject(AmazonS3 s3Client, String bucketName, String key) throws IOException {
+		S3Object fullObject;
+		try {
+			fullObject = s3Client.getObject(new GetObjectRequest(bucketName, key));
+		} catch (AmazonServiceException e) {
+			return null;
+		}
+		return S3JsonCodec.download(fullObject);
+	}
+
+	/**
+	 * Downloads and parses a specific version of an object
+	 * 
+	 * @return the object as map or null, if there is no such version
+	 */
+	public static Object getBaSyxObjectVersion(AmazonS3 s3Client, String bucketName, String key, String versionId) throws IOException {
+		S3Object fullObject;
+		try {
+			fullObject = s3Client.getObject(new GetObjectRequest(bucketName, key, versionId));
+		} catch (AmazonServiceException e) {
+			return null;
+		}
+		return S3JsonCodec.download(fullObject);
+	}
+
+	public static boolean isInternalKey(String key) {
+		return key.startsWith(INTERNAL_KEY_PREFIX);
+	}
+
+	/**
+	 * Encodes an id as a single segment of a key. URL safe Base64 is used, so that
+	 * the segment neither contains a slash nor characters that need special
+	 * handling in S3.
+	 */
+	public static String encodeKeySegment(String id) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(id.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Decodes a key segment created by {@link #encodeKeySegment(String)}
+	 */
+	public static String decodeKeySegment(String segment) {
+		return new String(Base64.getUrlDecoder().decode(segment), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Reads the content of an object into a single buffer of its content length
+	 * and closes the object. Compressed objects are decompressed.
+	 */
+	private static String readContent(S3Object object) throws IOException {
+		try (S3Object toClose = object) {
+			ObjectMetadata metadata = object.getObjectMetadata();
+			S3ContentEncoding encoding = S3ContentEncoding.of(metadata);
+			if (encoding != S3ContentEncoding.IDENTITY) {
+				// The content length is the compressed length
+				return new String(encoding.decode(object.getObjectContent()).readAllBytes(), StandardCharsets.UTF_8);
+			}
+			long length = metadata.getContentLength();
+			InputStream in = object.getObjectContent();
+			byte[] content = length > 0 && length < Integer.MAX_VALUE ? in.readNBytes((int) length) : in.readAllBytes();
+			encoding = S3ContentEncoding.detect(content);
+			if (encoding != S3ContentEncoding.IDENTITY) {
+				content = encoding.decode(new ByteArrayInputStream(content)).readAllBytes();
+			}
+			return new String(content, StandardCharsets.UTF_8);
+		}
 	}
 
 	/**
@@ -262,25 +431,42 @@ public class S3Helper {
 	 * @param bucketName
 	 * @param submodel
 	 * @param key
+	 * @throws ProviderException
+	 *             if the upload failed
 	 */
 	public static void uploadSubmodelToBucket(AmazonS3 s3Client, String bucketName, ISubmodel submodel, String key) {
 		//key = listBucketContentKeys(s3Client, bucketName).contains(key) ? key + ".update" : key;
-		String jsonSubmodel = SubmodelSerializer.serialize(submodel);
+		uploadSubmodelToBucket(s3Client, bucketName, submodel, key, S3ContentEncoding.IDENTITY, false);
+	}
+
+	/**
+	 * Uploads a submodel to a given S3 bucket, compressed with the given encoding.
+	 * The JSON is serialized once while it is uploaded, see {@link S3JsonCodec}.
+	 * 
+	 * @param deserialize
+	 *            whether the upload shall also provide the deserialized form of
+	 *            the submodel, e.g. to cache it
+	 * @return the upload, including ETag and version id
+	 * @throws ProviderException
+	 *             if the upload failed
+	 */
+	public static S3JsonCodec.Upload uploadSubmodelToBucket(AmazonS3 s3Client, String bucketName, ISubmodel submodel, String key, S3ContentEncoding encoding, boolean deserialize) {
 		ObjectMetadata metadata = addSubmodelMetadata(submodel);
+		encoding.applyTo(metadata);
 
 		try {
-			s3Client.putObject(bucketName, key, new ByteArrayInputStream(jsonSubmodel.getBytes()), metadata);
-		} catch (AmazonServiceException e) {
-			e.printStackTrace();
+			return S3JsonCodec.upload(s3Client, bucketName, key, submodel, metadata, deserialize);
+		} catch (AmazonClientException e) {
+			logger.error("Could not upload submodel '{}' to bucket '{}'", key, bucketName, e);
+			throw new ProviderException("Could not upload submodel " + key + " to bucket " + bucketName, e);
 		}
 	}
 
 	public static String downloadBucketContentByKey(AmazonS3 s3Client, String bucketName, String key) {
 		S3Object object = s3Client.getObject(bucketName, key);
-		try (S3ObjectInputStream s3ObjectInputStream = object.getObjectContent()) {
-			String content = new BufferedReader(new InputStreamReader(s3ObjectInputStream, StandardCharsets.UTF_8))
-					.lines().collect(Collectors.joining("\n"));
-			logger.info("Downloaded content of bucket '{}' for key '{}':\n{}.", bucketName, key, content);
+		try {
+			String content = readContent(object);
+			logger.debug("Downloaded content of bucket '{}' for key '{}' ({} characters).", bucketName, key, content.length());
 			return content;
 		} catch (AmazonServiceException e) {
 			e.printStackTrace();
@@ -297,8 +483,7 @@ public class S3Helper {
 	}
 
 	public static String downloadObjectMetadataByKey(AmazonS3 s3Client, String bucketName, String key) {
-		S3Object object = s3Client.getObject(bucketName, key);
-		ObjectMetadata metadata = object.getObjectMetadata();
+		ObjectMetadata metadata = s3Client.getObjectMetadata(bucketName, key);
 
 		logger.info("Downloaded metadata of bucket '{}' for key '{}': {}.", bucketName, key, metadata);
 		return new Gson().toJson(metadata);
@@ -319,10 +504,24 @@ public class S3Helper {
 		return buckets.stream().map(bucket -> bucket.getName()).collect(Collectors.toList());
 	}
 
+	/**
+	 * Lists the keys of all AAS or submodels of a bucket. The keys of internal
+	 * objects, e.g. indexes and shards, are not listed.
+	 */
 	public static List<String> listBucketContentKeys(AmazonS3 s3Client, String bucketName) {
-		ListObjectsV2Result result = s3Client.listObjectsV2(bucketName);
-		List<S3ObjectSummary> objects = result.getObjectSummaries();
-		return objects.stream().map(object -> object.getKey()).collect(Collectors.toList());
+		List<String> keys = new LinkedList<>();
+		ListObjectsV2Request request = new ListObjectsV2Request().withBucketName(bucketName);
+		ListObjectsV2Result result;
+		do {
+			result = s3Client.listObjectsV2(request);
+			for (S3ObjectSummary object : result.getObjectSummaries()) {
+				if (!isInternalKey(object.getKey())) {
+					keys.add(object.getKey());
+				}
+			}
+			request.setContinuationToken(result.getNextContinuationToken());
+		} while (result.isTruncated());
+		return keys;
 	}
 
 	private static ObjectMetadata addSubmodelMetadata(ISubmodel submodel) {
@@ -0,0 +1,366 @@
+/*******************************************************************************
+ * Copyright (C) 2022 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.components.aas.s3;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.basyx.vab.coder.json.serialization.DefaultTypeFactory;
+import org.eclipse.basyx.vab.coder.json.serialization.GSONTools;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.Headers;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadResult;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.PutObjectResult;
+import com.amazonaws.services.s3.model.S3Object;
+import com.amazonaws.services.s3.model.S3ObjectInputStream;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+import com.google.gson.Gson;
+
+/**
+ * JSON codec for the objects in S3 buckets. In contrast to serializing to a
+ * String and wrapping its bytes, the JSON is serialized once directly into the
+ * upload buffer. Objects larger than one part are uploaded as multipart upload
+ * while they are serialized, so that at most one part is held in memory.
+ * 
+ * The written JSON is identical to the one of the SubmodelSerializer. Downloads
+ * are parsed with the {@link GSONTools}.
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class S3JsonCodec {
+	private static Logger logger = LoggerFactory.getLogger(S3JsonCodec.class);
+
+	private static final Gson gson = new Gson();
+	private static final GSONTools gsonTools = new GSONTools(new DefaultTypeFactory());
+	private static final int WRITE_BUFFER_SIZE = 8 * 1024;
+
+	/**
+	 * The size of the parts of multipart uploads. This is the minimum part size of
+	 * S3, so smaller objects are uploaded with a single request.
+	 */
+	public static final int PART_SIZE = 5 * 1024 * 1024;
+
+	/**
+	 * Writes the JSON of an object to a stream. The stream is not closed.
+	 */
+	public static void serialize(Object value, OutputStream out) throws IOException {
+		Writer writer = createWriter(out);
+		gson.toJson(value, writer);
+		writer.flush();
+	}
+
+	/**
+	 * Returns the number of bytes of the JSON of an object without keeping the JSON
+	 */
+	public static long getContentLength(Object value) {
+		JsonOutputStream counter = new JsonOutputStream(OutputStream.nullOutputStream(), false);
+		try {
+			serialize(value, counter);
+		} catch (IOException e) {
+			// The counter does not perform I/O
+			throw new UncheckedIOException(e);
+		}
+		return counter.getCount();
+	}
+
+	/**
+	 * Uploads the JSON of an object, see
+	 * {@link #upload(AmazonS3, String, String, Object, ObjectMetadata, boolean)}
+	 */
+	public static PutObjectResult upload(AmazonS3 s3Client, String bucketName, String key, Object value, ObjectMetadata metadata) {
+		return upload(s3Client, bucketName, key, value, metadata, false).getResult();
+	}
+
+	/**
+	 * Uploads the JSON of an object. The object is serialized once into a buffer
+	 * of at most one part. If the JSON exceeds it, the parts are uploaded as
+	 * multipart upload while the object is serialized. If the metadata states a
+	 * Content-Encoding, the JSON is compressed while it is written.
+	 * 
+	 * @param metadata
+	 *            the metadata of the object. Its content length is replaced by
+	 *            the length of the uploaded content.
+	 * @param deserialize
+	 *            whether the uploaded object shall also be returned in the form
+	 *            that a later download of the JSON would return, e.g. to cache
+	 *            it. In this case, the JSON is additionally kept in memory.
+	 */
+	public static Upload upload(AmazonS3 s3Client, String bucketName, String key, Object value, ObjectMetadata metadata, boolean deserialize) {
+		S3ContentEncoding encoding = S3ContentEncoding.of(metadata);
+		MultipartOutputStream upload = new MultipartOutputStream(s3Client, bucketName, key, metadata);
+		JsonOutputStream json;
+		try {
+			json = new JsonOutputStream(encoding.encode(upload), deserialize);
+			serialize(value, json);
+			json.close();
+		} catch (IOException e) {
+			// Only the compression streams declare I/O failures
+			upload.abort();
+			throw new UncheckedIOException(e);
+		} catch (RuntimeException | Error e) {
+			upload.abort();
+			throw e;
+		}
+
+		PutObjectResult result = upload.finish();
+		Object deserialized = deserialize ? gsonTools.deserialize(json.getJson()) : null;
+		return new Upload(result, json.getCount(), deserialized);
+	}
+
+	/**
+	 * Parses the JSON of a downloaded object and closes it. Compressed objects are
+	 * decompressed.
+	 */
+	public static Object download(S3Object object) throws IOException {
+		try (S3Object toClose = object) {
+			S3ObjectInputStream content = object.getObjectContent();
+			return deserialize(S3ContentEncoding.decode(object.getObjectMetadata(), content));
+		}
+	}
+
+	/**
+	 * Parses JSON from a stream with the {@link GSONTools}. The stream is not
+	 * closed.
+	 */
+	public static Object deserialize(InputStream in) throws IOException {
+		return gsonTools.deserialize(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Creates the writer for the JSON text. The JsonWriter writes each token
+	 * separately and the OutputStreamWriter allocates buffers for each write, so
+	 * the tokens are collected in a BufferedWriter first.
+	 */
+	private static Writer createWriter(OutputStream out) {
+		return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+	}
+
+	/**
+	 * The result of an upload
+	 */
+	public static class Upload {
+		private final PutObjectResult result;
+		private final long contentLength;
+		private final Object deserialized;
+
+		private Upload(PutObjectResult result, long contentLength, Object deserialized) {
+			this.result = result;
+			this.contentLength = contentLength;
+			this.deserialized = deserialized;
+		}
+
+		public PutObjectResult getResult() {
+			return result;
+		}
+
+		/**
+		 * Returns the length of the uncompressed JSON
+		 */
+		public long getContentLength() {
+			return contentLength;
+		}
+
+		/**
+		 * Returns the object as a download of its JSON would return it or null, if it
+		 * has not been requested
+		 */
+		public Object getDeserialized() {
+			return deserialized;
+		}
+	}
+
+	/**
+	 * Counts the bytes of the JSON and optionally keeps them
+	 */
+	private static class JsonOutputStream extends FilterOutputStream {
+		private final ByteArrayOutputStream copy;
+		private long count;
+
+		private JsonOutputStream(OutputStream out, boolean keep) {
+			super(out);
+			this.copy = keep ? new ByteArrayOutputStream(WRITE_BUFFER_SIZE) : null;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			write(new byte[] { (byte) b }, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+			if (copy != null) {
+				copy.write(b, off, len);
+			}
+			count += len;
+		}
+
+		private long getCount() {
+			return count;
+		}
+
+		private String getJson() {
+			return copy.toString(StandardCharsets.UTF_8);
+		}
+	}
+
+	/**
+	 * Collects the written content in a buffer of one part. Full parts are
+	 * uploaded as parts of a multipart upload, which is started with the first
+	 * full part. Content of less than one part is uploaded with a single request.
+	 */
+	private static class MultipartOutputStream extends OutputStream {
+		private final AmazonS3 s3Client;
+		private final String bucketName;
+		private final String key;
+		private final ObjectMetadata metadata;
+		private final PartBuffer buffer = new PartBuffer();
+		private final List<PartETag> parts = new ArrayList<>();
+		private String uploadId;
+
+		private MultipartOutputStream(AmazonS3 s3Client, String bucketName, String key, ObjectMetadata metadata) {
+			this.s3Client = s3Client;
+			this.bucketName = bucketName;
+			this.key = key;
+			this.metadata = metadata;
+		}
+
+		@Override
+		public void write(int b) {
+			write(new byte[] { (byte) b }, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			while (len > 0) {
+				int length = Math.min(len, PART_SIZE - buffer.size());
+				buffer.write(b, off, length);
+				off += length;
+				len -= length;
+				if (buffer.size() == PART_SIZE) {
+					uploadPart();
+				}
+			}
+		}
+
+		private void uploadPart() {
+			if (uploadId == null) {
+				uploadId = s3Client.initiateMultipartUpload(new InitiateMultipartUploadRequest(bucketName, key, getMultipartMetadata())).getUploadId();
+			}
+			UploadPartRequest request = new UploadPartRequest().withBucketName(bucketName).withKey(key).withUploadId(uploadId).withPartNumber(parts.size() + 1)
+					.withInputStream(buffer.toInputStream()).withPartSize(buffer.size());
+			parts.add(s3Client.uploadPart(request).getPartETag());
+			buffer.reset();
+		}
+
+		/**
+		 * Returns the metadata without a content length, which would otherwise be
+		 * taken as the length of the first part
+		 */
+		private ObjectMetadata getMultipartMetadata() {
+			ObjectMetadata multipartMetadata = new ObjectMetadata();
+			metadata.getRawMetadata().forEach((header, value) -> {
+				if (!header.equals(Headers.CONTENT_LENGTH)) {
+					multipartMetadata.setHeader(header, value);
+				}
+			});
+			multipartMetadata.setUserMetadata(metadata.getUserMetadata());
+			return multipartMetadata;
+		}
+
+		/**
+		 * Uploads the remaining content and completes the upload
+		 */
+		private PutObjectResult finish() {
+			if (uploadId == null) {
+				metadata.setContentLength(buffer.size());
+				return s3Client.putObject(new PutObjectRequest(bucketName, key, buffer.toInputStream(), metadata));
+			}
+
+			try {
+				if (buffer.size() > 0) {
+					uploadPart();
+				}
+				CompleteMultipartUploadResult completed = s3Client.completeMultipartUpload(new CompleteMultipartUploadRequest(bucketName, key, uploadId, parts));
+				PutObjectResult result = new PutObjectResult();
+				result.setETag(completed.getETag());
+				result.setVersionId(completed.getVersionId());
+				return result;
+			} catch (RuntimeException e) {
+				abort();
+				throw e;
+			}
+		}
+
+		/**
+		 * Aborts a started multipart upload, so that its parts are not kept
+		 */
+		private void abort() {
+			if (uploadId == null) {
+				return;
+			}
+			try {
+				s3Client.abortMultipartUpload(new AbortMultipartUploadRequest(bucketName, key, uploadId));
+			} catch (AmazonClientException e) {
+				logger.warn("Could not abort the multipart upload of '{}' to bucket '{}'", key, bucketName, e);
+			}
+		}
+	}
+
+	/**
+	 * Gives access to the collected bytes without copying them
+	 */
+	private static class PartBuffer extends ByteArrayOutputStream {
+		private PartBuffer() {
+			super(WRITE_BUFFER_SIZE);
+		}
+
+		private InputStream toInputStream() {
+			return new ByteArrayInputStream(buf, 0, count);
+		}
+	}
+}
@@ -0,0 +1,254 @@
+/*******************************************************************************
+ * Copyright (C) 2022 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.components.aas.s3;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.amazonaws.Request;
+import com.amazonaws.handlers.RequestHandler2;
+
+/**
+ * Counts the requests sent by the S3 clients of {@link S3Helper#createS3Client}.
+ * Requests are counted per request type and per high-level operation, e.g. per
+ * call of {@code deleteAAS}. An operation is measured by
+ * 
+ * <pre>
+ * try (S3RequestMetrics.Scope scope = S3RequestMetrics.begin("deleteAAS")) {
+ * 	...
+ * }
+ * </pre>
+ * 
+ * All requests of the thread that began the scope are attributed to it. Tasks
+ * that are handed to other threads have to be wrapped by
+ * {@link #wrap(Runnable)}. Nested scopes are attributed to the outermost one.
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class S3RequestMetrics extends RequestHandler2 {
+	private static Logger logger = LoggerFactory.getLogger(S3RequestMetrics.class);
+
+	private static final S3RequestMetrics requestHandler = new S3RequestMetrics();
+	private static final ThreadLocal<Scope> currentScope = new ThreadLocal<>();
+
+	// request type => number of requests
+	private static final Map<String, AtomicLong> requestsByType = new ConcurrentHashMap<>();
+	// operation => statistics
+	private static final Map<String, OperationStats> operations = new ConcurrentHashMap<>();
+
+	private S3RequestMetrics() {
+	}
+
+	/**
+	 * Returns the handler that has to be registered at a client to count its
+	 * requests
+	 */
+	public static RequestHandler2 getRequestHandler() {
+		return requestHandler;
+	}
+
+	@Override
+	public void beforeRequest(Request<?> request) {
+		String type = request.getOriginalRequest().getClass().getSimpleName();
+		requestsByType.computeIfAbsent(type, t -> new AtomicLong()).incrementAndGet();
+		Scope scope = currentScope.get();
+		if (scope != null) {
+			scope.requests.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Begins counting the requests of an operation. If the thread already measures
+	 * an operation, the requests are attributed to that one.
+	 */
+	public static Scope begin(String operation) {
+		Scope outer = currentScope.get();
+		if (outer != null) {
+			return new Scope(outer);
+		}
+		Scope scope = new Scope(operation);
+		currentScope.set(scope);
+		return scope;
+	}
+
+	/**
+	 * Attributes the requests of a task that is executed by another thread to the
+	 * operation of the current thread
+	 */
+	public static Runnable wrap(Runnable task) {
+		Scope scope = currentScope.get();
+		if (scope == null) {
+			return task;
+		}
+		return () -> {
+			Scope previous = currentScope.get();
+			currentScope.set(scope);
+			try {
+				task.run();
+			} finally {
+				restore(previous);
+			}
+		};
+	}
+
+	/**
+	 * @see #wrap(Runnable)
+	 */
+	public static <T> Callable<T> wrap(Callable<T> task) {
+		Scope scope = currentScope.get();
+		if (scope == null) {
+			return task;
+		}
+		return () -> {
+			Scope previous = currentScope.get();
+			currentScope.set(scope);
+			try {
+				return task.call();
+			} finally {
+				restore(previous);
+			}
+		};
+	}
+
+	/**
+	 * Returns the number of sent requests per request type, e.g.
+	 * "GetObjectRequest"
+	 */
+	public static Map<String, Long> getRequestCountsByType() {
+		Map<String, Long> counts = new TreeMap<>();
+		requestsByType.forEach((type, count) -> counts.put(type, count.get()));
+		return counts;
+	}
+
+	/**
+	 * Returns the statistics of an operation or null, if it has not been measured
+	 */
+	public static OperationStats getOperationStats(String operation) {
+		return operations.get(operation);
+	}
+
+	/**
+	 * Returns the statistics of all measured operations
+	 */
+	public static Map<String, OperationStats> getOperationStats() {
+		return new TreeMap<>(operations);
+	}
+
+	public static void reset() {
+		requestsByType.clear();
+		operations.clear();
+	}
+
+	private static void restore(Scope previous) {
+		if (previous == null) {
+			currentScope.remove();
+		} else {
+			currentScope.set(previous);
+		}
+	}
+
+	/**
+	 * The measurement of one execution of an operation
+	 */
+	public static class Scope implements AutoCloseable {
+		private final String operation;
+		private final AtomicLong requests;
+		private final boolean nested;
+		private final long start = System.currentTimeMillis();
+
+		private Scope(String operation) {
+			this.operation = operation;
+			this.requests = new AtomicLong();
+			this.nested = false;
+		}
+
+		private Scope(Scope outer) {
+			this.operation = outer.operation;
+			this.requests = outer.requests;
+			this.nested = true;
+		}
+
+		/**
+		 * Returns the number of requests sent so far by the operation
+		 */
+		public long getRequestCount() {
+			return requests.get();
+		}
+
+		@Override
+		public void close() {
+			if (nested) {
+				return;
+			}
+			currentScope.remove();
+			operations.computeIfAbsent(operation, o -> new OperationStats()).record(requests.get());
+			logger.debug("S3 operation '{}' sent {} requests in {} ms.", operation, requests.get(), System.currentTimeMillis() - start);
+		}
+	}
+
+	/**
+	 * The number of executions and requests of an operation
+	 */
+	public static class OperationStats {
+		private final AtomicLong invocations = new AtomicLong();
+		private final AtomicLong requests = new AtomicLong();
+		private final AtomicLong maxRequests = new AtomicLong();
+
+		private void record(long requestCount) {
+			invocations.incrementAndGet();
+			requests.addAndGet(requestCount);
+			maxRequests.accumulateAndGet(requestCount, Math::max);
+		}
+
+		public long getInvocationCount() {
+			return invocations.get();
+		}
+
+		public long getRequestCount() {
+			return requests.get();
+		}
+
+		public long getMaxRequestCount() {
+			return maxRequests.get();
+		}
+
+		public double getAverageRequestCount() {
+			long invocationCount = getInvocationCount();
+			return invocationCount == 0 ? 0 : (double) getRequestCount() / invocationCount;
+		}
+
+		@Override
+		public String toString() {
+			return "OperationStats [invocations=" + getInvocationCount() + ", requests=" + getRequestCount() + ", maxRequests=" + getMaxRequestCount() + "]";
+		}
+	}
+}
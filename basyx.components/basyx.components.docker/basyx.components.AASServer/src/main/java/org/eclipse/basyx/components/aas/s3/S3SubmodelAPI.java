@@ -27,16 +27,20 @@ package org.eclipse.basyx.components.aas.s3;
 
 
 import java.io.IOException;
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 import org.eclipse.basyx.submodel.metamodel.api.ISubmodel;
 import org.eclipse.basyx.submodel.metamodel.api.submodelelement.ISubmodelElement;
 import org.eclipse.basyx.submodel.metamodel.api.submodelelement.operation.IOperation;
 import org.eclipse.basyx.submodel.metamodel.facade.submodelelement.SubmodelElementFacadeFactory;
 import org.eclipse.basyx.submodel.metamodel.map.Submodel;
+import org.eclipse.basyx.submodel.metamodel.map.qualifier.Identifiable;
 import org.eclipse.basyx.submodel.metamodel.map.submodelelement.SubmodelElement;
 import org.eclipse.basyx.submodel.metamodel.map.submodelelement.SubmodelElementCollection;
 import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.Property;
@@ -44,8 +48,6 @@ import org.eclipse.basyx.submodel.metamodel.map.submodelelement.operation.Operat
 import org.eclipse.basyx.submodel.restapi.SubmodelElementProvider;
 import org.eclipse.basyx.submodel.restapi.api.ISubmodelAPI;
 import org.eclipse.basyx.submodel.restapi.operation.DelegatedInvocationManager;
-import org.eclipse.basyx.vab.coder.json.serialization.DefaultTypeFactory;
-import org.eclipse.basyx.vab.coder.json.serialization.GSONTools;
 import org.eclipse.basyx.vab.exception.provider.MalformedRequestException;
 import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
 import org.eclipse.basyx.vab.modelprovider.VABPathTools;
@@ -55,9 +57,10 @@ import org.eclipse.basyx.vab.protocol.http.connector.HTTPConnectorFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.amazonaws.AmazonServiceException;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PutObjectResult;
 import com.amazonaws.services.s3.model.S3Object;
 
 /**
@@ -72,20 +75,56 @@ public class S3SubmodelAPI implements ISubmodelAPI {
 	private AmazonS3 s3Client;
 	private String bucketName;
 	private String submodelId;
-	private GSONTools gsonTools = new GSONTools(new DefaultTypeFactory());
 	private DelegatedInvocationManager invocationHelper;
+	private S3SubmodelIdShortIndex idShortIndex;
+	private S3SubmodelCache cache;
+	private S3SubmodelBucket bucket;
+	private boolean sharded;
+	private S3ContentEncoding contentEncoding = S3ContentEncoding.IDENTITY;
 
 	public S3SubmodelAPI(AmazonS3 s3Client, String bucketName, String submodelId) {
-		this.s3Client = s3Client;
-		this.bucketName = bucketName;
+		this(s3Client, bucketName, submodelId, false);
+	}
+
+	/**
+	 * @param sharded
+	 *            if true, the submodel is stored in the sharded layout, see
+	 *            {@link S3SubmodelShards}. Submodels are read in either layout,
+	 *            and submodels that are stored as one object are converted on
+	 *            their next modification.
+	 */
+	public S3SubmodelAPI(AmazonS3 s3Client, String bucketName, String submodelId, boolean sharded) {
+		this(new S3SubmodelBucket(s3Client, bucketName), submodelId, sharded);
+	}
+
+	/**
+	 * @param bucket
+	 *            the submodel bucket shared with the other APIs and aggregators
+	 *            of the component
+	 */
+	public S3SubmodelAPI(S3SubmodelBucket bucket, String submodelId, boolean sharded) {
+		this.s3Client = bucket.getS3Client();
+		this.bucketName = bucket.getBucketName();
 		this.submodelId = submodelId;
 		this.invocationHelper = new DelegatedInvocationManager(new HTTPConnectorFactory());
+		this.idShortIndex = bucket.getIdShortIndex();
+		this.cache = bucket.getCache();
+		this.bucket = bucket;
+		this.sharded = sharded;
 	}
 
 	public String getSubmodelId() {
 		return submodelId;
 	}
 
+	/**
+	 * Sets the encoding that the objects of the submodel are compressed with on
+	 * their next upload. Objects are read in any encoding.
+	 */
+	public void setContentEncoding(S3ContentEncoding contentEncoding) {
+		this.contentEncoding = contentEncoding;
+	}
+
 	public void setSubmodelId(String submodelId) {
 		this.submodelId = submodelId;
 	}
@@ -94,32 +133,208 @@ public class S3SubmodelAPI implements ISubmodelAPI {
 		String id = sm.getIdentification().getId();
 		this.setSubmodelId(id);
 
-		S3Helper.uploadSubmodelToBucket(s3Client, bucketName, sm, id);
+		uploadSubmodel(sm);
+	}
+
+	private void uploadSubmodel(Submodel sm) {
+		try (S3RequestMetrics.Scope scope = S3RequestMetrics.begin("uploadSubmodel")) {
+			if (sharded) {
+				uploadShardedSubmodel(sm);
+			} else {
+				uploadObject(sm);
+			}
+		}
+	}
+
+	/**
+	 * Uploads the submodel as one object and updates the cached submodel in place
+	 */
+	private void uploadObject(Submodel sm) {
+		String key = sm.getIdentification().getId();
+		S3JsonCodec.Upload upload = S3Helper.uploadSubmodelToBucket(s3Client, bucketName, sm, key, contentEncoding, cache.isEnabled());
+		idShortIndex.put(key, sm.getIdShort());
+		cache.update(key, upload);
+		addVersion(S3SubmodelVersionIndex.SUBMODEL_OBJECT, key, upload.getResult());
+	}
+
+	/**
+	 * Uploads each element of the submodel to its shard and replaces the manifest.
+	 * Shards of elements that are no longer part of the submodel are deleted.
+	 */
+	private void uploadShardedSubmodel(Submodel sm) {
+		Map<String, Object> stored = cache.getSubmodel(s3Client, sm.getIdentification().getId());
+		Map<String, ISubmodelElement> elements = sm.getSubmodelElements();
+		for (Map.Entry<String, ISubmodelElement> element : elements.entrySet()) {
+			uploadShard(element.getKey(), element.getValue());
+		}
+		uploadObject(S3SubmodelShards.createManifest(sm));
+
+		if (stored != null && S3SubmodelShards.isManifest(stored)) {
+			for (String idShort : S3SubmodelShards.getShardedElements(stored)) {
+				if (!elements.containsKey(idShort)) {
+					deleteShard(idShort);
+				}
+			}
+		}
+	}
+
+	private void uploadShard(String idShort, Object element) {
+		String key = S3SubmodelShards.getShardKey(submodelId, idShort);
+		ObjectMetadata metadata = S3Helper.createMetadata();
+		contentEncoding.applyTo(metadata);
+		S3JsonCodec.Upload upload = S3JsonCodec.upload(s3Client, bucketName, key, element, metadata, cache.isEnabled());
+		cache.update(key, upload);
+		addVersion(idShort, key, upload.getResult());
+	}
+
+	/**
+	 * Records the version of an uploaded object in the version index, if it is
+	 * enabled. Uploads to unversioned buckets have no version id and are not
+	 * recorded.
+	 */
+	private void addVersion(String objectName, String key, PutObjectResult result) {
+		S3SubmodelVersionIndex versionIndex = bucket.getVersionIndex();
+		if (versionIndex != null && result.getVersionId() != null) {
+			versionIndex.addUpload(submodelId, objectName, key, result.getVersionId());
+		}
+	}
+
+	private Map<String, Object> downloadShard(String idShort) {
+		return cache.getSubmodel(s3Client, S3SubmodelShards.getShardKey(submodelId, idShort));
+	}
+
+	private void deleteShard(String idShort) {
+		String key = S3SubmodelShards.getShardKey(submodelId, idShort);
+		s3Client.deleteObject(bucketName, key);
+		cache.remove(key);
 	}
 
-	@SuppressWarnings("unchecked")
 	@Override
 	public ISubmodel getSubmodel() {
-		String submodelJson = null;
+		Map<String, Object> submodel;
+		try (S3RequestMetrics.Scope scope = S3RequestMetrics.begin("getSubmodel")) {
+			submodel = getStoredSubmodel();
+			if (S3SubmodelShards.isManifest(submodel)) {
+				submodel = assembleSubmodel(submodel, this::downloadShard);
+			}
+		}
+		return Submodel.createAsFacade(submodel);
+	}
+
+	/**
+	 * Returns the submodel as it has been stored at the given time. The versions
+	 * of the submodel and of its shards are looked up in the version index, see
+	 * {@link S3SubmodelVersionIndex}, so that the bucket has to be versioned and
+	 * the index has to be enabled. The times are resolved to the second of the
+	 * last modification time of S3.
+	 * 
+	 * @param timestamp
+	 *            milliseconds since the epoch
+	 * @throws ResourceNotFoundException
+	 *             if the submodel has not been stored or had been deleted at that
+	 *             time
+	 * @throws MalformedRequestException
+	 *             if the version index is not enabled
+	 */
+	public ISubmodel asOf(long timestamp) {
+		if (bucket.getVersionIndex() == null) {
+			throw new MalformedRequestException("The version index of bucket " + bucketName + " is not enabled.");
+		}
+
+		Map<String, Object> submodel;
+		try (S3RequestMetrics.Scope scope = S3RequestMetrics.begin("getSubmodelAsOf")) {
+			submodel = downloadVersion(S3SubmodelVersionIndex.SUBMODEL_OBJECT, submodelId, timestamp);
+			if (submodel == null) {
+				throw new ResourceNotFoundException("The submodel " + submodelId + " has not been stored at " + Instant.ofEpochMilli(timestamp) + ".");
+			}
+			if (S3SubmodelShards.isManifest(submodel)) {
+				submodel = assembleSubmodel(submodel, idShort -> downloadVersion(idShort, S3SubmodelShards.getShardKey(submodelId, idShort), timestamp));
+			}
+		}
+		return Submodel.createAsFacade(submodel);
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String, Object> downloadVersion(String objectName, String key, long timestamp) {
+		String versionId = bucket.getVersionIndex().getVersionId(submodelId, objectName, timestamp);
+		if (versionId == null) {
+			return null;
+		}
 		try {
-			submodelJson = S3Helper.getBaSyxObjectContent(s3Client, bucketName, submodelId);
-		} catch (AmazonServiceException e) {
-			e.printStackTrace();
+			return (Map<String, Object>) S3Helper.getBaSyxObjectVersion(s3Client, bucketName, key, versionId);
 		} catch (IOException e) {
-			e.printStackTrace();
+			throw new RuntimeException("Could not read version " + versionId + " of " + key + " from bucket " + bucketName, e);
 		}
-		if (submodelJson == null) {
+	}
+
+	/**
+	 * Returns the object of the submodel, i.e. either the whole submodel or its
+	 * manifest
+	 */
+	private Map<String, Object> getStoredSubmodel() {
+		Map<String, Object> submodel = cache.getSubmodel(s3Client, submodelId);
+		if (submodel == null) {
 			throw new ResourceNotFoundException("The submodel " + submodelId + " could not be found in the database.");
 		}
-		return Submodel.createAsFacade((Map<String, Object>) gsonTools.deserialize(submodelJson));
+		return submodel;
+	}
+
+	private Map<String, Object> assembleSubmodel(Map<String, Object> manifest, Function<String, Map<String, Object>> shardLoader) {
+		Map<String, Object> elements = new LinkedHashMap<>();
+		for (String idShort : S3SubmodelShards.getShardedElements(manifest)) {
+			Map<String, Object> element = shardLoader.apply(idShort);
+			if (element != null) {
+				elements.put(idShort, element);
+			}
+		}
+		manifest.remove(S3SubmodelShards.SHARDED_ELEMENTS);
+		manifest.put(Submodel.SUBMODELELEMENT, elements);
+		return manifest;
+	}
+
+	/**
+	 * Returns a submodel containing the top level element with the given idShort,
+	 * if the element exists. In the sharded layout, only the shard of the element
+	 * is downloaded and the returned submodel is partial.
+	 */
+	private Submodel getSubmodelWithElement(String idShort) {
+		if (!sharded) {
+			return (Submodel) getSubmodel();
+		}
+
+		try (S3RequestMetrics.Scope scope = S3RequestMetrics.begin("getSubmodelElement")) {
+			Map<String, Object> element = downloadShard(idShort);
+			if (element != null) {
+				return S3SubmodelShards.createPartialSubmodel(idShort, element);
+			}
+
+			// Either there is no such element or the submodel is not sharded yet
+			Map<String, Object> stored = getStoredSubmodel();
+			if (S3SubmodelShards.isManifest(stored)) {
+				throw new ResourceNotFoundException("The element \"" + idShort + "\" could not be found");
+			}
+			return Submodel.createAsFacade(stored);
+		}
+	}
+
+	/**
+	 * Uploads a submodel returned by {@link #getSubmodelWithElement(String)} after
+	 * the element with the given idShort has been modified
+	 */
+	private void uploadSubmodelWithElement(Submodel sm, String idShort) {
+		// Partial submodels lack the identification
+		if (sm.get(Identifiable.IDENTIFICATION) != null) {
+			uploadSubmodel(sm);
+			return;
+		}
+		try (S3RequestMetrics.Scope scope = S3RequestMetrics.begin("uploadSubmodelElement")) {
+			uploadShard(idShort, sm.getSubmodelElements().get(idShort));
+		}
 	}
 
 	@Override
 	public void addSubmodelElement(ISubmodelElement elem) {
-		Submodel sm = (Submodel) getSubmodel();
-		sm.addSubmodelElement(elem);
-
-		S3Helper.uploadSubmodelToBucket(s3Client, bucketName, sm, getSubmodelIdentificationId());
+		addTopLevelSubmodelElement(elem);
 		logger.info("Uploaded submodel to bucket '{}'. Method: {}.", bucketName, new Object() {
 		}.getClass().getEnclosingMethod().getName());
 	}
@@ -134,22 +349,48 @@ public class S3SubmodelAPI implements ISubmodelAPI {
 	}
 	
 	private void addNestedSubmodelElement(List<String> idShorts, ISubmodelElement elem) {
-		Submodel sm = (Submodel) getSubmodel();
 		// > 1 idShorts => add new sm element to an existing sm element
 		if (idShorts.size() > 1) {
+			Submodel sm = getSubmodelWithElement(idShorts.get(0));
 			idShorts = idShorts.subList(0, idShorts.size() - 1);
 			// Get parent SM element if more than 1 idShort
 			ISubmodelElement parentElement = getNestedSubmodelElement(sm, idShorts);
 			if (parentElement instanceof SubmodelElementCollection) {
 				((SubmodelElementCollection) parentElement).addSubmodelElement(elem);
 				// Replace db entry
-				S3Helper.uploadSubmodelToBucket(s3Client, bucketName, sm, getSubmodelIdentificationId());
+				uploadSubmodelWithElement(sm, idShorts.get(0));
 			}
 		} else {
 			// else => directly add it to the submodel
+			addTopLevelSubmodelElement(elem);
+		}
+	}
+
+	private void addTopLevelSubmodelElement(ISubmodelElement elem) {
+		if (!sharded) {
+			Submodel sm = (Submodel) getSubmodel();
 			sm.addSubmodelElement(elem);
-			// Replace db entry
-			S3Helper.uploadSubmodelToBucket(s3Client, bucketName, sm, getSubmodelIdentificationId());
+			uploadSubmodel(sm);
+			return;
+		}
+
+		Map<String, Object> stored = getStoredSubmodel();
+		Submodel sm = Submodel.createAsFacade(stored);
+		sm.addSubmodelElement(elem);
+		if (!S3SubmodelShards.isManifest(stored)) {
+			// Converts the submodel to the sharded layout
+			uploadSubmodel(sm);
+			return;
+		}
+
+		String idShort = elem.getIdShort();
+		List<String> idShorts = S3SubmodelShards.getShardedElements(stored);
+		try (S3RequestMetrics.Scope scope = S3RequestMetrics.begin("uploadSubmodelElement")) {
+			uploadShard(idShort, sm.getSubmodelElements().get(idShort));
+			if (!idShorts.contains(idShort)) {
+				idShorts.add(idShort);
+				uploadObject(S3SubmodelShards.createManifest(stored, idShorts));
+			}
 		}
 	}
 
@@ -166,7 +407,7 @@ public class S3SubmodelAPI implements ISubmodelAPI {
 	}
 
 	private ISubmodelElement getTopLevelSubmodelElement(String idShort) {
-		Submodel sm = (Submodel) getSubmodel();
+		Submodel sm = getSubmodelWithElement(idShort);
 		Map<String, ISubmodelElement> submodelElements = sm.getSubmodelElements();
 		ISubmodelElement element = submodelElements.get(idShort);
 		if (element == null) {
@@ -214,7 +455,7 @@ public class S3SubmodelAPI implements ISubmodelAPI {
 
 	private ISubmodelElement getNestedSubmodelElement(List<String> idShorts) {
 		// Get sm from db
-		Submodel sm = (Submodel) getSubmodel();
+		Submodel sm = getSubmodelWithElement(idShorts.get(0));
 		// Get nested sm element from this sm
 		return convertSubmodelElement(getNestedSubmodelElement(sm, idShorts));
 	}
@@ -238,7 +479,7 @@ public class S3SubmodelAPI implements ISubmodelAPI {
 		}
 
 		// Get sm from db
-		Submodel sm = (Submodel) getSubmodel();
+		Submodel sm = getSubmodelWithElement(idShorts.get(0));
 		// Get parent collection
 		List<String> parentIds = idShorts.subList(0, idShorts.size() - 1);
 		ISubmodelElement parentElement = getNestedSubmodelElement(sm, parentIds);
@@ -246,21 +487,40 @@ public class S3SubmodelAPI implements ISubmodelAPI {
 		SubmodelElementCollection coll = (SubmodelElementCollection) parentElement;
 		coll.deleteSubmodelElement(idShorts.get(idShorts.size() - 1));
 		// Replace db entry
-		S3Helper.uploadSubmodelToBucket(s3Client, bucketName, sm, getSubmodelIdentificationId());
+		uploadSubmodelWithElement(sm, idShorts.get(0));
 		logger.info("Uploaded submodel to bucket '{}'. Method: {}.", bucketName, new Object() {
 		}.getClass().getEnclosingMethod().getName());
 	}
 
 	private void deleteTopLevelSubmodelElement(String idShort) {
+		if (sharded) {
+			Map<String, Object> stored = getStoredSubmodel();
+			if (S3SubmodelShards.isManifest(stored)) {
+				deleteShardedSubmodelElement(stored, idShort);
+				return;
+			}
+		}
 		// Get sm from db
 		Submodel sm = (Submodel) getSubmodel();
 		// Remove element
 		sm.getSubmodelElements().remove(idShort);
-		S3Helper.uploadSubmodelToBucket(s3Client, bucketName, sm, getSubmodelIdentificationId());
+		uploadSubmodel(sm);
 		logger.info("Uploaded submodel to bucket '{}'. Method: {}.", bucketName, new Object() {
 		}.getClass().getEnclosingMethod().getName());
 	}
 
+	private void deleteShardedSubmodelElement(Map<String, Object> manifest, String idShort) {
+		List<String> idShorts = S3SubmodelShards.getShardedElements(manifest);
+		try (S3RequestMetrics.Scope scope = S3RequestMetrics.begin("uploadSubmodelElement")) {
+			// The manifest is updated first, so that there is no reference to a deleted shard
+			if (idShorts.remove(idShort)) {
+				uploadObject(S3SubmodelShards.createManifest(manifest, idShorts));
+			}
+			deleteShard(idShort);
+		}
+		logger.info("Deleted shard of element '{}' from bucket '{}'.", idShort, bucketName);
+	}
+
 	@Override
 	public Collection<IOperation> getOperations() {
 		Submodel sm = (Submodel) getSubmodel();
@@ -287,7 +547,7 @@ public class S3SubmodelAPI implements ISubmodelAPI {
 
 	@SuppressWarnings("unchecked")
 	private void updateNestedSubmodelElement(List<String> idShorts, Object newValue) {
-		Submodel sm = (Submodel) getSubmodel();
+		Submodel sm = getSubmodelWithElement(idShorts.get(0));
 
 		// Get parent SM element
 		ISubmodelElement element = getNestedSubmodelElement(sm, idShorts);
@@ -298,20 +558,20 @@ public class S3SubmodelAPI implements ISubmodelAPI {
 		elemProvider.setValue(Property.VALUE, newValue);
 
 		// Replace db entry
-		S3Helper.uploadSubmodelToBucket(s3Client, bucketName, sm, getSubmodelIdentificationId());
+		uploadSubmodelWithElement(sm, idShorts.get(0));
 		logger.info("Uploaded submodel to bucket '{}'. Method: {}.", bucketName, new Object() {
 		}.getClass().getEnclosingMethod().getName());
 	}
 
 	private void updateTopLevelSubmodelElement(String idShort, Object newValue) {
 		// Get sm from db
-		Submodel sm = (Submodel) getSubmodel();
+		Submodel sm = getSubmodelWithElement(idShort);
 		// Unwrap value
 		newValue = unwrapParameter(newValue);
 		// Get and update property value
 		getElementProvider(sm, idShort).setValue(Property.VALUE, newValue);
 		// Replace db entry
-		S3Helper.uploadSubmodelToBucket(s3Client, bucketName, sm, getSubmodelIdentificationId());
+		uploadSubmodelWithElement(sm, idShort);
 		logger.info("Uploaded submodel to bucket '{}'. Method: {}.", bucketName, new Object() {
 		}.getClass().getEnclosingMethod().getName());
 	}
@@ -349,7 +609,7 @@ public class S3SubmodelAPI implements ISubmodelAPI {
 	}
 
 	private Object getTopLevelSubmodelElementValue(String idShort) {
-		Submodel sm = (Submodel) getSubmodel();
+		Submodel sm = getSubmodelWithElement(idShort);
 		return getElementProvider(sm, idShort).getValue("/value");
 	}
 
@@ -384,10 +644,6 @@ public class S3SubmodelAPI implements ISubmodelAPI {
 		throw new MalformedRequestException("Invoke not supported by this backend");
 	}
 
-	private String getSubmodelIdentificationId() {
-		return getSubmodel().getIdentification().getId();
-	}
-
 	public String getSubmodelObject(AmazonS3 s3Client, String bucketName, String submodelId) throws IOException {
 		S3Object fullObject = s3Client.getObject(new GetObjectRequest(bucketName, submodelId));
 		String submodelJson = fullObject.getObjectContent().toString();
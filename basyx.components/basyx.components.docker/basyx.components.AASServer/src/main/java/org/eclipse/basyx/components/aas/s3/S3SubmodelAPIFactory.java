@@ -38,17 +38,50 @@ import com.amazonaws.services.s3.AmazonS3;
  * @author jung
  */
 public class S3SubmodelAPIFactory implements ISubmodelAPIFactory {
-	private AmazonS3 s3Client;
-	private String bucketName;
+	private S3SubmodelBucket bucket;
+	private boolean sharded;
+	private S3ContentEncoding contentEncoding = S3ContentEncoding.IDENTITY;
 
 	public S3SubmodelAPIFactory(AmazonS3 s3Client, String bucketName) {
-		this.s3Client = s3Client;
-		this.bucketName = bucketName;
+		this(s3Client, bucketName, false);
+	}
+
+	/**
+	 * @param sharded
+	 *            if true, submodels are stored in the sharded layout, see
+	 *            {@link S3SubmodelShards}
+	 */
+	public S3SubmodelAPIFactory(AmazonS3 s3Client, String bucketName, boolean sharded) {
+		this(new S3SubmodelBucket(s3Client, bucketName), sharded);
+	}
+
+	/**
+	 * @param bucket
+	 *            the submodel bucket shared with the aggregators of the component
+	 * @param sharded
+	 *            if true, submodels are stored in the sharded layout, see
+	 *            {@link S3SubmodelShards}
+	 */
+	public S3SubmodelAPIFactory(S3SubmodelBucket bucket, boolean sharded) {
+		this.bucket = bucket;
+		this.sharded = sharded;
+	}
+
+	public S3SubmodelBucket getBucket() {
+		return bucket;
+	}
+
+	/**
+	 * Sets the encoding that the created APIs compress uploaded submodels with
+	 */
+	public void setContentEncoding(S3ContentEncoding contentEncoding) {
+		this.contentEncoding = contentEncoding;
 	}
 
 	@Override
 	public ISubmodelAPI getSubmodelAPI(Submodel submodel) {
-		S3SubmodelAPI smApi =  new S3SubmodelAPI(s3Client, bucketName, submodel.getIdentification().getId());
+		S3SubmodelAPI smApi =  new S3SubmodelAPI(bucket, submodel.getIdentification().getId(), sharded);
+		smApi.setContentEncoding(contentEncoding);
 		try {
 			smApi.setSubmodel(submodel);
 		} catch (IOException e) {
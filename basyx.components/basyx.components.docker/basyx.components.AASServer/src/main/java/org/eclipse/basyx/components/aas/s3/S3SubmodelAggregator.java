@@ -24,10 +24,6 @@
  ******************************************************************************/
 package org.eclipse.basyx.components.aas.s3;
 
-
-import java.util.List;
-import java.util.stream.Collectors;
-
 import org.eclipse.basyx.submodel.aggregator.SubmodelAggregator;
 import org.eclipse.basyx.submodel.metamodel.api.ISubmodel;
 import org.eclipse.basyx.submodel.metamodel.api.identifier.IIdentifier;
@@ -35,7 +31,6 @@ import org.eclipse.basyx.submodel.restapi.api.ISubmodelAPIFactory;
 import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
 
 import com.amazonaws.services.s3.AmazonS3;
-import com.amazonaws.services.s3.model.S3VersionSummary;
 
 /**
  * Implementation of the ISubmodelAggregator with Amazon S3 features
@@ -47,11 +42,22 @@ public class S3SubmodelAggregator extends SubmodelAggregator {
 	
 	private AmazonS3 s3Client;
 	private String bucketName;
+	private S3SubmodelBucket bucket;
 
 	public S3SubmodelAggregator(ISubmodelAPIFactory smApiFactory, AmazonS3 s3Client, String bucketName) {
+		this(smApiFactory, S3SubmodelBucket.of(smApiFactory, s3Client, bucketName));
+	}
+
+	/**
+	 * @param bucket
+	 *            the submodel bucket shared with the submodel APIs of the
+	 *            component
+	 */
+	public S3SubmodelAggregator(ISubmodelAPIFactory smApiFactory, S3SubmodelBucket bucket) {
 		super(smApiFactory);
-		this.s3Client = s3Client;
-		this.bucketName = bucketName;
+		this.s3Client = bucket.getS3Client();
+		this.bucketName = bucket.getBucketName();
+		this.bucket = bucket;
 	}
 
 	@Override
@@ -72,22 +78,37 @@ public class S3SubmodelAggregator extends SubmodelAggregator {
 	}
 	
 	private void deleteSubmodelFromDB(String id, String bucketname, AmazonS3 s3Client) {
-		if(S3Helper.isVersionedBucket(s3Client, bucketname)) {
-			List<S3VersionSummary> summary = S3Helper.listBucketVersions(s3Client, bucketname)
-													.getVersionSummaries()
-													.stream()
-													.filter(vs->vs.getKey().contains(id))
-													.collect(Collectors.toList());
-			summary.forEach(vs->{
-				S3Helper.deleteObjectFromVersionedBucket(s3Client, bucketname, id, vs.getVersionId());
-			});
-			return;
+		try (S3RequestMetrics.Scope scope = S3RequestMetrics.begin("deleteSubmodel")) {
+			bucket.getIdShortIndex().remove(id);
+			bucket.getCache().remove(id);
+			String shardPrefix = S3SubmodelShards.getShardPrefix(id);
+			if (bucket.isVersioned()) {
+				deleteVersionedSubmodel(id, bucketname, s3Client);
+				return;
+			}
+			S3Helper.deleteObjectFromUnversionedBucket(s3Client, bucketname, id);
+			S3Helper.deleteObjectsByPrefix(s3Client, bucketname, shardPrefix);
 		}
-		S3Helper.deleteObjectFromUnversionedBucket(s3Client, bucketname, id);
 	}
 	
+	private void deleteVersionedSubmodel(String id, String bucketname, AmazonS3 s3Client) {
+		String shardPrefix = S3SubmodelShards.getShardPrefix(id);
+		S3SubmodelVersionIndex versionIndex = bucket.getVersionIndex();
+		if (versionIndex != null) {
+			// The versions are kept, so that the submodel can still be read as of a
+			// time before its deletion
+			versionIndex.delete(id, S3SubmodelVersionIndex.SUBMODEL_OBJECT);
+			S3Helper.deleteObjectsByPrefix(s3Client, bucketname, shardPrefix);
+		} else {
+			S3Helper.deleteAllVersions(s3Client, bucketname, id);
+			S3Helper.deleteAllVersionsByPrefix(s3Client, bucketname, shardPrefix);
+			S3Helper.deleteAllVersionsByPrefix(s3Client, bucketname, S3SubmodelVersionIndex.getIndexPrefix(id));
+		}
+		S3Helper.deleteAllVersionsByPrefix(s3Client, bucketname, S3SubmodelIdShortIndex.getEntryPrefix(id));
+	}
+
 	public void reset() {
 		smApiMap.clear();
-		S3Helper.wipeVersionedBucket(s3Client, bucketName);
+		bucket.wipe();
 	}
 }
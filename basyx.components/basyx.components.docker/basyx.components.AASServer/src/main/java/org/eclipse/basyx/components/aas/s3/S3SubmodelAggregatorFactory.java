@@ -37,19 +37,29 @@ import com.amazonaws.services.s3.AmazonS3;
  */
 
 public class S3SubmodelAggregatorFactory implements ISubmodelAggregatorFactory {
-	private AmazonS3 s3Client;
-	private String bucketName;
+	private S3SubmodelBucket bucket;
 	private ISubmodelAPIFactory smApiFactory;
 	
 	
 	public S3SubmodelAggregatorFactory(AmazonS3 s3Client, String bucketName, ISubmodelAPIFactory submodelAPIFactory) {
-		this.s3Client = s3Client;
-		this.bucketName = bucketName;
+		this(S3SubmodelBucket.of(submodelAPIFactory, s3Client, bucketName), submodelAPIFactory);
+	}
+
+	/**
+	 * @param bucket
+	 *            the submodel bucket shared by all created aggregators
+	 */
+	public S3SubmodelAggregatorFactory(S3SubmodelBucket bucket, ISubmodelAPIFactory submodelAPIFactory) {
+		this.bucket = bucket;
 		this.smApiFactory = submodelAPIFactory;
 	}
 
+	public S3SubmodelBucket getBucket() {
+		return bucket;
+	}
+
 	@Override
 	public ISubmodelAggregator create() {
-		return new S3SubmodelAggregator(smApiFactory, s3Client, bucketName);
+		return new S3SubmodelAggregator(smApiFactory, bucket);
 	}
 }
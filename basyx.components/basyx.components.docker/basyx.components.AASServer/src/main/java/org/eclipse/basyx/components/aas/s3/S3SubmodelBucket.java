@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (C) 2022 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.components.aas.s3;
+
+import org.eclipse.basyx.submodel.restapi.api.ISubmodelAPIFactory;
+
+import com.amazonaws.services.s3.AmazonS3;
+
+/**
+ * The submodel bucket of a server component together with the state that is
+ * kept for it in memory, i.e. its idShort index, submodel cache and optional
+ * version index. One instance is shared by the
+ * AAS aggregator, the submodel aggregators and the submodel APIs of a
+ * component, so that they see each others modifications without a registry
+ * per bucket name.
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class S3SubmodelBucket {
+	private final AmazonS3 s3Client;
+	private final String bucketName;
+	private final S3SubmodelIdShortIndex idShortIndex;
+	private final S3SubmodelCache cache;
+	private volatile S3SubmodelVersionIndex versionIndex;
+
+	// Requested on first use
+	private volatile Boolean versioned;
+
+	public S3SubmodelBucket(AmazonS3 s3Client, String bucketName) {
+		this.s3Client = s3Client;
+		this.bucketName = bucketName;
+		this.idShortIndex = new S3SubmodelIdShortIndex(s3Client, bucketName);
+		this.cache = new S3SubmodelCache(bucketName);
+	}
+
+	/**
+	 * Returns the bucket of the given submodel API factory, if it is a
+	 * {@link S3SubmodelAPIFactory} of the same bucket. Otherwise, a new instance
+	 * is created.
+	 */
+	static S3SubmodelBucket of(ISubmodelAPIFactory smApiFactory, AmazonS3 s3Client, String bucketName) {
+		if (smApiFactory instanceof S3SubmodelAPIFactory) {
+			S3SubmodelBucket bucket = ((S3SubmodelAPIFactory) smApiFactory).getBucket();
+			if (bucket.getBucketName().equals(bucketName)) {
+				return bucket;
+			}
+		}
+		return new S3SubmodelBucket(s3Client, bucketName);
+	}
+
+	public AmazonS3 getS3Client() {
+		return s3Client;
+	}
+
+	public String getBucketName() {
+		return bucketName;
+	}
+
+	public S3SubmodelIdShortIndex getIdShortIndex() {
+		return idShortIndex;
+	}
+
+	public S3SubmodelCache getCache() {
+		return cache;
+	}
+
+	/**
+	 * Returns the version index of the bucket or null, if it is not enabled
+	 */
+	public S3SubmodelVersionIndex getVersionIndex() {
+		return versionIndex;
+	}
+
+	/**
+	 * Enables or disables the version index, see {@link S3SubmodelVersionIndex}.
+	 * It is disabled by default, since it costs additional requests per upload.
+	 */
+	public void setVersionIndexEnabled(boolean enabled) {
+		versionIndex = enabled ? new S3SubmodelVersionIndex(s3Client, bucketName) : null;
+	}
+
+	/**
+	 * Returns whether the bucket is versioned, see
+	 * {@link S3Helper#isVersionedBucket(AmazonS3, String)}. The status is only
+	 * requested once, since the versioning of a bucket in use is not expected to
+	 * change.
+	 */
+	public boolean isVersioned() {
+		if (versioned == null) {
+			versioned = S3Helper.isVersionedBucket(s3Client, bucketName);
+		}
+		return versioned;
+	}
+
+	/**
+	 * Deletes all objects of the bucket and discards the state kept for it
+	 */
+	public void wipe() {
+		S3Helper.wipeBucket(s3Client, bucketName);
+		idShortIndex.invalidate();
+		cache.clear();
+	}
+}
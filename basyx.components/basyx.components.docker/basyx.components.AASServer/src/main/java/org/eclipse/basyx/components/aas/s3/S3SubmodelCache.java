@@ -0,0 +1,278 @@
+/*******************************************************************************
+ * Copyright (C) 2022 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.components.aas.s3;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.basyx.components.aas.configuration.BaSyxS3Configuration;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.S3Object;
+
+/**
+ * Bounded read-through cache of the parsed submodels of a bucket. Each read
+ * revalidates the cached submodel with a conditional GET request on its ETag,
+ * so that an unchanged submodel costs a "304 Not Modified" instead of a full
+ * download and deserialization. Writes of the S3SubmodelAPI update the entry
+ * in place. Entries are evicted in least-recently-used order.
+ * 
+ * All submodel APIs of a component share the cache of their bucket, see
+ * {@link S3SubmodelBucket}. Since the callers modify the returned submodels,
+ * the cache hands out copies of its entries.
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class S3SubmodelCache {
+	private final String bucketName;
+	private final LinkedHashMap<String, CacheEntry> submodels;
+	private int maxSize = BaSyxS3Configuration.DEFAULT_SUBMODEL_CACHE_SIZE;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong bytesSaved = new AtomicLong();
+	private final AtomicLong bytesDownloaded = new AtomicLong();
+
+	public S3SubmodelCache(String bucketName) {
+		this.bucketName = bucketName;
+		this.submodels = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+				return size() > S3SubmodelCache.this.maxSize;
+			}
+		};
+	}
+
+	/**
+	 * Sets the maximum number of cached submodels. A value &lt;= 0 disables the
+	 * cache, so that every read downloads the submodel.
+	 */
+	public synchronized void setMaxSize(int maxSize) {
+		this.maxSize = Math.max(maxSize, 0);
+		Iterator<CacheEntry> iterator = submodels.values().iterator();
+		while (submodels.size() > this.maxSize && iterator.hasNext()) {
+			iterator.next();
+			iterator.remove();
+		}
+	}
+
+	public synchronized int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * Returns a copy of the submodel with the given key or null, if there is no
+	 * such object in the bucket
+	 */
+	@SuppressWarnings("unchecked")
+	public Map<String, Object> getSubmodel(AmazonS3 s3Client, String key) {
+		CacheEntry cached = getEntry(key);
+		GetObjectRequest request = new GetObjectRequest(bucketName, key);
+		if (cached != null) {
+			request.withNonmatchingETagConstraint(cached.eTag);
+		}
+
+		S3Object object;
+		try {
+			object = s3Client.getObject(request);
+		} catch (AmazonServiceException e) {
+			remove(key);
+			return null;
+		}
+
+		if (object == null) {
+			// Not modified since it has been cached
+			hits.incrementAndGet();
+			bytesSaved.addAndGet(cached.size);
+			return copy(cached.submodel);
+		}
+
+		misses.incrementAndGet();
+		String eTag = object.getObjectMetadata().getETag();
+		long size = object.getObjectMetadata().getContentLength();
+		Map<String, Object> submodel;
+		try {
+			submodel = (Map<String, Object>) S3JsonCodec.download(object);
+		} catch (IOException e) {
+			throw new RuntimeException("Could not read submodel " + key + " from bucket " + bucketName, e);
+		}
+		bytesDownloaded.addAndGet(size);
+
+		put(key, new CacheEntry(eTag, submodel, size));
+		return copy(submodel);
+	}
+
+	/**
+	 * Updates the entry of a submodel after it has been uploaded
+	 * 
+	 * @param upload
+	 *            the upload of the submodel including its deserialized form, see
+	 *            {@link S3JsonCodec.Upload#getDeserialized()}
+	 */
+	@SuppressWarnings("unchecked")
+	public void update(String key, S3JsonCodec.Upload upload) {
+		if (upload.getDeserialized() == null) {
+			remove(key);
+			return;
+		}
+		put(key, new CacheEntry(upload.getResult().getETag(), (Map<String, Object>) upload.getDeserialized(), upload.getContentLength()));
+	}
+
+	/**
+	 * Returns whether submodels are cached, i.e. whether uploads have to provide
+	 * the deserialized form of the submodel
+	 */
+	public boolean isEnabled() {
+		return getMaxSize() > 0;
+	}
+
+	public synchronized void remove(String key) {
+		submodels.remove(key);
+	}
+
+	public synchronized void clear() {
+		submodels.clear();
+	}
+
+	public synchronized int size() {
+		return submodels.size();
+	}
+
+	/**
+	 * Returns the number of reads that were answered by a cached submodel
+	 */
+	public long getHitCount() {
+		return hits.get();
+	}
+
+	/**
+	 * Returns the number of reads that downloaded the submodel
+	 */
+	public long getMissCount() {
+		return misses.get();
+	}
+
+	/**
+	 * Returns the share of reads that were answered by a cached submodel
+	 */
+	public double getHitRate() {
+		long hitCount = getHitCount();
+		long total = hitCount + getMissCount();
+		return total == 0 ? 0 : (double) hitCount / total;
+	}
+
+	/**
+	 * Returns the number of bytes that did not have to be downloaded, because the
+	 * cached submodel was not modified
+	 */
+	public long getBytesSaved() {
+		return bytesSaved.get();
+	}
+
+	/**
+	 * Returns the number of bytes of the downloaded submodels
+	 */
+	public long getBytesDownloaded() {
+		return bytesDownloaded.get();
+	}
+
+	public void resetStatistics() {
+		hits.set(0);
+		misses.set(0);
+		bytesSaved.set(0);
+		bytesDownloaded.set(0);
+	}
+
+	@Override
+	public String toString() {
+		return "S3SubmodelCache [bucket=" + bucketName + ", size=" + size() + ", hitRate=" + getHitRate() + ", bytesSaved=" + getBytesSaved() + "]";
+	}
+
+	private synchronized CacheEntry getEntry(String key) {
+		return submodels.get(key);
+	}
+
+	private synchronized void put(String key, CacheEntry entry) {
+		if (maxSize > 0) {
+			submodels.put(key, entry);
+		}
+	}
+
+	/**
+	 * Deep copies the maps and collections of a deserialized submodel. This is
+	 * considerably cheaper than deserializing it again.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> T copy(T value) {
+		if (value instanceof Map<?, ?>) {
+			Map<String, Object> map = (Map<String, Object>) value;
+			Map<String, Object> copy = new LinkedHashMap<>(map.size() * 2);
+			for (Entry<String, Object> entry : map.entrySet()) {
+				copy.put(entry.getKey(), copy(entry.getValue()));
+			}
+			return (T) copy;
+		} else if (value instanceof Set<?>) {
+			Set<Object> copy = new LinkedHashSet<>();
+			for (Object element : (Set<Object>) value) {
+				copy.add(copy(element));
+			}
+			return (T) copy;
+		} else if (value instanceof Collection<?>) {
+			List<Object> copy = new ArrayList<>();
+			for (Object element : (Collection<Object>) value) {
+				copy.add(copy(element));
+			}
+			return (T) copy;
+		}
+		// Strings, numbers and booleans are immutable
+		return value;
+	}
+
+	private static class CacheEntry {
+		private final String eTag;
+		private final Map<String, Object> submodel;
+		private final long size;
+
+		private CacheEntry(String eTag, Map<String, Object> submodel, long size) {
+			this.eTag = eTag;
+			this.submodel = submodel;
+			this.size = size;
+		}
+	}
+}
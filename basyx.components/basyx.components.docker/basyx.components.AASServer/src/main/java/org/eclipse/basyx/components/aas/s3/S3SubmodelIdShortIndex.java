@@ -0,0 +1,285 @@
+/*******************************************************************************
+ * Copyright (C) 2022 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.components.aas.s3;
+
+import java.io.ByteArrayInputStream;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.ListObjectsV2Request;
+import com.amazonaws.services.s3.model.ListObjectsV2Result;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+
+/**
+ * Index of the submodel idShorts in a submodel bucket. The index is stored in
+ * the bucket itself, so that resolving an idShort does not require to fetch
+ * every submodel of the bucket. Each submodel is recorded by an empty object,
+ * whose key contains its id and idShort:
+ * 
+ * <pre>
+ * .basyx/idshorts/&lt;encoded submodelId&gt;/&lt;encoded idShort&gt;
+ * </pre>
+ * 
+ * Adding a submodel only writes its entry, so that a versioned bucket does not
+ * keep a copy of the whole index per submodel. The index is loaded once by
+ * listing the entries, maintained on every upload and delete of a submodel and
+ * rebuilt by reading the object metadata with HEAD requests if it is missing
+ * or does not contain a requested idShort.
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class S3SubmodelIdShortIndex {
+	private static Logger logger = LoggerFactory.getLogger(S3SubmodelIdShortIndex.class);
+
+	/**
+	 * Prefix of the index entries in the submodel bucket
+	 */
+	public static final String INDEX_PREFIX = S3Helper.INTERNAL_KEY_PREFIX + "idshorts/";
+
+	private static final String IDSHORT_TAG = "idShort";
+
+	/**
+	 * Minimum time in milliseconds between two rebuilds that are caused by unknown
+	 * idShorts. Prevents listing the bucket for each unresolvable reference.
+	 */
+	private static final long MIN_REFRESH_INTERVAL = 1000;
+
+	private final AmazonS3 s3Client;
+	private final String bucketName;
+
+	// submodel id => idShort, null until the index is loaded
+	private Map<String, String> idShorts;
+	// idShort => submodel id
+	private Map<String, String> submodelIds;
+	private long lastRefresh;
+
+	public S3SubmodelIdShortIndex(AmazonS3 s3Client, String bucketName) {
+		this.s3Client = s3Client;
+		this.bucketName = bucketName;
+	}
+
+	/**
+	 * Returns the prefix of the index entries of a submodel
+	 */
+	public static String getEntryPrefix(String submodelId) {
+		return INDEX_PREFIX + S3Helper.encodeKeySegment(submodelId) + "/";
+	}
+
+	private static String getEntryKey(String submodelId, String idShort) {
+		return getEntryPrefix(submodelId) + S3Helper.encodeKeySegment(idShort);
+	}
+
+	/**
+	 * Returns the id of a submodel with the given idShort or null, if there is no
+	 * such submodel in the bucket
+	 */
+	public synchronized String getSubmodelId(String idShort) {
+		load();
+		String id = submodelIds.get(idShort);
+		if (id == null && System.currentTimeMillis() - lastRefresh >= MIN_REFRESH_INTERVAL) {
+			// The submodel may have been uploaded by another server using the same bucket
+			refresh();
+			id = submodelIds.get(idShort);
+		}
+		return id;
+	}
+
+	/**
+	 * Adds a submodel to the index. The entry is only written if the idShort of
+	 * the submodel changed.
+	 */
+	public synchronized void put(String submodelId, String idShort) {
+		load();
+		String oldIdShort = index(submodelId, idShort);
+		if (!Objects.equals(oldIdShort, idShort)) {
+			storeEntry(submodelId, idShort);
+			if (oldIdShort != null) {
+				deleteEntry(submodelId, oldIdShort);
+			}
+		}
+	}
+
+	/**
+	 * Removes a submodel from the index
+	 */
+	public synchronized void remove(String submodelId) {
+		load();
+		String idShort = unindex(submodelId);
+		if (idShort != null) {
+			deleteEntry(submodelId, idShort);
+		}
+	}
+
+	/**
+	 * Returns the number of indexed submodels
+	 */
+	public synchronized int size() {
+		load();
+		return idShorts.size();
+	}
+
+	/**
+	 * Discards the loaded index, e.g. after the bucket has been wiped. It is
+	 * loaded again on next access.
+	 */
+	public synchronized void invalidate() {
+		idShorts = null;
+		submodelIds = null;
+	}
+
+	private String index(String submodelId, String idShort) {
+		String oldIdShort = idShorts.put(submodelId, idShort);
+		if (oldIdShort != null) {
+			submodelIds.remove(oldIdShort, submodelId);
+		}
+		submodelIds.put(idShort, submodelId);
+		return oldIdShort;
+	}
+
+	private String unindex(String submodelId) {
+		String idShort = idShorts.remove(submodelId);
+		if (idShort != null) {
+			submodelIds.remove(idShort, submodelId);
+		}
+		return idShort;
+	}
+
+	private void load() {
+		if (idShorts != null) {
+			return;
+		}
+
+		idShorts = new HashMap<>();
+		submodelIds = new HashMap<>();
+		try {
+			loadEntries();
+		} catch (RuntimeException e) {
+			// Loaded again on next access instead of rebuilding an index that exists
+			invalidate();
+			throw e;
+		}
+
+		if (!idShorts.isEmpty()) {
+			logger.info("Loaded idShort index of {} submodels from bucket '{}'", idShorts.size(), bucketName);
+			return;
+		}
+
+		logger.info("No idShort index found in bucket '{}' - building it from the object metadata", bucketName);
+		refresh();
+	}
+
+	private void loadEntries() {
+		ListObjectsV2Request request = new ListObjectsV2Request().withBucketName(bucketName).withPrefix(INDEX_PREFIX);
+		ListObjectsV2Result result;
+		do {
+			result = s3Client.listObjectsV2(request);
+			for (S3ObjectSummary os : result.getObjectSummaries()) {
+				String entry = os.getKey().substring(INDEX_PREFIX.length());
+				int separator = entry.indexOf('/');
+				if (separator < 0) {
+					continue;
+				}
+				index(S3Helper.decodeKeySegment(entry.substring(0, separator)), S3Helper.decodeKeySegment(entry.substring(separator + 1)));
+			}
+			request.setContinuationToken(result.getNextContinuationToken());
+		} while (result.isTruncated());
+	}
+
+	/**
+	 * Synchronizes the index with the listing of the bucket. Only the metadata of
+	 * objects that are not indexed yet is requested, and only the entries of
+	 * added, changed or removed submodels are written.
+	 */
+	private void refresh() {
+		Map<String, String> refreshed = new HashMap<>();
+		ListObjectsV2Request request = new ListObjectsV2Request().withBucketName(bucketName);
+		ListObjectsV2Result result;
+		do {
+			result = s3Client.listObjectsV2(request);
+			for (S3ObjectSummary os : result.getObjectSummaries()) {
+				String key = os.getKey();
+				if (S3Helper.isInternalKey(key)) {
+					continue;
+				}
+
+				String idShort = idShorts.containsKey(key) ? idShorts.get(key) : fetchIdShort(key);
+				if (idShort != null) {
+					refreshed.put(key, idShort);
+				}
+			}
+			request.setContinuationToken(result.getNextContinuationToken());
+		} while (result.isTruncated());
+
+		for (String submodelId : new HashSet<>(idShorts.keySet())) {
+			if (!refreshed.containsKey(submodelId)) {
+				remove(submodelId);
+			}
+		}
+		for (Entry<String, String> entry : refreshed.entrySet()) {
+			put(entry.getKey(), entry.getValue());
+		}
+		lastRefresh = System.currentTimeMillis();
+	}
+
+	private String fetchIdShort(String key) {
+		try {
+			ObjectMetadata metadata = s3Client.getObjectMetadata(bucketName, key);
+			return metadata.getUserMetaDataOf(IDSHORT_TAG);
+		} catch (AmazonServiceException e) {
+			logger.warn("Could not read metadata of object '{}' in bucket '{}'", key, bucketName);
+			return null;
+		}
+	}
+
+	private void storeEntry(String submodelId, String idShort) {
+		ObjectMetadata metadata = new ObjectMetadata();
+		metadata.setContentLength(0);
+		try {
+			s3Client.putObject(bucketName, getEntryKey(submodelId, idShort), new ByteArrayInputStream(new byte[0]), metadata);
+		} catch (AmazonServiceException e) {
+			// Missing entries are restored from the object metadata
+			logger.warn("Could not store idShort index entry of submodel '{}' in bucket '{}'", submodelId, bucketName, e);
+		}
+	}
+
+	private void deleteEntry(String submodelId, String idShort) {
+		try {
+			s3Client.deleteObject(bucketName, getEntryKey(submodelId, idShort));
+		} catch (AmazonServiceException e) {
+			// Stale entries are removed by the next refresh
+			logger.warn("Could not delete idShort index entry of submodel '{}' in bucket '{}'", submodelId, bucketName, e);
+		}
+	}
+}
@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (C) 2022 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.components.aas.s3;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.basyx.submodel.metamodel.api.submodelelement.ISubmodelElement;
+import org.eclipse.basyx.submodel.metamodel.facade.SubmodelElementMapCollectionConverter;
+import org.eclipse.basyx.submodel.metamodel.map.Submodel;
+
+/**
+ * Describes the sharded layout of submodels in a bucket. In this layout, the
+ * object of a submodel is a manifest, i.e. the submodel without its elements
+ * and the list of the idShorts of its top level elements. Each top level
+ * element is stored as a separate object (shard) under a prefix of the
+ * submodel:
+ * 
+ * <pre>
+ * &lt;submodelId&gt;                                   manifest
+ * .basyx/shards/&lt;encoded submodelId&gt;/&lt;idShort&gt;  top level element
+ * </pre>
+ * 
+ * Updating an element only rewrites its shard and, in a versioned bucket, only
+ * keeps a new version of the shard.
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class S3SubmodelShards {
+	/**
+	 * Prefix of all shards in a bucket
+	 */
+	public static final String SHARD_PREFIX = S3Helper.INTERNAL_KEY_PREFIX + "shards/";
+
+	/**
+	 * Entry of a manifest that lists the idShorts of the sharded elements
+	 */
+	public static final String SHARDED_ELEMENTS = "_basyxShardedElements";
+
+	private S3SubmodelShards() {
+	}
+
+	/**
+	 * Returns the prefix of the shards of a submodel. The submodel id is encoded,
+	 * so that the prefix of a submodel never is the prefix of another submodel.
+	 */
+	public static String getShardPrefix(String submodelId) {
+		return SHARD_PREFIX + S3Helper.encodeKeySegment(submodelId) + "/";
+	}
+
+	public static String getShardKey(String submodelId, String idShort) {
+		return getShardPrefix(submodelId) + idShort;
+	}
+
+	public static boolean isShardKey(String key) {
+		return key.startsWith(SHARD_PREFIX);
+	}
+
+	/**
+	 * Returns true, if the stored object of a submodel is a manifest
+	 */
+	public static boolean isManifest(Map<String, Object> submodel) {
+		return submodel.containsKey(SHARDED_ELEMENTS);
+	}
+
+	@SuppressWarnings("unchecked")
+	public static List<String> getShardedElements(Map<String, Object> manifest) {
+		return (List<String>) manifest.get(SHARDED_ELEMENTS);
+	}
+
+	/**
+	 * Creates the manifest of a submodel. The submodel itself is not modified.
+	 */
+	public static Submodel createManifest(Submodel submodel) {
+		return createManifest(submodel, new ArrayList<>(submodel.getSubmodelElements().keySet()));
+	}
+
+	/**
+	 * Creates a manifest from a submodel or an existing manifest that lists the
+	 * given elements
+	 */
+	public static Submodel createManifest(Map<String, Object> submodel, List<String> shardedElements) {
+		Map<String, Object> manifest = new LinkedHashMap<>(submodel);
+		manifest.put(Submodel.SUBMODELELEMENT, new LinkedHashMap<String, ISubmodelElement>());
+		manifest.put(SHARDED_ELEMENTS, shardedElements);
+		return Submodel.createAsFacade(manifest);
+	}
+
+	/**
+	 * Creates a submodel that only contains the given top level element. Such a
+	 * partial submodel is used to read or modify the element of a shard. It is not
+	 * a valid submodel, since it lacks the identification.
+	 */
+	public static Submodel createPartialSubmodel(String idShort, Map<String, Object> element) {
+		Map<String, Object> elements = new LinkedHashMap<>();
+		elements.put(idShort, element);
+		Map<String, Object> submodel = new LinkedHashMap<>();
+		submodel.put(Submodel.SUBMODELELEMENT, elements);
+		return SubmodelElementMapCollectionConverter.mapToSM(submodel);
+	}
+}
@@ -0,0 +1,310 @@
+/*******************************************************************************
+ * Copyright (C) 2022 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.components.aas.s3;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.DeleteObjectsResult.DeletedObject;
+import com.amazonaws.services.s3.model.GetObjectMetadataRequest;
+import com.amazonaws.services.s3.model.ListObjectsV2Request;
+import com.amazonaws.services.s3.model.ListObjectsV2Result;
+import com.amazonaws.services.s3.model.ListVersionsRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+import com.amazonaws.services.s3.model.S3VersionSummary;
+import com.amazonaws.services.s3.model.VersionListing;
+
+/**
+ * Index of the versions of the submodels in a versioned bucket. Each uploaded
+ * version and each delete marker is recorded by an empty object, whose key
+ * contains the inverted upload time, the kind of the entry and the version id:
+ * 
+ * <pre>
+ * .basyx/versions/&lt;encoded submodelId&gt;/&lt;object&gt;/&lt;Long.MAX_VALUE - timestamp&gt;_&lt;v|d&gt;_&lt;versionId&gt;
+ * </pre>
+ * 
+ * The object is either {@link #SUBMODEL_OBJECT} or the idShort of a shard, see
+ * {@link S3SubmodelShards}. Since S3 lists keys in ascending order, the latest
+ * version at a given time is the first key after the inverted time. It is found
+ * by a single listing request instead of listing all versions of the object.
+ * If the latest entry is a delete marker, the object did not exist at that
+ * time. Entries are written once and never modified, so that several servers
+ * can maintain the index of a bucket concurrently.
+ * 
+ * The upload time is the Last-Modified time of the version as stated by S3, so
+ * that all servers use the same clock. S3 states it in seconds, so a version is
+ * found for all times in the second of its upload, even before the upload has
+ * completed. If several versions have been uploaded within the same second,
+ * they are ordered by the version listing of the object, which S3 returns
+ * latest first.
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class S3SubmodelVersionIndex {
+	private static Logger logger = LoggerFactory.getLogger(S3SubmodelVersionIndex.class);
+
+	/**
+	 * Prefix of the version index in a bucket
+	 */
+	public static final String VERSION_INDEX_PREFIX = S3Helper.INTERNAL_KEY_PREFIX + "versions/";
+
+	/**
+	 * Name of the object of the submodel itself, i.e. the whole submodel or its
+	 * manifest. IdShorts start with a letter, so that it never is the name of a
+	 * shard.
+	 */
+	public static final String SUBMODEL_OBJECT = "_submodel";
+
+	private static final char SEPARATOR = '_';
+	private static final char VERSION = 'v';
+	private static final char DELETE_MARKER = 'd';
+	private static final int ENCODED_LENGTH = 19;
+
+	private final AmazonS3 s3Client;
+	private final String bucketName;
+
+	public S3SubmodelVersionIndex(AmazonS3 s3Client, String bucketName) {
+		this.s3Client = s3Client;
+		this.bucketName = bucketName;
+	}
+
+	/**
+	 * Returns the prefix of the index entries of a submodel
+	 */
+	public static String getIndexPrefix(String submodelId) {
+		return VERSION_INDEX_PREFIX + S3Helper.encodeKeySegment(submodelId) + "/";
+	}
+
+	private static String getObjectPrefix(String submodelId, String objectName) {
+		return getIndexPrefix(submodelId) + objectName + "/";
+	}
+
+	/**
+	 * Returns the key of an object of a submodel
+	 */
+	private static String getObjectKey(String submodelId, String objectName) {
+		return SUBMODEL_OBJECT.equals(objectName) ? submodelId : S3SubmodelShards.getShardKey(submodelId, objectName);
+	}
+
+	/**
+	 * Inverts a timestamp and pads it to a fixed length, so that later ones sort
+	 * first
+	 */
+	private static String encodeInverted(long value) {
+		return String.format("%019d", Long.MAX_VALUE - value);
+	}
+
+	/**
+	 * Records an uploaded version of an object of a submodel. Its upload time is
+	 * requested from S3.
+	 * 
+	 * @param key
+	 *            the key of the uploaded object
+	 */
+	public void addUpload(String submodelId, String objectName, String key, String versionId) {
+		ObjectMetadata metadata = s3Client.getObjectMetadata(new GetObjectMetadataRequest(bucketName, key, versionId));
+		add(submodelId, objectName, metadata.getLastModified().getTime(), versionId);
+	}
+
+	/**
+	 * Records a version of an object of a submodel
+	 * 
+	 * @param timestamp
+	 *            the upload time of the version in milliseconds since the epoch
+	 */
+	public void add(String submodelId, String objectName, long timestamp, String versionId) {
+		addEntry(submodelId, objectName, timestamp, VERSION, versionId);
+	}
+
+	/**
+	 * Records a delete marker of an object of a submodel, so that the object is
+	 * not found at or after the given time
+	 * 
+	 * @param timestamp
+	 *            the time of the deletion in milliseconds since the epoch
+	 */
+	public void addDeleteMarker(String submodelId, String objectName, long timestamp, String versionId) {
+		addEntry(submodelId, objectName, timestamp, DELETE_MARKER, versionId);
+	}
+
+	/**
+	 * Deletes an object of a submodel and records the delete marker. The versions
+	 * of the object are kept, so that it can still be read as of a time before
+	 * its deletion.
+	 */
+	public void delete(String submodelId, String objectName) {
+		String key = getObjectKey(submodelId, objectName);
+		List<DeletedObject> deleted = s3Client.deleteObjects(new DeleteObjectsRequest(bucketName).withKeys(key)).getDeletedObjects();
+		if (deleted.isEmpty() || !deleted.get(0).isDeleteMarker()) {
+			return;
+		}
+
+		String versionId = deleted.get(0).getDeleteMarkerVersionId();
+		S3VersionSummary marker = findVersion(key, versionId);
+		// The time of S3 is preferred, so that all servers use the same clock
+		long timestamp = marker == null ? System.currentTimeMillis() : marker.getLastModified().getTime();
+		addDeleteMarker(submodelId, objectName, timestamp, versionId);
+	}
+
+	private void addEntry(String submodelId, String objectName, long timestamp, char kind, String versionId) {
+		String key = getObjectPrefix(submodelId, objectName) + encodeInverted(timestamp) + SEPARATOR + kind + SEPARATOR + versionId;
+		ObjectMetadata metadata = new ObjectMetadata();
+		metadata.setContentLength(0);
+		s3Client.putObject(bucketName, key, new ByteArrayInputStream(new byte[0]), metadata);
+	}
+
+	/**
+	 * Returns the id of the latest version of an object of a submodel that has
+	 * been uploaded at or before the given time
+	 * 
+	 * @param timestamp
+	 *            milliseconds since the epoch
+	 * @return the version id or null, if there was no version at that time or
+	 *         the object had been deleted
+	 */
+	public String getVersionId(String submodelId, String objectName, long timestamp) {
+		String prefix = getObjectPrefix(submodelId, objectName);
+		// All entries of later versions sort before the start key
+		String startAfter = prefix + encodeInverted(Math.min(timestamp, Long.MAX_VALUE - 1) + 1) + '~';
+		// A second entry tells whether there are several versions of the same time
+		ListObjectsV2Request request = new ListObjectsV2Request().withBucketName(bucketName).withPrefix(prefix).withStartAfter(startAfter).withMaxKeys(2);
+		List<S3ObjectSummary> entries = s3Client.listObjectsV2(request).getObjectSummaries();
+		if (entries.isEmpty()) {
+			return null;
+		}
+
+		String entry = entries.get(0).getKey().substring(prefix.length());
+		String time = entry.substring(0, ENCODED_LENGTH);
+		if (entries.size() > 1 && entries.get(1).getKey().startsWith(prefix + time)) {
+			entry = getLatestEntry(submodelId, objectName, prefix, time);
+		}
+
+		if (entry.charAt(ENCODED_LENGTH + 1) == DELETE_MARKER) {
+			return null;
+		}
+		return entry.substring(ENCODED_LENGTH + 3);
+	}
+
+	/**
+	 * Returns the entry of the latest of several versions with the same time. They
+	 * are ordered by the version listing of the object.
+	 */
+	private String getLatestEntry(String submodelId, String objectName, String prefix, String time) {
+		List<String> entries = new ArrayList<>();
+		ListObjectsV2Request request = new ListObjectsV2Request().withBucketName(bucketName).withPrefix(prefix + time + SEPARATOR);
+		ListObjectsV2Result result;
+		do {
+			result = s3Client.listObjectsV2(request);
+			for (S3ObjectSummary os : result.getObjectSummaries()) {
+				entries.add(os.getKey().substring(prefix.length()));
+			}
+			request.setContinuationToken(result.getNextContinuationToken());
+		} while (result.isTruncated());
+
+		String key = getObjectKey(submodelId, objectName);
+		ListVersionsRequest versionsRequest = new ListVersionsRequest().withBucketName(bucketName).withPrefix(key);
+		for (VersionListing listing = s3Client.listVersions(versionsRequest);; listing = s3Client.listNextBatchOfVersions(listing)) {
+			for (S3VersionSummary version : listing.getVersionSummaries()) {
+				if (!version.getKey().equals(key)) {
+					continue;
+				}
+				for (String entry : entries) {
+					if (entry.substring(ENCODED_LENGTH + 3).equals(version.getVersionId())) {
+						return entry;
+					}
+				}
+			}
+			if (!listing.isTruncated()) {
+				// The versions have been deleted, so any of the entries is as good
+				return entries.get(0);
+			}
+		}
+	}
+
+	/**
+	 * Records the versions and delete markers of a submodel and its shards that
+	 * are in the bucket, e.g. versions that have been uploaded before the index
+	 * was maintained. The last modification time of a version is used as its
+	 * timestamp. Existing entries of a rebuild are not duplicated.
+	 * 
+	 * @return the number of recorded versions
+	 */
+	public long rebuild(String submodelId) {
+		// The prefix also lists other keys starting with the submodel id
+		List<S3VersionSummary> versions = listVersions(submodelId);
+		versions.removeIf(version -> !version.getKey().equals(submodelId));
+		String shardPrefix = S3SubmodelShards.getShardPrefix(submodelId);
+		versions.addAll(listVersions(shardPrefix));
+
+		for (S3VersionSummary version : versions) {
+			String objectName = version.getKey().equals(submodelId) ? SUBMODEL_OBJECT : version.getKey().substring(shardPrefix.length());
+			long timestamp = version.getLastModified().getTime();
+			if (version.isDeleteMarker()) {
+				addDeleteMarker(submodelId, objectName, timestamp, version.getVersionId());
+			} else {
+				add(submodelId, objectName, timestamp, version.getVersionId());
+			}
+		}
+
+		logger.info("Recorded {} versions of submodel '{}' in bucket '{}'", versions.size(), submodelId, bucketName);
+		return versions.size();
+	}
+
+	private S3VersionSummary findVersion(String key, String versionId) {
+		ListVersionsRequest request = new ListVersionsRequest().withBucketName(bucketName).withPrefix(key);
+		for (VersionListing listing = s3Client.listVersions(request);; listing = s3Client.listNextBatchOfVersions(listing)) {
+			for (S3VersionSummary version : listing.getVersionSummaries()) {
+				if (version.getKey().equals(key) && version.getVersionId().equals(versionId)) {
+					return version;
+				}
+			}
+			if (!listing.isTruncated()) {
+				return null;
+			}
+		}
+	}
+
+	/**
+	 * Lists the versions and delete markers of all objects with the prefix
+	 */
+	private List<S3VersionSummary> listVersions(String prefix) {
+		List<S3VersionSummary> versions = new ArrayList<>();
+		ListVersionsRequest request = new ListVersionsRequest().withBucketName(bucketName).withPrefix(prefix);
+		for (VersionListing listing = s3Client.listVersions(request);; listing = s3Client.listNextBatchOfVersions(listing)) {
+			versions.addAll(listing.getVersionSummaries());
+			if (!listing.isTruncated()) {
+				return versions;
+			}
+		}
+	}
+}
@@ -24,7 +24,14 @@
  ******************************************************************************/
 package org.eclipse.basyx.components.aas.servlet;
 
+import java.io.IOException;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
 import org.eclipse.basyx.aas.aggregator.AASAggregator;
+import org.eclipse.basyx.aas.aggregator.api.IAASAggregator;
 import org.eclipse.basyx.extensions.aas.aggregator.aasxupload.AASAggregatorAASXUpload;
 import org.eclipse.basyx.extensions.aas.aggregator.aasxupload.api.IAASAggregatorAASXUpload;
 import org.eclipse.basyx.extensions.aas.aggregator.aasxupload.restapi.AASAggregatorAASXUploadProvider;
@@ -33,7 +40,11 @@ import org.eclipse.basyx.vab.protocol.http.server.VABHTTPInterface;
 /**
  * A servlet containing the empty infrastructure needed to support receiving
  * AAS/Submodels by clients and hosting them along with the support of uploading
- * AASX via rest api
+ * AASX via rest api<br>
+ * <br>
+ * If the uploading aggregator is created for an
+ * {@link org.eclipse.basyx.components.aas.aggregator.IStreamingAASAggregator},
+ * the AAS list is streamed by the {@link AASListStreamer}.
  * 
  * @author haque
  *
@@ -41,11 +52,31 @@ import org.eclipse.basyx.vab.protocol.http.server.VABHTTPInterface;
 public class AASAggregatorAASXUploadServlet extends VABHTTPInterface<AASAggregatorAASXUploadProvider> {
 	private static final long serialVersionUID = -2752423025315116454L;
 
+	private final transient IAASAggregator aggregator;
+
 	public AASAggregatorAASXUploadServlet() {
 		super(new AASAggregatorAASXUploadProvider(new AASAggregatorAASXUpload(new AASAggregator())));
+		this.aggregator = null;
 	}
 
 	public AASAggregatorAASXUploadServlet(IAASAggregatorAASXUpload aggregator) {
 		super(new AASAggregatorAASXUploadProvider(aggregator));
+		this.aggregator = null;
+	}
+
+	/**
+	 * Creates the servlet for an uploading aggregator wrapping the given
+	 * aggregator, so that the AAS list can be streamed from it
+	 */
+	public AASAggregatorAASXUploadServlet(IAASAggregatorAASXUpload uploadAggregator, IAASAggregator aggregator) {
+		super(new AASAggregatorAASXUploadProvider(uploadAggregator));
+		this.aggregator = aggregator;
+	}
+
+	@Override
+	protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+		if (!AASListStreamer.handle(aggregator, serializer, req, resp)) {
+			super.doGet(req, resp);
+		}
 	}
 }
@@ -24,14 +24,24 @@
  ******************************************************************************/
 package org.eclipse.basyx.components.aas.servlet;
 
+import java.io.IOException;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
 import org.eclipse.basyx.aas.aggregator.AASAggregator;
 import org.eclipse.basyx.aas.aggregator.api.IAASAggregator;
 import org.eclipse.basyx.aas.aggregator.restapi.AASAggregatorProvider;
+import org.eclipse.basyx.components.aas.aggregator.IStreamingAASAggregator;
 import org.eclipse.basyx.vab.protocol.http.server.VABHTTPInterface;
 
 /**
  * A servlet containing the empty infrastructure needed to support receiving
- * AAS/Submodels by clients and hosting them
+ * AAS/Submodels by clients and hosting them<br>
+ * <br>
+ * If the aggregator is an {@link IStreamingAASAggregator}, the AAS list is
+ * streamed by the {@link AASListStreamer}.
  * 
  * @author schnicke
  *
@@ -39,11 +49,21 @@ import org.eclipse.basyx.vab.protocol.http.server.VABHTTPInterface;
 public class AASAggregatorServlet extends VABHTTPInterface<AASAggregatorProvider> {
 	private static final long serialVersionUID = 1244938902937878401L;
 
+	private final transient IAASAggregator aggregator;
+
 	public AASAggregatorServlet() {
-		super(new AASAggregatorProvider(new AASAggregator()));
+		this(new AASAggregator());
 	}
 
 	public AASAggregatorServlet(IAASAggregator aggregator) {
 		super(new AASAggregatorProvider(aggregator));
+		this.aggregator = aggregator;
+	}
+
+	@Override
+	protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+		if (!AASListStreamer.handle(aggregator, serializer, req, resp)) {
+			super.doGet(req, resp);
+		}
 	}
 }
@@ -0,0 +1,190 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.components.aas.servlet;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.basyx.aas.aggregator.api.IAASAggregator;
+import org.eclipse.basyx.aas.aggregator.restapi.AASAggregatorProvider;
+import org.eclipse.basyx.aas.metamodel.api.IAssetAdministrationShell;
+import org.eclipse.basyx.components.aas.aggregator.IStreamingAASAggregator;
+import org.eclipse.basyx.vab.coder.json.serialization.GSONTools;
+import org.eclipse.basyx.vab.exception.provider.MalformedRequestException;
+import org.eclipse.basyx.vab.exception.provider.ProviderException;
+import org.eclipse.basyx.vab.protocol.http.server.ExceptionToHTTPCodeMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes the AAS list of an {@link IStreamingAASAggregator} directly from the
+ * backend to the response instead of collecting and serializing it as a whole.
+ * By default, the response is the plain JSON array of all AAS. Only if the
+ * query parameter {@value #PARAM_PAGED}=true is given, the list is returned
+ * page-wise as <code>{"items": [...], "continuationToken": ...}</code>, with the
+ * page size given by {@value #PARAM_LIMIT} and the page by {@value #PARAM_CURSOR}.
+ * <br>
+ * The status is only committed with the first AAS, so errors while opening the
+ * list are returned with their status code. If the backend fails after that,
+ * the exception is rethrown, so that the connection is aborted instead of
+ * completing a truncated list with status 200.
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class AASListStreamer {
+	private static Logger logger = LoggerFactory.getLogger(AASListStreamer.class);
+
+	public static final String PARAM_PAGED = "paged";
+	public static final String PARAM_LIMIT = "limit";
+	public static final String PARAM_CURSOR = "cursor";
+	public static final String ITEMS = "items";
+	public static final String CONTINUATION_TOKEN = "continuationToken";
+
+	private static final String SHELLS_PATH = "/" + AASAggregatorProvider.PREFIX;
+
+	private AASListStreamer() {
+	}
+
+	/**
+	 * Streams the AAS list, if the request is a GET of the AAS list and the
+	 * aggregator supports streaming
+	 * 
+	 * @return false, if the request has not been handled
+	 */
+	public static boolean handle(IAASAggregator aggregator, GSONTools serializer, HttpServletRequest req, HttpServletResponse resp) throws IOException {
+		if (!(aggregator instanceof IStreamingAASAggregator) || !isAASListRequest(req)) {
+			return false;
+		}
+
+		ListWriter listWriter = null;
+		try {
+			boolean paged = Boolean.parseBoolean(req.getParameter(PARAM_PAGED));
+			String cursor = paged ? req.getParameter(PARAM_CURSOR) : null;
+			int limit = paged ? parseLimit(req.getParameter(PARAM_LIMIT)) : 0;
+
+			listWriter = new ListWriter(serializer, resp, paged);
+			String nextCursor = ((IStreamingAASAggregator) aggregator).streamAASList(cursor, limit, listWriter::write);
+			listWriter.finish(nextCursor);
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		} catch (ProviderException e) {
+			if (listWriter != null && listWriter.isStarted()) {
+				logger.error("Streaming the AAS list failed after the response has been committed", e);
+				throw e;
+			}
+			int httpCode = ExceptionToHTTPCodeMapper.mapFromException(e);
+			resp.setStatus(httpCode);
+			logger.debug("Exception in HTTP-GET. Response-code: " + httpCode, e);
+		}
+		return true;
+	}
+
+	private static boolean isAASListRequest(HttpServletRequest req) {
+		String path = req.getPathInfo();
+		return SHELLS_PATH.equals(path) || (SHELLS_PATH + "/").equals(path);
+	}
+
+	private static int parseLimit(String limit) {
+		if (limit == null) {
+			return 0;
+		}
+		try {
+			int parsed = Integer.parseInt(limit);
+			if (parsed <= 0) {
+				throw new MalformedRequestException("Limit has to be positive, but is " + limit);
+			}
+			return parsed;
+		} catch (NumberFormatException e) {
+			throw new MalformedRequestException("Invalid limit '" + limit + "'");
+		}
+	}
+
+	/**
+	 * Writes the list and commits the response only when the first AAS has been
+	 * serialized or the list turns out to be empty
+	 */
+	private static class ListWriter {
+		private final GSONTools serializer;
+		private final HttpServletResponse resp;
+		private final boolean paged;
+		private Writer writer;
+
+		public ListWriter(GSONTools serializer, HttpServletResponse resp, boolean paged) {
+			this.serializer = serializer;
+			this.resp = resp;
+			this.paged = paged;
+		}
+
+		public boolean isStarted() {
+			return writer != null;
+		}
+
+		public void write(IAssetAdministrationShell aas) {
+			String serialized = serializer.serialize(aas);
+			try {
+				if (writer == null) {
+					start();
+				} else {
+					writer.write(',');
+				}
+				writer.write(serialized);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		public void finish(String nextCursor) throws IOException {
+			if (writer == null) {
+				start();
+			}
+			writer.write(']');
+			if (paged) {
+				// The token is only known after the page has been read, so it is appended
+				// at the end instead of being sent as header
+				writer.write(",\"" + CONTINUATION_TOKEN + "\":" + serializer.serialize(nextCursor) + "}");
+			}
+			writer.flush();
+		}
+
+		private void start() throws IOException {
+			resp.setContentType("application/json");
+			resp.setCharacterEncoding("UTF-8");
+			resp.setStatus(200);
+			writer = new BufferedWriter(new OutputStreamWriter(resp.getOutputStream(), StandardCharsets.UTF_8));
+			if (paged) {
+				writer.write("{\"" + ITEMS + "\":");
+			}
+			writer.write('[');
+		}
+	}
+}
@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.regression.AASServer.mongodb;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bson.Document;
+import org.eclipse.basyx.components.aas.mongodb.MongoDBSubmodelAPI;
+import org.eclipse.basyx.components.configuration.BaSyxMongoDBConfiguration;
+import org.eclipse.basyx.components.configuration.MongoDBIndexMode;
+import org.eclipse.basyx.submodel.metamodel.api.qualifier.haskind.ModelingKind;
+import org.eclipse.basyx.tools.mongodb.MongoDBClientRegistry;
+import org.eclipse.basyx.tools.mongodb.MongoDBIndex;
+import org.eclipse.basyx.tools.mongodb.MongoDBIndexManager;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+
+/**
+ * Compares the latency of looking up submodels by id and by idShort in a
+ * collection with 100k documents without and with the indexes ensured by the
+ * components. This test is ignored by default, as it is time consuming and
+ * only reports its results to the log.
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+@Ignore
+public class MongoDBIndexBenchmark {
+	private static Logger logger = LoggerFactory.getLogger(MongoDBIndexBenchmark.class);
+
+	private static final String ID_SHORT = "idShort";
+	private int numberOfDocuments = 100000;
+	private int numberOfLookups = 200;
+	private int batchSize = 1000;
+
+	@Test
+	public void compareLookupLatency() {
+		BaSyxMongoDBConfiguration config = new BaSyxMongoDBConfiguration();
+		MongoCollection<Document> collection = MongoDBClientRegistry.getClient(config).getDatabase(config.getDatabase()).getCollection("basyxTestSMIndexBenchmark");
+		collection.drop();
+		try {
+			fillCollection(collection);
+
+			logger.info("Without indexes: " + getAverageMicros(measureIdLookups(collection)) + " us per lookup by id, " + getAverageMicros(measureIdShortLookups(collection)) + " us per lookup by idShort");
+
+			MongoDBIndexManager indexManager = new MongoDBIndexManager(MongoDBIndexMode.CREATE, true);
+			long start = System.currentTimeMillis();
+			indexManager.ensureIndexes(collection, MongoDBIndex.unique(MongoDBSubmodelAPI.SMIDPATH), MongoDBIndex.ascending(ID_SHORT));
+			logger.info("Creating the indexes took " + (System.currentTimeMillis() - start) + " ms");
+
+			logger.info("With indexes: " + getAverageMicros(measureIdLookups(collection)) + " us per lookup by id, " + getAverageMicros(measureIdShortLookups(collection)) + " us per lookup by idShort");
+		} finally {
+			collection.drop();
+		}
+	}
+
+	private void fillCollection(MongoCollection<Document> collection) {
+		List<Document> batch = new ArrayList<>();
+		for (int i = 0; i < numberOfDocuments; i++) {
+			Document identification = new Document("idType", "Custom").append("id", getId(i));
+			batch.add(new Document(ID_SHORT, "sm" + i).append("identification", identification).append("kind", ModelingKind.INSTANCE.toString()));
+			if (batch.size() == batchSize) {
+				collection.insertMany(batch);
+				batch.clear();
+			}
+		}
+		if (!batch.isEmpty()) {
+			collection.insertMany(batch);
+		}
+	}
+
+	private long measureIdLookups(MongoCollection<Document> collection) {
+		long start = System.nanoTime();
+		for (int i = 0; i < numberOfLookups; i++) {
+			collection.find(Filters.eq(MongoDBSubmodelAPI.SMIDPATH, getId(getLookupIndex(i)))).first();
+		}
+		return System.nanoTime() - start;
+	}
+
+	private long measureIdShortLookups(MongoCollection<Document> collection) {
+		long start = System.nanoTime();
+		for (int i = 0; i < numberOfLookups; i++) {
+			collection.find(Filters.eq(ID_SHORT, "sm" + getLookupIndex(i))).first();
+		}
+		return System.nanoTime() - start;
+	}
+
+	/**
+	 * Spreads the lookups over the whole collection
+	 */
+	private int getLookupIndex(int i) {
+		return (int) ((long) i * numberOfDocuments / numberOfLookups);
+	}
+
+	private String getId(int i) {
+		return "benchmarkSubmodelId" + i;
+	}
+
+	private long getAverageMicros(long nanos) {
+		return nanos / 1000 / numberOfLookups;
+	}
+}
@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.regression.AASServer.mongodb;
+
+import org.eclipse.basyx.components.aas.mongodb.MongoDBSubmodelAPI;
+import org.eclipse.basyx.components.configuration.BaSyxMongoDBConfiguration;
+import org.eclipse.basyx.submodel.metamodel.api.identifier.IdentifierType;
+import org.eclipse.basyx.submodel.metamodel.map.Submodel;
+import org.eclipse.basyx.submodel.metamodel.map.identifier.Identifier;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.SubmodelElementCollection;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.Property;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+
+/**
+ * Compares the write throughput of the MongoDBSubmodelAPI when replacing the
+ * whole submodel document with the throughput of field-level updates. This
+ * test is ignored by default, as it is time consuming and only reports its
+ * results to the log.
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+@Ignore
+public class MongoDBPartialUpdatesBenchmark {
+	private static Logger logger = LoggerFactory.getLogger(MongoDBPartialUpdatesBenchmark.class);
+
+	private static final String SM_ID = "benchmarkSubmodel";
+	private static final String COLLECTION_ID_SHORT = "collection";
+	private int numberOfElements = 5000;
+	private int numberOfWrites = 1000;
+
+	@Test
+	public void compareWriteThroughput() {
+		long replaceMillis = runWrites(false);
+		long partialMillis = runWrites(true);
+
+		logger.info("Replacing submodel: " + numberOfWrites + " writes in " + replaceMillis + " ms (" + getWritesPerSecond(replaceMillis) + " writes/s)");
+		logger.info("Partial updates: " + numberOfWrites + " writes in " + partialMillis + " ms (" + getWritesPerSecond(partialMillis) + " writes/s)");
+	}
+
+	private long runWrites(boolean partialUpdates) {
+		BaSyxMongoDBConfiguration config = getMongoDBConfiguration();
+		config.setPartialUpdatesEnabled(partialUpdates);
+		MongoClient client = MongoClients.create(config.getConnectionUrl());
+		try {
+			MongoDBSubmodelAPI api = new MongoDBSubmodelAPI(config, SM_ID, client);
+			api.setSubmodel(createSubmodel());
+
+			long start = System.currentTimeMillis();
+			for (int i = 0; i < numberOfWrites; i++) {
+				int elementIndex = i % numberOfElements;
+				api.updateSubmodelElement("prop" + elementIndex, i);
+				api.updateSubmodelElement(COLLECTION_ID_SHORT + "/prop" + elementIndex, i);
+			}
+			return System.currentTimeMillis() - start;
+		} finally {
+			client.close();
+		}
+	}
+
+	private Submodel createSubmodel() {
+		Submodel sm = new Submodel("benchmark", new Identifier(IdentifierType.CUSTOM, SM_ID));
+		SubmodelElementCollection collection = new SubmodelElementCollection(COLLECTION_ID_SHORT);
+		for (int i = 0; i < numberOfElements; i++) {
+			sm.addSubmodelElement(new Property("prop" + i, 0));
+			collection.addSubmodelElement(new Property("prop" + i, 0));
+		}
+		sm.addSubmodelElement(collection);
+		return sm;
+	}
+
+	private long getWritesPerSecond(long millis) {
+		return numberOfWrites * 2 * 1000L / Math.max(1, millis);
+	}
+
+	private static BaSyxMongoDBConfiguration getMongoDBConfiguration() {
+		BaSyxMongoDBConfiguration config = new BaSyxMongoDBConfiguration();
+		config.setSubmodelCollection("basyxTestSMBenchmark");
+		return config;
+	}
+}
@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.regression.AASServer.mongodb;
+
+import java.util.Map;
+
+import org.eclipse.basyx.components.aas.mongodb.MongoDBSubmodelAPI;
+import org.eclipse.basyx.components.configuration.BaSyxMongoDBConfiguration;
+import org.eclipse.basyx.submodel.metamodel.api.identifier.IdentifierType;
+import org.eclipse.basyx.submodel.metamodel.api.submodelelement.ISubmodelElement;
+import org.eclipse.basyx.submodel.metamodel.map.Submodel;
+import org.eclipse.basyx.submodel.metamodel.map.identifier.Identifier;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.Property;
+import org.eclipse.basyx.submodel.restapi.SubmodelElementProvider;
+import org.eclipse.basyx.vab.modelprovider.map.VABMapProvider;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+
+/**
+ * Compares the latency of reading single submodel element values by loading
+ * the whole submodel with the latency of the projection-based reads of the
+ * MongoDBSubmodelAPI. This test is ignored by default, as it is time consuming
+ * and only reports its results to the log.
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+@Ignore
+public class MongoDBProjectionReadBenchmark {
+	private static Logger logger = LoggerFactory.getLogger(MongoDBProjectionReadBenchmark.class);
+
+	private static final String SM_ID = "benchmarkSubmodel";
+	private int numberOfElements = 5000;
+	private int numberOfReads = 500;
+
+	@Test
+	public void compareReadLatency() {
+		BaSyxMongoDBConfiguration config = new BaSyxMongoDBConfiguration();
+		config.setSubmodelCollection("basyxTestSMBenchmark");
+		MongoClient client = MongoClients.create(config.getConnectionUrl());
+		try {
+			MongoDBSubmodelAPI api = new MongoDBSubmodelAPI(config, SM_ID, client);
+			api.setSubmodel(createSubmodel());
+
+			long start = System.nanoTime();
+			for (int i = 0; i < numberOfReads; i++) {
+				readFromWholeSubmodel(api, "prop" + (i % numberOfElements));
+			}
+			long wholeSubmodelNanos = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			for (int i = 0; i < numberOfReads; i++) {
+				api.getSubmodelElementValue("prop" + (i % numberOfElements));
+			}
+			long projectionNanos = System.nanoTime() - start;
+
+			logger.info("Reading whole submodel: " + getAverageMicros(wholeSubmodelNanos) + " us per value read");
+			logger.info("Reading with projection: " + getAverageMicros(projectionNanos) + " us per value read");
+		} finally {
+			client.close();
+		}
+	}
+
+	/**
+	 * Reads a value in the same way the API did before projections were used
+	 */
+	@SuppressWarnings("unchecked")
+	private Object readFromWholeSubmodel(MongoDBSubmodelAPI api, String idShort) {
+		ISubmodelElement element = api.getSubmodel().getSubmodelElement(idShort);
+		return SubmodelElementProvider.getElementProvider(new VABMapProvider((Map<String, Object>) element)).getValue("/value");
+	}
+
+	private Submodel createSubmodel() {
+		Submodel sm = new Submodel("benchmark", new Identifier(IdentifierType.CUSTOM, SM_ID));
+		for (int i = 0; i < numberOfElements; i++) {
+			sm.addSubmodelElement(new Property("prop" + i, i));
+		}
+		return sm;
+	}
+
+	private long getAverageMicros(long nanos) {
+		return nanos / 1000 / numberOfReads;
+	}
+}
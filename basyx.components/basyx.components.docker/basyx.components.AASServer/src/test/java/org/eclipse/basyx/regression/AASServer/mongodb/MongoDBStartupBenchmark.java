@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.regression.AASServer.mongodb;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.basyx.aas.metamodel.map.AssetAdministrationShell;
+import org.eclipse.basyx.aas.metamodel.map.descriptor.CustomId;
+import org.eclipse.basyx.components.aas.mongodb.MongoDBAASAPIFactory;
+import org.eclipse.basyx.components.aas.mongodb.MongoDBAASAggregator;
+import org.eclipse.basyx.components.aas.mongodb.MongoDBSubmodelAPIFactory;
+import org.eclipse.basyx.components.aas.mongodb.MongoDBSubmodelAggregatorFactory;
+import org.eclipse.basyx.components.configuration.BaSyxMongoDBConfiguration;
+import org.eclipse.basyx.submodel.metamodel.api.reference.enums.KeyElements;
+import org.eclipse.basyx.submodel.metamodel.api.reference.enums.KeyType;
+import org.eclipse.basyx.submodel.metamodel.map.Submodel;
+import org.eclipse.basyx.submodel.metamodel.map.reference.Key;
+import org.eclipse.basyx.submodel.metamodel.map.reference.Reference;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+
+/**
+ * Measures the startup time of the MongoDBAASAggregator for a large number of
+ * persisted shells whose submodels are referenced by idShort. The time spent in
+ * the single startup phases is logged by the aggregator. This test is ignored
+ * by default, as it is time consuming and only reports its results to the log.
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+@Ignore
+public class MongoDBStartupBenchmark {
+	private static Logger logger = LoggerFactory.getLogger(MongoDBStartupBenchmark.class);
+
+	private int numberOfShells = 20000;
+
+	@Test
+	public void measureStartup() {
+		BaSyxMongoDBConfiguration config = new BaSyxMongoDBConfiguration();
+		config.setAASCollection("basyxTestAASBenchmark");
+		config.setSubmodelCollection("basyxTestSMBenchmark");
+		MongoClient client = MongoClients.create(config.getConnectionUrl());
+		try {
+			MongoTemplate mongoOps = new MongoTemplate(client, config.getDatabase());
+			mongoOps.dropCollection(config.getAASCollection());
+			mongoOps.dropCollection(config.getSubmodelCollection());
+			insertShells(mongoOps, config);
+
+			long start = System.currentTimeMillis();
+			MongoDBSubmodelAPIFactory smApiFactory = new MongoDBSubmodelAPIFactory(config, client);
+			new MongoDBAASAggregator(config, new MongoDBAASAPIFactory(config, client), new MongoDBSubmodelAggregatorFactory(config, smApiFactory, client), client);
+			logger.info("Startup with " + numberOfShells + " shells took " + (System.currentTimeMillis() - start) + " ms");
+		} finally {
+			client.close();
+		}
+	}
+
+	private void insertShells(MongoTemplate mongoOps, BaSyxMongoDBConfiguration config) {
+		List<AssetAdministrationShell> shells = new ArrayList<>();
+		List<Submodel> submodels = new ArrayList<>();
+		for (int i = 0; i < numberOfShells; i++) {
+			Submodel sm = new Submodel("benchmarkSM" + i, new CustomId("benchmarkSMId" + i));
+			submodels.add(sm);
+
+			AssetAdministrationShell aas = new AssetAdministrationShell();
+			aas.setIdShort("benchmarkAAS" + i);
+			aas.setIdentification(new CustomId("benchmarkAASId" + i));
+			Reference smRef = new Reference(new Key(KeyElements.SUBMODEL, true, sm.getIdShort(), KeyType.IDSHORT));
+			aas.setSubmodelReferences(Collections.singleton(smRef));
+			shells.add(aas);
+		}
+		mongoOps.insert(submodels, config.getSubmodelCollection());
+		mongoOps.insert(shells, config.getAASCollection());
+	}
+}
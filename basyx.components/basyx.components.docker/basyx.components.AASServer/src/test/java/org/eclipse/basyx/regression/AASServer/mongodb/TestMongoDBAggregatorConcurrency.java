@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.regression.AASServer.mongodb;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.basyx.aas.metamodel.map.AssetAdministrationShell;
+import org.eclipse.basyx.aas.metamodel.map.descriptor.CustomId;
+import org.eclipse.basyx.components.aas.mongodb.MongoDBAASAPIFactory;
+import org.eclipse.basyx.components.aas.mongodb.MongoDBAASAggregator;
+import org.eclipse.basyx.components.aas.mongodb.MongoDBSubmodelAPIFactory;
+import org.eclipse.basyx.components.aas.mongodb.MongoDBSubmodelAggregatorFactory;
+import org.eclipse.basyx.components.configuration.BaSyxMongoDBConfiguration;
+import org.eclipse.basyx.tools.mongodb.MongoDBClientRegistry;
+import org.junit.Test;
+
+import com.mongodb.client.MongoClient;
+
+/**
+ * Stresses the MongoDBAASAggregator with concurrent creates, updates, reads and
+ * deletes from multiple threads
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class TestMongoDBAggregatorConcurrency {
+	private static final int THREADS = 16;
+	private static final int SHELLS_PER_THREAD = 20;
+
+	@Test
+	public void concurrentAccess() throws Exception {
+		runConcurrentAccess(createAggregator(false));
+	}
+
+	@Test
+	public void concurrentAccessWithLazyProviders() throws Exception {
+		runConcurrentAccess(createAggregator(true));
+	}
+
+	private void runConcurrentAccess(MongoDBAASAggregator aggregator) throws Exception {
+		AssetAdministrationShell shared = createShell("shared", "sharedId");
+		aggregator.createAAS(shared);
+
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Void>> futures = new ArrayList<>();
+		for (int t = 0; t < THREADS; t++) {
+			int thread = t;
+			futures.add(executor.submit(createWorker(aggregator, thread, start)));
+		}
+		start.countDown();
+		try {
+			for (Future<Void> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		// Every thread deleted every second of its shells
+		int expected = 1 + THREADS * SHELLS_PER_THREAD / 2;
+		assertEquals(expected, aggregator.getAASList().size());
+		for (int t = 0; t < THREADS; t++) {
+			for (int i = 1; i < SHELLS_PER_THREAD; i += 2) {
+				CustomId id = new CustomId(getId(t, i));
+				assertEquals(getIdShort(t, i) + "Updated", aggregator.getAAS(id).getIdShort());
+				assertNotNull(aggregator.getAASProvider(id));
+			}
+		}
+		assertNotNull(aggregator.getAAS(shared.getIdentification()));
+	}
+
+	private Callable<Void> createWorker(MongoDBAASAggregator aggregator, int thread, CountDownLatch start) {
+		return () -> {
+			start.await();
+			for (int i = 0; i < SHELLS_PER_THREAD; i++) {
+				AssetAdministrationShell aas = createShell(getIdShort(thread, i), getId(thread, i));
+				aggregator.createAAS(aas);
+				aggregator.getAASProvider(aas.getIdentification());
+
+				aas.setIdShort(getIdShort(thread, i) + "Updated");
+				aggregator.updateAAS(aas);
+
+				// Concurrent updates of the same shell
+				AssetAdministrationShell shared = createShell("shared" + thread, "sharedId");
+				aggregator.updateAAS(shared);
+				aggregator.getAAS(shared.getIdentification());
+
+				if (i % 2 == 0) {
+					aggregator.deleteAAS(aas.getIdentification());
+				}
+			}
+			return null;
+		};
+	}
+
+	private MongoDBAASAggregator createAggregator(boolean lazy) {
+		BaSyxMongoDBConfiguration config = new BaSyxMongoDBConfiguration();
+		config.loadFromResource(BaSyxMongoDBConfiguration.DEFAULT_CONFIG_PATH);
+		config.setLazyProvidersEnabled(lazy);
+		// Force evictions while the threads are running
+		config.setProviderCacheSize(THREADS);
+
+		MongoClient client = MongoDBClientRegistry.getClient(config);
+		MongoDBSubmodelAggregatorFactory smAggregatorFactory = new MongoDBSubmodelAggregatorFactory(config, new MongoDBSubmodelAPIFactory(config, client), client);
+		MongoDBAASAggregator aggregator = new MongoDBAASAggregator(config, new MongoDBAASAPIFactory(config, client), smAggregatorFactory, client);
+		aggregator.reset();
+		return aggregator;
+	}
+
+	private AssetAdministrationShell createShell(String idShort, String id) {
+		AssetAdministrationShell aas = new AssetAdministrationShell();
+		aas.setIdShort(idShort);
+		aas.setIdentification(new CustomId(id));
+		return aas;
+	}
+
+	private String getIdShort(int thread, int index) {
+		return "concurrentAAS" + thread + "_" + index;
+	}
+
+	private String getId(int thread, int index) {
+		return "concurrentAASId" + thread + "_" + index;
+	}
+}
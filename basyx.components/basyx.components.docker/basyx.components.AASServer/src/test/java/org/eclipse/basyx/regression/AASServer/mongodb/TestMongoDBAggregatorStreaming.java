@@ -0,0 +1,209 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.regression.AASServer.mongodb;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.eclipse.basyx.aas.aggregator.api.IAASAggregator;
+import org.eclipse.basyx.aas.metamodel.api.IAssetAdministrationShell;
+import org.eclipse.basyx.aas.metamodel.map.AssetAdministrationShell;
+import org.eclipse.basyx.aas.metamodel.map.descriptor.CustomId;
+import org.eclipse.basyx.components.aas.aggregator.IStreamingAASAggregator;
+import org.eclipse.basyx.components.aas.authorization.AuthorizedStreamingAASAggregatorFactory;
+import org.eclipse.basyx.components.aas.mongodb.MongoDBAASAPIFactory;
+import org.eclipse.basyx.components.aas.mongodb.MongoDBAASAggregator;
+import org.eclipse.basyx.components.aas.mongodb.MongoDBSubmodelAPIFactory;
+import org.eclipse.basyx.components.aas.mongodb.MongoDBSubmodelAggregatorFactory;
+import org.eclipse.basyx.components.aas.servlet.AASAggregatorServlet;
+import org.eclipse.basyx.components.aas.servlet.AASListStreamer;
+import org.eclipse.basyx.components.configuration.BaSyxMongoDBConfiguration;
+import org.eclipse.basyx.tools.mongodb.MongoDBClientRegistry;
+import org.eclipse.basyx.vab.coder.json.serialization.DefaultTypeFactory;
+import org.eclipse.basyx.vab.coder.json.serialization.GSONTools;
+import org.eclipse.basyx.vab.exception.provider.MalformedRequestException;
+import org.eclipse.basyx.vab.protocol.http.server.BaSyxContext;
+import org.eclipse.basyx.vab.protocol.http.server.BaSyxHTTPServer;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.mongodb.client.MongoClient;
+
+/**
+ * Tests the page-wise streaming of the AAS list from the MongoDBAASAggregator,
+ * both directly and through the AASAggregatorServlet
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class TestMongoDBAggregatorStreaming {
+	private static final int AAS_COUNT = 5;
+	private static final int PAGE_SIZE = 2;
+	private static final int PORT = 4023;
+	private static final String URL = "http://localhost:" + PORT + "/streaming/shells";
+
+	private static MongoDBAASAggregator aggregator;
+	private static BaSyxHTTPServer server;
+	private static GSONTools gson = new GSONTools(new DefaultTypeFactory());
+
+	@BeforeClass
+	public static void setUpClass() {
+		BaSyxMongoDBConfiguration config = new BaSyxMongoDBConfiguration();
+		config.loadFromResource(BaSyxMongoDBConfiguration.DEFAULT_CONFIG_PATH);
+		MongoClient client = MongoDBClientRegistry.getClient(config);
+		MongoDBSubmodelAggregatorFactory smAggregatorFactory = new MongoDBSubmodelAggregatorFactory(config, new MongoDBSubmodelAPIFactory(config, client), client);
+		aggregator = new MongoDBAASAggregator(config, new MongoDBAASAPIFactory(config, client), smAggregatorFactory, client);
+		aggregator.reset();
+
+		for (int i = 0; i < AAS_COUNT; i++) {
+			AssetAdministrationShell aas = new AssetAdministrationShell();
+			aas.setIdShort("streamedAAS" + i);
+			aas.setIdentification(new CustomId("streamedAASId" + i));
+			aggregator.createAAS(aas);
+		}
+
+		BaSyxContext context = new BaSyxContext("/streaming", "", "localhost", PORT);
+		context.addServletMapping("/*", new AASAggregatorServlet(aggregator));
+		server = new BaSyxHTTPServer(context);
+		server.start();
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+		server.shutdown();
+		aggregator.reset();
+	}
+
+	@Test
+	public void pagesContainAllAAS() {
+		List<String> ids = new ArrayList<>();
+		String token = null;
+		int pages = 0;
+		do {
+			List<IAssetAdministrationShell> page = new ArrayList<>();
+			token = aggregator.streamAASList(token, PAGE_SIZE, page::add);
+			assertEquals(token == null ? AAS_COUNT % PAGE_SIZE : PAGE_SIZE, page.size());
+			page.forEach(aas -> ids.add(aas.getIdentification().getId()));
+			pages++;
+		} while (token != null);
+
+		assertEquals(3, pages);
+		assertEquals(getAllIds(), sorted(ids));
+	}
+
+	@Test
+	public void streamedAASHaveNoMongoId() {
+		aggregator.streamAASList(null, 0, aas -> assertNull(((AssetAdministrationShell) aas).get("_id")));
+	}
+
+	@Test(expected = MalformedRequestException.class)
+	public void invalidTokenIsRejected() {
+		aggregator.streamAASList("invalid", PAGE_SIZE, aas -> {
+		});
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void servletStreamsAASList() throws IOException {
+		List<Map<String, Object>> shells = (List<Map<String, Object>>) gson.deserialize(get(URL));
+		assertEquals(getAllIds(), sorted(shells.stream().map(this::getId).collect(Collectors.toList())));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void servletStreamsPages() throws IOException {
+		List<String> ids = new ArrayList<>();
+		String token = null;
+		do {
+			String url = URL + "?" + AASListStreamer.PARAM_PAGED + "=true&" + AASListStreamer.PARAM_LIMIT + "=" + PAGE_SIZE;
+			if (token != null) {
+				url += "&" + AASListStreamer.PARAM_CURSOR + "=" + token;
+			}
+			Map<String, Object> page = (Map<String, Object>) gson.deserialize(get(url));
+			List<Map<String, Object>> items = (List<Map<String, Object>>) page.get(AASListStreamer.ITEMS);
+			assertNotNull(items);
+			items.forEach(aas -> ids.add(getId(aas)));
+			token = (String) page.get(AASListStreamer.CONTINUATION_TOKEN);
+		} while (token != null);
+
+		assertEquals(getAllIds(), sorted(ids));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void servletIgnoresLimitWithoutPaged() throws IOException {
+		List<Map<String, Object>> shells = (List<Map<String, Object>>) gson.deserialize(get(URL + "?" + AASListStreamer.PARAM_LIMIT + "=" + PAGE_SIZE));
+		assertEquals(AAS_COUNT, shells.size());
+	}
+
+	@Test
+	public void servletRejectsInvalidCursor() throws IOException {
+		HttpURLConnection connection = (HttpURLConnection) new URL(URL + "?" + AASListStreamer.PARAM_PAGED + "=true&" + AASListStreamer.PARAM_CURSOR + "=invalid").openConnection();
+		assertEquals(400, connection.getResponseCode());
+	}
+
+	@Test
+	public void decoratedAggregatorStillStreams() {
+		IAASAggregator decorated = new AuthorizedStreamingAASAggregatorFactory(() -> aggregator).create();
+		assertTrue(decorated instanceof IStreamingAASAggregator);
+	}
+
+	private List<String> getAllIds() {
+		return sorted(aggregator.getAASList().stream().map(aas -> aas.getIdentification().getId()).collect(Collectors.toList()));
+	}
+
+	private List<String> sorted(List<String> ids) {
+		List<String> sorted = new ArrayList<>(ids);
+		Collections.sort(sorted);
+		return sorted;
+	}
+
+	@SuppressWarnings("unchecked")
+	private String getId(Map<String, Object> aas) {
+		return (String) ((Map<String, Object>) aas.get("identification")).get("id");
+	}
+
+	private String get(String url) throws IOException {
+		HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+		assertEquals(200, connection.getResponseCode());
+		try (InputStream in = connection.getInputStream()) {
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+}
@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.regression.AASServer.mongodb;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Collection;
+
+import org.eclipse.basyx.aas.aggregator.api.IAASAggregator;
+import org.eclipse.basyx.aas.metamodel.api.IAssetAdministrationShell;
+import org.eclipse.basyx.aas.metamodel.map.AssetAdministrationShell;
+import org.eclipse.basyx.aas.metamodel.map.descriptor.CustomId;
+import org.eclipse.basyx.components.aas.aggregator.AASProviderCache;
+import org.eclipse.basyx.components.aas.mongodb.MongoDBAASAPIFactory;
+import org.eclipse.basyx.components.aas.mongodb.MongoDBAASAggregator;
+import org.eclipse.basyx.components.aas.mongodb.MongoDBSubmodelAPIFactory;
+import org.eclipse.basyx.components.aas.mongodb.MongoDBSubmodelAggregatorFactory;
+import org.eclipse.basyx.components.configuration.BaSyxMongoDBConfiguration;
+import org.eclipse.basyx.testsuite.regression.aas.aggregator.AASAggregatorSuite;
+import org.eclipse.basyx.tools.mongodb.MongoDBClientRegistry;
+import org.eclipse.basyx.vab.modelprovider.api.IModelProvider;
+import org.junit.Test;
+
+import com.mongodb.client.MongoClient;
+
+/**
+ * Runs the aggregator suite against a MongoDBAASAggregator with lazily created
+ * providers and tests the provider cache
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class TestMongoDBAggregatorWithLazyProviders extends AASAggregatorSuite {
+	private static final int CACHE_SIZE = 2;
+
+	@Override
+	protected IAASAggregator getAggregator() {
+		MongoDBAASAggregator aggregator = createLazyAggregator();
+		aggregator.reset();
+		return aggregator;
+	}
+
+	@Test
+	public void aasListIsReadWithoutCreatingProviders() {
+		getAggregator().createAAS(aas1);
+
+		MongoDBAASAggregator aggregator = createLazyAggregator();
+		Collection<IAssetAdministrationShell> shells = aggregator.getAASList();
+
+		assertEquals(1, shells.size());
+		assertEquals(aas1.getIdentification().getId(), shells.iterator().next().getIdentification().getId());
+		assertEquals(0, aggregator.getProviderCache().size());
+		assertEquals(0, aggregator.getProviderCache().getMissCount());
+	}
+
+	@Test
+	public void providerIsCreatedOnFirstAccess() {
+		getAggregator().createAAS(aas1);
+
+		MongoDBAASAggregator aggregator = createLazyAggregator();
+		AASProviderCache cache = aggregator.getProviderCache();
+		IModelProvider provider = aggregator.getAASProvider(aas1.getIdentification());
+		assertEquals(1, cache.getMissCount());
+		assertEquals(0, cache.getHitCount());
+
+		assertSame(provider, aggregator.getAASProvider(aas1.getIdentification()));
+		assertEquals(1, cache.getMissCount());
+		assertEquals(1, cache.getHitCount());
+	}
+
+	@Test
+	public void evictedProviderIsRecreated() {
+		MongoDBAASAggregator aggregator = (MongoDBAASAggregator) getAggregator();
+		for (int i = 0; i <= CACHE_SIZE; i++) {
+			AssetAdministrationShell aas = new AssetAdministrationShell();
+			aas.setIdShort("lazyAAS" + i);
+			aas.setIdentification(new CustomId("lazyAASId" + i));
+			aggregator.createAAS(aas);
+		}
+
+		AASProviderCache cache = aggregator.getProviderCache();
+		assertEquals(CACHE_SIZE, cache.size());
+		assertEquals(1, cache.getEvictionCount());
+
+		// The first AAS has been evicted, but can still be accessed
+		IAssetAdministrationShell aas = aggregator.getAAS(new CustomId("lazyAASId0"));
+		assertEquals("lazyAAS0", aas.getIdShort());
+		assertEquals(1, cache.getMissCount());
+	}
+
+	private MongoDBAASAggregator createLazyAggregator() {
+		BaSyxMongoDBConfiguration config = new BaSyxMongoDBConfiguration();
+		config.loadFromResource(BaSyxMongoDBConfiguration.DEFAULT_CONFIG_PATH);
+		config.setLazyProvidersEnabled(true);
+		config.setProviderCacheSize(CACHE_SIZE);
+
+		MongoClient client = MongoDBClientRegistry.getClient(config);
+		MongoDBSubmodelAggregatorFactory smAggregatorFactory = new MongoDBSubmodelAggregatorFactory(config, new MongoDBSubmodelAPIFactory(config, client), client);
+		return new MongoDBAASAggregator(config, new MongoDBAASAPIFactory(config, client), smAggregatorFactory, client);
+	}
+}
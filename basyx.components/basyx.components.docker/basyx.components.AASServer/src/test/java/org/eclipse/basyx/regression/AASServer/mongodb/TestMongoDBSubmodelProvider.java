@@ -63,7 +63,7 @@ public class TestMongoDBSubmodelProvider extends SubmodelProviderTest {
 				@Override
 				protected IModelProvider createProvider(String addr) {
 					SimpleNoOpAASSubmodel submodel = new SimpleNoOpAASSubmodel();
-					MongoDBSubmodelAPI api = new MongoDBSubmodelAPI("mySubmodelId");
+					MongoDBSubmodelAPI api = createSubmodelAPI();
 					api.setSubmodel(submodel);
 					IModelProvider smProvider = new SubmodelProvider(api);
 					// Simple submodel for testing specific mappings for submodels
@@ -74,6 +74,11 @@ public class TestMongoDBSubmodelProvider extends SubmodelProviderTest {
 		return connManager;
 	}
 
+	@SuppressWarnings("deprecation")
+	protected MongoDBSubmodelAPI createSubmodelAPI() {
+		return new MongoDBSubmodelAPI("mySubmodelId");
+	}
+
 	/**
 	 * Invoking operations are not supported
 	 */
@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.regression.AASServer.mongodb;
+
+import static org.junit.Assert.assertEquals;
+
+import org.eclipse.basyx.components.aas.mongodb.MongoDBSubmodelAPI;
+import org.eclipse.basyx.components.configuration.BaSyxMongoDBConfiguration;
+import org.eclipse.basyx.submodel.metamodel.api.identifier.IdentifierType;
+import org.eclipse.basyx.submodel.metamodel.map.Submodel;
+import org.eclipse.basyx.submodel.metamodel.map.identifier.Identifier;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.SubmodelElementCollection;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.Property;
+import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
+import org.junit.Test;
+
+/**
+ * Runs the submodel provider test suite against a MongoDBSubmodelAPI that uses
+ * field-level updates instead of replacing the whole submodel
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class TestMongoDBSubmodelProviderWithPartialUpdates extends TestMongoDBSubmodelProvider {
+
+	@SuppressWarnings("deprecation")
+	@Override
+	protected MongoDBSubmodelAPI createSubmodelAPI() {
+		BaSyxMongoDBConfiguration config = new BaSyxMongoDBConfiguration();
+		config.loadFromResource(BaSyxMongoDBConfiguration.DEFAULT_CONFIG_PATH);
+		config.setPartialUpdatesEnabled(true);
+		return new MongoDBSubmodelAPI(config, "mySubmodelId");
+	}
+
+	@Test(expected = ResourceNotFoundException.class)
+	public void testUpdateDeletedElementIsNotRecreated() {
+		MongoDBSubmodelAPI api = createPartialUpdatesTestAPI();
+		api.deleteSubmodelElement("prop");
+		api.updateSubmodelElement("prop", 5);
+	}
+
+	@Test(expected = ResourceNotFoundException.class)
+	public void testAddToNonCollectionParent() {
+		MongoDBSubmodelAPI api = createPartialUpdatesTestAPI();
+		api.addSubmodelElement("prop/child", new Property("child", 1));
+	}
+
+	@Test
+	public void testUpdateOnlyChangesValueFields() {
+		MongoDBSubmodelAPI api = createPartialUpdatesTestAPI();
+		api.updateSubmodelElement("coll/nested", "text");
+
+		Property nested = (Property) api.getSubmodelElement("coll/nested");
+		assertEquals("text", nested.getValue());
+		assertEquals("nestedCategory", nested.getCategory());
+	}
+
+	private MongoDBSubmodelAPI createPartialUpdatesTestAPI() {
+		Submodel sm = new Submodel("partialUpdatesSubmodel", new Identifier(IdentifierType.CUSTOM, "partialUpdatesSubmodelId"));
+		sm.addSubmodelElement(new Property("prop", 1));
+		SubmodelElementCollection coll = new SubmodelElementCollection("coll");
+		Property nested = new Property("nested", 2);
+		nested.setCategory("nestedCategory");
+		coll.addSubmodelElement(nested);
+		sm.addSubmodelElement(coll);
+
+		MongoDBSubmodelAPI api = createSubmodelAPI();
+		api.setSubmodel(sm);
+		return api;
+	}
+}
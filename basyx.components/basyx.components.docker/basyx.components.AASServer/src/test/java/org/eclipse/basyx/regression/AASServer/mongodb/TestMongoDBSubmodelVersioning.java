@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.regression.AASServer.mongodb;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.bson.Document;
+import org.eclipse.basyx.components.aas.mongodb.MongoDBSubmodelAPI;
+import org.eclipse.basyx.components.aas.mongodb.MongoDBWriteStatistics;
+import org.eclipse.basyx.components.configuration.BaSyxMongoDBConfiguration;
+import org.eclipse.basyx.submodel.metamodel.api.ISubmodel;
+import org.eclipse.basyx.submodel.metamodel.api.identifier.IdentifierType;
+import org.eclipse.basyx.submodel.metamodel.map.Submodel;
+import org.eclipse.basyx.submodel.metamodel.map.identifier.Identifier;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.Property;
+import org.eclipse.basyx.tools.mongodb.MongoDBClientRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Updates;
+
+/**
+ * Tests the versioned writes of the MongoDBSubmodelAPI with concurrent writers
+ * of different elements of the same submodel
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class TestMongoDBSubmodelVersioning {
+	private static final String SM_ID = "versioningSubmodelId";
+	private static final int THREADS = 8;
+	private static final int WRITES_PER_THREAD = 10;
+
+	private BaSyxMongoDBConfiguration config;
+	private MongoClient client;
+
+	@Before
+	public void setUp() {
+		config = new BaSyxMongoDBConfiguration();
+		config.loadFromResource(BaSyxMongoDBConfiguration.DEFAULT_CONFIG_PATH);
+		config.setSubmodelCollection("basyxTestSMVersioning");
+		config.setWriteRetries(1000);
+		config.setWriteRetryBackoff(1);
+		client = MongoDBClientRegistry.getClient(config);
+		getCollection().drop();
+		MongoDBSubmodelAPI.getWriteStatistics().reset();
+	}
+
+	@After
+	public void tearDown() {
+		getCollection().drop();
+	}
+
+	@Test
+	public void concurrentWritesAreNotLost() throws Exception {
+		runConcurrentWrites(false);
+	}
+
+	@Test
+	public void concurrentWritesWithPartialUpdatesAreNotLost() throws Exception {
+		runConcurrentWrites(true);
+	}
+
+	@Test
+	public void versionIsIncrementedAndHidden() {
+		MongoDBSubmodelAPI api = createAPI(false);
+		api.setSubmodel(createSubmodel());
+		assertEquals(1L, getVersion());
+
+		api.updateSubmodelElement("prop", 5);
+		api.addSubmodelElement(new Property("other", 0));
+		api.setSubmodel(createSubmodel());
+		assertEquals(4L, getVersion());
+
+		ISubmodel sm = api.getSubmodel();
+		assertFalse(((Submodel) sm).containsKey(MongoDBSubmodelAPI.VERSION));
+	}
+
+	@Test
+	public void unversionedSubmodelIsUpdated() {
+		MongoDBSubmodelAPI api = createAPI(false);
+		api.setSubmodel(createSubmodel());
+		// Simulate a submodel that has been written before versioning was introduced
+		getCollection().updateOne(Filters.eq(MongoDBSubmodelAPI.SMIDPATH, SM_ID), Updates.unset(MongoDBSubmodelAPI.VERSION));
+
+		api.updateSubmodelElement("prop", 5);
+		assertEquals(5, api.getSubmodelElementValue("prop"));
+		assertEquals(1L, getVersion());
+	}
+
+	private void runConcurrentWrites(boolean partialUpdates) throws Exception {
+		createAPI(partialUpdates).setSubmodel(createSubmodel());
+
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Void>> futures = new ArrayList<>();
+		for (int t = 0; t < THREADS; t++) {
+			String idShort = "thread" + t;
+			MongoDBSubmodelAPI writer = createAPI(partialUpdates);
+			futures.add(executor.submit(() -> {
+				start.await();
+				writer.addSubmodelElement(new Property(idShort, 0));
+				for (int i = 1; i <= WRITES_PER_THREAD; i++) {
+					writer.updateSubmodelElement(idShort, i);
+				}
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<Void> future : futures) {
+			future.get();
+		}
+		executor.shutdown();
+
+		MongoDBSubmodelAPI api = createAPI(partialUpdates);
+		for (int t = 0; t < THREADS; t++) {
+			assertEquals(WRITES_PER_THREAD, api.getSubmodelElementValue("thread" + t));
+		}
+
+		MongoDBWriteStatistics statistics = MongoDBSubmodelAPI.getWriteStatistics();
+		assertEquals(0, statistics.getFailureCount());
+		assertEquals(statistics.getConflictCount(), statistics.getRetryCount());
+		assertTrue(getVersion() >= 1 + THREADS * (WRITES_PER_THREAD + 1));
+	}
+
+	private long getVersion() {
+		Document sm = getCollection().find(Filters.eq(MongoDBSubmodelAPI.SMIDPATH, SM_ID)).first();
+		return ((Number) sm.get(MongoDBSubmodelAPI.VERSION)).longValue();
+	}
+
+	private MongoDBSubmodelAPI createAPI(boolean partialUpdates) {
+		config.setPartialUpdatesEnabled(partialUpdates);
+		return new MongoDBSubmodelAPI(config, SM_ID, client);
+	}
+
+	private MongoCollection<Document> getCollection() {
+		return client.getDatabase(config.getDatabase()).getCollection(config.getSubmodelCollection());
+	}
+
+	private Submodel createSubmodel() {
+		Submodel sm = new Submodel("versioning", new Identifier(IdentifierType.CUSTOM, SM_ID));
+		sm.addSubmodelElement(new Property("prop", 0));
+		return sm;
+	}
+}
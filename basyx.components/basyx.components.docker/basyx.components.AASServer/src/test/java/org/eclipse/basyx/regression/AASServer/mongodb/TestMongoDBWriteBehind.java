@@ -0,0 +1,243 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.regression.AASServer.mongodb;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.bson.Document;
+import org.eclipse.basyx.aas.metamodel.map.AssetAdministrationShell;
+import org.eclipse.basyx.aas.metamodel.map.descriptor.CustomId;
+import org.eclipse.basyx.components.aas.mongodb.MongoDBAASAPIFactory;
+import org.eclipse.basyx.components.aas.mongodb.MongoDBAASAggregator;
+import org.eclipse.basyx.components.aas.mongodb.MongoDBSubmodelAPI;
+import org.eclipse.basyx.components.aas.mongodb.MongoDBSubmodelAPIFactory;
+import org.eclipse.basyx.components.aas.mongodb.MongoDBSubmodelAggregator;
+import org.eclipse.basyx.components.aas.mongodb.MongoDBSubmodelAggregatorFactory;
+import org.eclipse.basyx.components.aas.mongodb.MongoDBWriteBehindBuffer;
+import org.eclipse.basyx.components.configuration.BaSyxMongoDBConfiguration;
+import org.eclipse.basyx.submodel.metamodel.api.identifier.IdentifierType;
+import org.eclipse.basyx.submodel.metamodel.map.Submodel;
+import org.eclipse.basyx.submodel.metamodel.map.identifier.Identifier;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.SubmodelElementCollection;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.Property;
+import org.eclipse.basyx.submodel.restapi.api.ISubmodelAPI;
+import org.eclipse.basyx.tools.mongodb.MongoDBClientRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoCollection;
+
+/**
+ * Tests the write-behind buffer of the MongoDBSubmodelAPIFactory, also for
+ * submodels that are loaded from the DB
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class TestMongoDBWriteBehind {
+	private static final String SM_ID = "writeBehindSubmodelId";
+	private static final String AAS_ID = "writeBehindAASId";
+	private static final int MAX_SIZE = 5;
+
+	private BaSyxMongoDBConfiguration config;
+	private MongoClient client;
+	private MongoDBSubmodelAPIFactory factory;
+	private MongoDBWriteBehindBuffer buffer;
+
+	@Before
+	public void setUp() {
+		config = new BaSyxMongoDBConfiguration();
+		config.loadFromResource(BaSyxMongoDBConfiguration.DEFAULT_CONFIG_PATH);
+		config.setAASCollection("basyxTestAASWriteBehind");
+		config.setSubmodelCollection("basyxTestSMWriteBehind");
+		config.setWriteBehindEnabled(true);
+		config.setWriteBehindMaxSize(MAX_SIZE);
+		// Prevents periodic flushes during the tests
+		config.setWriteBehindInterval(60 * 60 * 1000);
+		client = MongoDBClientRegistry.getClient(config);
+		getCollection().drop();
+		getAASCollection().drop();
+		factory = new MongoDBSubmodelAPIFactory(config, client);
+		buffer = factory.getWriteBehindBuffer();
+	}
+
+	@After
+	public void tearDown() {
+		factory.close();
+		getCollection().drop();
+		getAASCollection().drop();
+	}
+
+	@Test
+	public void updatesAreCoalesced() {
+		ISubmodelAPI api = factory.getSubmodelAPI(createSubmodel());
+		for (int i = 1; i <= 100; i++) {
+			api.updateSubmodelElement("prop", i);
+		}
+		assertEquals(1, buffer.size());
+		assertEquals(0, getPersistedValue("prop"));
+
+		buffer.flush();
+		assertEquals(0, buffer.size());
+		assertEquals(100, buffer.getBufferedWriteCount());
+		assertEquals(1, buffer.getFlushedWriteCount());
+		assertEquals(100, getPersistedValue("prop"));
+	}
+
+	@Test
+	public void pendingValuesAreRead() {
+		ISubmodelAPI api = factory.getSubmodelAPI(createSubmodel());
+		api.updateSubmodelElement("prop", 42);
+		api.updateSubmodelElement("collection/nested", "pending");
+
+		assertEquals(42, api.getSubmodelElementValue("prop"));
+		assertEquals("pending", api.getSubmodelElementValue("collection/nested"));
+		assertEquals(0, getPersistedValue("prop"));
+	}
+
+	@Test
+	public void bufferIsFlushedAtMaxSize() {
+		Submodel sm = createSubmodel();
+		for (int i = 0; i < MAX_SIZE; i++) {
+			sm.addSubmodelElement(new Property("prop" + i, 0));
+		}
+		ISubmodelAPI api = factory.getSubmodelAPI(sm);
+		for (int i = 0; i < MAX_SIZE; i++) {
+			api.updateSubmodelElement("prop" + i, i + 1);
+		}
+
+		assertEquals(0, buffer.size());
+		assertEquals(1, buffer.getFlushCount());
+		for (int i = 0; i < MAX_SIZE; i++) {
+			assertEquals(i + 1, getPersistedValue("prop" + i));
+		}
+	}
+
+	@Test
+	public void closeFlushesPendingValues() {
+		ISubmodelAPI api = factory.getSubmodelAPI(createSubmodel());
+		api.updateSubmodelElement("prop", 7);
+		factory.close();
+
+		assertEquals(7, getPersistedValue("prop"));
+	}
+
+	@Test
+	public void structuralChangesAreWrittenDirectly() {
+		ISubmodelAPI api = factory.getSubmodelAPI(createSubmodel());
+		api.updateSubmodelElement("prop", 3);
+
+		// Adding an element has to include the pending value
+		api.addSubmodelElement(new Property("added", "value"));
+		assertEquals(0, buffer.size());
+		assertEquals(3, getPersistedValue("prop"));
+		assertEquals("value", getPersistedValue("added"));
+
+		// Collections can not be buffered
+		SubmodelElementCollection collection = new SubmodelElementCollection("collection");
+		collection.addSubmodelElement(new Property("other", 1));
+		api.updateSubmodelElement("collection", collection.getValue());
+		assertEquals(0, buffer.size());
+		assertEquals(1, getPersistedValue("collection/other"));
+	}
+
+	@Test
+	public void fullReadIncludesPendingValues() {
+		ISubmodelAPI api = factory.getSubmodelAPI(createSubmodel());
+		api.updateSubmodelElement("prop", 9);
+
+		Submodel sm = (Submodel) api.getSubmodel();
+		assertEquals(9, sm.getSubmodelElement("prop").getValue());
+		assertTrue(getVersion() > 1);
+	}
+
+	@Test
+	public void submodelsLoadedAfterRestartAreBuffered() throws Exception {
+		MongoDBAASAggregator aggregator = createAggregator();
+		AssetAdministrationShell aas = new AssetAdministrationShell();
+		aas.setIdShort("writeBehindAAS");
+		aas.setIdentification(new CustomId(AAS_ID));
+		aggregator.createAAS(aas);
+		aggregator.getAASProvider(aas.getIdentification()).setValue("/aas/submodels/writeBehind", createSubmodel());
+		factory.close();
+
+		// Restart with a new factory and thus a new buffer
+		factory = new MongoDBSubmodelAPIFactory(config, client);
+		buffer = factory.getWriteBehindBuffer();
+		MongoDBAASAggregator restarted = createAggregator();
+		restarted.getAASProvider(aas.getIdentification()).setValue("/aas/submodels/writeBehind/submodel/submodelElements/prop/value", 5);
+
+		assertEquals(1, buffer.size());
+		assertEquals(0, getPersistedValue("prop"));
+		buffer.flush();
+		assertEquals(5, getPersistedValue("prop"));
+	}
+
+	@Test
+	public void pendingValuesOfDeletedSubmodelAreDiscarded() {
+		MongoDBSubmodelAggregator aggregator = new MongoDBSubmodelAggregator(factory, config, client);
+		Submodel sm = createSubmodel();
+		aggregator.createSubmodel(sm);
+		aggregator.getSubmodelAPIById(sm.getIdentification()).updateSubmodelElement("prop", 1);
+		assertEquals(1, buffer.size());
+
+		aggregator.deleteSubmodelByIdentifier(sm.getIdentification());
+		assertEquals(0, buffer.size());
+	}
+
+	private MongoDBAASAggregator createAggregator() {
+		MongoDBSubmodelAggregatorFactory smAggregatorFactory = new MongoDBSubmodelAggregatorFactory(config, factory, client);
+		return new MongoDBAASAggregator(config, new MongoDBAASAPIFactory(config, client), smAggregatorFactory, client);
+	}
+
+	private Object getPersistedValue(String idShortPath) {
+		return new MongoDBSubmodelAPI(config, SM_ID, client).getSubmodelElementValue(idShortPath);
+	}
+
+	private long getVersion() {
+		Document sm = getCollection().find().first();
+		return ((Number) sm.get(MongoDBSubmodelAPI.VERSION)).longValue();
+	}
+
+	private MongoCollection<Document> getCollection() {
+		return client.getDatabase(config.getDatabase()).getCollection(config.getSubmodelCollection());
+	}
+
+	private MongoCollection<Document> getAASCollection() {
+		return client.getDatabase(config.getDatabase()).getCollection(config.getAASCollection());
+	}
+
+	private Submodel createSubmodel() {
+		Submodel sm = new Submodel("writeBehind", new Identifier(IdentifierType.CUSTOM, SM_ID));
+		sm.addSubmodelElement(new Property("prop", 0));
+		SubmodelElementCollection collection = new SubmodelElementCollection("collection");
+		collection.addSubmodelElement(new Property("nested", "initial"));
+		sm.addSubmodelElement(collection);
+		return sm;
+	}
+}
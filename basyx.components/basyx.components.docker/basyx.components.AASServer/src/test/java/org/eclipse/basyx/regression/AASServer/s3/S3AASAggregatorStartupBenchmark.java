@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (C) 2022 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.regression.AASServer.s3;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.basyx.aas.metamodel.map.AssetAdministrationShell;
+import org.eclipse.basyx.aas.metamodel.map.descriptor.CustomId;
+import org.eclipse.basyx.aas.registration.memory.InMemoryRegistry;
+import org.eclipse.basyx.components.aas.configuration.BaSyxS3Configuration;
+import org.eclipse.basyx.components.aas.s3.S3AASAPIFactory;
+import org.eclipse.basyx.components.aas.s3.S3AASAggregator;
+import org.eclipse.basyx.components.aas.s3.S3Helper;
+import org.eclipse.basyx.components.aas.s3.S3SubmodelAPIFactory;
+import org.eclipse.basyx.components.aas.s3.S3SubmodelAggregatorFactory;
+import org.eclipse.basyx.vab.coder.json.serialization.DefaultTypeFactory;
+import org.eclipse.basyx.vab.coder.json.serialization.GSONTools;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.amazonaws.services.s3.AmazonS3;
+
+import io.findify.s3mock.S3Mock;
+
+/**
+ * Measures the startup time of the S3AASAggregator for a large number of shells
+ * in a local S3 mock with different loading parallelism. This test is ignored
+ * by default, as it is time consuming and only reports its results to the log.
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+@Ignore
+public class S3AASAggregatorStartupBenchmark {
+	private static Logger logger = LoggerFactory.getLogger(S3AASAggregatorStartupBenchmark.class);
+
+	private static final int PORT = 8013;
+	private static final String AAS_BUCKET_NAME = "startup-benchmark-aas";
+	private static final String SUBMODEL_BUCKET_NAME = "startup-benchmark-sm";
+	private static final int NUMBER_OF_SHELLS = 10000;
+
+	private static S3Mock s3Mock;
+	private static BaSyxS3Configuration config;
+	private static AmazonS3 s3Client;
+
+	@BeforeClass
+	public static void setUpClass() throws Exception {
+		s3Mock = new S3Mock.Builder().withPort(PORT).withInMemoryBackend().build();
+		s3Mock.start();
+
+		config = new BaSyxS3Configuration("http://localhost", Integer.toString(PORT), "us-east-1");
+		config.setPathStyleAccessEnabled(true);
+		config.setAASBucketName(AAS_BUCKET_NAME);
+		config.setSubmodelBucketName(SUBMODEL_BUCKET_NAME);
+		s3Client = S3Helper.createS3Client(config);
+		s3Client.createBucket(AAS_BUCKET_NAME);
+		s3Client.createBucket(SUBMODEL_BUCKET_NAME);
+		uploadShells();
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+		s3Mock.shutdown();
+	}
+
+	@Test
+	public void measureStartup() throws IOException {
+		for (int parallelism : new int[] { 1, 4, 16, 32 }) {
+			config.setLoadingParallelism(parallelism);
+			long start = System.currentTimeMillis();
+			S3AASAggregator aggregator = createAggregator();
+			long duration = System.currentTimeMillis() - start;
+			logger.info("Startup with " + aggregator.getAASList().size() + " shells and parallelism " + parallelism + " took " + duration + " ms");
+		}
+	}
+
+	private S3AASAggregator createAggregator() throws IOException {
+		S3SubmodelAPIFactory submodelAPIFactory = new S3SubmodelAPIFactory(s3Client, SUBMODEL_BUCKET_NAME);
+		return new S3AASAggregator(new InMemoryRegistry(), config, new S3AASAPIFactory(config, s3Client), new S3SubmodelAggregatorFactory(s3Client, SUBMODEL_BUCKET_NAME, submodelAPIFactory), s3Client);
+	}
+
+	private static void uploadShells() throws Exception {
+		GSONTools gsonTools = new GSONTools(new DefaultTypeFactory());
+		ExecutorService executor = Executors.newFixedThreadPool(16);
+		List<Future<?>> uploads = new ArrayList<>();
+		for (int i = 0; i < NUMBER_OF_SHELLS; i++) {
+			AssetAdministrationShell aas = new AssetAdministrationShell();
+			aas.setIdShort("benchmarkAAS" + i);
+			aas.setIdentification(new CustomId("benchmarkAASId" + i));
+			uploads.add(executor.submit(() -> s3Client.putObject(AAS_BUCKET_NAME, aas.getIdentification().getId(), gsonTools.serialize(aas))));
+		}
+		for (Future<?> upload : uploads) {
+			upload.get();
+		}
+		executor.shutdown();
+	}
+}
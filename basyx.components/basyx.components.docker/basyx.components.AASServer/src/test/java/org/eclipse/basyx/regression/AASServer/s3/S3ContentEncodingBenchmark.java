@@ -0,0 +1,189 @@
+/*******************************************************************************
+ * Copyright (C) 2022 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.regression.AASServer.s3;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.Callable;
+
+import org.eclipse.basyx.components.aas.configuration.BaSyxS3Configuration;
+import org.eclipse.basyx.components.aas.s3.S3ContentEncoding;
+import org.eclipse.basyx.components.aas.s3.S3Helper;
+import org.eclipse.basyx.components.aas.s3.S3JsonCodec;
+import org.eclipse.basyx.components.aas.s3.S3SubmodelAPI;
+import org.eclipse.basyx.submodel.metamodel.api.identifier.IdentifierType;
+import org.eclipse.basyx.submodel.metamodel.map.Submodel;
+import org.eclipse.basyx.submodel.metamodel.map.identifier.Identifier;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.SubmodelElementCollection;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.Property;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.amazonaws.services.s3.AmazonS3;
+
+import io.findify.s3mock.S3Mock;
+
+/**
+ * Compares the content encodings of submodel objects for a submodel of about
+ * 20 MB JSON. For each encoding, the compression ratio and the CPU time of
+ * compressing and decompressing on the calling thread are reported, as well as
+ * the wall time of uploading and reading the submodel through the
+ * S3SubmodelAPI. This test is ignored by default, as it only reports its
+ * results to the log.
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+@Ignore
+public class S3ContentEncodingBenchmark {
+	private static Logger logger = LoggerFactory.getLogger(S3ContentEncodingBenchmark.class);
+
+	private static final int PORT = 8027;
+	private static final String BUCKET_NAME = "encoding-benchmark";
+	private static final long TARGET_SIZE = 20L * 1024 * 1024;
+	private static final int WARMUP_RUNS = 2;
+	private static final int RUNS = 5;
+
+	private static S3Mock s3Mock;
+	private static AmazonS3 s3Client;
+	private static Submodel submodel;
+
+	private ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+	@BeforeClass
+	public static void setUpClass() {
+		s3Mock = new S3Mock.Builder().withPort(PORT).withInMemoryBackend().build();
+		s3Mock.start();
+		BaSyxS3Configuration config = new BaSyxS3Configuration("http://localhost", Integer.toString(PORT), "us-east-1");
+		config.setPathStyleAccessEnabled(true);
+		s3Client = S3Helper.createS3Client(config);
+		s3Client.createBucket(BUCKET_NAME);
+		submodel = createLargeSubmodel();
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+		S3Helper.wipeUnversionedBucket(s3Client, BUCKET_NAME);
+		s3Client.deleteBucket(BUCKET_NAME);
+		s3Mock.shutdown();
+	}
+
+	@Test
+	public void compareEncodings() throws Exception {
+		long size = S3JsonCodec.getContentLength(submodel);
+		logger.info("Submodel JSON has {} MB", toMB(size));
+
+		for (S3ContentEncoding encoding : S3ContentEncoding.values()) {
+			byte[] compressed = compress(encoding);
+			for (int run = 0; run < WARMUP_RUNS; run++) {
+				compress(encoding);
+				decompress(encoding, compressed);
+			}
+
+			long compressCpu = 0;
+			long decompressCpu = 0;
+			for (int run = 0; run < RUNS; run++) {
+				compressCpu += measureCpu(() -> compress(encoding));
+				decompressCpu += measureCpu(() -> decompress(encoding, compressed));
+			}
+
+			S3SubmodelAPI api = new S3SubmodelAPI(s3Client, BUCKET_NAME, submodel.getIdentification().getId());
+			api.setContentEncoding(encoding);
+			long uploadTime = measureWallTime(() -> {
+				api.setSubmodel(submodel);
+				return null;
+			});
+			long readTime = measureWallTime(() -> new S3SubmodelAPI(s3Client, BUCKET_NAME, submodel.getIdentification().getId()).getSubmodel());
+
+			logger.info("{}: {} of {} bytes (ratio {}), compression {} ms CPU, decompression {} ms CPU, upload {} ms, read {} ms", encoding.getName(), compressed.length, size, String.format("%.2f", (double) size / compressed.length),
+					toMillis(compressCpu / RUNS), toMillis(decompressCpu / RUNS), toMillis(uploadTime), toMillis(readTime));
+		}
+	}
+
+	/**
+	 * Serializes and compresses the submodel, i.e. what an upload does on the
+	 * client side
+	 */
+	private byte[] compress(S3ContentEncoding encoding) throws IOException {
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		try (OutputStream out = encoding.encode(compressed)) {
+			S3JsonCodec.serialize(submodel, out);
+		}
+		return compressed.toByteArray();
+	}
+
+	/**
+	 * Decompresses and parses the submodel, i.e. what a download does on the
+	 * client side
+	 */
+	private Object decompress(S3ContentEncoding encoding, byte[] compressed) throws IOException {
+		try (InputStream in = encoding.decode(new ByteArrayInputStream(compressed))) {
+			return S3JsonCodec.deserialize(in);
+		}
+	}
+
+	private long measureCpu(Callable<Object> call) throws Exception {
+		System.gc();
+		long before = threads.getCurrentThreadCpuTime();
+		call.call();
+		return threads.getCurrentThreadCpuTime() - before;
+	}
+
+	private long measureWallTime(Callable<Object> call) throws Exception {
+		System.gc();
+		long before = System.nanoTime();
+		call.call();
+		return System.nanoTime() - before;
+	}
+
+	private static Submodel createLargeSubmodel() {
+		Submodel submodel = new Submodel("large", new Identifier(IdentifierType.CUSTOM, "largeSubmodelId"));
+		for (int i = 0; S3JsonCodec.getContentLength(submodel) < TARGET_SIZE; i++) {
+			SubmodelElementCollection collection = new SubmodelElementCollection("collection" + i);
+			for (int j = 0; j < 1000; j++) {
+				collection.addSubmodelElement(new Property("property" + j, "value " + (i * 1000 + j) * 31 % 100003));
+			}
+			submodel.addSubmodelElement(collection);
+		}
+		return submodel;
+	}
+
+	private static long toMB(long bytes) {
+		return bytes / (1024 * 1024);
+	}
+
+	private static long toMillis(long nanos) {
+		return nanos / 1000000;
+	}
+}
@@ -0,0 +1,167 @@
+/*******************************************************************************
+ * Copyright (C) 2022 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.regression.AASServer.s3;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Callable;
+
+import org.eclipse.basyx.components.aas.s3.S3Helper;
+import org.eclipse.basyx.components.aas.s3.S3JsonCodec;
+import org.eclipse.basyx.components.aas.submodelserializer.SubmodelSerializer;
+import org.eclipse.basyx.submodel.metamodel.api.identifier.IdentifierType;
+import org.eclipse.basyx.submodel.metamodel.map.Submodel;
+import org.eclipse.basyx.submodel.metamodel.map.identifier.Identifier;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.Property;
+import org.eclipse.basyx.vab.coder.json.serialization.DefaultTypeFactory;
+import org.eclipse.basyx.vab.coder.json.serialization.GSONTools;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.amazonaws.auth.AWSStaticCredentialsProvider;
+import com.amazonaws.auth.AnonymousAWSCredentials;
+import com.amazonaws.client.builder.AwsClientBuilder.EndpointConfiguration;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.AmazonS3ClientBuilder;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.S3Object;
+
+import io.findify.s3mock.S3Mock;
+
+/**
+ * Measures the heap allocations of uploading and downloading a submodel of
+ * about 50 MB JSON with the former String based serialization and with the
+ * S3JsonCodec, which uploads in parts. Only the allocations of the calling
+ * thread are counted, not the ones of the S3 mock. This test is ignored by default, as it needs a large
+ * heap (-Xmx4g) and only reports its results to the log.
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+@Ignore
+public class S3JsonCodecAllocationBenchmark {
+	private static Logger logger = LoggerFactory.getLogger(S3JsonCodecAllocationBenchmark.class);
+
+	private static final int PORT = 8019;
+	private static final String BUCKET_NAME = "codec-benchmark";
+	private static final long TARGET_SIZE = 50L * 1024 * 1024;
+	private static final int RUNS = 3;
+
+	private static S3Mock s3Mock;
+	private static AmazonS3 s3Client;
+	private static Submodel submodel;
+
+	private GSONTools gsonTools = new GSONTools(new DefaultTypeFactory());
+
+	@BeforeClass
+	public static void setUpClass() {
+		s3Mock = new S3Mock.Builder().withPort(PORT).withInMemoryBackend().build();
+		s3Mock.start();
+		s3Client = AmazonS3ClientBuilder.standard().withPathStyleAccessEnabled(true)
+				.withEndpointConfiguration(new EndpointConfiguration("http://localhost:" + PORT, "us-east-1"))
+				.withCredentials(new AWSStaticCredentialsProvider(new AnonymousAWSCredentials())).build();
+		s3Client.createBucket(BUCKET_NAME);
+		submodel = createLargeSubmodel();
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+		S3Helper.wipeUnversionedBucket(s3Client, BUCKET_NAME);
+		s3Client.deleteBucket(BUCKET_NAME);
+		s3Mock.shutdown();
+	}
+
+	@Test
+	public void measureAllocations() throws Exception {
+		long size = S3JsonCodec.getContentLength(submodel);
+		logger.info("Submodel JSON has {} MB", toMB(size));
+
+		for (int run = 0; run < RUNS; run++) {
+			long stringUpload = measure(this::uploadAsString);
+			long streamedUpload = measure(this::uploadStreamed);
+			long stringDownload = measure(this::downloadAsString);
+			long streamedDownload = measure(this::downloadStreamed);
+			logger.info("Run {}: upload allocated {} MB as String, {} MB streamed; download allocated {} MB as String, {} MB streamed", run, toMB(stringUpload), toMB(streamedUpload), toMB(stringDownload), toMB(streamedDownload));
+		}
+	}
+
+	private Object uploadAsString() {
+		byte[] json = SubmodelSerializer.serialize(submodel).getBytes(StandardCharsets.UTF_8);
+		ObjectMetadata metadata = S3Helper.createMetadata();
+		metadata.setContentLength(json.length);
+		return s3Client.putObject(BUCKET_NAME, "string", new ByteArrayInputStream(json), metadata);
+	}
+
+	private Object uploadStreamed() {
+		S3Helper.uploadSubmodelToBucket(s3Client, BUCKET_NAME, submodel, "streamed");
+		return null;
+	}
+
+	private Object downloadAsString() throws IOException {
+		try (S3Object object = s3Client.getObject(BUCKET_NAME, "string")) {
+			byte[] json = object.getObjectContent().readAllBytes();
+			return gsonTools.deserialize(new String(json, StandardCharsets.UTF_8));
+		}
+	}
+
+	private Object downloadStreamed() throws IOException {
+		return S3Helper.getBaSyxObject(s3Client, BUCKET_NAME, "streamed");
+	}
+
+	/**
+	 * Returns the bytes allocated by the calling thread during the call
+	 */
+	private long measure(Callable<Object> call) throws Exception {
+		System.gc();
+		long before = getClientAllocations();
+		call.call();
+		return getClientAllocations() - before;
+	}
+
+	private long getClientAllocations() {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	private static Submodel createLargeSubmodel() {
+		Submodel submodel = new Submodel("large", new Identifier(IdentifierType.CUSTOM, "largeSubmodelId"));
+		for (int i = 0; S3JsonCodec.getContentLength(submodel) < TARGET_SIZE; i++) {
+			for (int j = 0; j < 10000; j++) {
+				submodel.addSubmodelElement(new Property("property" + i + "_" + j, "value of property " + i + "_" + j));
+			}
+		}
+		return submodel;
+	}
+
+	private static long toMB(long bytes) {
+		return bytes / (1024 * 1024);
+	}
+}
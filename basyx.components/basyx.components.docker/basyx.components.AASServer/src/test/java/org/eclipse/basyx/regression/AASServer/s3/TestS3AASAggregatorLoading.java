@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (C) 2022 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.regression.AASServer.s3;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.basyx.aas.metamodel.map.AssetAdministrationShell;
+import org.eclipse.basyx.aas.metamodel.map.descriptor.CustomId;
+import org.eclipse.basyx.aas.registration.memory.InMemoryRegistry;
+import org.eclipse.basyx.components.aas.configuration.BaSyxS3Configuration;
+import org.eclipse.basyx.components.aas.s3.S3AASAPIFactory;
+import org.eclipse.basyx.components.aas.s3.S3AASAggregator;
+import org.eclipse.basyx.components.aas.s3.S3Helper;
+import org.eclipse.basyx.components.aas.s3.S3SubmodelAPIFactory;
+import org.eclipse.basyx.components.aas.s3.S3SubmodelAggregatorFactory;
+import org.eclipse.basyx.vab.coder.json.serialization.DefaultTypeFactory;
+import org.eclipse.basyx.vab.coder.json.serialization.GSONTools;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.amazonaws.services.s3.AmazonS3;
+
+import io.findify.s3mock.S3Mock;
+
+/**
+ * Tests loading the AAS bucket on startup of the S3AASAggregator against an
+ * in-memory S3 mock
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class TestS3AASAggregatorLoading {
+	private static final int PORT = 8014;
+	private static final String AAS_BUCKET_NAME = "loading-test-aas";
+	private static final String SUBMODEL_BUCKET_NAME = "loading-test-sm";
+
+	// More than a single page of a bucket listing
+	private static final int NUMBER_OF_SHELLS = 1100;
+
+	private static S3Mock s3Mock;
+	private static BaSyxS3Configuration config;
+	private static AmazonS3 s3Client;
+
+	@BeforeClass
+	public static void setUpClass() throws Exception {
+		s3Mock = new S3Mock.Builder().withPort(PORT).withInMemoryBackend().build();
+		s3Mock.start();
+
+		config = new BaSyxS3Configuration("http://localhost", Integer.toString(PORT), "us-east-1");
+		config.setPathStyleAccessEnabled(true);
+		config.setAASBucketName(AAS_BUCKET_NAME);
+		config.setSubmodelBucketName(SUBMODEL_BUCKET_NAME);
+		s3Client = S3Helper.createS3Client(config);
+		s3Client.createBucket(AAS_BUCKET_NAME);
+		s3Client.createBucket(SUBMODEL_BUCKET_NAME);
+		uploadShells();
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+		s3Mock.shutdown();
+	}
+
+	@Test
+	public void allPagesAreLoaded() throws IOException {
+		config.setLoadingParallelism(8);
+		S3AASAggregator aggregator = createAggregator();
+		assertEquals(NUMBER_OF_SHELLS, aggregator.getAASList().size());
+		assertEquals("loadingAAS1099", aggregator.getAAS(new CustomId("loadingAASId1099")).getIdShort());
+	}
+
+	@Test
+	public void sequentialLoadingIsSupported() throws IOException {
+		config.setLoadingParallelism(1);
+		assertEquals(NUMBER_OF_SHELLS, createAggregator().getAASList().size());
+	}
+
+	private S3AASAggregator createAggregator() throws IOException {
+		S3SubmodelAPIFactory submodelAPIFactory = new S3SubmodelAPIFactory(s3Client, SUBMODEL_BUCKET_NAME);
+		return new S3AASAggregator(new InMemoryRegistry(), config, new S3AASAPIFactory(config, s3Client), new S3SubmodelAggregatorFactory(s3Client, SUBMODEL_BUCKET_NAME, submodelAPIFactory), s3Client);
+	}
+
+	private static void uploadShells() throws Exception {
+		GSONTools gsonTools = new GSONTools(new DefaultTypeFactory());
+		ExecutorService executor = Executors.newFixedThreadPool(16);
+		List<Future<?>> uploads = new ArrayList<>();
+		for (int i = 0; i < NUMBER_OF_SHELLS; i++) {
+			AssetAdministrationShell aas = new AssetAdministrationShell();
+			aas.setIdShort("loadingAAS" + i);
+			aas.setIdentification(new CustomId("loadingAASId" + i));
+			uploads.add(executor.submit(() -> s3Client.putObject(AAS_BUCKET_NAME, aas.getIdentification().getId(), gsonTools.serialize(aas))));
+		}
+		for (Future<?> upload : uploads) {
+			upload.get();
+		}
+		executor.shutdown();
+	}
+}
@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * Copyright (C) 2022 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.regression.AASServer.s3;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.basyx.components.aas.configuration.BaSyxS3Configuration;
+import org.eclipse.basyx.components.aas.s3.S3AsyncClient;
+import org.eclipse.basyx.components.aas.s3.S3Helper;
+import org.eclipse.basyx.components.aas.s3.S3RequestMetrics;
+import org.eclipse.basyx.submodel.metamodel.api.identifier.IdentifierType;
+import org.eclipse.basyx.submodel.metamodel.map.Submodel;
+import org.eclipse.basyx.submodel.metamodel.map.identifier.Identifier;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.amazonaws.ClientConfiguration;
+import com.amazonaws.services.s3.AmazonS3;
+
+import io.findify.s3mock.S3Mock;
+
+/**
+ * Tests the asynchronous access to S3 against an in-memory S3 mock
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class TestS3AsyncClient {
+	private static final int PORT = 8024;
+	private static final String BUCKET_NAME = "async-client-test";
+	private static final int MAX_CONCURRENCY = 4;
+
+	private static S3Mock s3Mock;
+	private static AmazonS3 s3Client;
+
+	private S3AsyncClient asyncClient;
+
+	@BeforeClass
+	public static void setUpClass() {
+		s3Mock = new S3Mock.Builder().withPort(PORT).withInMemoryBackend().build();
+		s3Mock.start();
+		BaSyxS3Configuration config = new BaSyxS3Configuration("http://localhost", Integer.toString(PORT), "us-east-1");
+		config.setPathStyleAccessEnabled(true);
+		s3Client = S3Helper.createS3Client(config);
+		s3Client.createBucket(BUCKET_NAME);
+		for (int i = 0; i < 20; i++) {
+			S3Helper.uploadSubmodelToBucket(s3Client, BUCKET_NAME, new Submodel("sm" + i, new Identifier(IdentifierType.CUSTOM, "id" + i)), "id" + i);
+		}
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+		s3Mock.shutdown();
+	}
+
+	@Before
+	public void setUp() {
+		asyncClient = new S3AsyncClient(s3Client, MAX_CONCURRENCY);
+		S3RequestMetrics.reset();
+	}
+
+	@Test
+	public void requestsArePipelined() throws InterruptedException, ExecutionException {
+		List<CompletableFuture<Object>> objects = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			objects.add(asyncClient.getBaSyxObject(BUCKET_NAME, "id" + i));
+		}
+
+		for (int i = 0; i < 20; i++) {
+			assertEquals("sm" + i, ((Map<?, ?>) objects.get(i).get()).get("idShort"));
+		}
+	}
+
+	@Test
+	public void concurrencyIsLimited() throws InterruptedException {
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger maxRunning = new AtomicInteger();
+		CountDownLatch done = new CountDownLatch(3 * MAX_CONCURRENCY);
+		for (int i = 0; i < 3 * MAX_CONCURRENCY; i++) {
+			asyncClient.submit(client -> {
+				maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+				client.doesBucketExistV2(BUCKET_NAME);
+				running.decrementAndGet();
+				done.countDown();
+				return null;
+			});
+		}
+
+		assertTrue(done.await(30, TimeUnit.SECONDS));
+		assertTrue(maxRunning.get() <= MAX_CONCURRENCY);
+	}
+
+	@Test
+	public void missingObjectIsNull() throws InterruptedException, ExecutionException {
+		assertNull(asyncClient.getBaSyxObject(BUCKET_NAME, "missing").get());
+	}
+
+	@Test(expected = ExecutionException.class)
+	public void failureCompletesFuture() throws InterruptedException, ExecutionException {
+		asyncClient.submit(client -> client.getObjectMetadata("missing-bucket", "missing")).get();
+	}
+
+	@Test
+	public void requestsAreCountedForCallingOperation() throws InterruptedException, ExecutionException {
+		try (S3RequestMetrics.Scope scope = S3RequestMetrics.begin("asyncOperation")) {
+			CompletableFuture.allOf(asyncClient.getBaSyxObject(BUCKET_NAME, "id0"), asyncClient.getBaSyxObject(BUCKET_NAME, "id1")).get();
+		}
+		assertEquals(2, S3RequestMetrics.getOperationStats("asyncOperation").getRequestCount());
+	}
+
+	@Test
+	public void clientConfigurationIsTakenFromConfiguration() {
+		BaSyxS3Configuration config = new BaSyxS3Configuration("http://localhost", Integer.toString(PORT), "us-east-1");
+		config.setMaxConnections(200);
+		config.setMaxErrorRetry(5);
+		ClientConfiguration clientConfig = S3Helper.createClientConfiguration(config);
+		assertEquals(200, clientConfig.getMaxConnections());
+		assertEquals(5, clientConfig.getMaxErrorRetry());
+
+		assertEquals(200, new S3AsyncClient(s3Client, config).getMaxConcurrency());
+		config.setMaxConcurrency(50);
+		assertEquals(50, new S3AsyncClient(s3Client, config).getMaxConcurrency());
+	}
+}
@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (C) 2022 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.regression.AASServer.s3;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.basyx.components.aas.s3.S3BatchDeleter;
+import org.eclipse.basyx.components.aas.s3.S3Helper;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.Request;
+import com.amazonaws.auth.AWSStaticCredentialsProvider;
+import com.amazonaws.auth.AnonymousAWSCredentials;
+import com.amazonaws.client.builder.AwsClientBuilder.EndpointConfiguration;
+import com.amazonaws.handlers.RequestHandler2;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.AmazonS3ClientBuilder;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest.KeyVersion;
+
+import io.findify.s3mock.S3Mock;
+
+/**
+ * Tests that buckets are wiped with batched multi-object delete requests
+ * against an in-memory S3 mock
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class TestS3BatchDeleter {
+	private static final int PORT = 8020;
+	private static final String BUCKET_NAME = "batch-delete-test";
+	private static final int NUMBER_OF_OBJECTS = 2001;
+
+	private static S3Mock s3Mock;
+	private static AmazonS3 s3Client;
+
+	// Request type => number of sent requests
+	private static Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+
+	@BeforeClass
+	public static void setUpClass() {
+		s3Mock = new S3Mock.Builder().withPort(PORT).withInMemoryBackend().build();
+		s3Mock.start();
+		s3Client = AmazonS3ClientBuilder.standard().withPathStyleAccessEnabled(true)
+				.withEndpointConfiguration(new EndpointConfiguration("http://localhost:" + PORT, "us-east-1"))
+				.withCredentials(new AWSStaticCredentialsProvider(new AnonymousAWSCredentials()))
+				.withRequestHandlers(new RequestHandler2() {
+					@Override
+					public void beforeRequest(Request<?> request) {
+						String type = request.getOriginalRequest().getClass().getSimpleName();
+						requests.computeIfAbsent(type, t -> new AtomicInteger()).incrementAndGet();
+					}
+				}).build();
+		s3Client.createBucket(BUCKET_NAME);
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+		s3Client.deleteBucket(BUCKET_NAME);
+		s3Mock.shutdown();
+	}
+
+	@Before
+	public void setUp() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(16);
+		List<Future<?>> uploads = new ArrayList<>();
+		for (int i = 0; i < NUMBER_OF_OBJECTS; i++) {
+			String key = "object" + i;
+			uploads.add(executor.submit(() -> s3Client.putObject(BUCKET_NAME, key, "content")));
+		}
+		for (Future<?> upload : uploads) {
+			upload.get();
+		}
+		executor.shutdown();
+		requests.clear();
+	}
+
+	@Test
+	public void contentKeysAreListedBeyondOnePage() {
+		assertEquals(NUMBER_OF_OBJECTS, S3Helper.listBucketContentKeys(s3Client, BUCKET_NAME).size());
+	}
+
+	@Test
+	public void wipeDeletesInBatches() {
+		S3Helper.wipeUnversionedBucket(s3Client, BUCKET_NAME);
+
+		assertTrue(S3Helper.listBucketContentKeys(s3Client, BUCKET_NAME).isEmpty());
+		assertEquals(3, getRequestCount(DeleteObjectsRequest.class));
+		assertEquals(0, requests.getOrDefault("DeleteObjectRequest", new AtomicInteger()).get());
+	}
+
+	@Test
+	public void sequentialWipeDeletesInBatches() {
+		S3Helper.wipeUnversionedBucket(s3Client, BUCKET_NAME, 1);
+
+		assertTrue(S3Helper.listBucketContentKeys(s3Client, BUCKET_NAME).isEmpty());
+		assertEquals(3, getRequestCount(DeleteObjectsRequest.class));
+	}
+
+	@Test
+	public void largeKeyListsAreSplit() {
+		List<KeyVersion> keys = new ArrayList<>();
+		for (int i = 0; i < NUMBER_OF_OBJECTS; i++) {
+			keys.add(new KeyVersion("object" + i));
+		}
+
+		try (S3BatchDeleter deleter = new S3BatchDeleter(s3Client, BUCKET_NAME, 2)) {
+			deleter.delete(keys);
+			assertEquals(NUMBER_OF_OBJECTS, deleter.finish());
+		}
+		assertEquals(3, getRequestCount(DeleteObjectsRequest.class));
+		assertTrue(S3Helper.listBucketContentKeys(s3Client, BUCKET_NAME).isEmpty());
+	}
+
+	@Test(expected = AmazonServiceException.class)
+	public void failuresArePropagated() {
+		try (S3BatchDeleter deleter = new S3BatchDeleter(s3Client, "nonexisting-bucket", 2)) {
+			deleter.delete(new ArrayList<>(List.of(new KeyVersion("object0"))));
+			deleter.finish();
+		} finally {
+			S3Helper.wipeUnversionedBucket(s3Client, BUCKET_NAME);
+		}
+	}
+
+	private int getRequestCount(Class<?> requestType) {
+		return requests.getOrDefault(requestType.getSimpleName(), new AtomicInteger()).get();
+	}
+}
@@ -0,0 +1,184 @@
+/*******************************************************************************
+ * Copyright (C) 2022 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.regression.AASServer.s3;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+
+import org.eclipse.basyx.components.aas.configuration.BaSyxS3Configuration;
+import org.eclipse.basyx.components.aas.s3.S3ContentEncoding;
+import org.eclipse.basyx.components.aas.s3.S3Helper;
+import org.eclipse.basyx.components.aas.s3.S3JsonCodec;
+import org.eclipse.basyx.components.aas.s3.S3SubmodelAPI;
+import org.eclipse.basyx.components.aas.s3.S3SubmodelShards;
+import org.eclipse.basyx.submodel.metamodel.api.identifier.IdentifierType;
+import org.eclipse.basyx.submodel.metamodel.map.Submodel;
+import org.eclipse.basyx.submodel.metamodel.map.identifier.Identifier;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.Property;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+
+import io.findify.s3mock.S3Mock;
+
+/**
+ * Tests compressed submodel objects against an in-memory S3 mock
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class TestS3ContentEncoding {
+	private static final int PORT = 8026;
+	private static final String BUCKET_NAME = "content-encoding-test";
+	private static final String SM_ID = "urn:basyx:compressedSubmodel";
+
+	private static S3Mock s3Mock;
+	private static AmazonS3 s3Client;
+
+	@BeforeClass
+	public static void setUpClass() {
+		s3Mock = new S3Mock.Builder().withPort(PORT).withInMemoryBackend().build();
+		s3Mock.start();
+		BaSyxS3Configuration config = new BaSyxS3Configuration("http://localhost", Integer.toString(PORT), "us-east-1");
+		config.setPathStyleAccessEnabled(true);
+		s3Client = S3Helper.createS3Client(config);
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+		s3Mock.shutdown();
+	}
+
+	@Before
+	public void setUp() {
+		s3Client.createBucket(BUCKET_NAME);
+	}
+
+	@After
+	public void tearDown() {
+		S3Helper.wipeUnversionedBucket(s3Client, BUCKET_NAME);
+		s3Client.deleteBucket(BUCKET_NAME);
+	}
+
+	@Test
+	public void gzipSubmodelIsCompressed() throws IOException {
+		assertCompressedRoundTrip(S3ContentEncoding.GZIP);
+	}
+
+	@Test
+	public void zstdSubmodelIsCompressed() throws IOException {
+		assertCompressedRoundTrip(S3ContentEncoding.ZSTD);
+	}
+
+	@Test
+	public void shardsAreCompressed() throws IOException {
+		S3SubmodelAPI api = new S3SubmodelAPI(s3Client, BUCKET_NAME, SM_ID, true);
+		api.setContentEncoding(S3ContentEncoding.ZSTD);
+		api.setSubmodel(createSubmodel(100));
+
+		String shardKey = S3SubmodelShards.getShardKey(SM_ID, "property7");
+		assertEquals("zstd", s3Client.getObjectMetadata(BUCKET_NAME, shardKey).getContentEncoding());
+		assertEquals("value of property 7", new S3SubmodelAPI(s3Client, BUCKET_NAME, SM_ID).getSubmodelElementValue("property7"));
+	}
+
+	@Test
+	public void encodingCanBeChangedForExistingObjects() throws IOException {
+		S3SubmodelAPI api = new S3SubmodelAPI(s3Client, BUCKET_NAME, SM_ID);
+		api.setSubmodel(createSubmodel(10));
+		assertEquals(null, s3Client.getObjectMetadata(BUCKET_NAME, SM_ID).getContentEncoding());
+
+		api.setContentEncoding(S3ContentEncoding.GZIP);
+		api.updateSubmodelElement("property3", "updated");
+		assertEquals("gzip", s3Client.getObjectMetadata(BUCKET_NAME, SM_ID).getContentEncoding());
+		assertEquals("updated", new S3SubmodelAPI(s3Client, BUCKET_NAME, SM_ID).getSubmodelElementValue("property3"));
+	}
+
+	@Test
+	public void encodingIsDetectedWithoutMetadata() throws IOException {
+		Submodel submodel = createSubmodel(10);
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		try (OutputStream out = S3ContentEncoding.GZIP.encode(compressed)) {
+			S3JsonCodec.serialize(submodel, out);
+		}
+		ObjectMetadata metadata = S3Helper.createMetadata();
+		metadata.setContentLength(compressed.size());
+		s3Client.putObject(BUCKET_NAME, SM_ID, new ByteArrayInputStream(compressed.toByteArray()), metadata);
+
+		Map<?, ?> stored = (Map<?, ?>) S3Helper.getBaSyxObject(s3Client, BUCKET_NAME, SM_ID);
+		assertEquals(submodel.getIdShort(), stored.get("idShort"));
+		assertTrue(S3Helper.getBaSyxObjectContent(s3Client, BUCKET_NAME, SM_ID).startsWith("{"));
+	}
+
+	@Test
+	public void encodingIsConfigured() {
+		BaSyxS3Configuration config = new BaSyxS3Configuration("http://localhost", Integer.toString(PORT), "us-east-1");
+		assertEquals(S3ContentEncoding.IDENTITY, config.getContentEncoding());
+		config.setProperty(BaSyxS3Configuration.CONTENT_ENCODING, "ZSTD");
+		assertEquals(S3ContentEncoding.ZSTD, config.getContentEncoding());
+		config.setContentEncoding(S3ContentEncoding.GZIP);
+		assertEquals(S3ContentEncoding.GZIP, config.getContentEncoding());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void unsupportedEncodingIsRejected() {
+		S3ContentEncoding.fromName("br");
+	}
+
+	private void assertCompressedRoundTrip(S3ContentEncoding encoding) throws IOException {
+		Submodel submodel = createSubmodel(1000);
+		S3SubmodelAPI api = new S3SubmodelAPI(s3Client, BUCKET_NAME, SM_ID);
+		api.setContentEncoding(encoding);
+		api.setSubmodel(submodel);
+
+		ObjectMetadata metadata = s3Client.getObjectMetadata(BUCKET_NAME, SM_ID);
+		assertEquals(encoding.getName(), metadata.getContentEncoding());
+		assertTrue(metadata.getContentLength() * 4 < S3JsonCodec.getContentLength(submodel));
+
+		// Read without the cache of the writing API
+		S3SubmodelAPI reader = new S3SubmodelAPI(s3Client, BUCKET_NAME, SM_ID);
+		assertEquals(1000, reader.getSubmodel().getSubmodelElements().size());
+		assertEquals("value of property 999", reader.getSubmodelElementValue("property999"));
+		assertTrue(S3Helper.getBaSyxObjectContent(s3Client, BUCKET_NAME, SM_ID).contains("value of property 999"));
+	}
+
+	private static Submodel createSubmodel(int properties) {
+		Submodel submodel = new Submodel("compressedSubmodel", new Identifier(IdentifierType.CUSTOM, SM_ID));
+		for (int i = 0; i < properties; i++) {
+			submodel.addSubmodelElement(new Property("property" + i, "value of property " + i));
+		}
+		return submodel;
+	}
+}
@@ -0,0 +1,181 @@
+/*******************************************************************************
+ * Copyright (C) 2022 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.regression.AASServer.s3;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.basyx.components.aas.s3.S3Helper;
+import org.eclipse.basyx.components.aas.s3.S3JsonCodec;
+import org.eclipse.basyx.components.aas.submodelserializer.SubmodelSerializer;
+import org.eclipse.basyx.submodel.metamodel.api.identifier.IdentifierType;
+import org.eclipse.basyx.submodel.metamodel.map.Submodel;
+import org.eclipse.basyx.submodel.metamodel.map.identifier.Identifier;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.SubmodelElementCollection;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.Property;
+import org.eclipse.basyx.vab.coder.json.serialization.DefaultTypeFactory;
+import org.eclipse.basyx.vab.coder.json.serialization.GSONTools;
+import org.eclipse.basyx.vab.exception.provider.ProviderException;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.auth.AWSStaticCredentialsProvider;
+import com.amazonaws.auth.AnonymousAWSCredentials;
+import com.amazonaws.client.builder.AwsClientBuilder.EndpointConfiguration;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.AmazonS3ClientBuilder;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+
+import io.findify.s3mock.S3Mock;
+
+/**
+ * Tests that the S3JsonCodec writes and reads the same as the
+ * SubmodelSerializer and the GSONTools
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class TestS3JsonCodec {
+	private static final int PORT = 8018;
+	private static final String BUCKET_NAME = "json-codec-test";
+
+	private static S3Mock s3Mock;
+	private static AmazonS3 s3Client;
+
+	private GSONTools gsonTools = new GSONTools(new DefaultTypeFactory());
+
+	@BeforeClass
+	public static void setUpClass() {
+		s3Mock = new S3Mock.Builder().withPort(PORT).withInMemoryBackend().build();
+		s3Mock.start();
+		s3Client = AmazonS3ClientBuilder.standard().withPathStyleAccessEnabled(true)
+				.withEndpointConfiguration(new EndpointConfiguration("http://localhost:" + PORT, "us-east-1"))
+				.withCredentials(new AWSStaticCredentialsProvider(new AnonymousAWSCredentials())).build();
+		s3Client.createBucket(BUCKET_NAME);
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+		S3Helper.wipeUnversionedBucket(s3Client, BUCKET_NAME);
+		s3Client.deleteBucket(BUCKET_NAME);
+		s3Mock.shutdown();
+	}
+
+	@Test
+	public void deserializationEqualsGSONTools() throws IOException {
+		String json = SubmodelSerializer.serialize(createSubmodel("parsed"));
+		Object streamed = S3JsonCodec.deserialize(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+		assertEquals(gsonTools.deserialize(json), streamed);
+	}
+
+	@Test
+	public void uploadProvidesDeserializedForm() {
+		Submodel submodel = createSubmodel("deserialized");
+		String json = SubmodelSerializer.serialize(submodel);
+
+		S3JsonCodec.Upload upload = S3JsonCodec.upload(s3Client, BUCKET_NAME, "deserialized", submodel, S3Helper.createMetadata(), true);
+		assertEquals(json.getBytes(StandardCharsets.UTF_8).length, upload.getContentLength());
+		assertEquals(json.getBytes(StandardCharsets.UTF_8).length, S3JsonCodec.getContentLength(submodel));
+		assertEquals(gsonTools.deserialize(json), upload.getDeserialized());
+		assertNull(S3JsonCodec.upload(s3Client, BUCKET_NAME, "deserialized", submodel, S3Helper.createMetadata(), false).getDeserialized());
+	}
+
+	@Test
+	public void uploadedSubmodelIsDownloaded() throws IOException {
+		Submodel submodel = createSubmodel("uploaded");
+		S3Helper.uploadSubmodelToBucket(s3Client, BUCKET_NAME, submodel, "uploaded");
+
+		String json = SubmodelSerializer.serialize(submodel);
+		assertEquals(json, S3Helper.getBaSyxObjectContent(s3Client, BUCKET_NAME, "uploaded"));
+		assertEquals(gsonTools.deserialize(json), S3Helper.getBaSyxObject(s3Client, BUCKET_NAME, "uploaded"));
+	}
+
+	@Test
+	public void largeSubmodelIsUploadedInParts() throws IOException {
+		Submodel submodel = createSubmodel("large");
+		for (int i = 0; S3JsonCodec.getContentLength(submodel) <= S3JsonCodec.PART_SIZE; i++) {
+			for (int j = 0; j < 1000; j++) {
+				submodel.addSubmodelElement(new Property("filler" + i + "_" + j, "some value to exceed one part"));
+			}
+		}
+		S3Helper.uploadSubmodelToBucket(s3Client, BUCKET_NAME, submodel, "large");
+
+		String json = SubmodelSerializer.serialize(submodel);
+		assertEquals(json, S3Helper.getBaSyxObjectContent(s3Client, BUCKET_NAME, "large"));
+	}
+
+	@Test(expected = AmazonServiceException.class)
+	public void failedUploadIsThrown() {
+		S3JsonCodec.upload(s3Client, "nonexisting-bucket", "failing", createSubmodel("failing"), new ObjectMetadata());
+	}
+
+	@Test(expected = ProviderException.class)
+	public void failedSubmodelUploadIsThrownAsProviderException() {
+		S3Helper.uploadSubmodelToBucket(s3Client, "nonexisting-bucket", createSubmodel("failing"), "failing");
+	}
+
+	@Test(expected = UnserializableException.class)
+	public void failedSerializationIsRethrown() {
+		S3JsonCodec.upload(s3Client, BUCKET_NAME, "unserializable", new UnserializableMap(), new ObjectMetadata());
+	}
+
+	private Submodel createSubmodel(String idShort) {
+		Submodel submodel = new Submodel(idShort, new Identifier(IdentifierType.CUSTOM, idShort + "Id"));
+		submodel.addSubmodelElement(new Property("int", 42));
+		submodel.addSubmodelElement(new Property("long", 5_000_000_000L));
+		submodel.addSubmodelElement(new Property("double", 1.5));
+		submodel.addSubmodelElement(new Property("boolean", true));
+		submodel.addSubmodelElement(new Property("unicode", "Grüße 😀"));
+		SubmodelElementCollection collection = new SubmodelElementCollection("collection");
+		collection.addSubmodelElement(new Property("nested", "value"));
+		submodel.addSubmodelElement(collection);
+		return submodel;
+	}
+
+	private static class UnserializableException extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+	}
+
+	/**
+	 * A map that fails to be serialized
+	 */
+	private static class UnserializableMap extends LinkedHashMap<String, Object> {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public Set<Map.Entry<String, Object>> entrySet() {
+			throw new UnserializableException();
+		}
+	}
+}
@@ -0,0 +1,164 @@
+/*******************************************************************************
+ * Copyright (C) 2022 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.regression.AASServer.s3;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+
+import org.eclipse.basyx.aas.metamodel.map.AssetAdministrationShell;
+import org.eclipse.basyx.aas.metamodel.map.descriptor.CustomId;
+import org.eclipse.basyx.aas.registration.memory.InMemoryRegistry;
+import org.eclipse.basyx.components.aas.configuration.BaSyxS3Configuration;
+import org.eclipse.basyx.components.aas.s3.S3AASAPIFactory;
+import org.eclipse.basyx.components.aas.s3.S3AASAggregator;
+import org.eclipse.basyx.components.aas.s3.S3Helper;
+import org.eclipse.basyx.components.aas.s3.S3RequestMetrics;
+import org.eclipse.basyx.components.aas.s3.S3SubmodelAPIFactory;
+import org.eclipse.basyx.components.aas.s3.S3SubmodelAggregatorFactory;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.amazonaws.services.s3.AmazonS3;
+
+import io.findify.s3mock.S3Mock;
+
+/**
+ * Tests the number of S3 requests of the high-level operations against an
+ * in-memory S3 mock
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class TestS3RequestMetrics {
+	private static final int PORT = 8022;
+	private static final String AAS_BUCKET_NAME = "metrics-test-aas";
+	private static final String SUBMODEL_BUCKET_NAME = "metrics-test-sm";
+	private static final int NUMBER_OF_SHELLS = 10;
+
+	private static S3Mock s3Mock;
+	private static BaSyxS3Configuration config;
+	private static AmazonS3 s3Client;
+
+	private S3AASAggregator aggregator;
+
+	@BeforeClass
+	public static void setUpClass() {
+		s3Mock = new S3Mock.Builder().withPort(PORT).withInMemoryBackend().build();
+		s3Mock.start();
+
+		config = new BaSyxS3Configuration("http://localhost", Integer.toString(PORT), "us-east-1");
+		config.setPathStyleAccessEnabled(true);
+		config.setAASBucketName(AAS_BUCKET_NAME);
+		config.setSubmodelBucketName(SUBMODEL_BUCKET_NAME);
+		s3Client = S3Helper.createS3Client(config);
+		s3Client.createBucket(AAS_BUCKET_NAME);
+		s3Client.createBucket(SUBMODEL_BUCKET_NAME);
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+		s3Mock.shutdown();
+	}
+
+	@Before
+	public void setUp() throws IOException {
+		aggregator = createAggregator();
+		aggregator.reset();
+		for (int i = 0; i < NUMBER_OF_SHELLS; i++) {
+			AssetAdministrationShell aas = new AssetAdministrationShell();
+			aas.setIdShort("metricsAAS" + i);
+			aas.setIdentification(new CustomId("metricsAASId" + i));
+			aggregator.createAAS(aas);
+		}
+		S3RequestMetrics.reset();
+	}
+
+	@Test
+	public void startupDoesNotUploadShells() throws IOException {
+		createAggregator();
+
+		// One listing, one download per shell and one read per shell when its
+		// provider is created
+		assertEquals(1 + 2 * NUMBER_OF_SHELLS, S3RequestMetrics.getOperationStats("loadAAS").getRequestCount());
+		assertNull(S3RequestMetrics.getRequestCountsByType().get("PutObjectRequest"));
+	}
+
+	@Test
+	public void deleteAASDoesNotListBucket() {
+		aggregator.deleteAAS(new CustomId("metricsAASId3"));
+
+		// Versioning status and deletion
+		assertEquals(2, S3RequestMetrics.getOperationStats("deleteAAS").getRequestCount());
+		assertFalse(S3Helper.listBucketContentKeys(s3Client, AAS_BUCKET_NAME).contains("metricsAASId3"));
+	}
+
+	@Test
+	public void versioningStatusIsRequestedOnce() {
+		aggregator.deleteAAS(new CustomId("metricsAASId1"));
+		aggregator.deleteAAS(new CustomId("metricsAASId2"));
+
+		// Versioning status and two deletions
+		assertEquals(3, S3RequestMetrics.getOperationStats("deleteAAS").getRequestCount());
+		assertEquals(Long.valueOf(1), S3RequestMetrics.getRequestCountsByType().get("GetBucketVersioningConfigurationRequest"));
+	}
+
+	@Test
+	public void metadataIsDownloadedWithoutContent() {
+		S3Helper.downloadObjectMetadataByKey(s3Client, AAS_BUCKET_NAME, "metricsAASId0");
+
+		assertEquals(Long.valueOf(1), S3RequestMetrics.getRequestCountsByType().get("GetObjectMetadataRequest"));
+		assertNull(S3RequestMetrics.getRequestCountsByType().get("GetObjectRequest"));
+	}
+
+	@Test
+	public void parallelDeletionsAreAttributedToWipe() {
+		S3Helper.wipeUnversionedBucket(s3Client, AAS_BUCKET_NAME, 4);
+
+		// Listing and one batch
+		assertEquals(2, S3RequestMetrics.getOperationStats("wipeBucket").getRequestCount());
+		assertTrue(S3Helper.listBucketContentKeys(s3Client, AAS_BUCKET_NAME).isEmpty());
+	}
+
+	@Test
+	public void nestedOperationsAreAttributedToOutermost() {
+		try (S3RequestMetrics.Scope scope = S3RequestMetrics.begin("outer")) {
+			aggregator.deleteAAS(new CustomId("metricsAASId4"));
+			assertEquals(2, scope.getRequestCount());
+		}
+		assertEquals(2, S3RequestMetrics.getOperationStats("outer").getRequestCount());
+		assertNull(S3RequestMetrics.getOperationStats("deleteAAS"));
+	}
+
+	private S3AASAggregator createAggregator() throws IOException {
+		S3SubmodelAPIFactory submodelAPIFactory = new S3SubmodelAPIFactory(s3Client, SUBMODEL_BUCKET_NAME);
+		return new S3AASAggregator(new InMemoryRegistry(), config, new S3AASAPIFactory(config, s3Client), new S3SubmodelAggregatorFactory(s3Client, SUBMODEL_BUCKET_NAME, submodelAPIFactory), s3Client);
+	}
+}
@@ -0,0 +1,238 @@
+/*******************************************************************************
+ * Copyright (C) 2022 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.regression.AASServer.s3;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.eclipse.basyx.components.aas.configuration.BaSyxS3Configuration;
+import org.eclipse.basyx.components.aas.s3.S3Helper;
+import org.eclipse.basyx.components.aas.s3.S3RequestMetrics;
+import org.eclipse.basyx.components.aas.s3.S3SubmodelAPI;
+import org.eclipse.basyx.components.aas.s3.S3SubmodelAPIFactory;
+import org.eclipse.basyx.components.aas.s3.S3SubmodelAggregator;
+import org.eclipse.basyx.components.aas.s3.S3SubmodelShards;
+import org.eclipse.basyx.submodel.metamodel.api.identifier.IdentifierType;
+import org.eclipse.basyx.submodel.metamodel.map.Submodel;
+import org.eclipse.basyx.submodel.metamodel.map.identifier.Identifier;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.SubmodelElementCollection;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.Property;
+import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.amazonaws.services.s3.AmazonS3;
+
+import io.findify.s3mock.S3Mock;
+
+/**
+ * Tests the sharded submodel layout of the S3SubmodelAPI against an in-memory
+ * S3 mock
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class TestS3ShardedSubmodel {
+	private static final int PORT = 8023;
+	private static final String BUCKET_NAME = "sharded-submodel-test";
+	private static final String SM_ID = "urn:basyx:shardedSubmodel";
+
+	private static S3Mock s3Mock;
+	private static AmazonS3 s3Client;
+
+	private S3SubmodelAPI api;
+
+	@BeforeClass
+	public static void setUpClass() {
+		s3Mock = new S3Mock.Builder().withPort(PORT).withInMemoryBackend().build();
+		s3Mock.start();
+		BaSyxS3Configuration config = new BaSyxS3Configuration("http://localhost", Integer.toString(PORT), "us-east-1");
+		config.setPathStyleAccessEnabled(true);
+		s3Client = S3Helper.createS3Client(config);
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+		s3Mock.shutdown();
+	}
+
+	@Before
+	public void setUp() throws IOException {
+		s3Client.createBucket(BUCKET_NAME);
+		api = new S3SubmodelAPI(s3Client, BUCKET_NAME, SM_ID, true);
+		api.setSubmodel(createSubmodel(SM_ID));
+		S3RequestMetrics.reset();
+	}
+
+	@After
+	public void tearDown() {
+		S3Helper.wipeUnversionedBucket(s3Client, BUCKET_NAME);
+		s3Client.deleteBucket(BUCKET_NAME);
+	}
+
+	@Test
+	public void submodelIsStoredAsManifestAndShards() throws IOException {
+		List<String> keys = listKeys();
+		assertTrue(keys.contains(SM_ID));
+		assertTrue(keys.contains(S3SubmodelShards.getShardKey(SM_ID, "prop1")));
+		assertTrue(keys.contains(S3SubmodelShards.getShardKey(SM_ID, "prop2")));
+		assertTrue(keys.contains(S3SubmodelShards.getShardKey(SM_ID, "coll")));
+
+		Map<String, Object> manifest = getStoredObject(SM_ID);
+		assertEquals(Arrays.asList("prop1", "prop2", "coll"), S3SubmodelShards.getShardedElements(manifest));
+		assertTrue(((Map<?, ?>) manifest.get(Submodel.SUBMODELELEMENT)).isEmpty());
+	}
+
+	@Test
+	public void submodelIsAssembled() {
+		assertEquals(3, api.getSubmodel().getSubmodelElements().size());
+		assertEquals("shardedSubmodel", api.getSubmodel().getIdShort());
+		assertEquals(2, api.getSubmodelElementValue("coll/nested"));
+
+		// The layout is detected on read
+		S3SubmodelAPI unshardedApi = new S3SubmodelAPI(s3Client, BUCKET_NAME, SM_ID);
+		assertEquals(3, unshardedApi.getSubmodel().getSubmodelElements().size());
+		assertEquals(1, unshardedApi.getSubmodelElementValue("prop2"));
+	}
+
+	@Test
+	public void updateOnlyUploadsShard() {
+		api.updateSubmodelElement("prop1", 10);
+		api.updateSubmodelElement("coll/nested", 20);
+
+		assertEquals(Long.valueOf(2), S3RequestMetrics.getRequestCountsByType().get("PutObjectRequest"));
+		assertEquals(10, api.getSubmodelElementValue("prop1"));
+		assertEquals(20, api.getSubmodelElementValue("coll/nested"));
+	}
+
+	@Test
+	public void readOnlyDownloadsShard() {
+		assertEquals(1, api.getSubmodelElementValue("prop2"));
+
+		assertEquals(Long.valueOf(1), S3RequestMetrics.getRequestCountsByType().get("GetObjectRequest"));
+	}
+
+	@Test
+	public void addAndDeleteTopLevelElements() throws IOException {
+		api.addSubmodelElement(new Property("prop3", 3));
+		api.deleteSubmodelElement("prop1");
+
+		assertEquals(Arrays.asList("prop2", "coll", "prop3"), S3SubmodelShards.getShardedElements(getStoredObject(SM_ID)));
+		assertFalse(listKeys().contains(S3SubmodelShards.getShardKey(SM_ID, "prop1")));
+		assertEquals(3, api.getSubmodelElementValue("prop3"));
+		assertEquals(3, api.getSubmodel().getSubmodelElements().size());
+	}
+
+	@Test
+	public void contentKeysDoNotContainShards() {
+		assertEquals(Arrays.asList(SM_ID), S3Helper.listBucketContentKeys(s3Client, BUCKET_NAME));
+	}
+
+	@Test
+	public void missingElementIsNotFoundFromManifest() {
+		try {
+			api.getSubmodelElement("missing");
+			fail();
+		} catch (ResourceNotFoundException e) {
+			// Expected
+		}
+
+		// The missing shard and the manifest, but not the shards of the other elements
+		assertEquals(Long.valueOf(2), S3RequestMetrics.getRequestCountsByType().get("GetObjectRequest"));
+	}
+
+	@Test(expected = ResourceNotFoundException.class)
+	public void deletedElementIsNotFound() {
+		api.deleteSubmodelElement("prop1");
+		api.getSubmodelElement("prop1");
+	}
+
+	@Test
+	public void replacedSubmodelDeletesObsoleteShards() throws IOException {
+		Submodel sm = createSubmodel(SM_ID);
+		sm.getSubmodelElements().remove("prop2");
+		api.setSubmodel(sm);
+
+		assertFalse(listKeys().contains(S3SubmodelShards.getShardKey(SM_ID, "prop2")));
+		assertEquals(2, api.getSubmodel().getSubmodelElements().size());
+	}
+
+	@Test
+	public void singleObjectSubmodelIsConvertedOnUpdate() throws IOException {
+		String id = "urn:basyx:singleObjectSubmodel";
+		new S3SubmodelAPI(s3Client, BUCKET_NAME, id).setSubmodel(createSubmodel(id));
+		assertFalse(S3SubmodelShards.isManifest(getStoredObject(id)));
+
+		S3SubmodelAPI shardedApi = new S3SubmodelAPI(s3Client, BUCKET_NAME, id, true);
+		assertEquals(0, shardedApi.getSubmodelElementValue("prop1"));
+		shardedApi.updateSubmodelElement("prop1", 10);
+
+		assertTrue(S3SubmodelShards.isManifest(getStoredObject(id)));
+		assertEquals(10, new S3SubmodelAPI(s3Client, BUCKET_NAME, id).getSubmodelElementValue("prop1"));
+		assertEquals(3, shardedApi.getSubmodel().getSubmodelElements().size());
+	}
+
+	@Test
+	public void deletedSubmodelRemovesShards() {
+		S3SubmodelAggregator aggregator = new S3SubmodelAggregator(new S3SubmodelAPIFactory(s3Client, BUCKET_NAME, true), s3Client, BUCKET_NAME);
+		aggregator.createSubmodel(createSubmodel(SM_ID));
+		aggregator.deleteSubmodelByIdentifier(new Identifier(IdentifierType.CUSTOM, SM_ID));
+
+		assertTrue(s3Client.listObjectsV2(BUCKET_NAME).getObjectSummaries().isEmpty());
+	}
+
+	private Submodel createSubmodel(String id) {
+		Submodel sm = new Submodel("shardedSubmodel", new Identifier(IdentifierType.CUSTOM, id));
+		sm.addSubmodelElement(new Property("prop1", 0));
+		sm.addSubmodelElement(new Property("prop2", 1));
+		SubmodelElementCollection coll = new SubmodelElementCollection("coll");
+		coll.addSubmodelElement(new Property("nested", 2));
+		sm.addSubmodelElement(coll);
+		return sm;
+	}
+
+	@SuppressWarnings("unchecked")
+	/**
+	 * Lists all keys of the bucket including the internal ones
+	 */
+	private List<String> listKeys() {
+		return s3Client.listObjectsV2(BUCKET_NAME).getObjectSummaries().stream().map(object -> object.getKey()).collect(Collectors.toList());
+	}
+
+	private Map<String, Object> getStoredObject(String key) throws IOException {
+		return (Map<String, Object>) S3Helper.getBaSyxObject(s3Client, BUCKET_NAME, key);
+	}
+}
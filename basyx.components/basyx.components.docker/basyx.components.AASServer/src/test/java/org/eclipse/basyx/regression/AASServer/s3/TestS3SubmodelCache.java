@@ -0,0 +1,216 @@
+/*******************************************************************************
+ * Copyright (C) 2022 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.regression.AASServer.s3;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+import org.eclipse.basyx.components.aas.s3.S3Helper;
+import org.eclipse.basyx.components.aas.s3.S3SubmodelAPI;
+import org.eclipse.basyx.components.aas.s3.S3SubmodelBucket;
+import org.eclipse.basyx.components.aas.s3.S3SubmodelCache;
+import org.eclipse.basyx.components.aas.submodelserializer.SubmodelSerializer;
+import org.eclipse.basyx.submodel.metamodel.api.identifier.IdentifierType;
+import org.eclipse.basyx.submodel.metamodel.map.Submodel;
+import org.eclipse.basyx.submodel.metamodel.map.identifier.Identifier;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.Property;
+import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.amazonaws.auth.AWSStaticCredentialsProvider;
+import com.amazonaws.auth.AnonymousAWSCredentials;
+import com.amazonaws.client.builder.AwsClientBuilder.EndpointConfiguration;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.AmazonS3ClientBuilder;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.PutObjectResult;
+
+import io.findify.s3mock.S3Mock;
+
+/**
+ * Tests the ETag revalidated submodel cache of the S3SubmodelAPI against an
+ * in-memory S3 mock
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class TestS3SubmodelCache {
+	private static final int PORT = 8015;
+	private static final String BUCKET_NAME = "submodel-cache-test";
+	private static final String SM_ID = "cachedSubmodelId";
+
+	private static S3Mock s3Mock;
+	private static AmazonS3 s3Client;
+
+	private S3SubmodelCache cache;
+	private S3SubmodelAPI api;
+
+	@BeforeClass
+	public static void setUpClass() {
+		s3Mock = new S3Mock.Builder().withPort(PORT).withInMemoryBackend().build();
+		s3Mock.start();
+		AmazonS3 mockClient = AmazonS3ClientBuilder.standard().withPathStyleAccessEnabled(true)
+				.withEndpointConfiguration(new EndpointConfiguration("http://localhost:" + PORT, "us-east-1"))
+				.withCredentials(new AWSStaticCredentialsProvider(new AnonymousAWSCredentials())).build();
+		s3Client = withConditionalRequests(mockClient);
+	}
+
+	/**
+	 * The S3 mock neither returns the ETag of uploaded objects nor supports
+	 * conditional GET requests. Both are emulated with HEAD requests like S3 would
+	 * answer them.
+	 */
+	private static AmazonS3 withConditionalRequests(AmazonS3 client) {
+		return (AmazonS3) Proxy.newProxyInstance(AmazonS3.class.getClassLoader(), new Class<?>[] { AmazonS3.class }, (proxy, method, args) -> {
+			if (method.getName().equals("getObject") && args[0] instanceof GetObjectRequest) {
+				GetObjectRequest request = (GetObjectRequest) args[0];
+				List<String> eTags = request.getNonmatchingETagConstraints();
+				if (!eTags.isEmpty() && eTags.contains(client.getObjectMetadata(request.getBucketName(), request.getKey()).getETag())) {
+					return null;
+				}
+			}
+
+			Object result;
+			try {
+				result = method.invoke(client, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+
+			if (result instanceof PutObjectResult && ((PutObjectResult) result).getETag() == null) {
+				String bucketName = args[0] instanceof PutObjectRequest ? ((PutObjectRequest) args[0]).getBucketName() : (String) args[0];
+				String key = args[0] instanceof PutObjectRequest ? ((PutObjectRequest) args[0]).getKey() : (String) args[1];
+				((PutObjectResult) result).setETag(client.getObjectMetadata(bucketName, key).getETag());
+			}
+			return result;
+		});
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+		s3Mock.shutdown();
+	}
+
+	@Before
+	public void setUp() throws IOException {
+		s3Client.createBucket(BUCKET_NAME);
+		S3SubmodelBucket bucket = new S3SubmodelBucket(s3Client, BUCKET_NAME);
+		cache = bucket.getCache();
+		cache.setMaxSize(10);
+		cache.resetStatistics();
+
+		Submodel sm = new Submodel("cached", new Identifier(IdentifierType.CUSTOM, SM_ID));
+		sm.addSubmodelElement(new Property("prop", 0));
+		api = new S3SubmodelAPI(bucket, SM_ID, false);
+		api.setSubmodel(sm);
+	}
+
+	@After
+	public void tearDown() {
+		S3Helper.wipeUnversionedBucket(s3Client, BUCKET_NAME);
+		s3Client.deleteBucket(BUCKET_NAME);
+	}
+
+	@Test
+	public void unchangedSubmodelIsRevalidated() {
+		for (int i = 0; i < 10; i++) {
+			assertEquals(0, api.getSubmodelElementValue("prop"));
+		}
+		assertEquals(10, cache.getHitCount());
+		assertEquals(0, cache.getMissCount());
+		assertTrue(cache.getBytesSaved() > 0);
+		assertEquals(1.0, cache.getHitRate(), 0);
+	}
+
+	@Test
+	public void writesUpdateCacheInPlace() {
+		api.updateSubmodelElement("prop", 5);
+		api.addSubmodelElement(new Property("other", "value"));
+
+		assertEquals(5, api.getSubmodelElementValue("prop"));
+		assertEquals("value", api.getSubmodelElementValue("other"));
+		assertEquals(0, cache.getMissCount());
+	}
+
+	@Test
+	public void externalChangeIsDownloaded() {
+		// Simulates an upload by another server that bypasses the cache
+		Submodel changed = new Submodel("cached", new Identifier(IdentifierType.CUSTOM, SM_ID));
+		changed.addSubmodelElement(new Property("prop", 42));
+		s3Client.putObject(BUCKET_NAME, SM_ID, SubmodelSerializer.serialize(changed));
+
+		assertEquals(42, api.getSubmodelElementValue("prop"));
+		assertEquals(1, cache.getMissCount());
+		assertEquals(42, api.getSubmodelElementValue("prop"));
+		assertEquals(1, cache.getHitCount());
+	}
+
+	@Test
+	public void cachedSubmodelIsNotModifiedByReaders() {
+		Submodel sm = (Submodel) api.getSubmodel();
+		sm.getSubmodelElement("prop").setValue(100);
+		sm.addSubmodelElement(new Property("notUploaded", 1));
+
+		Submodel reread = (Submodel) api.getSubmodel();
+		assertEquals(0, reread.getSubmodelElement("prop").getValue());
+		assertEquals(1, reread.getSubmodelElements().size());
+	}
+
+	@Test(expected = ResourceNotFoundException.class)
+	public void deletedSubmodelIsNotFound() {
+		api.getSubmodel();
+		s3Client.deleteObject(BUCKET_NAME, SM_ID);
+		api.getSubmodel();
+	}
+
+	@Test
+	public void disabledCacheDownloadsSubmodel() {
+		cache.setMaxSize(0);
+		api.getSubmodel();
+		api.getSubmodel();
+		assertEquals(0, cache.size());
+		assertEquals(2, cache.getMissCount());
+	}
+
+	@Test
+	public void componentsDoNotShareCache() {
+		api.getSubmodel();
+		S3SubmodelBucket otherComponent = new S3SubmodelBucket(s3Client, BUCKET_NAME);
+		new S3SubmodelAPI(otherComponent, SM_ID, false).getSubmodel();
+
+		assertEquals(1, otherComponent.getCache().size());
+		assertEquals(1, otherComponent.getCache().getMissCount());
+	}
+}
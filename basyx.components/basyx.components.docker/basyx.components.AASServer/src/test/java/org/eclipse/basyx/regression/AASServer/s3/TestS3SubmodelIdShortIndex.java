@@ -0,0 +1,200 @@
+/*******************************************************************************
+ * Copyright (C) 2022 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.regression.AASServer.s3;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.eclipse.basyx.components.aas.s3.S3Helper;
+import org.eclipse.basyx.components.aas.s3.S3SubmodelAPIFactory;
+import org.eclipse.basyx.components.aas.s3.S3SubmodelAggregator;
+import org.eclipse.basyx.components.aas.s3.S3SubmodelBucket;
+import org.eclipse.basyx.components.aas.s3.S3SubmodelIdShortIndex;
+import org.eclipse.basyx.submodel.metamodel.api.identifier.IdentifierType;
+import org.eclipse.basyx.submodel.metamodel.map.Submodel;
+import org.eclipse.basyx.submodel.metamodel.map.identifier.Identifier;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.Request;
+import com.amazonaws.auth.AWSStaticCredentialsProvider;
+import com.amazonaws.auth.AnonymousAWSCredentials;
+import com.amazonaws.client.builder.AwsClientBuilder.EndpointConfiguration;
+import com.amazonaws.handlers.RequestHandler2;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.AmazonS3ClientBuilder;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+
+import io.findify.s3mock.S3Mock;
+
+/**
+ * Tests the idShort index of a submodel bucket against an in-memory S3 mock
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class TestS3SubmodelIdShortIndex {
+	private static final int PORT = 8011;
+	private static final String BUCKET_NAME = "idshort-index-test";
+
+	private static S3Mock s3Mock;
+	private static AmazonS3 s3Client;
+	private static AtomicInteger requests = new AtomicInteger();
+
+	private S3SubmodelBucket bucket;
+	private S3SubmodelAggregator aggregator;
+
+	@BeforeClass
+	public static void setUpClass() {
+		s3Mock = new S3Mock.Builder().withPort(PORT).withInMemoryBackend().build();
+		s3Mock.start();
+		s3Client = AmazonS3ClientBuilder.standard().withPathStyleAccessEnabled(true)
+				.withEndpointConfiguration(new EndpointConfiguration("http://localhost:" + PORT, "us-east-1"))
+				.withCredentials(new AWSStaticCredentialsProvider(new AnonymousAWSCredentials()))
+				.withRequestHandlers(new RequestHandler2() {
+					@Override
+					public void beforeRequest(Request<?> request) {
+						requests.incrementAndGet();
+					}
+				}).build();
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+		s3Mock.shutdown();
+	}
+
+	@Before
+	public void setUp() {
+		s3Client.createBucket(BUCKET_NAME);
+		bucket = new S3SubmodelBucket(s3Client, BUCKET_NAME);
+		aggregator = new S3SubmodelAggregator(new S3SubmodelAPIFactory(bucket, false), bucket);
+	}
+
+	@After
+	public void tearDown() {
+		S3Helper.wipeUnversionedBucket(s3Client, BUCKET_NAME);
+		s3Client.deleteBucket(BUCKET_NAME);
+	}
+
+	@Test
+	public void uploadedSubmodelsAreResolvedWithoutRequests() {
+		for (int i = 0; i < 10; i++) {
+			aggregator.createSubmodel(createSubmodel(i));
+		}
+
+		S3SubmodelIdShortIndex index = bucket.getIdShortIndex();
+		requests.set(0);
+		for (int i = 0; i < 10; i++) {
+			assertEquals("id" + i, index.getSubmodelId("idShort" + i));
+		}
+		assertEquals(0, requests.get());
+	}
+
+	@Test
+	public void indexIsLoadedFromBucket() {
+		for (int i = 0; i < 10; i++) {
+			aggregator.createSubmodel(createSubmodel(i));
+		}
+		assertEquals(10, listEntryKeys(S3SubmodelIdShortIndex.INDEX_PREFIX).size());
+
+		// Simulates a restart of the server
+		requests.set(0);
+		assertEquals("id5", new S3SubmodelIdShortIndex(s3Client, BUCKET_NAME).getSubmodelId("idShort5"));
+		assertEquals(1, requests.get());
+	}
+
+	@Test
+	public void unchangedSubmodelDoesNotWriteEntry() {
+		Submodel submodel = createSubmodel(0);
+		aggregator.createSubmodel(submodel);
+		S3SubmodelIdShortIndex index = bucket.getIdShortIndex();
+		index.getSubmodelId("idShort0");
+
+		requests.set(0);
+		index.put("id0", "idShort0");
+		assertEquals(0, requests.get());
+	}
+
+	@Test
+	public void renamedSubmodelReplacesEntry() {
+		aggregator.createSubmodel(createSubmodel(0));
+		aggregator.createSubmodel(new Submodel("renamed", new Identifier(IdentifierType.CUSTOM, "id0")));
+
+		assertEquals(1, listEntryKeys(S3SubmodelIdShortIndex.getEntryPrefix("id0")).size());
+		S3SubmodelIdShortIndex index = new S3SubmodelIdShortIndex(s3Client, BUCKET_NAME);
+		assertEquals("id0", index.getSubmodelId("renamed"));
+		assertEquals(1, index.size());
+	}
+
+	@Test
+	public void staleIndexFallsBackToMetadata() {
+		aggregator.createSubmodel(createSubmodel(0));
+
+		// Submodel uploaded by another server without updating the index
+		ObjectMetadata metadata = S3Helper.createMetadata();
+		metadata.addUserMetadata("idShort", "foreignIdShort");
+		s3Client.putObject(BUCKET_NAME, "foreignId", new ByteArrayInputStream("{}".getBytes()), metadata);
+
+		S3SubmodelIdShortIndex index = new S3SubmodelIdShortIndex(s3Client, BUCKET_NAME);
+		assertEquals("id0", index.getSubmodelId("idShort0"));
+		assertEquals("foreignId", index.getSubmodelId("foreignIdShort"));
+		assertEquals(2, index.size());
+	}
+
+	@Test
+	public void deletedSubmodelIsRemovedFromIndex() {
+		Submodel submodel = createSubmodel(0);
+		aggregator.createSubmodel(submodel);
+		aggregator.deleteSubmodelByIdentifier(submodel.getIdentification());
+
+		assertTrue(listEntryKeys(S3SubmodelIdShortIndex.INDEX_PREFIX).isEmpty());
+		assertNull(bucket.getIdShortIndex().getSubmodelId("idShort0"));
+	}
+
+	@Test(expected = AmazonServiceException.class)
+	public void failedLoadIsRethrown() {
+		new S3SubmodelIdShortIndex(s3Client, "missing-bucket").getSubmodelId("idShort0");
+	}
+
+	private List<String> listEntryKeys(String prefix) {
+		return s3Client.listObjectsV2(BUCKET_NAME, prefix).getObjectSummaries().stream().map(S3ObjectSummary::getKey).collect(Collectors.toList());
+	}
+
+	private Submodel createSubmodel(int i) {
+		return new Submodel("idShort" + i, new Identifier(IdentifierType.CUSTOM, "id" + i));
+	}
+}
@@ -0,0 +1,375 @@
+/*******************************************************************************
+ * Copyright (C) 2022 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.regression.AASServer.s3;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.eclipse.basyx.components.aas.configuration.BaSyxS3Configuration;
+import org.eclipse.basyx.components.aas.s3.S3Helper;
+import org.eclipse.basyx.components.aas.s3.S3SubmodelAPI;
+import org.eclipse.basyx.components.aas.s3.S3SubmodelAPIFactory;
+import org.eclipse.basyx.components.aas.s3.S3SubmodelAggregator;
+import org.eclipse.basyx.components.aas.s3.S3SubmodelBucket;
+import org.eclipse.basyx.components.aas.s3.S3SubmodelVersionIndex;
+import org.eclipse.basyx.submodel.metamodel.api.ISubmodel;
+import org.eclipse.basyx.submodel.metamodel.api.identifier.IdentifierType;
+import org.eclipse.basyx.submodel.metamodel.map.Submodel;
+import org.eclipse.basyx.submodel.metamodel.map.identifier.Identifier;
+import org.eclipse.basyx.submodel.metamodel.map.submodelelement.dataelement.property.Property;
+import org.eclipse.basyx.vab.exception.provider.MalformedRequestException;
+import org.eclipse.basyx.vab.exception.provider.ResourceNotFoundException;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.BucketVersioningConfiguration;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest.KeyVersion;
+import com.amazonaws.services.s3.model.DeleteObjectsResult;
+import com.amazonaws.services.s3.model.DeleteObjectsResult.DeletedObject;
+import com.amazonaws.services.s3.model.GetObjectMetadataRequest;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.ListObjectsV2Request;
+import com.amazonaws.services.s3.model.ListObjectsV2Result;
+import com.amazonaws.services.s3.model.ListVersionsRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.PutObjectResult;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+import com.amazonaws.services.s3.model.S3VersionSummary;
+import com.amazonaws.services.s3.model.VersionListing;
+
+import io.findify.s3mock.S3Mock;
+
+/**
+ * Tests the time-travel reads of the S3SubmodelAPI against an in-memory S3 mock
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class TestS3SubmodelVersionIndex {
+	private static final int PORT = 8025;
+	private static final String BUCKET_NAME = "version-index-test";
+	private static final String VERSION_BUCKET_NAME = "version-index-test-versions";
+	private static final String SM_ID = "urn:basyx:versionedSubmodel";
+
+	private static S3Mock s3Mock;
+	private static AmazonS3 mockClient;
+	private static AmazonS3 s3Client;
+	private static List<S3VersionSummary> versions = new CopyOnWriteArrayList<>();
+
+	@BeforeClass
+	public static void setUpClass() {
+		s3Mock = new S3Mock.Builder().withPort(PORT).withInMemoryBackend().build();
+		s3Mock.start();
+		BaSyxS3Configuration config = new BaSyxS3Configuration("http://localhost", Integer.toString(PORT), "us-east-1");
+		config.setPathStyleAccessEnabled(true);
+		mockClient = S3Helper.createS3Client(config);
+		s3Client = withVersioning(mockClient);
+	}
+
+	/**
+	 * The S3 mock neither supports versioning nor the start key of listings. Each
+	 * upload of an AAS or submodel is additionally stored as version in a separate
+	 * bucket, deletions of the latest version add a delete marker, and the start
+	 * key is applied to the complete listing. As in S3, versions are listed newest
+	 * first. The last modification time of a version is kept in milliseconds.
+	 */
+	private static AmazonS3 withVersioning(AmazonS3 client) {
+		AtomicInteger versionCount = new AtomicInteger();
+		return (AmazonS3) Proxy.newProxyInstance(AmazonS3.class.getClassLoader(), new Class<?>[] { AmazonS3.class }, (proxy, method, args) -> {
+			if (method.getName().equals("putObject") && args[0] instanceof PutObjectRequest) {
+				PutObjectRequest request = (PutObjectRequest) args[0];
+				byte[] content = request.getInputStream().readAllBytes();
+				request.getMetadata().setContentLength(content.length);
+				PutObjectResult result = client.putObject(new PutObjectRequest(request.getBucketName(), request.getKey(), new ByteArrayInputStream(content), request.getMetadata()));
+
+				String versionId = "v" + versionCount.incrementAndGet();
+				ObjectMetadata metadata = new ObjectMetadata();
+				metadata.setContentLength(content.length);
+				client.putObject(VERSION_BUCKET_NAME, versionId, new ByteArrayInputStream(content), metadata);
+				addVersion(request.getKey(), versionId, false);
+				result.setVersionId(versionId);
+				return result;
+			}
+			if (method.getName().equals("deleteObjects") && args[0] instanceof DeleteObjectsRequest) {
+				DeleteObjectsRequest request = (DeleteObjectsRequest) args[0];
+				List<DeletedObject> deleted = new ArrayList<>();
+				for (KeyVersion keyVersion : request.getKeys()) {
+					DeletedObject object = new DeletedObject();
+					object.setKey(keyVersion.getKey());
+					if (keyVersion.getVersion() != null) {
+						versions.removeIf(version -> version.getVersionId().equals(keyVersion.getVersion()));
+					} else if (versions.stream().anyMatch(version -> version.getKey().equals(keyVersion.getKey()))) {
+						String versionId = "d" + versionCount.incrementAndGet();
+						addVersion(keyVersion.getKey(), versionId, true);
+						object.setDeleteMarker(true);
+						object.setDeleteMarkerVersionId(versionId);
+					}
+					client.deleteObject(request.getBucketName(), keyVersion.getKey());
+					deleted.add(object);
+				}
+				return new DeleteObjectsResult(deleted);
+			}
+			if (method.getName().equals("getBucketVersioningConfiguration")) {
+				return new BucketVersioningConfiguration(BucketVersioningConfiguration.ENABLED);
+			}
+			if (method.getName().equals("getObjectMetadata") && args[0] instanceof GetObjectMetadataRequest && ((GetObjectMetadataRequest) args[0]).getVersionId() != null) {
+				String versionId = ((GetObjectMetadataRequest) args[0]).getVersionId();
+				ObjectMetadata metadata = client.getObjectMetadata(VERSION_BUCKET_NAME, versionId);
+				metadata.setLastModified(versions.stream().filter(version -> version.getVersionId().equals(versionId)).findFirst().get().getLastModified());
+				return metadata;
+			}
+			if (method.getName().equals("getObject") && args[0] instanceof GetObjectRequest && ((GetObjectRequest) args[0]).getVersionId() != null) {
+				return client.getObject(VERSION_BUCKET_NAME, ((GetObjectRequest) args[0]).getVersionId());
+			}
+			if (method.getName().equals("listObjectsV2") && args[0] instanceof ListObjectsV2Request && ((ListObjectsV2Request) args[0]).getStartAfter() != null) {
+				ListObjectsV2Request request = (ListObjectsV2Request) args[0];
+				List<S3ObjectSummary> objects = client.listObjectsV2(new ListObjectsV2Request().withBucketName(request.getBucketName()).withPrefix(request.getPrefix())).getObjectSummaries();
+				ListObjectsV2Result result = new ListObjectsV2Result();
+				objects.stream().filter(object -> object.getKey().compareTo(request.getStartAfter()) > 0).limit(request.getMaxKeys()).forEach(result.getObjectSummaries()::add);
+				return result;
+			}
+			if (method.getName().equals("listVersions") && args[0] instanceof ListVersionsRequest) {
+				String prefix = ((ListVersionsRequest) args[0]).getPrefix();
+				VersionListing listing = new VersionListing();
+				List<S3VersionSummary> summaries = versions.stream().filter(version -> version.getKey().startsWith(prefix)).collect(Collectors.toList());
+				Collections.reverse(summaries);
+				listing.setVersionSummaries(summaries);
+				return listing;
+			}
+
+			try {
+				return method.invoke(client, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		});
+	}
+
+	private static void addVersion(String key, String versionId, boolean deleteMarker) {
+		S3VersionSummary version = new S3VersionSummary();
+		version.setKey(key);
+		version.setVersionId(versionId);
+		version.setLastModified(new Date());
+		version.setIsDeleteMarker(deleteMarker);
+		versions.add(version);
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+		s3Mock.shutdown();
+	}
+
+	@Before
+	public void setUp() {
+		mockClient.createBucket(BUCKET_NAME);
+		mockClient.createBucket(VERSION_BUCKET_NAME);
+	}
+
+	@After
+	public void tearDown() {
+		for (String bucketName : new String[] { BUCKET_NAME, VERSION_BUCKET_NAME }) {
+			S3Helper.wipeUnversionedBucket(mockClient, bucketName);
+			mockClient.deleteBucket(bucketName);
+		}
+		versions.clear();
+	}
+
+	@Test
+	public void latestVersionAtTimeIsFound() {
+		S3SubmodelVersionIndex index = new S3SubmodelVersionIndex(s3Client, BUCKET_NAME);
+		index.add(SM_ID, S3SubmodelVersionIndex.SUBMODEL_OBJECT, 10, "v10");
+		index.add(SM_ID, S3SubmodelVersionIndex.SUBMODEL_OBJECT, 20, "v20");
+		index.add(SM_ID, S3SubmodelVersionIndex.SUBMODEL_OBJECT, 30, "v30");
+		index.add(SM_ID, "prop", 15, "p15");
+
+		assertNull(index.getVersionId(SM_ID, S3SubmodelVersionIndex.SUBMODEL_OBJECT, 9));
+		assertEquals("v10", index.getVersionId(SM_ID, S3SubmodelVersionIndex.SUBMODEL_OBJECT, 10));
+		assertEquals("v20", index.getVersionId(SM_ID, S3SubmodelVersionIndex.SUBMODEL_OBJECT, 29));
+		assertEquals("v30", index.getVersionId(SM_ID, S3SubmodelVersionIndex.SUBMODEL_OBJECT, Long.MAX_VALUE));
+		assertEquals("p15", index.getVersionId(SM_ID, "prop", 20));
+		assertNull(index.getVersionId("otherId", S3SubmodelVersionIndex.SUBMODEL_OBJECT, 20));
+	}
+
+	@Test
+	public void versionsOfSameTimeAreOrderedByVersionListing() {
+		// The version ids of S3 are not ordered by time, but the listing is
+		addVersion(SM_ID, "vb", false);
+		addVersion(SM_ID, "vc", false);
+		addVersion(SM_ID, "va", false);
+		S3SubmodelVersionIndex index = new S3SubmodelVersionIndex(s3Client, BUCKET_NAME);
+		index.add(SM_ID, S3SubmodelVersionIndex.SUBMODEL_OBJECT, 10, "vc");
+		index.add(SM_ID, S3SubmodelVersionIndex.SUBMODEL_OBJECT, 10, "va");
+		index.add(SM_ID, S3SubmodelVersionIndex.SUBMODEL_OBJECT, 10, "vb");
+
+		assertEquals("va", index.getVersionId(SM_ID, S3SubmodelVersionIndex.SUBMODEL_OBJECT, 10));
+	}
+
+	@Test
+	public void deleteMarkerHidesEarlierVersions() {
+		S3SubmodelVersionIndex index = new S3SubmodelVersionIndex(s3Client, BUCKET_NAME);
+		index.add(SM_ID, S3SubmodelVersionIndex.SUBMODEL_OBJECT, 10, "v10");
+		index.addDeleteMarker(SM_ID, S3SubmodelVersionIndex.SUBMODEL_OBJECT, 20, "d20");
+		index.add(SM_ID, S3SubmodelVersionIndex.SUBMODEL_OBJECT, 30, "v30");
+
+		assertEquals("v10", index.getVersionId(SM_ID, S3SubmodelVersionIndex.SUBMODEL_OBJECT, 19));
+		assertNull(index.getVersionId(SM_ID, S3SubmodelVersionIndex.SUBMODEL_OBJECT, 20));
+		assertEquals("v30", index.getVersionId(SM_ID, S3SubmodelVersionIndex.SUBMODEL_OBJECT, 30));
+	}
+
+	@Test(expected = MalformedRequestException.class)
+	public void versionIndexIsDisabledByDefault() throws IOException, InterruptedException {
+		S3SubmodelAPI api = new S3SubmodelAPI(s3Client, BUCKET_NAME, SM_ID);
+		long[] times = writeVersions(api);
+		assertEquals(0, s3Client.listObjectsV2(BUCKET_NAME, S3SubmodelVersionIndex.VERSION_INDEX_PREFIX).getKeyCount());
+		api.asOf(times[0]);
+	}
+
+	@Test
+	public void deletedSubmodelIsNotReadAfterDeletion() throws IOException, InterruptedException {
+		S3SubmodelBucket bucket = createBucket();
+		S3SubmodelAggregator aggregator = new S3SubmodelAggregator(new S3SubmodelAPIFactory(bucket, false), bucket);
+		Submodel sm = new Submodel("versionedSubmodel", new Identifier(IdentifierType.CUSTOM, SM_ID));
+		sm.addSubmodelElement(new Property("prop", 0));
+		aggregator.createSubmodel(sm);
+		long written = tick();
+		aggregator.deleteSubmodelByIdentifier(sm.getIdentification());
+		long deleted = tick();
+
+		S3SubmodelAPI api = new S3SubmodelAPI(bucket, SM_ID, false);
+		assertEquals(0, api.asOf(written).getSubmodelElement("prop").getValue());
+		try {
+			api.asOf(deleted);
+			fail();
+		} catch (ResourceNotFoundException e) {
+			// Expected
+		}
+	}
+
+	@Test
+	public void submodelIsReadAsOfTime() throws IOException, InterruptedException {
+		S3SubmodelAPI api = createAPI(false);
+		long[] times = writeVersions(api);
+
+		for (int i = 0; i < times.length; i++) {
+			assertEquals(i, api.asOf(times[i]).getSubmodelElement("prop").getValue());
+		}
+		assertEquals(times.length - 1, api.getSubmodelElementValue("prop"));
+	}
+
+	@Test(expected = ResourceNotFoundException.class)
+	public void submodelBeforeFirstVersionIsNotFound() throws IOException, InterruptedException {
+		S3SubmodelAPI api = createAPI(false);
+		long[] times = writeVersions(api);
+		api.asOf(times[0] - 1000);
+	}
+
+	@Test
+	public void shardedSubmodelIsReadAsOfTime() throws IOException, InterruptedException {
+		S3SubmodelAPI api = createAPI(true);
+		long[] times = writeVersions(api);
+		api.addSubmodelElement(new Property("added", true));
+		long added = tick();
+		api.deleteSubmodelElement("prop");
+
+		for (int i = 0; i < times.length; i++) {
+			ISubmodel sm = api.asOf(times[i]);
+			assertEquals(i, sm.getSubmodelElement("prop").getValue());
+			assertEquals(1, sm.getSubmodelElements().size());
+		}
+		assertEquals(2, api.asOf(added).getSubmodelElements().size());
+		assertFalse(api.asOf(System.currentTimeMillis()).getSubmodelElements().containsKey("prop"));
+	}
+
+	@Test
+	public void indexIsRebuiltFromVersions() throws IOException, InterruptedException {
+		S3SubmodelAPI api = createAPI(true);
+		writeVersions(api);
+		long firstVersion = versions.stream().filter(version -> version.getKey().equals(SM_ID)).findFirst().get().getLastModified().getTime();
+		S3Helper.deleteObjectsByPrefix(mockClient, BUCKET_NAME, S3SubmodelVersionIndex.getIndexPrefix(SM_ID));
+
+		// Versions of the submodel and of its shard
+		assertEquals(versions.size(), new S3SubmodelVersionIndex(s3Client, BUCKET_NAME).rebuild(SM_ID));
+		assertEquals(0, api.asOf(firstVersion).getSubmodelElement("prop").getValue());
+		assertEquals(2, api.asOf(System.currentTimeMillis()).getSubmodelElement("prop").getValue());
+	}
+
+	private S3SubmodelBucket createBucket() {
+		S3SubmodelBucket bucket = new S3SubmodelBucket(s3Client, BUCKET_NAME);
+		bucket.setVersionIndexEnabled(true);
+		return bucket;
+	}
+
+	private S3SubmodelAPI createAPI(boolean sharded) {
+		return new S3SubmodelAPI(createBucket(), SM_ID, sharded);
+	}
+
+	/**
+	 * Writes three versions with the property values 0, 1 and 2
+	 * 
+	 * @return the times after each version has been written
+	 */
+	private long[] writeVersions(S3SubmodelAPI api) throws IOException, InterruptedException {
+		long[] times = new long[3];
+		Submodel sm = new Submodel("versionedSubmodel", new Identifier(IdentifierType.CUSTOM, SM_ID));
+		sm.addSubmodelElement(new Property("prop", 0));
+		api.setSubmodel(sm);
+		times[0] = tick();
+		for (int i = 1; i < times.length; i++) {
+			api.updateSubmodelElement("prop", i);
+			times[i] = tick();
+		}
+		return times;
+	}
+
+	/**
+	 * Returns the current time and waits, so that later versions are written in a
+	 * later millisecond
+	 */
+	private long tick() throws InterruptedException {
+		long time = System.currentTimeMillis();
+		Thread.sleep(5);
+		return time;
+	}
+}
@@ -42,6 +42,7 @@ import org.eclipse.basyx.components.registry.mqtt.MqttRegistryFactory;
 import org.eclipse.basyx.components.registry.mqtt.MqttTaggedDirectoryFactory;
 import org.eclipse.basyx.components.registry.servlet.RegistryServlet;
 import org.eclipse.basyx.components.registry.servlet.TaggedDirectoryServlet;
+import org.eclipse.basyx.components.registry.sql.RelationalSQLRegistry;
 import org.eclipse.basyx.components.registry.sql.SQLRegistry;
 import org.eclipse.basyx.extensions.aas.directory.tagged.api.IAASTaggedDirectory;
 import org.eclipse.basyx.extensions.aas.directory.tagged.map.MapTaggedDirectory;
@@ -53,7 +54,7 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Generic registry that can start and stop a registry with different kinds of
- * backends. Currently supports MongoDB and SQL. For development purposes, the
+ * backends. Currently supports MongoDB, SQL and relational SQL. For development purposes, the
  * component can also start a registry without a backend and without
  * persistency.
  * 
@@ -236,6 +237,8 @@ public class RegistryComponent implements IComponent {
 			return createMongoDBRegistryBackend();
 		case SQL:
 			return createSQLRegistryBackend();
+		case SQL_RELATIONAL:
+			return createRelationalSQLRegistryBackend();
 		case INMEMORY:
 			return createInMemoryRegistryBackend();
 		default:
@@ -254,6 +257,12 @@ public class RegistryComponent implements IComponent {
 		return new SQLRegistry(sqlConfiguration);
 	}
 
+	private IAASRegistry createRelationalSQLRegistryBackend() {
+		logger.info("Creating RelationalSQLRegistry");
+		final BaSyxSQLConfiguration sqlConfiguration = loadSQLConfiguration();
+		return new RelationalSQLRegistry(sqlConfiguration);
+	}
+
 	private IAASRegistry createMongoDBRegistryBackend() {
 		logger.info("Creating MongoDBRegistry");
 		final BaSyxMongoDBConfiguration mongoDBConfiguration = loadMongoDBConfiguration();
@@ -274,7 +283,7 @@ public class RegistryComponent implements IComponent {
 	}
 
 	private boolean isConfigurationSuitableForTaggedDirectory() {
-		return !(registryConfig.getRegistryBackend().equals(RegistryBackend.SQL) || registryConfig.getRegistryBackend().equals(RegistryBackend.MONGODB) || registryConfig.isAuthorizationEnabled());
+		return !(registryConfig.getRegistryBackend().equals(RegistryBackend.SQL) || registryConfig.getRegistryBackend().equals(RegistryBackend.SQL_RELATIONAL) || registryConfig.getRegistryBackend().equals(RegistryBackend.MONGODB) || registryConfig.isAuthorizationEnabled());
 	}
 
 	@Override
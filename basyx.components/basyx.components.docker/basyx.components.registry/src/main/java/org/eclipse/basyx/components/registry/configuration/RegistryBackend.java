@@ -38,7 +38,7 @@ public enum RegistryBackend {
 	/**
 	 * Enum values of KeyElements
 	 */
-	INMEMORY("InMemory"), SQL("SQL"), MONGODB("MongoDB");
+	INMEMORY("InMemory"), SQL("SQL"), SQL_RELATIONAL("SQLRelational"), MONGODB("MongoDB");
 
 	private String literal;
 
@@ -35,12 +35,14 @@ import org.eclipse.basyx.components.configuration.BaSyxMongoDBConfiguration;
 import org.eclipse.basyx.submodel.metamodel.api.identifier.IIdentifier;
 import org.eclipse.basyx.submodel.metamodel.map.identifier.Identifier;
 import org.eclipse.basyx.submodel.metamodel.map.qualifier.Identifiable;
+import org.eclipse.basyx.tools.mongodb.MongoDBClientRegistry;
+import org.eclipse.basyx.tools.mongodb.MongoDBIndex;
+import org.eclipse.basyx.tools.mongodb.MongoDBIndexManager;
 import org.springframework.data.mongodb.core.MongoOperations;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 
 import com.mongodb.client.MongoClient;
-import com.mongodb.client.MongoClients;
 
 /**
  * A registry handler based on MongoDB
@@ -85,9 +87,17 @@ public class MongoDBRegistryHandler implements IRegistryHandler {
 
 	public void setConfiguration(BaSyxMongoDBConfiguration config) {
 		this.config = config;
-		MongoClient client = MongoClients.create(config.getConnectionUrl());
+		MongoClient client = MongoDBClientRegistry.getClient(config);
 		this.mongoOps = new MongoTemplate(client, config.getDatabase());
 		this.collection = config.getRegistryCollection();
+		ensureIndexes();
+	}
+
+	/**
+	 * Ensures the indexes for the lookups of descriptors by AAS and asset id
+	 */
+	private void ensureIndexes() {
+		new MongoDBIndexManager(config).ensureIndexes(mongoOps.getCollection(collection), MongoDBIndex.unique(AASID), MongoDBIndex.ascending(ASSETID));
 	}
 
 	@Override
@@ -0,0 +1,52 @@
+/*******************************************************************************
+ * Copyright (C) 2022 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.components.registry.sql;
+
+import org.eclipse.basyx.aas.registration.memory.AASRegistry;
+import org.eclipse.basyx.components.configuration.BaSyxSQLConfiguration;
+
+/**
+ * Implements a local registry based on fixed tables in an SQL database, see
+ * {@link RelationalSQLRegistryHandler}. Registries of the {@link SQLRegistry}
+ * can be converted with the {@link SQLRegistryMigration}.
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class RelationalSQLRegistry extends AASRegistry {
+	/**
+	 * Constructor using default sql connection
+	 */
+	public RelationalSQLRegistry() {
+		this(new BaSyxSQLConfiguration());
+	}
+
+	/**
+	 * Creates a RelationalSQLRegistry from a sql configuration
+	 */
+	public RelationalSQLRegistry(BaSyxSQLConfiguration configuration) {
+		super(new RelationalSQLRegistryHandler(configuration));
+	}
+}
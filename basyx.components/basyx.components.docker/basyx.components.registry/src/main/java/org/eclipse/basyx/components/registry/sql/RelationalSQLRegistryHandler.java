@@ -0,0 +1,412 @@
+/*******************************************************************************
+ * Copyright (C) 2022 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.components.registry.sql;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.basyx.aas.metamodel.map.AssetAdministrationShell;
+import org.eclipse.basyx.aas.metamodel.map.descriptor.AASDescriptor;
+import org.eclipse.basyx.aas.metamodel.map.descriptor.ModelDescriptor;
+import org.eclipse.basyx.aas.registration.memory.IRegistryHandler;
+import org.eclipse.basyx.components.configuration.BaSyxSQLConfiguration;
+import org.eclipse.basyx.submodel.metamodel.api.identifier.IIdentifier;
+import org.eclipse.basyx.submodel.metamodel.map.identifier.Identifier;
+import org.eclipse.basyx.submodel.metamodel.map.qualifier.Identifiable;
+import org.eclipse.basyx.submodel.metamodel.map.qualifier.Referable;
+import org.eclipse.basyx.tools.sql.driver.SQLConnectionPoolMetrics;
+import org.eclipse.basyx.tools.sql.driver.SQLDriver;
+import org.eclipse.basyx.vab.coder.json.serialization.DefaultTypeFactory;
+import org.eclipse.basyx.vab.coder.json.serialization.GSONTools;
+import org.eclipse.basyx.vab.exception.provider.ProviderException;
+
+/**
+ * A registry handler that stores descriptors in fixed, indexed tables instead
+ * of the generic table-per-map layout of the SQLRootElement:
+ * <ul>
+ * <li>{@value #DESCRIPTOR_TABLE}: one row per AAS descriptor, keyed by the AAS
+ * id and indexed by the asset id</li>
+ * <li>{@value #SUBMODEL_TABLE}: one row per submodel descriptor, keyed by the
+ * AAS id and its position in the descriptor</li>
+ * <li>{@value #ENDPOINT_TABLE}: one row per endpoint of an AAS or submodel
+ * descriptor</li>
+ * </ul>
+ * Attributes of the descriptors that have no column, e.g. the asset or
+ * semantic ids, are kept as JSON, so descriptors are returned as they were
+ * registered. Each lookup is a single query joining the three tables.
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class RelationalSQLRegistryHandler implements IRegistryHandler {
+	public static final String SCHEMA = "registry";
+	public static final String DESCRIPTOR_TABLE = SCHEMA + ".aas_descriptors";
+	public static final String SUBMODEL_TABLE = SCHEMA + ".submodel_descriptors";
+	public static final String ENDPOINT_TABLE = SCHEMA + ".endpoints";
+
+	// Position of the rows that do not belong to a submodel or an endpoint
+	private static final int NO_POSITION = -1;
+
+	private static final String ID = "VARCHAR(1024)";
+
+	private static final String[] CREATE_TABLES = {
+			"CREATE SCHEMA IF NOT EXISTS " + SCHEMA,
+			"CREATE TABLE IF NOT EXISTS " + DESCRIPTOR_TABLE + " (aas_id " + ID + " PRIMARY KEY, id_type VARCHAR(32), id_short " + ID + ", asset_id " + ID + ", attributes TEXT)",
+			"CREATE INDEX IF NOT EXISTS aas_descriptors_asset_id ON " + DESCRIPTOR_TABLE + " (asset_id)",
+			"CREATE TABLE IF NOT EXISTS " + SUBMODEL_TABLE + " (aas_id " + ID + " NOT NULL REFERENCES " + DESCRIPTOR_TABLE + " (aas_id) ON DELETE CASCADE, position INT NOT NULL, "
+					+ "submodel_id " + ID + " NOT NULL, id_type VARCHAR(32), id_short " + ID + ", attributes TEXT, PRIMARY KEY (aas_id, position))",
+			"CREATE TABLE IF NOT EXISTS " + ENDPOINT_TABLE + " (aas_id " + ID + " NOT NULL REFERENCES " + DESCRIPTOR_TABLE + " (aas_id) ON DELETE CASCADE, submodel_position INT NOT NULL, position INT NOT NULL, "
+					+ "address TEXT, type VARCHAR(255), attributes TEXT, PRIMARY KEY (aas_id, submodel_position, position))" };
+
+	private static final String[] DROP_TABLES = { "DROP TABLE IF EXISTS " + ENDPOINT_TABLE, "DROP TABLE IF EXISTS " + SUBMODEL_TABLE, "DROP TABLE IF EXISTS " + DESCRIPTOR_TABLE, "DROP SCHEMA IF EXISTS " + SCHEMA + " RESTRICT" };
+
+	/**
+	 * Joins the descriptors with their submodel descriptors and endpoints. The
+	 * rows of a descriptor are ordered by the position of their submodel, so that
+	 * the endpoints of the AAS come first and each submodel descriptor is followed
+	 * by its endpoints.
+	 */
+	private static final String SELECT_DESCRIPTORS = "SELECT d.aas_id, d.id_type, d.id_short, d.attributes, p.submodel_position, p.position, p.submodel_id, p.id_type, p.id_short, p.address, p.type, p.attributes FROM " + DESCRIPTOR_TABLE + " d LEFT JOIN ("
+			+ "SELECT aas_id, position AS submodel_position, " + NO_POSITION + " AS position, submodel_id, id_type, id_short, CAST(NULL AS TEXT) AS address, CAST(NULL AS VARCHAR(255)) AS type, attributes FROM " + SUBMODEL_TABLE
+			+ " UNION ALL SELECT aas_id, submodel_position, position, NULL, NULL, NULL, address, type, attributes FROM " + ENDPOINT_TABLE + ") p ON p.aas_id = d.aas_id";
+	private static final String ORDER = " ORDER BY d.aas_id, p.submodel_position, p.position";
+	private static final String MATCHES_ID = " WHERE d.aas_id = ? OR d.asset_id = ?";
+
+	private static final String SELECT_DESCRIPTOR = SELECT_DESCRIPTORS + MATCHES_ID + ORDER;
+	private static final String SELECT_ALL_DESCRIPTORS = SELECT_DESCRIPTORS + ORDER;
+	private static final String CONTAINS_DESCRIPTOR = "SELECT 1 FROM " + DESCRIPTOR_TABLE + " d" + MATCHES_ID;
+	private static final String DELETE_DESCRIPTOR = "DELETE FROM " + DESCRIPTOR_TABLE + " WHERE aas_id = ? OR asset_id = ?";
+	private static final String DELETE_DESCRIPTOR_BY_AAS_ID = "DELETE FROM " + DESCRIPTOR_TABLE + " WHERE aas_id = ?";
+	private static final String INSERT_DESCRIPTOR = "INSERT INTO " + DESCRIPTOR_TABLE + " (aas_id, id_type, id_short, asset_id, attributes) VALUES (?, ?, ?, ?, ?)";
+	private static final String INSERT_SUBMODEL = "INSERT INTO " + SUBMODEL_TABLE + " (aas_id, position, submodel_id, id_type, id_short, attributes) VALUES (?, ?, ?, ?, ?, ?)";
+	private static final String INSERT_ENDPOINT = "INSERT INTO " + ENDPOINT_TABLE + " (aas_id, submodel_position, position, address, type, attributes) VALUES (?, ?, ?, ?, ?, ?)";
+
+	private final SQLDriver driver;
+	private final GSONTools gsonTools = new GSONTools(new DefaultTypeFactory());
+
+	/**
+	 * Creates the handler and its tables, if they do not exist
+	 */
+	public RelationalSQLRegistryHandler(BaSyxSQLConfiguration config) {
+		this.driver = new SQLDriver(config);
+		createTablesIfNotExists();
+	}
+
+	/**
+	 * Creates the tables of the registry (including a possibly missing schema)
+	 */
+	public void createTablesIfNotExists() {
+		execute(connection -> executeAll(connection, CREATE_TABLES));
+	}
+
+	/**
+	 * Removes the tables of the registry including all descriptors
+	 */
+	public void drop() {
+		execute(connection -> executeAll(connection, DROP_TABLES));
+	}
+
+	@Override
+	public boolean contains(IIdentifier identifier) {
+		return execute(connection -> {
+			try (PreparedStatement statement = prepareIdQuery(connection, CONTAINS_DESCRIPTOR, identifier); ResultSet result = statement.executeQuery()) {
+				return result.next();
+			}
+		});
+	}
+
+	@Override
+	public void remove(IIdentifier identifier) {
+		execute(connection -> {
+			try (PreparedStatement statement = prepareIdQuery(connection, DELETE_DESCRIPTOR, identifier)) {
+				return statement.executeUpdate();
+			}
+		});
+	}
+
+	@Override
+	public void insert(AASDescriptor descriptor) {
+		executeTransaction(connection -> {
+			insert(connection, descriptor);
+			return null;
+		});
+	}
+
+	@Override
+	public void update(AASDescriptor descriptor) {
+		executeTransaction(connection -> {
+			try (PreparedStatement statement = connection.prepareStatement(DELETE_DESCRIPTOR_BY_AAS_ID)) {
+				statement.setString(1, descriptor.getIdentifier().getId());
+				statement.executeUpdate();
+			}
+			insert(connection, descriptor);
+			return null;
+		});
+	}
+
+	@Override
+	public AASDescriptor get(IIdentifier identifier) {
+		List<AASDescriptor> descriptors = execute(connection -> {
+			try (PreparedStatement statement = prepareIdQuery(connection, SELECT_DESCRIPTOR, identifier); ResultSet result = statement.executeQuery()) {
+				return readDescriptors(result);
+			}
+		});
+		return descriptors.isEmpty() ? null : descriptors.get(0);
+	}
+
+	@Override
+	public List<AASDescriptor> getAll() {
+		return execute(connection -> {
+			try (Statement statement = connection.createStatement(); ResultSet result = statement.executeQuery(SELECT_ALL_DESCRIPTORS)) {
+				return readDescriptors(result);
+			}
+		});
+	}
+
+	private PreparedStatement prepareIdQuery(Connection connection, String sql, IIdentifier identifier) throws SQLException {
+		PreparedStatement statement = connection.prepareStatement(sql);
+		statement.setString(1, identifier.getId());
+		statement.setString(2, identifier.getId());
+		return statement;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void insert(Connection connection, AASDescriptor descriptor) throws SQLException {
+		String aasId = descriptor.getIdentifier().getId();
+		try (PreparedStatement statement = connection.prepareStatement(INSERT_DESCRIPTOR)) {
+			statement.setString(1, aasId);
+			statement.setString(2, descriptor.getIdentifier().getIdType().toString());
+			statement.setString(3, descriptor.getIdShort());
+			statement.setString(4, getIdentifierId(descriptor.get(AssetAdministrationShell.ASSET)));
+			setAttributes(statement, 5, descriptor, Referable.IDSHORT, Identifiable.IDENTIFICATION, ModelDescriptor.ENDPOINTS, AssetAdministrationShell.SUBMODELS);
+			statement.executeUpdate();
+		}
+
+		try (PreparedStatement submodelStatement = connection.prepareStatement(INSERT_SUBMODEL); PreparedStatement endpointStatement = connection.prepareStatement(INSERT_ENDPOINT)) {
+			addEndpoints(endpointStatement, aasId, NO_POSITION, descriptor);
+			Collection<Map<String, Object>> submodels = (Collection<Map<String, Object>>) descriptor.get(AssetAdministrationShell.SUBMODELS);
+			if (submodels != null) {
+				int position = 0;
+				for (Map<String, Object> submodel : submodels) {
+					Map<String, Object> identification = (Map<String, Object>) submodel.get(Identifiable.IDENTIFICATION);
+					submodelStatement.setString(1, aasId);
+					submodelStatement.setInt(2, position);
+					submodelStatement.setString(3, (String) identification.get(Identifier.ID));
+					submodelStatement.setString(4, String.valueOf(identification.get(Identifier.IDTYPE)));
+					submodelStatement.setString(5, (String) submodel.get(Referable.IDSHORT));
+					setAttributes(submodelStatement, 6, submodel, Referable.IDSHORT, Identifiable.IDENTIFICATION, ModelDescriptor.ENDPOINTS);
+					submodelStatement.addBatch();
+					addEndpoints(endpointStatement, aasId, position, submodel);
+					position++;
+				}
+			}
+			submodelStatement.executeBatch();
+			endpointStatement.executeBatch();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void addEndpoints(PreparedStatement statement, String aasId, int submodelPosition, Map<String, Object> descriptor) throws SQLException {
+		Collection<Map<String, Object>> endpoints = (Collection<Map<String, Object>>) descriptor.get(ModelDescriptor.ENDPOINTS);
+		if (endpoints == null) {
+			return;
+		}
+		int position = 0;
+		for (Map<String, Object> endpoint : endpoints) {
+			statement.setString(1, aasId);
+			statement.setInt(2, submodelPosition);
+			statement.setInt(3, position++);
+			statement.setString(4, (String) endpoint.get(AssetAdministrationShell.ADDRESS));
+			statement.setString(5, (String) endpoint.get(AssetAdministrationShell.TYPE));
+			setAttributes(statement, 6, endpoint, AssetAdministrationShell.ADDRESS, AssetAdministrationShell.TYPE);
+			statement.addBatch();
+		}
+	}
+
+	/**
+	 * Sets the JSON of all attributes of a map except the ones stored in columns,
+	 * or null if there are none
+	 */
+	private void setAttributes(PreparedStatement statement, int index, Map<String, Object> map, String... columnAttributes) throws SQLException {
+		Map<String, Object> attributes = new LinkedHashMap<>(map);
+		for (String columnAttribute : columnAttributes) {
+			attributes.remove(columnAttribute);
+		}
+		if (attributes.isEmpty()) {
+			statement.setNull(index, Types.VARCHAR);
+		} else {
+			statement.setString(index, gsonTools.serialize(attributes));
+		}
+	}
+
+	/**
+	 * Assembles the descriptors from the rows of {@link #SELECT_DESCRIPTORS}
+	 */
+	private List<AASDescriptor> readDescriptors(ResultSet result) throws SQLException {
+		List<AASDescriptor> descriptors = new ArrayList<>();
+		String aasId = null;
+		Map<String, Object> descriptor = null;
+		Map<String, Object> submodel = null;
+		while (result.next()) {
+			if (!result.getString(1).equals(aasId)) {
+				addDescriptor(descriptors, descriptor);
+				aasId = result.getString(1);
+				descriptor = readModel(aasId, result.getString(2), result.getString(3), result.getString(4));
+				descriptor.put(AssetAdministrationShell.SUBMODELS, new ArrayList<>());
+				submodel = null;
+			}
+
+			int submodelPosition = result.getInt(5);
+			if (result.wasNull()) {
+				// Descriptor without submodels and endpoints
+				continue;
+			}
+			if (result.getInt(6) == NO_POSITION) {
+				submodel = readModel(result.getString(7), result.getString(8), result.getString(9), result.getString(12));
+				getCollection(descriptor, AssetAdministrationShell.SUBMODELS).add(submodel);
+			} else {
+				Map<String, Object> owner = submodelPosition == NO_POSITION ? descriptor : submodel;
+				getCollection(owner, ModelDescriptor.ENDPOINTS).add(readEndpoint(result.getString(10), result.getString(11), result.getString(12)));
+			}
+		}
+		addDescriptor(descriptors, descriptor);
+		return descriptors;
+	}
+
+	private void addDescriptor(List<AASDescriptor> descriptors, Map<String, Object> descriptor) {
+		if (descriptor != null) {
+			descriptors.add(new AASDescriptor(descriptor));
+		}
+	}
+
+	private Map<String, Object> readModel(String id, String idType, String idShort, String attributes) {
+		Map<String, Object> model = readAttributes(attributes);
+		Map<String, Object> identification = new LinkedHashMap<>();
+		identification.put(Identifier.IDTYPE, idType);
+		identification.put(Identifier.ID, id);
+		model.put(Referable.IDSHORT, idShort);
+		model.put(Identifiable.IDENTIFICATION, identification);
+		model.put(ModelDescriptor.ENDPOINTS, new ArrayList<>());
+		return model;
+	}
+
+	private Map<String, Object> readEndpoint(String address, String type, String attributes) {
+		Map<String, Object> endpoint = readAttributes(attributes);
+		endpoint.put(AssetAdministrationShell.TYPE, type);
+		endpoint.put(AssetAdministrationShell.ADDRESS, address);
+		return endpoint;
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String, Object> readAttributes(String attributes) {
+		Map<String, Object> map = new LinkedHashMap<>();
+		if (attributes != null) {
+			map.putAll((Map<String, Object>) gsonTools.deserialize(attributes));
+		}
+		return map;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Collection<Object> getCollection(Map<String, Object> map, String key) {
+		return (Collection<Object>) map.get(key);
+	}
+
+	/**
+	 * Returns the id of the identification of a referable in map form, e.g. of the
+	 * asset of a descriptor
+	 */
+	@SuppressWarnings("unchecked")
+	private static String getIdentifierId(Object referable) {
+		if (!(referable instanceof Map)) {
+			return null;
+		}
+		Object identification = ((Map<String, Object>) referable).get(Identifiable.IDENTIFICATION);
+		if (!(identification instanceof Map)) {
+			return null;
+		}
+		return (String) ((Map<String, Object>) identification).get(Identifier.ID);
+	}
+
+	private static Object executeAll(Connection connection, String[] sqlStrings) throws SQLException {
+		try (Statement statement = connection.createStatement()) {
+			for (String sql : sqlStrings) {
+				statement.executeUpdate(sql);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Runs a function in a transaction, which is rolled back if the function fails
+	 */
+	private <T> T executeTransaction(SQLFunction<T> function) {
+		return execute(connection -> {
+			connection.setAutoCommit(false);
+			try {
+				T result = function.apply(connection);
+				connection.commit();
+				return result;
+			} catch (SQLException | RuntimeException e) {
+				connection.rollback();
+				throw e;
+			} finally {
+				connection.setAutoCommit(true);
+			}
+		});
+	}
+
+	/**
+	 * Runs a function on a connection that is borrowed from the pool of the
+	 * driver, so concurrent accesses use separate connections
+	 */
+	private <T> T execute(SQLFunction<T> function) {
+		try (Connection connection = driver.borrowConnection()) {
+			return function.apply(connection);
+		} catch (SQLException e) {
+			throw new ProviderException("SQL registry operation failed", e);
+		}
+	}
+
+	/**
+	 * Returns the metrics of the connection pool
+	 */
+	public SQLConnectionPoolMetrics getPoolMetrics() {
+		return driver.getPoolMetrics();
+	}
+
+	@FunctionalInterface
+	private interface SQLFunction<T> {
+		T apply(Connection connection) throws SQLException;
+	}
+}
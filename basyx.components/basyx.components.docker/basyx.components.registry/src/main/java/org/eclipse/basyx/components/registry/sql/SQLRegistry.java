@@ -73,14 +73,7 @@ public class SQLRegistry extends AASRegistry {
 	 * @throws ServletException
 	 */
 	private static final SQLRootElement initSQLConnection(BaSyxSQLConfiguration config) {
-		// SQL parameter
-		String path = config.getPath();
-		String user = config.getUser();
-		String pass = config.getPass();
-		String qryPfx = config.getPrefix();
-		String qDrvCls = config.getDriver();
-
 		// Create SQL driver instance
-		return new SQLRootElement(user, pass, path, qDrvCls, qryPfx, TABLE_ID);
+		return new SQLRootElement(config, TABLE_ID);
 	}
 }
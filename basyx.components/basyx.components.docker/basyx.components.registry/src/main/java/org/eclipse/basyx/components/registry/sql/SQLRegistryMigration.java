@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright (C) 2022 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.components.registry.sql;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import org.eclipse.basyx.aas.metamodel.map.descriptor.AASDescriptor;
+import org.eclipse.basyx.components.configuration.BaSyxSQLConfiguration;
+import org.eclipse.basyx.tools.sqlproxy.SQLRootElement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Copies the descriptors of an {@link SQLRegistry} into the tables of the
+ * {@link RelationalSQLRegistry} in the same database. Descriptors that already
+ * exist in the target tables are replaced, so the migration can be repeated.
+ * 
+ * Can be run as an executable. The database is configured as for the registry
+ * component, i.e. by the file referenced by BASYX_SQL, sql.properties or
+ * environment variables. With the argument "--drop", the tables of the
+ * SQLRegistry are removed after the migration.
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class SQLRegistryMigration {
+	private static Logger logger = LoggerFactory.getLogger(SQLRegistryMigration.class);
+
+	public static final String DROP_ARGUMENT = "--drop";
+
+	private final SQLRootElement legacyRoot;
+	private final RelationalSQLRegistryHandler target;
+
+	public SQLRegistryMigration(BaSyxSQLConfiguration config) {
+		this.legacyRoot = new SQLRootElement(config, SQLRegistry.TABLE_ID);
+		this.target = new RelationalSQLRegistryHandler(config);
+	}
+
+	/**
+	 * Copies all descriptors
+	 * 
+	 * @param dropLegacyTables
+	 *            if true, the tables of the SQLRegistry are removed afterwards
+	 * @return the number of migrated descriptors
+	 */
+	public int migrate(boolean dropLegacyTables) {
+		legacyRoot.createRootTableIfNotExists();
+		Map<String, AASDescriptor> legacyDescriptors = new AASDescriptorMap(legacyRoot.retrieveRootMap());
+
+		int migrated = 0;
+		for (Map.Entry<String, AASDescriptor> entry : legacyDescriptors.entrySet()) {
+			AASDescriptor descriptor = entry.getValue();
+			if (!entry.getKey().equals(descriptor.getIdentifier().getId())) {
+				// Descriptors are additionally stored by their asset id
+				continue;
+			}
+			target.update(descriptor);
+			migrated++;
+			logger.debug("Migrated descriptor of AAS '{}'", descriptor.getIdentifier().getId());
+		}
+		logger.info("Migrated {} descriptors to the relational SQL registry", migrated);
+
+		if (dropLegacyTables) {
+			legacyRoot.drop();
+			logger.info("Dropped the tables of the SQL registry");
+		}
+		return migrated;
+	}
+
+	public static void main(String[] args) {
+		BaSyxSQLConfiguration config = new BaSyxSQLConfiguration();
+		config.loadFromDefaultSource();
+		new SQLRegistryMigration(config).migrate(Arrays.asList(args).contains(DROP_ARGUMENT));
+	}
+}
@@ -0,0 +1,162 @@
+/*******************************************************************************
+ * Copyright (C) 2022 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.regression.registry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.basyx.aas.metamodel.api.parts.asset.AssetKind;
+import org.eclipse.basyx.aas.metamodel.map.descriptor.AASDescriptor;
+import org.eclipse.basyx.aas.metamodel.map.descriptor.ModelUrn;
+import org.eclipse.basyx.aas.metamodel.map.descriptor.SubmodelDescriptor;
+import org.eclipse.basyx.aas.metamodel.map.parts.Asset;
+import org.eclipse.basyx.aas.registration.api.IAASRegistry;
+import org.eclipse.basyx.components.configuration.BaSyxSQLConfiguration;
+import org.eclipse.basyx.components.registry.sql.RelationalSQLRegistry;
+import org.eclipse.basyx.components.registry.sql.RelationalSQLRegistryHandler;
+import org.eclipse.basyx.components.registry.sql.SQLRegistry;
+import org.eclipse.basyx.tools.sqlproxy.SQLRootElement;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compares the throughput of the SQLRegistry and the RelationalSQLRegistry for
+ * registering descriptors, looking up single AAS and submodel descriptors and
+ * looking up all descriptors. Both registries use the database of
+ * sql.properties, or of the configuration file that is given by the BASYX_SQL
+ * system property or environment variable. This test is ignored by default, as
+ * it needs the database and only reports its results to the log.
+ * 
+ * E.g. an in-memory H2 database (H2 is a dependency of basyx.components.lib)
+ * is configured by:
+ * 
+ * <pre>
+ * dbuser=sa
+ * dbpass=
+ * dburl=mem:registrybenchmark;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;INIT=CREATE DOMAIN IF NOT EXISTS TEXT AS VARCHAR
+ * sqlDriver=org.h2.Driver
+ * sqlPrefix=jdbc:h2:
+ * </pre>
+ * 
+ * The TEXT domain lets the SQL proxy columns of the SQLRegistry be read as
+ * strings, H2 would return them as CLOBs otherwise.
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+@Ignore
+public class SQLRegistryThroughputBenchmark {
+	private static Logger logger = LoggerFactory.getLogger(SQLRegistryThroughputBenchmark.class);
+
+	private static final int DESCRIPTORS = 100;
+	private static final int SUBMODELS_PER_DESCRIPTOR = 5;
+	private static final int LOOKUPS = 500;
+	private static final int LOOKUP_ALL_RUNS = 5;
+
+	private BaSyxSQLConfiguration config;
+	private List<AASDescriptor> descriptors = new ArrayList<>();
+
+	@Before
+	public void setUp() {
+		config = new BaSyxSQLConfiguration();
+		config.loadFileOrDefaultResource(BaSyxSQLConfiguration.DEFAULT_FILE_KEY, "sql.properties");
+		cleanUp();
+		for (int i = 0; i < DESCRIPTORS; i++) {
+			descriptors.add(createDescriptor(i));
+		}
+	}
+
+	@After
+	public void tearDown() {
+		cleanUp();
+	}
+
+	private void cleanUp() {
+		new SQLRootElement(config, SQLRegistry.TABLE_ID).drop();
+		new RelationalSQLRegistryHandler(config).drop();
+	}
+
+	@Test
+	public void compareThroughput() {
+		measure("SQLRegistry", new SQLRegistry(config));
+		measure("RelationalSQLRegistry", new RelationalSQLRegistry(config));
+	}
+
+	private void measure(String name, IAASRegistry registry) {
+		long start = System.nanoTime();
+		for (AASDescriptor descriptor : descriptors) {
+			registry.register(descriptor);
+		}
+		double register = getThroughput(DESCRIPTORS, start);
+
+		start = System.nanoTime();
+		for (int i = 0; i < LOOKUPS; i++) {
+			registry.lookupAAS(descriptors.get(i % DESCRIPTORS).getIdentifier());
+		}
+		double lookupAAS = getThroughput(LOOKUPS, start);
+
+		start = System.nanoTime();
+		for (int i = 0; i < LOOKUPS; i++) {
+			AASDescriptor descriptor = descriptors.get(i % DESCRIPTORS);
+			registry.lookupSubmodel(descriptor.getIdentifier(), createSubmodelId(i % DESCRIPTORS, i % SUBMODELS_PER_DESCRIPTOR));
+		}
+		double lookupSubmodel = getThroughput(LOOKUPS, start);
+
+		start = System.nanoTime();
+		for (int i = 0; i < LOOKUP_ALL_RUNS; i++) {
+			registry.lookupAll();
+		}
+		double lookupAll = getThroughput(LOOKUP_ALL_RUNS, start);
+
+		logger.info("{}: register {} ops/s, lookupAAS {} ops/s, lookupSubmodel {} ops/s, lookupAll of {} descriptors {} ops/s", name, format(register), format(lookupAAS), format(lookupSubmodel), DESCRIPTORS, format(lookupAll));
+	}
+
+	private static AASDescriptor createDescriptor(int index) {
+		ModelUrn aasId = new ModelUrn("urn:de.FHG:devices.es.iese:aas:1.0:1:benchmarkAAS" + index + "#001");
+		ModelUrn assetId = new ModelUrn("urn:de.FHG:devices.es.iese:asset:1.0:1:benchmarkAsset" + index + "#001");
+		String endpoint = "http://localhost:8080/aas" + index + "/aas";
+		AASDescriptor descriptor = new AASDescriptor("benchmarkAAS" + index, aasId, new Asset("benchmarkAsset" + index, assetId, AssetKind.INSTANCE), endpoint);
+		for (int i = 0; i < SUBMODELS_PER_DESCRIPTOR; i++) {
+			descriptor.addSubmodelDescriptor(new SubmodelDescriptor("benchmarkSM" + i, createSubmodelId(index, i), endpoint + "/submodels/benchmarkSM" + i + "/submodel"));
+		}
+		return descriptor;
+	}
+
+	private static ModelUrn createSubmodelId(int descriptor, int submodel) {
+		return new ModelUrn("urn:de.FHG:devices.es.iese:sm:1.0:1:benchmarkSM" + descriptor + "_" + submodel + "#001");
+	}
+
+	private static double getThroughput(int operations, long start) {
+		return operations / ((System.nanoTime() - start) / 1e9);
+	}
+
+	private static String format(double throughput) {
+		return String.format("%.1f", throughput);
+	}
+}
@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (C) 2022 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.regression.registry;
+
+import org.eclipse.basyx.aas.metamodel.map.descriptor.AASDescriptor;
+import org.eclipse.basyx.aas.registration.api.IAASRegistry;
+import org.eclipse.basyx.components.configuration.BaSyxSQLConfiguration;
+import org.eclipse.basyx.components.registry.sql.RelationalSQLRegistry;
+import org.eclipse.basyx.components.registry.sql.RelationalSQLRegistryHandler;
+import org.eclipse.basyx.testsuite.regression.aas.registration.TestRegistryProviderSuite;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Test class for a local registry provider based on fixed SQL tables
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class TestRelationalSQLRegistryProvider extends TestRegistryProviderSuite {
+
+	@BeforeClass
+	public static void setUpClass() {
+		getHandler().drop();
+	}
+
+	@AfterClass
+	public static void tearDownClass() {
+		getHandler().drop();
+	}
+
+	protected static BaSyxSQLConfiguration getSQLConfiguration() {
+		BaSyxSQLConfiguration sqlConfig = new BaSyxSQLConfiguration();
+		sqlConfig.loadFromResource("sql.properties");
+		return sqlConfig;
+	}
+
+	protected static RelationalSQLRegistryHandler getHandler() {
+		return new RelationalSQLRegistryHandler(getSQLConfiguration());
+	}
+
+	@Override
+	protected IAASRegistry getRegistryService() {
+		return new RelationalSQLRegistry(getSQLConfiguration());
+	}
+
+	/**
+	 * Tests, if the data has been persisted by creating a new registry with the
+	 * same settings
+	 */
+	@Test
+	public void testPersistency() {
+		// Create new registry with same configuration
+		IAASRegistry registry = new RelationalSQLRegistry(getSQLConfiguration());
+
+		// Try to "overwrite" data
+		AASDescriptor aasDesc2 = new AASDescriptor(aasIdShort2, aasId2, asset2, aasEndpoint2);
+		proxy.register(aasDesc2);
+
+		// Retrieve and check the first AAS
+		AASDescriptor descriptor = registry.lookupAAS(aasId1);
+		super.validateDescriptor1(descriptor);
+
+		// Retrieve and check the second AAS
+		AASDescriptor descriptor2 = registry.lookupAAS(aasId2);
+		super.validateDescriptor2(descriptor2);
+	}
+}
@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (C) 2022 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.regression.registry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.eclipse.basyx.aas.metamodel.api.parts.asset.AssetKind;
+import org.eclipse.basyx.aas.metamodel.map.descriptor.AASDescriptor;
+import org.eclipse.basyx.aas.metamodel.map.descriptor.ModelUrn;
+import org.eclipse.basyx.aas.metamodel.map.descriptor.SubmodelDescriptor;
+import org.eclipse.basyx.aas.metamodel.map.parts.Asset;
+import org.eclipse.basyx.aas.registration.api.IAASRegistry;
+import org.eclipse.basyx.components.configuration.BaSyxSQLConfiguration;
+import org.eclipse.basyx.components.registry.sql.RelationalSQLRegistry;
+import org.eclipse.basyx.components.registry.sql.SQLRegistry;
+import org.eclipse.basyx.components.registry.sql.SQLRegistryMigration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the migration of an SQLRegistry to the RelationalSQLRegistry
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class TestSQLRegistryMigration {
+	private static final ModelUrn AAS_ID_1 = new ModelUrn("urn:de.FHG:devices.es.iese:aas:1.0:1:migratedAAS1#001");
+	private static final ModelUrn AAS_ID_2 = new ModelUrn("urn:de.FHG:devices.es.iese:aas:1.0:1:migratedAAS2#001");
+	private static final ModelUrn ASSET_ID_1 = new ModelUrn("urn:de.FHG:devices.es.iese:asset:1.0:1:migratedAsset1#001");
+	private static final ModelUrn SM_ID = new ModelUrn("urn:de.FHG:devices.es.iese:sm:1.0:1:migratedSM#001");
+
+	private BaSyxSQLConfiguration config;
+
+	@Before
+	public void setUp() {
+		config = new BaSyxSQLConfiguration();
+		config.loadFromResource("sql.properties");
+		cleanUp();
+	}
+
+	@After
+	public void tearDown() {
+		cleanUp();
+	}
+
+	private void cleanUp() {
+		TestSQLRegistryProvider.getSQLRootElement().drop();
+		TestRelationalSQLRegistryProvider.getHandler().drop();
+	}
+
+	@Test
+	public void descriptorsAreMigrated() {
+		IAASRegistry legacyRegistry = new SQLRegistry(config);
+		AASDescriptor descriptor1 = new AASDescriptor("migratedAAS1", AAS_ID_1, new Asset("migratedAsset1", ASSET_ID_1, AssetKind.INSTANCE), "http://localhost:8080/aas1/aas");
+		descriptor1.addSubmodelDescriptor(new SubmodelDescriptor("migratedSM", SM_ID, "http://localhost:8080/aas1/aas/submodels/migratedSM/submodel"));
+		legacyRegistry.register(descriptor1);
+		legacyRegistry.register(new AASDescriptor("migratedAAS2", AAS_ID_2, "http://localhost:8080/aas2/aas"));
+
+		assertEquals(2, new SQLRegistryMigration(config).migrate(false));
+
+		IAASRegistry registry = new RelationalSQLRegistry(config);
+		assertEquals(2, registry.lookupAll().size());
+		AASDescriptor migrated = registry.lookupAAS(ASSET_ID_1);
+		assertEquals("migratedAAS1", migrated.getIdShort());
+		assertEquals("http://localhost:8080/aas1/aas", migrated.getFirstEndpoint());
+		assertEquals("migratedAsset1", migrated.getAsset().getIdShort());
+		SubmodelDescriptor submodel = registry.lookupSubmodel(AAS_ID_1, SM_ID);
+		assertEquals("migratedSM", submodel.getIdShort());
+		assertEquals("http://localhost:8080/aas1/aas/submodels/migratedSM/submodel", submodel.getFirstEndpoint());
+
+		// The legacy registry is left untouched
+		assertEquals(2, legacyRegistry.lookupAll().size());
+	}
+
+	@Test
+	public void migrationCanBeRepeated() {
+		new SQLRegistry(config).register(new AASDescriptor("migratedAAS2", AAS_ID_2, "http://localhost:8080/aas2/aas"));
+
+		SQLRegistryMigration migration = new SQLRegistryMigration(config);
+		migration.migrate(false);
+		assertEquals(1, migration.migrate(true));
+
+		List<AASDescriptor> descriptors = new RelationalSQLRegistry(config).lookupAll();
+		assertEquals(1, descriptors.size());
+		assertTrue(new SQLRegistry(config).lookupAll().isEmpty());
+	}
+}
@@ -43,12 +43,52 @@ public class BaSyxMongoDBConfiguration extends BaSyxConfiguration {
 	public static final String DEFAULT_REGISTRY_COLLECTION = "basyxregistry";
 	public static final String DEFAULT_AAS_COLLECTION = "basyxaas";
 	public static final String DEFAULT_SUBMODEL_COLLECTION = "basyxsubmodel";
+	public static final String DEFAULT_PARTIAL_UPDATES = "false";
+	// Empty connection pool settings fall back to the connection string and the
+	// driver defaults
+	public static final String DEFAULT_POOL_MAX_SIZE = "";
+	public static final String DEFAULT_POOL_MIN_SIZE = "";
+	public static final String DEFAULT_POOL_MAX_WAIT_TIME = "";
+	public static final String DEFAULT_CONNECT_TIMEOUT = "";
+	public static final String DEFAULT_SOCKET_TIMEOUT = "";
+	public static final String DEFAULT_SERVER_SELECTION_TIMEOUT = "";
+	public static final String DEFAULT_READ_CONCERN = "";
+	public static final String DEFAULT_WRITE_CONCERN = "";
+	public static final String DEFAULT_LAZY_PROVIDERS = "false";
+	public static final String DEFAULT_PROVIDER_CACHE_SIZE = "1000";
+	public static final String DEFAULT_PROVIDER_CACHE_EXPIRY = "0";
+	public static final String DEFAULT_INDEX_MODE = MongoDBIndexMode.CREATE.toString();
+	public static final String DEFAULT_UNIQUE_INDEXES = "false";
+	public static final String DEFAULT_WRITE_RETRIES = "10";
+	public static final String DEFAULT_WRITE_RETRY_BACKOFF = "5";
+	public static final String DEFAULT_WRITE_BEHIND = "false";
+	public static final String DEFAULT_WRITE_BEHIND_MAX_SIZE = "1000";
+	public static final String DEFAULT_WRITE_BEHIND_INTERVAL = "1000";
 
 	public static final String DATABASE = "dbname";
 	public static final String CONNECTIONURL = "dbconnectionstring";
 	public static final String REGISTRY_COLLECTION = "dbcollectionRegistry";
 	public static final String AAS_COLLECTION = "dbcollectionAAS";
 	public static final String SUBMODEL_COLLECTION = "dbcollectionSubmodels";
+	public static final String PARTIAL_UPDATES = "dbpartialUpdates";
+	public static final String POOL_MAX_SIZE = "dbpoolMaxSize";
+	public static final String POOL_MIN_SIZE = "dbpoolMinSize";
+	public static final String POOL_MAX_WAIT_TIME = "dbpoolMaxWaitTime";
+	public static final String CONNECT_TIMEOUT = "dbconnectTimeout";
+	public static final String SOCKET_TIMEOUT = "dbsocketTimeout";
+	public static final String SERVER_SELECTION_TIMEOUT = "dbserverSelectionTimeout";
+	public static final String READ_CONCERN = "dbreadConcern";
+	public static final String WRITE_CONCERN = "dbwriteConcern";
+	public static final String LAZY_PROVIDERS = "dblazyProviders";
+	public static final String PROVIDER_CACHE_SIZE = "dbproviderCacheSize";
+	public static final String PROVIDER_CACHE_EXPIRY = "dbproviderCacheExpiry";
+	public static final String INDEX_MODE = "dbindexMode";
+	public static final String UNIQUE_INDEXES = "dbuniqueIndexes";
+	public static final String WRITE_RETRIES = "dbwriteRetries";
+	public static final String WRITE_RETRY_BACKOFF = "dbwriteRetryBackoff";
+	public static final String WRITE_BEHIND = "dbwriteBehind";
+	public static final String WRITE_BEHIND_MAX_SIZE = "dbwriteBehindMaxSize";
+	public static final String WRITE_BEHIND_INTERVAL = "dbwriteBehindInterval";
 
 	// The default path for the context properties file
 	public static final String DEFAULT_CONFIG_PATH = "mongodb.properties";
@@ -63,6 +103,25 @@ public class BaSyxMongoDBConfiguration extends BaSyxConfiguration {
 		defaultProps.put(REGISTRY_COLLECTION, DEFAULT_REGISTRY_COLLECTION);
 		defaultProps.put(AAS_COLLECTION, DEFAULT_AAS_COLLECTION);
 		defaultProps.put(SUBMODEL_COLLECTION, DEFAULT_SUBMODEL_COLLECTION);
+		defaultProps.put(PARTIAL_UPDATES, DEFAULT_PARTIAL_UPDATES);
+		defaultProps.put(POOL_MAX_SIZE, DEFAULT_POOL_MAX_SIZE);
+		defaultProps.put(POOL_MIN_SIZE, DEFAULT_POOL_MIN_SIZE);
+		defaultProps.put(POOL_MAX_WAIT_TIME, DEFAULT_POOL_MAX_WAIT_TIME);
+		defaultProps.put(CONNECT_TIMEOUT, DEFAULT_CONNECT_TIMEOUT);
+		defaultProps.put(SOCKET_TIMEOUT, DEFAULT_SOCKET_TIMEOUT);
+		defaultProps.put(SERVER_SELECTION_TIMEOUT, DEFAULT_SERVER_SELECTION_TIMEOUT);
+		defaultProps.put(READ_CONCERN, DEFAULT_READ_CONCERN);
+		defaultProps.put(WRITE_CONCERN, DEFAULT_WRITE_CONCERN);
+		defaultProps.put(LAZY_PROVIDERS, DEFAULT_LAZY_PROVIDERS);
+		defaultProps.put(PROVIDER_CACHE_SIZE, DEFAULT_PROVIDER_CACHE_SIZE);
+		defaultProps.put(PROVIDER_CACHE_EXPIRY, DEFAULT_PROVIDER_CACHE_EXPIRY);
+		defaultProps.put(INDEX_MODE, DEFAULT_INDEX_MODE);
+		defaultProps.put(UNIQUE_INDEXES, DEFAULT_UNIQUE_INDEXES);
+		defaultProps.put(WRITE_RETRIES, DEFAULT_WRITE_RETRIES);
+		defaultProps.put(WRITE_RETRY_BACKOFF, DEFAULT_WRITE_RETRY_BACKOFF);
+		defaultProps.put(WRITE_BEHIND, DEFAULT_WRITE_BEHIND);
+		defaultProps.put(WRITE_BEHIND_MAX_SIZE, DEFAULT_WRITE_BEHIND_MAX_SIZE);
+		defaultProps.put(WRITE_BEHIND_INTERVAL, DEFAULT_WRITE_BEHIND_INTERVAL);
 
 		return defaultProps;
 	}
@@ -142,7 +201,7 @@ public class BaSyxMongoDBConfiguration extends BaSyxConfiguration {
 	}
 
 	public void loadFromEnvironmentVariables() {
-		String[] properties = { DATABASE, CONNECTIONURL, REGISTRY_COLLECTION, AAS_COLLECTION, SUBMODEL_COLLECTION };
+		String[] properties = { DATABASE, CONNECTIONURL, REGISTRY_COLLECTION, AAS_COLLECTION, SUBMODEL_COLLECTION, PARTIAL_UPDATES, POOL_MAX_SIZE, POOL_MIN_SIZE, POOL_MAX_WAIT_TIME, CONNECT_TIMEOUT, SOCKET_TIMEOUT, SERVER_SELECTION_TIMEOUT, READ_CONCERN, WRITE_CONCERN, LAZY_PROVIDERS, PROVIDER_CACHE_SIZE, PROVIDER_CACHE_EXPIRY, INDEX_MODE, UNIQUE_INDEXES, WRITE_RETRIES, WRITE_RETRY_BACKOFF, WRITE_BEHIND, WRITE_BEHIND_MAX_SIZE, WRITE_BEHIND_INTERVAL };
 		loadFromEnvironmentVariables(ENV_PREFIX, properties);
 	}
 
@@ -190,4 +249,251 @@ public class BaSyxMongoDBConfiguration extends BaSyxConfiguration {
 	public void setSubmodelCollection(String submodelCollection) {
 		setProperty(SUBMODEL_COLLECTION, submodelCollection);
 	}
+
+	/**
+	 * Returns true, if submodel elements are written to the database with
+	 * field-level updates instead of replacing the whole submodel document
+	 */
+	public boolean isPartialUpdatesEnabled() {
+		return "true".equals(getProperty(PARTIAL_UPDATES));
+	}
+
+	public void setPartialUpdatesEnabled(boolean enabled) {
+		setProperty(PARTIAL_UPDATES, Boolean.toString(enabled));
+	}
+
+	/**
+	 * Returns the maximum number of pooled connections per server or null, if it
+	 * is not configured
+	 */
+	public Integer getPoolMaxSize() {
+		return getIntegerProperty(POOL_MAX_SIZE);
+	}
+
+	public void setPoolMaxSize(int maxSize) {
+		setProperty(POOL_MAX_SIZE, Integer.toString(maxSize));
+	}
+
+	/**
+	 * Returns the minimum number of pooled connections per server or null, if it
+	 * is not configured
+	 */
+	public Integer getPoolMinSize() {
+		return getIntegerProperty(POOL_MIN_SIZE);
+	}
+
+	public void setPoolMinSize(int minSize) {
+		setProperty(POOL_MIN_SIZE, Integer.toString(minSize));
+	}
+
+	/**
+	 * Returns the maximum time in milliseconds a thread waits for a pooled
+	 * connection or null, if it is not configured
+	 */
+	public Integer getPoolMaxWaitTime() {
+		return getIntegerProperty(POOL_MAX_WAIT_TIME);
+	}
+
+	public void setPoolMaxWaitTime(int millis) {
+		setProperty(POOL_MAX_WAIT_TIME, Integer.toString(millis));
+	}
+
+	/**
+	 * Returns the connect timeout in milliseconds or null, if it is not
+	 * configured
+	 */
+	public Integer getConnectTimeout() {
+		return getIntegerProperty(CONNECT_TIMEOUT);
+	}
+
+	public void setConnectTimeout(int millis) {
+		setProperty(CONNECT_TIMEOUT, Integer.toString(millis));
+	}
+
+	/**
+	 * Returns the socket read timeout in milliseconds or null, if it is not
+	 * configured
+	 */
+	public Integer getSocketTimeout() {
+		return getIntegerProperty(SOCKET_TIMEOUT);
+	}
+
+	public void setSocketTimeout(int millis) {
+		setProperty(SOCKET_TIMEOUT, Integer.toString(millis));
+	}
+
+	/**
+	 * Returns the server selection timeout in milliseconds or null, if it is not
+	 * configured
+	 */
+	public Integer getServerSelectionTimeout() {
+		return getIntegerProperty(SERVER_SELECTION_TIMEOUT);
+	}
+
+	public void setServerSelectionTimeout(int millis) {
+		setProperty(SERVER_SELECTION_TIMEOUT, Integer.toString(millis));
+	}
+
+	/**
+	 * Returns the read concern level (e.g. "local" or "majority") or null, if it
+	 * is not configured
+	 */
+	public String getReadConcern() {
+		return getOptionalProperty(READ_CONCERN);
+	}
+
+	public void setReadConcern(String readConcern) {
+		setProperty(READ_CONCERN, readConcern);
+	}
+
+	/**
+	 * Returns the write concern (e.g. "majority", "w1" or "acknowledged") or
+	 * null, if it is not configured
+	 */
+	public String getWriteConcern() {
+		return getOptionalProperty(WRITE_CONCERN);
+	}
+
+	public void setWriteConcern(String writeConcern) {
+		setProperty(WRITE_CONCERN, writeConcern);
+	}
+
+	/**
+	 * Returns true, if the AAS aggregator creates the providers of an AAS on first
+	 * access instead of creating the providers for all AAS on startup
+	 */
+	public boolean isLazyProvidersEnabled() {
+		return "true".equals(getProperty(LAZY_PROVIDERS));
+	}
+
+	public void setLazyProvidersEnabled(boolean enabled) {
+		setProperty(LAZY_PROVIDERS, Boolean.toString(enabled));
+	}
+
+	/**
+	 * Returns the maximum number of AAS providers that are kept if lazy providers
+	 * are enabled. Values &lt;= 0 disable the limit.
+	 */
+	public int getProviderCacheSize() {
+		return Integer.parseInt(getProperty(PROVIDER_CACHE_SIZE));
+	}
+
+	public void setProviderCacheSize(int size) {
+		setProperty(PROVIDER_CACHE_SIZE, Integer.toString(size));
+	}
+
+	/**
+	 * Returns the time in milliseconds after which an unused AAS provider is
+	 * evicted if lazy providers are enabled. Values &lt;= 0 disable the expiry.
+	 */
+	public long getProviderCacheExpiry() {
+		return Long.parseLong(getProperty(PROVIDER_CACHE_EXPIRY));
+	}
+
+	public void setProviderCacheExpiry(long millis) {
+		setProperty(PROVIDER_CACHE_EXPIRY, Long.toString(millis));
+	}
+
+	/**
+	 * Returns how the components handle their indexes on startup. Missing indexes
+	 * are either created or only reported.
+	 */
+	public MongoDBIndexMode getIndexMode() {
+		return MongoDBIndexMode.fromString(getProperty(INDEX_MODE));
+	}
+
+	public void setIndexMode(MongoDBIndexMode mode) {
+		setProperty(INDEX_MODE, mode.toString());
+	}
+
+	/**
+	 * Returns true, if indexes on identifiers are created with a unique constraint.
+	 * Disabled by default. If enabled, the startup fails, if the constraint can not
+	 * be created. For an existing database, remove the duplicate identifiers and
+	 * drop the existing non-unique index on the identifier before enabling it,
+	 * since existing indexes are not replaced.
+	 */
+	public boolean isUniqueIndexesEnabled() {
+		return "true".equals(getProperty(UNIQUE_INDEXES));
+	}
+
+	public void setUniqueIndexesEnabled(boolean enabled) {
+		setProperty(UNIQUE_INDEXES, Boolean.toString(enabled));
+	}
+
+	/**
+	 * Returns how often a write to a submodel is retried, if the submodel has been
+	 * modified concurrently
+	 */
+	public int getWriteRetries() {
+		return Integer.parseInt(getProperty(WRITE_RETRIES));
+	}
+
+	public void setWriteRetries(int retries) {
+		setProperty(WRITE_RETRIES, Integer.toString(retries));
+	}
+
+	/**
+	 * Returns the initial backoff in milliseconds before a conflicting write is
+	 * retried. The backoff doubles with each retry.
+	 */
+	public long getWriteRetryBackoff() {
+		return Long.parseLong(getProperty(WRITE_RETRY_BACKOFF));
+	}
+
+	public void setWriteRetryBackoff(long millis) {
+		setProperty(WRITE_RETRY_BACKOFF, Long.toString(millis));
+	}
+
+	/**
+	 * Returns true, if property value updates are collected in a buffer and
+	 * written to the database in bulk instead of one write per update
+	 */
+	public boolean isWriteBehindEnabled() {
+		return "true".equals(getProperty(WRITE_BEHIND));
+	}
+
+	public void setWriteBehindEnabled(boolean enabled) {
+		setProperty(WRITE_BEHIND, Boolean.toString(enabled));
+	}
+
+	/**
+	 * Returns the number of pending property values at which the write-behind
+	 * buffer is flushed
+	 */
+	public int getWriteBehindMaxSize() {
+		return Integer.parseInt(getProperty(WRITE_BEHIND_MAX_SIZE));
+	}
+
+	public void setWriteBehindMaxSize(int size) {
+		setProperty(WRITE_BEHIND_MAX_SIZE, Integer.toString(size));
+	}
+
+	/**
+	 * Returns the interval in milliseconds in which the write-behind buffer is
+	 * flushed
+	 */
+	public long getWriteBehindInterval() {
+		return Long.parseLong(getProperty(WRITE_BEHIND_INTERVAL));
+	}
+
+	public void setWriteBehindInterval(long millis) {
+		setProperty(WRITE_BEHIND_INTERVAL, Long.toString(millis));
+	}
+
+	private Integer getIntegerProperty(String name) {
+		String value = getOptionalProperty(name);
+		if (value == null) {
+			return null;
+		}
+		return Integer.parseInt(value);
+	}
+
+	private String getOptionalProperty(String name) {
+		String value = getProperty(name);
+		if (value == null || value.trim().isEmpty()) {
+			return null;
+		}
+		return value.trim();
+	}
 }
@@ -43,12 +43,21 @@ public class BaSyxSQLConfiguration extends BaSyxConfiguration {
 	public static final String DEFAULT_PATH = "//localhost/basyx-directory?";
 	public static final String DEFAULT_DRV = "org.postgresql.Driver";
 	public static final String DEFAULT_PREFIX = "jdbc:postgresql:";
+	public static final String DEFAULT_POOL_MAX_SIZE = "5";
+	// Empty connection pool settings fall back to the pool defaults
+	public static final String DEFAULT_POOL_MIN_IDLE = "";
+	public static final String DEFAULT_POOL_CONNECTION_TIMEOUT = "";
+	public static final String DEFAULT_FETCH_SIZE = "";
 
 	public static final String USER = "dbuser";
 	public static final String PASS = "dbpass";
 	public static final String PATH = "dburl";
 	public static final String DRIVER = "sqlDriver";
 	public static final String PREFIX = "sqlPrefix";
+	public static final String POOL_MAX_SIZE = "dbpoolMaxSize";
+	public static final String POOL_MIN_IDLE = "dbpoolMinIdle";
+	public static final String POOL_CONNECTION_TIMEOUT = "dbpoolConnectionTimeout";
+	public static final String FETCH_SIZE = "dbfetchSize";
 
 	// The default path for the context properties file
 	public static final String DEFAULT_CONFIG_PATH = "sql.properties";
@@ -63,6 +72,10 @@ public class BaSyxSQLConfiguration extends BaSyxConfiguration {
 		defaultProps.put(PATH, DEFAULT_PATH);
 		defaultProps.put(DRIVER, DEFAULT_DRV);
 		defaultProps.put(PREFIX, DEFAULT_PREFIX);
+		defaultProps.put(POOL_MAX_SIZE, DEFAULT_POOL_MAX_SIZE);
+		defaultProps.put(POOL_MIN_IDLE, DEFAULT_POOL_MIN_IDLE);
+		defaultProps.put(POOL_CONNECTION_TIMEOUT, DEFAULT_POOL_CONNECTION_TIMEOUT);
+		defaultProps.put(FETCH_SIZE, DEFAULT_FETCH_SIZE);
 
 		return defaultProps;
 	}
@@ -105,7 +118,7 @@ public class BaSyxSQLConfiguration extends BaSyxConfiguration {
 	}
 
 	public void loadFromEnvironmentVariables() {
-		String[] properties = { USER, PASS, PATH, DRIVER, PREFIX };
+		String[] properties = { USER, PASS, PATH, DRIVER, PREFIX, POOL_MAX_SIZE, POOL_MIN_IDLE, POOL_CONNECTION_TIMEOUT, FETCH_SIZE };
 		loadFromEnvironmentVariables(ENV_PREFIX, properties);
 	}
 
@@ -153,4 +166,65 @@ public class BaSyxSQLConfiguration extends BaSyxConfiguration {
 	public void setPrefix(String prefix) {
 		setProperty(PREFIX, prefix);
 	}
+
+	/**
+	 * Returns the maximum number of pooled connections, i.e. the maximum number of
+	 * concurrent database operations
+	 */
+	public int getPoolMaxSize() {
+		String value = getOptionalProperty(POOL_MAX_SIZE);
+		return Integer.parseInt(value == null ? DEFAULT_POOL_MAX_SIZE : value);
+	}
+
+	public void setPoolMaxSize(int size) {
+		setProperty(POOL_MAX_SIZE, Integer.toString(size));
+	}
+
+	/**
+	 * Returns the minimum number of idle connections kept in the pool or null, if
+	 * the pool default (equal to the maximum pool size) is used
+	 */
+	public Integer getPoolMinIdle() {
+		String value = getOptionalProperty(POOL_MIN_IDLE);
+		return value == null ? null : Integer.parseInt(value);
+	}
+
+	public void setPoolMinIdle(int minIdle) {
+		setProperty(POOL_MIN_IDLE, Integer.toString(minIdle));
+	}
+
+	/**
+	 * Returns the maximum time in milliseconds an operation waits for a pooled
+	 * connection or null, if the pool default is used
+	 */
+	public Long getPoolConnectionTimeout() {
+		String value = getOptionalProperty(POOL_CONNECTION_TIMEOUT);
+		return value == null ? null : Long.parseLong(value);
+	}
+
+	public void setPoolConnectionTimeout(long millis) {
+		setProperty(POOL_CONNECTION_TIMEOUT, Long.toString(millis));
+	}
+
+	/**
+	 * Returns the number of rows that queries fetch at once while their results
+	 * are processed or null, if the JDBC driver default is used. For PostgreSQL,
+	 * the default is to fetch all rows at once.
+	 */
+	public Integer getFetchSize() {
+		String value = getOptionalProperty(FETCH_SIZE);
+		return value == null ? null : Integer.parseInt(value);
+	}
+
+	public void setFetchSize(int fetchSize) {
+		setProperty(FETCH_SIZE, Integer.toString(fetchSize));
+	}
+
+	private String getOptionalProperty(String name) {
+		String value = getProperty(name);
+		if (value == null || value.trim().isEmpty()) {
+			return null;
+		}
+		return value.trim();
+	}
 }
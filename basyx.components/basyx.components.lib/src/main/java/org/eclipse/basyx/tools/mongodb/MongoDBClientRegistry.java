@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.tools.mongodb;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.basyx.components.configuration.BaSyxMongoDBConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.ReadConcern;
+import com.mongodb.ReadConcernLevel;
+import com.mongodb.WriteConcern;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+
+/**
+ * Shares pooled MongoDB clients between all backend components that connect to
+ * the same MongoDB. A MongoClient is thread-safe and maintains its own
+ * connection pool, so creating one client per component (or per submodel)
+ * only multiplies connections and monitoring threads.<br>
+ * <br>
+ * Clients are kept per connection URL. The pool, timeout and concern settings
+ * of the first configuration that requests a connection URL are applied to its
+ * client.
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class MongoDBClientRegistry {
+	private static Logger logger = LoggerFactory.getLogger(MongoDBClientRegistry.class);
+
+	private static final Map<String, MongoClient> clients = new ConcurrentHashMap<>();
+
+	private MongoDBClientRegistry() {
+	}
+
+	/**
+	 * Returns the shared client for the connection URL of the configuration. The
+	 * client is created on first access.
+	 * 
+	 * @param config
+	 *            the MongoDB configuration
+	 * @return the shared client
+	 */
+	public static MongoClient getClient(BaSyxMongoDBConfiguration config) {
+		return clients.computeIfAbsent(config.getConnectionUrl(), url -> createClient(config));
+	}
+
+	/**
+	 * Closes and removes the shared client for the given connection URL. Components
+	 * that still hold the client can not use it afterwards.
+	 * 
+	 * @param connectionUrl
+	 *            the connection URL of the client
+	 */
+	public static void closeClient(String connectionUrl) {
+		MongoClient client = clients.remove(connectionUrl);
+		if (client != null) {
+			client.close();
+		}
+	}
+
+	/**
+	 * Closes and removes all shared clients, e.g. on shutdown
+	 */
+	public static void closeAll() {
+		for (String connectionUrl : clients.keySet()) {
+			closeClient(connectionUrl);
+		}
+	}
+
+	/**
+	 * Creates the client settings for a configuration. The options of the
+	 * connection URL are applied first, so that only explicitly configured values
+	 * override them.
+	 * 
+	 * @param config
+	 *            the MongoDB configuration
+	 * @return the client settings
+	 */
+	public static MongoClientSettings createSettings(BaSyxMongoDBConfiguration config) {
+		MongoClientSettings.Builder builder = MongoClientSettings.builder().applyConnectionString(new ConnectionString(config.getConnectionUrl()));
+
+		Integer maxSize = config.getPoolMaxSize();
+		Integer minSize = config.getPoolMinSize();
+		Integer maxWaitTime = config.getPoolMaxWaitTime();
+		builder.applyToConnectionPoolSettings(pool -> {
+			if (maxSize != null) {
+				pool.maxSize(maxSize);
+			}
+			if (minSize != null) {
+				pool.minSize(minSize);
+			}
+			if (maxWaitTime != null) {
+				pool.maxWaitTime(maxWaitTime, TimeUnit.MILLISECONDS);
+			}
+		});
+
+		Integer connectTimeout = config.getConnectTimeout();
+		Integer socketTimeout = config.getSocketTimeout();
+		builder.applyToSocketSettings(socket -> {
+			if (connectTimeout != null) {
+				socket.connectTimeout(connectTimeout, TimeUnit.MILLISECONDS);
+			}
+			if (socketTimeout != null) {
+				socket.readTimeout(socketTimeout, TimeUnit.MILLISECONDS);
+			}
+		});
+
+		Integer serverSelectionTimeout = config.getServerSelectionTimeout();
+		if (serverSelectionTimeout != null) {
+			builder.applyToClusterSettings(cluster -> cluster.serverSelectionTimeout(serverSelectionTimeout, TimeUnit.MILLISECONDS));
+		}
+
+		String readConcern = config.getReadConcern();
+		if (readConcern != null) {
+			builder.readConcern(new ReadConcern(ReadConcernLevel.fromString(readConcern)));
+		}
+
+		String writeConcern = config.getWriteConcern();
+		if (writeConcern != null) {
+			builder.writeConcern(getWriteConcern(writeConcern));
+		}
+
+		return builder.build();
+	}
+
+	private static MongoClient createClient(BaSyxMongoDBConfiguration config) {
+		MongoClientSettings settings = createSettings(config);
+		logger.info("Creating shared MongoDB client for hosts " + settings.getClusterSettings().getHosts());
+		return MongoClients.create(settings);
+	}
+
+	private static WriteConcern getWriteConcern(String writeConcern) {
+		// Numeric values are interpreted as the number of acknowledging nodes
+		if (writeConcern.chars().allMatch(Character::isDigit)) {
+			return new WriteConcern(Integer.parseInt(writeConcern));
+		}
+
+		WriteConcern concern = WriteConcern.valueOf(writeConcern);
+		if (concern == null) {
+			throw new IllegalArgumentException("Unknown write concern '" + writeConcern + "'");
+		}
+		return concern;
+	}
+}
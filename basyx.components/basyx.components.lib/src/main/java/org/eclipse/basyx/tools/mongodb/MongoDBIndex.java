@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.tools.mongodb;
+
+import org.bson.Document;
+
+/**
+ * An ascending single field index that a component requires for its queries
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class MongoDBIndex {
+	private final String field;
+	private final boolean unique;
+
+	private MongoDBIndex(String field, boolean unique) {
+		this.field = field;
+		this.unique = unique;
+	}
+
+	/**
+	 * Creates an index for lookups on a field
+	 */
+	public static MongoDBIndex ascending(String field) {
+		return new MongoDBIndex(field, false);
+	}
+
+	/**
+	 * Creates an index for lookups on a field, whose values have to be unique
+	 * within the collection
+	 */
+	public static MongoDBIndex unique(String field) {
+		return new MongoDBIndex(field, true);
+	}
+
+	public String getField() {
+		return field;
+	}
+
+	public boolean isUnique() {
+		return unique;
+	}
+
+	/**
+	 * Returns the key document for creating the index
+	 */
+	public Document getKeys() {
+		return new Document(field, 1);
+	}
+
+	@Override
+	public String toString() {
+		return field + (unique ? " (unique)" : "");
+	}
+}
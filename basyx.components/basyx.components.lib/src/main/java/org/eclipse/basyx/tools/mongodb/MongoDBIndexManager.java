@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.tools.mongodb;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+import org.eclipse.basyx.components.configuration.BaSyxMongoDBConfiguration;
+import org.eclipse.basyx.components.configuration.MongoDBIndexMode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.IndexOptions;
+
+/**
+ * Ensures that the indexes required by the queries of a component exist in its
+ * collection. Depending on the configured {@link MongoDBIndexMode}, missing
+ * indexes are created or only reported. Without these indexes, every lookup by
+ * identifier is a collection scan. Unique indexes are only created with a
+ * unique constraint, if this is enabled in the configuration. Then, a failure
+ * to create them is thrown.
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class MongoDBIndexManager {
+	private static Logger logger = LoggerFactory.getLogger(MongoDBIndexManager.class);
+
+	private final MongoDBIndexMode mode;
+	private final boolean uniqueIndexes;
+
+	public MongoDBIndexManager(BaSyxMongoDBConfiguration config) {
+		this(config.getIndexMode(), config.isUniqueIndexesEnabled());
+	}
+
+	public MongoDBIndexManager(MongoDBIndexMode mode, boolean uniqueIndexes) {
+		this.mode = mode == null ? MongoDBIndexMode.NONE : mode;
+		this.uniqueIndexes = uniqueIndexes;
+	}
+
+	/**
+	 * Checks the indexes of the collection and creates the missing ones, if
+	 * enabled. The result is logged as a report per collection.
+	 * 
+	 * @param collection
+	 *            the collection that is queried by the component
+	 * @param indexes
+	 *            the indexes that the component requires
+	 * @return the indexes that are still missing
+	 */
+	public List<MongoDBIndex> ensureIndexes(MongoCollection<Document> collection, MongoDBIndex... indexes) {
+		List<MongoDBIndex> missing = new ArrayList<>();
+		if (mode == MongoDBIndexMode.NONE) {
+			return missing;
+		}
+
+		String name = collection.getNamespace().getCollectionName();
+		Map<String, Boolean> existing = getExistingIndexes(collection);
+		int created = 0;
+		for (MongoDBIndex index : indexes) {
+			boolean unique = index.isUnique() && uniqueIndexes;
+			Boolean existingUnique = existing.get(index.getField());
+			if (existingUnique != null) {
+				if (unique && !existingUnique) {
+					logger.warn("Index on '{}' in collection '{}' exists, but is not unique", index.getField(), name);
+				}
+			} else if (mode == MongoDBIndexMode.CREATE && createIndex(collection, index, unique)) {
+				created++;
+			} else {
+				missing.add(index);
+			}
+		}
+
+		logger.info("Indexes of collection '{}': {} required, {} created, {} missing", name, indexes.length, created, missing.size());
+		if (!missing.isEmpty()) {
+			logger.warn("Missing indexes in collection '{}': {} - lookups on these fields scan the whole collection", name, missing);
+		}
+		return missing;
+	}
+
+	/**
+	 * Returns the indexed fields of all single field indexes and whether they are
+	 * unique
+	 */
+	private Map<String, Boolean> getExistingIndexes(MongoCollection<Document> collection) {
+		Map<String, Boolean> existing = new HashMap<>();
+		for (Document index : collection.listIndexes()) {
+			Document keys = index.get("key", Document.class);
+			if (keys != null && keys.size() == 1) {
+				existing.put(keys.keySet().iterator().next(), Boolean.TRUE.equals(index.getBoolean("unique")));
+			}
+		}
+		return existing;
+	}
+
+	/**
+	 * Creates the index. If a unique index can not be created, e.g. because of
+	 * duplicates, the startup fails instead of running without the constraint.
+	 */
+	private boolean createIndex(MongoCollection<Document> collection, MongoDBIndex index, boolean unique) {
+		String name = collection.getNamespace().getCollectionName();
+		try {
+			collection.createIndex(index.getKeys(), new IndexOptions().unique(unique));
+			logger.info("Created index on '{}' in collection '{}'", index.getField(), name);
+			return true;
+		} catch (MongoException e) {
+			if (unique) {
+				throw new IllegalStateException("Could not create unique index on '" + index.getField() + "' in collection '" + name + "'. Remove the duplicates or disable " + BaSyxMongoDBConfiguration.UNIQUE_INDEXES, e);
+			}
+			logger.error("Could not create index on '" + index.getField() + "' in collection '" + name + "'", e);
+			return false;
+		}
+	}
+}
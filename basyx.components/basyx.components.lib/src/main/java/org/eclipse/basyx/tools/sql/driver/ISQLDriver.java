@@ -25,6 +25,10 @@
 package org.eclipse.basyx.tools.sql.driver;
 
 import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import org.slf4j.LoggerFactory;
 
 /**
  * Database access interface
@@ -43,4 +47,56 @@ public interface ISQLDriver {
 	 * Execute a SQL update
 	 */
 	public void sqlUpdate(String updateString);
+
+	/**
+	 * Execute a SQL query as prepared statement
+	 * 
+	 * @param queryString
+	 *            SQL query with '?' markers
+	 * @param parameters
+	 *            Values that are bound to the markers in their order
+	 */
+	public default ResultSet sqlQuery(String queryString, List<Object> parameters) {
+		// Drivers without prepared statements execute the values as literals
+		return sqlQuery(SQLLiterals.inline(queryString, parameters));
+	}
+
+	/**
+	 * Execute a SQL query as prepared statement and process its rows while the
+	 * connection is open, without caching the result set in memory
+	 * 
+	 * @param queryString
+	 *            SQL query with '?' markers
+	 * @param parameters
+	 *            Values that are bound to the markers in their order
+	 * @param handler
+	 *            Handler that processes the result set
+	 * @return Result of the handler
+	 */
+	public default <T> T sqlQuery(String queryString, List<Object> parameters, SQLResultHandler<T> handler) {
+		// Drivers without streaming support process the result set of the query
+		ResultSet resultSet = sqlQuery(queryString, parameters);
+		if (resultSet == null) {
+			return null;
+		}
+		try (ResultSet rs = resultSet) {
+			return handler.handle(rs);
+		} catch (SQLException e) {
+			LoggerFactory.getLogger(ISQLDriver.class).error("sqlQuery failed", e);
+			return null;
+		}
+	}
+
+	/**
+	 * Execute a SQL update as prepared statement
+	 * 
+	 * @param updateString
+	 *            SQL update with '?' markers
+	 * @param parameters
+	 *            Values that are bound to the markers in their order
+	 */
+	public default void sqlUpdate(String updateString, List<Object> parameters) {
+		// Drivers without prepared statements execute the values as literals
+		sqlUpdate(SQLLiterals.inline(updateString, parameters));
+	}
 }
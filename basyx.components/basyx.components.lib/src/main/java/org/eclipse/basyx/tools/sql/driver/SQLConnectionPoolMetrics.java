@@ -0,0 +1,148 @@
+/*******************************************************************************
+ * Copyright (C) 2022 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.tools.sql.driver;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+/**
+ * Metrics of the connection pool of a {@link SQLDriver}. Connection counts are
+ * taken from the pool and refreshed at most once per second. Wait times are
+ * recorded for each borrowed connection.
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class SQLConnectionPoolMetrics implements MetricsTrackerFactory {
+	private volatile PoolStats poolStats;
+
+	private final LongAdder acquisitions = new LongAdder();
+	private final LongAdder waitNanos = new LongAdder();
+	private final AtomicLong maxWaitNanos = new AtomicLong();
+	private final LongAdder timeouts = new LongAdder();
+
+	@Override
+	public IMetricsTracker create(String poolName, PoolStats poolStats) {
+		this.poolStats = poolStats;
+		return new IMetricsTracker() {
+			@Override
+			public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+				acquisitions.increment();
+				waitNanos.add(elapsedAcquiredNanos);
+				maxWaitNanos.accumulateAndGet(elapsedAcquiredNanos, Math::max);
+			}
+
+			@Override
+			public void recordConnectionTimeout() {
+				timeouts.increment();
+			}
+		};
+	}
+
+	/**
+	 * Returns the number of connections currently in use
+	 */
+	public int getActiveConnections() {
+		PoolStats stats = poolStats;
+		return stats == null ? 0 : stats.getActiveConnections();
+	}
+
+	/**
+	 * Returns the number of open connections that are currently not in use
+	 */
+	public int getIdleConnections() {
+		PoolStats stats = poolStats;
+		return stats == null ? 0 : stats.getIdleConnections();
+	}
+
+	/**
+	 * Returns the number of open connections
+	 */
+	public int getTotalConnections() {
+		PoolStats stats = poolStats;
+		return stats == null ? 0 : stats.getTotalConnections();
+	}
+
+	/**
+	 * Returns the number of threads that are waiting for a connection
+	 */
+	public int getPendingThreads() {
+		PoolStats stats = poolStats;
+		return stats == null ? 0 : stats.getPendingThreads();
+	}
+
+	/**
+	 * Returns the maximum number of connections of the pool
+	 */
+	public int getMaxConnections() {
+		PoolStats stats = poolStats;
+		return stats == null ? 0 : stats.getMaxConnections();
+	}
+
+	/**
+	 * Returns the number of connections that have been borrowed from the pool
+	 */
+	public long getConnectionAcquisitions() {
+		return acquisitions.sum();
+	}
+
+	/**
+	 * Returns the number of operations that did not get a connection in time
+	 */
+	public long getConnectionTimeouts() {
+		return timeouts.sum();
+	}
+
+	/**
+	 * Returns the average time in milliseconds an operation waited for a
+	 * connection
+	 */
+	public double getAverageWaitTime() {
+		long count = acquisitions.sum();
+		if (count == 0) {
+			return 0;
+		}
+		return waitNanos.sum() / (double) count / TimeUnit.MILLISECONDS.toNanos(1);
+	}
+
+	/**
+	 * Returns the maximum time in milliseconds an operation waited for a
+	 * connection
+	 */
+	public double getMaxWaitTime() {
+		return maxWaitNanos.get() / (double) TimeUnit.MILLISECONDS.toNanos(1);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("active=%d, idle=%d, total=%d/%d, pending=%d, acquisitions=%d, timeouts=%d, avgWait=%.3fms, maxWait=%.3fms", getActiveConnections(), getIdleConnections(), getTotalConnections(), getMaxConnections(), getPendingThreads(), getConnectionAcquisitions(),
+				getConnectionTimeouts(), getAverageWaitTime(), getMaxWaitTime());
+	}
+}
@@ -25,14 +25,18 @@
 package org.eclipse.basyx.tools.sql.driver;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Types;
+import java.util.List;
 
 import javax.sql.rowset.CachedRowSet;
 import javax.sql.rowset.RowSetFactory;
 import javax.sql.rowset.RowSetProvider;
 
+import org.eclipse.basyx.components.configuration.BaSyxSQLConfiguration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -41,12 +45,26 @@ import com.zaxxer.hikari.HikariDataSource;
 /**
  * Access SQL database
  * 
+ * Each operation borrows its own connection from a connection pool and returns
+ * it when the operation is done, so a driver can be used by multiple threads
+ * concurrently.
+ * 
  * @author kuhn
  *
  */
 public class SQLDriver implements ISQLDriver {
 	private static Logger logger = LoggerFactory.getLogger(SQLDriver.class);
 
+	/**
+	 * Default maximum number of pooled connections
+	 */
+	public static final int DEFAULT_POOL_MAX_SIZE = 5;
+
+	/**
+	 * Query prefix of PostgreSQL connections
+	 */
+	private static final String POSTGRESQL_PREFIX = "jdbc:postgresql:";
+
 	/**
 	 * Store user name
 	 */
@@ -73,14 +91,41 @@ public class SQLDriver implements ISQLDriver {
 	protected String qualDriverClass = null;
 
 	/**
-	 * JDBC connection
+	 * Maximum number of pooled connections
+	 */
+	protected int poolMaxSize = DEFAULT_POOL_MAX_SIZE;
+
+	/**
+	 * Minimum number of idle connections, null for the pool default
+	 */
+	protected Integer poolMinIdle = null;
+
+	/**
+	 * Maximum time in milliseconds to wait for a connection, null for the pool
+	 * default
+	 */
+	protected Long poolConnectionTimeout = null;
+
+	/**
+	 * Number of rows that are fetched at once by streaming queries, null for the
+	 * default of the JDBC driver
+	 */
+	protected Integer fetchSize = null;
+
+	/**
+	 * JDBC connection that is opened by {@link #openConnection()}
 	 */
 	protected Connection connect = null;
 
 	/**
 	 * Data source
 	 */
-	protected HikariDataSource ds = null;
+	protected volatile HikariDataSource ds = null;
+
+	/**
+	 * Metrics of the connection pool
+	 */
+	private final SQLConnectionPoolMetrics poolMetrics = new SQLConnectionPoolMetrics();
 
 	/**
 	 * Create a SQL driver and a SQL connection
@@ -101,33 +146,33 @@ public class SQLDriver implements ISQLDriver {
 		}
 	}
 
+	/**
+	 * Create a SQL driver from a configuration, including its connection pool
+	 * settings
+	 */
+	public SQLDriver(BaSyxSQLConfiguration config) {
+		this(config.getPath(), config.getUser(), config.getPass(), config.getPrefix(), config.getDriver());
+		poolMaxSize = config.getPoolMaxSize();
+		poolMinIdle = config.getPoolMinIdle();
+		poolConnectionTimeout = config.getPoolConnectionTimeout();
+		fetchSize = config.getFetchSize();
+	}
+
 	/**
 	 * Execute a SQL query
 	 */
 	@Override
 	public CachedRowSet sqlQuery(String queryString) {
-		// Store SQL statement, flag that indicates whether the connection was created
-		// by this
-		// operation (and needs to be closed), and result
-		Statement statement = null;
+		// Store result
 		CachedRowSet rowSet = null;
 
-		// Access database
-		try {
-			// Open a connection with data source
-			openConnection();
-
-			// Statements allow to issue SQL queries to the database
-			statement = connect.createStatement();
-
+		// Access database, the connection is returned to the pool afterwards
+		try (Connection connection = borrowConnection(); Statement statement = connection.createStatement()) {
 			// ResultSet gets the result of the SQL query
-			ResultSet resultSet = statement.executeQuery(queryString);
-
-			// Convert DB data to memory cache
-			rowSet = getCachedRowSet(resultSet);
-
-			// Close connection with data source
-			closeConnection();
+			try (ResultSet resultSet = statement.executeQuery(queryString)) {
+				// Convert DB data to memory cache
+				rowSet = getCachedRowSet(resultSet);
+			}
 		} catch (SQLException e) {
 			logger.error("sqlQuery failed", e);
 		}
@@ -141,37 +186,121 @@ public class SQLDriver implements ISQLDriver {
 	 */
 	@Override
 	public void sqlUpdate(String updateString) {
-		// Store SQL statement
-		Statement statement = null;
+		// Access database, the connection is returned to the pool afterwards
+		try (Connection connection = borrowConnection(); Statement statement = connection.createStatement()) {
+			statement.executeUpdate(updateString);
+		} catch (SQLException e) {
+			logger.error("sqlUpdate failed", e);
+		}
+	}
 
-		// Access database
-		try {
-			// Open a connection with data source
-			openConnection();
+	/**
+	 * Execute a SQL query as prepared statement
+	 */
+	@Override
+	public CachedRowSet sqlQuery(String queryString, List<Object> parameters) {
+		// Convert DB data to memory cache
+		return sqlQuery(queryString, parameters, this::getCachedRowSet);
+	}
 
-			// Statements allow to issue SQL queries to the database
-			statement = connect.createStatement();
+	/**
+	 * Execute a SQL query as prepared statement and process its rows while the
+	 * connection is open
+	 */
+	@Override
+	public <T> T sqlQuery(String queryString, List<Object> parameters, SQLResultHandler<T> handler) {
+		// Access database, the connection is returned to the pool afterwards. The
+		// driver reuses parsed statements for identical SQL strings
+		try (Connection connection = borrowConnection(); PreparedStatement statement = connection.prepareStatement(queryString)) {
+			setParameters(statement, parameters);
+
+			if (fetchSize == null || !connection.getAutoCommit()) {
+				try (ResultSet resultSet = statement.executeQuery()) {
+					return handler.handle(resultSet);
+				}
+			}
 
-			// ResultSet gets the result of the SQL query
-			statement.executeUpdate(updateString);
+			// Some drivers (e.g. PostgreSQL) only fetch rows in chunks within a transaction
+			connection.setAutoCommit(false);
+			try {
+				statement.setFetchSize(fetchSize);
+				T result;
+				try (ResultSet resultSet = statement.executeQuery()) {
+					result = handler.handle(resultSet);
+				}
+				connection.commit();
+				return result;
+			} catch (SQLException | RuntimeException e) {
+				connection.rollback();
+				throw e;
+			} finally {
+				connection.setAutoCommit(true);
+			}
+		} catch (SQLException e) {
+			logger.error("sqlQuery failed", e);
+		}
+
+		// No result
+		return null;
+	}
 
-			// Close connection with data source
-			closeConnection();
+	/**
+	 * Execute a SQL update as prepared statement
+	 */
+	@Override
+	public void sqlUpdate(String updateString, List<Object> parameters) {
+		// Access database, the connection is returned to the pool afterwards. The
+		// driver reuses parsed statements for identical SQL strings
+		try (Connection connection = borrowConnection(); PreparedStatement statement = connection.prepareStatement(updateString)) {
+			setParameters(statement, parameters);
+			statement.executeUpdate();
 		} catch (SQLException e) {
 			logger.error("sqlUpdate failed", e);
 		}
 	}
 
+	/**
+	 * Bind parameter values to the markers of a prepared statement
+	 */
+	private void setParameters(PreparedStatement statement, List<Object> parameters) throws SQLException {
+		int index = 1;
+		for (Object parameter : parameters) {
+			if (parameter == null) {
+				statement.setNull(index++, Types.NULL);
+			} else {
+				statement.setObject(index++, parameter);
+			}
+		}
+	}
+
+	/**
+	 * Borrow a connection from the connection pool. The caller has to close the
+	 * connection to return it to the pool, e.g. with try-with-resources.
+	 */
+	public Connection borrowConnection() throws SQLException {
+		return getDataSource().getConnection();
+	}
+
+	/**
+	 * Get the metrics of the connection pool
+	 */
+	public SQLConnectionPoolMetrics getPoolMetrics() {
+		return poolMetrics;
+	}
+
 	/**
 	 * Open connection
+	 * 
+	 * @deprecated The connection is shared by all threads that use this driver,
+	 *             use {@link #borrowConnection()} instead
 	 */
+	@Deprecated
 	public void openConnection() {
 		// Access database
 		try {
 			// Open connection
 			if (connect == null) {
-				openDataSource();
-				connect = ds.getConnection();
+				connect = borrowConnection();
 			}
 		} catch (SQLException e) {
 			logger.error("Failed to open sql driver connection", e);
@@ -180,7 +309,11 @@ public class SQLDriver implements ISQLDriver {
 
 	/**
 	 * Close connection
+	 * 
+	 * @deprecated Use {@link #borrowConnection()} and close the borrowed
+	 *             connection instead
 	 */
+	@Deprecated
 	public void closeConnection() {
 		// Access database
 		try {
@@ -196,29 +329,63 @@ public class SQLDriver implements ISQLDriver {
 
 	/**
 	 * Get connection
+	 * 
+	 * @deprecated Use {@link #borrowConnection()} instead
 	 */
+	@Deprecated
 	public Connection getConnection() {
 		return connect;
 	}
 
 	/**
 	 * Indicate if driver has open connection
+	 * 
+	 * @deprecated Use {@link #borrowConnection()} instead
 	 */
+	@Deprecated
 	public boolean hasOpenConnection() {
 		return (connect == null);
 	}
 
 	/**
-	 * Open Data source
+	 * Get the data source, it is created with the first connection
+	 */
+	private HikariDataSource getDataSource() {
+		HikariDataSource dataSource = ds;
+		if (dataSource == null) {
+			synchronized (this) {
+				dataSource = ds;
+				if (dataSource == null) {
+					dataSource = createDataSource();
+					ds = dataSource;
+				}
+			}
+		}
+		return dataSource;
+	}
+
+	/**
+	 * Create the pooled data source
 	 */
-	private void openDataSource() {
-		if (ds == null) {
-			ds = new HikariDataSource();
-			ds.setJdbcUrl(queryPrefix + dbPath);
-			ds.setUsername(userName);
-			ds.setPassword(password);
-			ds.setMaximumPoolSize(5);
+	private HikariDataSource createDataSource() {
+		HikariDataSource dataSource = new HikariDataSource();
+		dataSource.setJdbcUrl(queryPrefix + dbPath);
+		dataSource.setUsername(userName);
+		dataSource.setPassword(password);
+		dataSource.setMaximumPoolSize(poolMaxSize);
+		if (poolMinIdle != null) {
+			dataSource.setMinimumIdle(poolMinIdle);
+		}
+		if (poolConnectionTimeout != null) {
+			dataSource.setConnectionTimeout(poolConnectionTimeout);
+		}
+		if (queryPrefix.startsWith(POSTGRESQL_PREFIX)) {
+			// Bound strings are typed by their context, like string literals. Otherwise
+			// text parameter can not be compared with e.g. integer columns.
+			dataSource.addDataSourceProperty("stringtype", "unspecified");
 		}
+		dataSource.setMetricsTrackerFactory(poolMetrics);
+		return dataSource;
 	}
 
 	private CachedRowSet getCachedRowSet(ResultSet resultSet) throws SQLException {
@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright (C) 2022 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.tools.sql.driver;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Inlines parameter values as SQL literals for drivers that only execute plain
+ * SQL strings
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+final class SQLLiterals {
+
+	private SQLLiterals() {
+	}
+
+	/**
+	 * Replace the '?' markers of a statement by the literals of the given values.
+	 * Markers within string literals and quoted identifiers are not replaced.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the number of markers and values differ or a value can not
+	 *             be written as literal
+	 */
+	static String inline(String sql, List<Object> parameters) {
+		StringBuilder result = new StringBuilder(sql.length());
+		Iterator<Object> values = parameters.iterator();
+		char quote = 0;
+		for (int i = 0; i < sql.length(); i++) {
+			char c = sql.charAt(i);
+			if (quote != 0) {
+				// An escaped quote ('' or "") ends and reopens the literal
+				if (c == quote) {
+					quote = 0;
+				}
+				result.append(c);
+			} else if (c == '\'' || c == '"') {
+				quote = c;
+				result.append(c);
+			} else if (c == '?') {
+				if (!values.hasNext()) {
+					throw new IllegalArgumentException("Missing value for marker " + (i + 1) + " in SQL statement: " + sql);
+				}
+				result.append(toLiteral(values.next()));
+			} else {
+				result.append(c);
+			}
+		}
+		if (values.hasNext()) {
+			throw new IllegalArgumentException("More values than markers in SQL statement: " + sql);
+		}
+		return result.toString();
+	}
+
+	private static String toLiteral(Object value) {
+		if (value == null) {
+			return "NULL";
+		}
+		if (value instanceof Number || value instanceof Boolean) {
+			return value.toString();
+		}
+		if (value instanceof byte[]) {
+			throw new IllegalArgumentException("Binary values can not be written as SQL literal");
+		}
+		return "'" + value.toString().replace("'", "''") + "'";
+	}
+}
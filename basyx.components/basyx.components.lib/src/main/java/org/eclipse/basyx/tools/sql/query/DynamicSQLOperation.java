@@ -24,15 +24,10 @@
  ******************************************************************************/
 package org.eclipse.basyx.tools.sql.query;
 
-import java.lang.reflect.InvocationTargetException;
 import java.sql.ResultSet;
-import java.util.Collection;
-import java.util.LinkedList;
+import java.util.List;
 import java.util.function.Function;
 
-import org.eclipse.basyx.components.tools.propertyfile.opdef.OperationDefinition;
-import org.eclipse.basyx.components.tools.propertyfile.opdef.Parameter;
-import org.eclipse.basyx.components.tools.propertyfile.opdef.ResultFilter;
 import org.eclipse.basyx.tools.sql.driver.ISQLDriver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -51,11 +46,21 @@ public class DynamicSQLOperation extends DynamicSQLRunner implements Function<Ob
 	 */
 	protected String sqlQueryString = null;
 
+	/**
+	 * Compiled SQL query with bound parameters
+	 */
+	protected SQLStatementTemplate sqlStatement = null;
+
 	/**
 	 * Store SQL result filter
 	 */
 	protected String resultFilterString = null;
 
+	/**
+	 * Compiled SQL result filter
+	 */
+	protected SQLResultFilter resultFilter = null;
+
 	/**
 	 * Constructor
 	 */
@@ -65,7 +70,9 @@ public class DynamicSQLOperation extends DynamicSQLRunner implements Function<Ob
 
 		// Store parameter count and SQL query string
 		sqlQueryString = query;
+		sqlStatement = SQLStatementTemplate.compile(query);
 		resultFilterString = sqlResultFilter;
+		resultFilter = SQLResultFilter.compile(sqlResultFilter);
 	}
 
 	/**
@@ -77,7 +84,9 @@ public class DynamicSQLOperation extends DynamicSQLRunner implements Function<Ob
 
 		// Store parameter count and SQL query string
 		sqlQueryString = query;
+		sqlStatement = SQLStatementTemplate.compile(query);
 		resultFilterString = sqlResultFilter;
+		resultFilter = SQLResultFilter.compile(sqlResultFilter);
 	}
 
 	/**
@@ -85,43 +94,31 @@ public class DynamicSQLOperation extends DynamicSQLRunner implements Function<Ob
 	 */
 	@Override
 	public Object apply(Object[] parameter) {
-		// Create list of query parameter
-		Collection<String> sqlQueryParameter = new LinkedList<>();
-		// - Add parameter
-		for (Object par : parameter)
-			sqlQueryParameter.add(par.toString());
-
-		// Apply parameter and create SQL query string
-		String sqlQuery = OperationDefinition.getSQLString(sqlQueryString, sqlQueryParameter);
-
-		logger.debug("Running SQL query:" + sqlQuery);
-
-		// Execute SQL query
-		ResultSet sqlResult = sqlDriver.sqlQuery(sqlQuery);
-
-		// Extract input parameter definition
-		Collection<Parameter> resultParameter = OperationDefinition.getParameter(resultFilterString);
-
-		// Process result
-		try {
-			// Create inner parameter array for call
-			Object[] callParameterInner = new Object[resultParameter.size()];
-			int i = 0;
-			for (String column : getColumnNames(resultParameter))
-				callParameterInner[i++] = column;
-
-			// Create parameter array for call
-			Object[] callParameter = new Object[2];
-			callParameter[0] = sqlResult;
-			callParameter[1] = callParameterInner;
-
-			// Invoke result filter operation using static invocation
-			return ResultFilter.class.getMethod(OperationDefinition.getOperation(resultFilterString), getMethodParameter(resultParameter)).invoke(null, callParameter);
-		} catch (NoSuchMethodException | SecurityException | IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-			logger.error("Could not invoke dynamic sql operation", e);
+		// Bind positional parameter ($1, $2, ...) to compiled SQL query. Like the
+		// literals of the former SQL strings, all parameter are passed as text and
+		// converted by the database according to their context.
+		Object[] textParameter = new Object[parameter.length];
+		for (int i = 0; i < parameter.length; i++)
+			textParameter[i] = parameter[i] == null ? null : parameter[i].toString();
+		List<Object> sqlQueryParameter = sqlStatement.bind(textParameter);
+
+		logger.debug("Running SQL query:" + sqlStatement.getSQLString());
+
+		// Execute SQL query, process result while the connection is open
+		return sqlDriver.sqlQuery(sqlStatement.getSQLString(), sqlQueryParameter, this::processResult);
+	}
+
+	/**
+	 * Process result parameter
+	 */
+	protected Object processResult(ResultSet sqlResult) {
+		// Queries without result filter only return raw or handled results
+		if (resultFilter == null) {
+			logger.error("No result filter defined for SQL query: " + sqlQueryString);
+			return null;
 		}
 
-		// No result
-		return null;
+		// Apply compiled result filter
+		return resultFilter.handle(sqlResult);
 	}
 }
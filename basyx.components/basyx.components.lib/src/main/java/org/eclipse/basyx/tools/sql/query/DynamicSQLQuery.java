@@ -24,17 +24,16 @@
  ******************************************************************************/
 package org.eclipse.basyx.tools.sql.query;
 
-import java.lang.reflect.InvocationTargetException;
 import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Supplier;
 
-import org.eclipse.basyx.components.tools.propertyfile.opdef.OperationDefinition;
-import org.eclipse.basyx.components.tools.propertyfile.opdef.Parameter;
-import org.eclipse.basyx.components.tools.propertyfile.opdef.ResultFilter;
 import org.eclipse.basyx.tools.sql.driver.ISQLDriver;
+import org.eclipse.basyx.tools.sql.driver.SQLResultHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Implement a generic SQL query
@@ -43,17 +42,28 @@ import org.eclipse.basyx.tools.sql.driver.ISQLDriver;
  *
  */
 public class DynamicSQLQuery extends DynamicSQLRunner implements Supplier<Object> {
+	private static Logger logger = LoggerFactory.getLogger(DynamicSQLQuery.class);
 
 	/**
 	 * Store SQL query string with place holders ($x)
 	 */
 	protected String sqlQueryString = null;
 
+	/**
+	 * Compiled SQL query with bound parameters
+	 */
+	protected SQLStatementTemplate sqlStatement = null;
+
 	/**
 	 * Store SQL result filter
 	 */
 	protected String resultFilterString = null;
 
+	/**
+	 * Compiled SQL result filter
+	 */
+	protected SQLResultFilter resultFilter = null;
+
 	/**
 	 * Constructor that accepts a driver
 	 */
@@ -63,7 +73,9 @@ public class DynamicSQLQuery extends DynamicSQLRunner implements Supplier<Object
 
 		// Store SQL query string and result filter
 		sqlQueryString = query;
+		sqlStatement = SQLStatementTemplate.compile(query);
 		resultFilterString = sqlResultFilter;
+		resultFilter = SQLResultFilter.compile(sqlResultFilter);
 	}
 
 	/**
@@ -75,7 +87,9 @@ public class DynamicSQLQuery extends DynamicSQLRunner implements Supplier<Object
 
 		// Store SQL query string and result filter
 		sqlQueryString = query;
+		sqlStatement = SQLStatementTemplate.compile(query);
 		resultFilterString = sqlResultFilter;
+		resultFilter = SQLResultFilter.compile(sqlResultFilter);
 	}
 
 	/**
@@ -83,81 +97,65 @@ public class DynamicSQLQuery extends DynamicSQLRunner implements Supplier<Object
 	 */
 	@Override
 	public Object get() {
-		// Execute SQL query
-		ResultSet sqlResult = sqlDriver.sqlQuery(sqlQueryString);
-
-		// Process result
-		return processResult(sqlResult);
+		// Execute SQL query, process result while the connection is open
+		return sqlDriver.sqlQuery(sqlStatement.getSQLString(), sqlStatement.bind(Collections.emptyMap()), this::processResult);
 	}
 
 	/**
-	 * Execute query without parameter, do not post process result
+	 * Execute query without parameter, do not post process result. The result is
+	 * cached in memory.
 	 */
 	public ResultSet getRaw() {
 		// Execute SQL query
-		return sqlDriver.sqlQuery(sqlQueryString);
+		return sqlDriver.sqlQuery(sqlStatement.getSQLString(), sqlStatement.bind(Collections.emptyMap()));
 	}
 
 	/**
 	 * Execute query without parameter
 	 */
 	public Object get(Map<String, Object> param) {
-		// Apply parameter and create SQL query string
-		String sqlQuery = OperationDefinition.getSQLString(sqlQueryString, param);
+		// Bind parameter to compiled SQL query
+		List<Object> sqlParameter = sqlStatement.bind(param);
 
-		// Execute SQL query
-		ResultSet sqlResult = sqlDriver.sqlQuery(sqlQuery);
+		// Execute SQL query, process result while the connection is open
+		return sqlDriver.sqlQuery(sqlStatement.getSQLString(), sqlParameter, this::processResult);
+	}
 
-		// Process result
-		return processResult(sqlResult);
+	/**
+	 * Execute query with parameter, the rows are processed by the given handler
+	 * instead of the result filter while the connection is open
+	 */
+	public <T> T get(Map<String, Object> param, SQLResultHandler<T> handler) {
+		// Bind parameter to compiled SQL query
+		List<Object> sqlParameter = sqlStatement.bind(param);
+
+		// Execute SQL query
+		return sqlDriver.sqlQuery(sqlStatement.getSQLString(), sqlParameter, handler);
 	}
 
 	/**
-	 * Execute query without parameter, do not post process result
+	 * Execute query with parameter, do not post process result. The result is
+	 * cached in memory.
 	 */
 	public ResultSet getRaw(Map<String, Object> param) {
-		// Apply parameter and create SQL query string
-		String sqlQuery = OperationDefinition.getSQLString(sqlQueryString, param);
+		// Bind parameter to compiled SQL query
+		List<Object> sqlParameter = sqlStatement.bind(param);
 
 		// Execute SQL query
-		return sqlDriver.sqlQuery(sqlQuery);
+		return sqlDriver.sqlQuery(sqlStatement.getSQLString(), sqlParameter);
 	}
 
 	/**
 	 * Process result parameter
 	 */
 	protected Object processResult(ResultSet sqlResult) {
-		// Extract input parameter definition
-		Collection<Parameter> parameter = OperationDefinition.getParameter(resultFilterString);
-
-		// Process result
-		try {
-			// Create inner parameter array for call
-			Object[] callParameterInner = new Object[parameter.size()];
-			int i = 0;
-			for (String column : getColumnNames(parameter))
-				callParameterInner[i++] = column;
-
-			// Create parameter array for call
-			Object[] callParameter = new Object[2];
-			callParameter[0] = sqlResult;
-			callParameter[1] = callParameterInner;
-
-			// Invoke result filter operation using static invocation
-			Object result = ResultFilter.class.getMethod(OperationDefinition.getOperation(resultFilterString), getMethodParameter(parameter)).invoke(null, callParameter);
-
-			// Close result set
-			sqlResult.close();
-
-			// Return result
-			return result;
-
-		} catch (NoSuchMethodException | SecurityException | IllegalAccessException | IllegalArgumentException | InvocationTargetException | SQLException e) {
-			// Print exception to console
-			e.printStackTrace();
+		// Queries without result filter only return raw or handled results
+		if (resultFilter == null) {
+			logger.error("No result filter defined for SQL query: " + sqlQueryString);
+			return null;
 		}
 
-		// No result
-		return null;
+		// Apply compiled result filter
+		return resultFilter.handle(sqlResult);
 	}
 }
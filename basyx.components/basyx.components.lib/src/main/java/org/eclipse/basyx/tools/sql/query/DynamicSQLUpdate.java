@@ -24,10 +24,10 @@
  ******************************************************************************/
 package org.eclipse.basyx.tools.sql.query;
 
+import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
 
-import org.eclipse.basyx.components.tools.propertyfile.opdef.OperationDefinition;
 import org.eclipse.basyx.tools.sql.driver.ISQLDriver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -46,6 +46,11 @@ public class DynamicSQLUpdate extends DynamicSQLRunner implements Consumer<Map<S
 	 */
 	protected String sqlQueryString = null;
 
+	/**
+	 * Compiled SQL update with bound parameters
+	 */
+	protected SQLStatementTemplate sqlStatement = null;
+
 	/**
 	 * Constructor
 	 */
@@ -55,6 +60,7 @@ public class DynamicSQLUpdate extends DynamicSQLRunner implements Consumer<Map<S
 
 		// Store parameter count and SQL query string
 		sqlQueryString = query;
+		sqlStatement = SQLStatementTemplate.compile(query);
 	}
 
 	/**
@@ -66,6 +72,7 @@ public class DynamicSQLUpdate extends DynamicSQLRunner implements Consumer<Map<S
 
 		// Store parameter count and SQL query string
 		sqlQueryString = query;
+		sqlStatement = SQLStatementTemplate.compile(query);
 	}
 
 	/**
@@ -75,12 +82,12 @@ public class DynamicSQLUpdate extends DynamicSQLRunner implements Consumer<Map<S
 	public void accept(Map<String, Object> parameter) {
 		logger.debug("(Parameters) Running SQL update: " + parameter);
 
-		// Apply parameter and create SQL query string
-		String sqlQuery = OperationDefinition.getSQLString(sqlQueryString, parameter);
+		// Bind parameter to compiled SQL update
+		List<Object> sqlParameter = sqlStatement.bind(parameter);
 
-		logger.debug("(Query) Running SQL update:" + sqlQuery);
+		logger.debug("(Query) Running SQL update:" + sqlStatement.getSQLString());
 
 		// Execute SQL query
-		sqlDriver.sqlUpdate(sqlQuery);
+		sqlDriver.sqlUpdate(sqlStatement.getSQLString(), sqlParameter);
 	}
 }
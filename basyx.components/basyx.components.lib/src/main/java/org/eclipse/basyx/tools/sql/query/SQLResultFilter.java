@@ -0,0 +1,176 @@
+/*******************************************************************************
+ * Copyright (C) 2022 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.tools.sql.query;
+
+import java.sql.ResultSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.basyx.components.tools.propertyfile.opdef.OperationDefinition;
+import org.eclipse.basyx.components.tools.propertyfile.opdef.Parameter;
+import org.eclipse.basyx.components.tools.propertyfile.opdef.ResultFilter;
+import org.eclipse.basyx.tools.sql.driver.SQLResultHandler;
+
+/**
+ * A result filter definition, e.g. "mapArray(name:String,value:String)", that
+ * is compiled once into a direct call of the matching {@link ResultFilter}
+ * operation. Processing a result set neither parses the definition again nor
+ * looks up the filter operation by reflection.
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class SQLResultFilter implements SQLResultHandler<Object> {
+
+	/**
+	 * Maps the rows of a result set to the result of one filter kind
+	 */
+	@FunctionalInterface
+	public interface RowMapper {
+		/**
+		 * Map all rows of a result set
+		 * 
+		 * @param sqlResult
+		 *            Open result set that is positioned before the first row
+		 * @param columnNames
+		 *            Names of the columns to extract
+		 */
+		public Object map(ResultSet sqlResult, Object[] columnNames);
+	}
+
+	/**
+	 * Maximum number of cached filters, the least recently used filter is evicted
+	 * when this number is exceeded
+	 */
+	private static final int MAX_CACHED_FILTERS = 4096;
+
+	/**
+	 * Row mappers by the name of their filter operation
+	 */
+	private static final Map<String, RowMapper> rowMappers = new HashMap<>();
+
+	/**
+	 * Compiled filters by their definition in access order
+	 */
+	private static final LinkedHashMap<String, SQLResultFilter> filterCache = new LinkedHashMap<String, SQLResultFilter>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, SQLResultFilter> eldest) {
+			return size() > MAX_CACHED_FILTERS;
+		}
+	};
+
+	static {
+		rowMappers.put("stringSet", ResultFilter::stringSet);
+		rowMappers.put("stringArray", ResultFilter::stringArray);
+		rowMappers.put("mapArray", ResultFilter::mapArray);
+		rowMappers.put("listOfMaps", ResultFilter::listOfMaps);
+	}
+
+	/**
+	 * Result filter definition
+	 */
+	private final String definition;
+
+	/**
+	 * Row mapper of the filter operation
+	 */
+	private final RowMapper rowMapper;
+
+	/**
+	 * Names of the extracted columns
+	 */
+	private final Object[] columnNames;
+
+	/**
+	 * Get the compiled filter for a result filter definition. Definitions are
+	 * compiled only once and then retrieved from a cache.
+	 * 
+	 * @param definition
+	 *            Result filter definition, may be null if a query does not use a
+	 *            result filter
+	 * @return Compiled filter, or null if the definition is null
+	 * @throws IllegalArgumentException
+	 *             if the definition names an unknown filter operation
+	 */
+	public static SQLResultFilter compile(String definition) {
+		if (definition == null) {
+			return null;
+		}
+
+		SQLResultFilter compiled;
+		synchronized (filterCache) {
+			compiled = filterCache.get(definition);
+		}
+		if (compiled != null) {
+			return compiled;
+		}
+
+		compiled = new SQLResultFilter(definition);
+		synchronized (filterCache) {
+			SQLResultFilter cached = filterCache.putIfAbsent(definition, compiled);
+			return cached == null ? compiled : cached;
+		}
+	}
+
+	/**
+	 * Constructor, compiles the given definition
+	 */
+	protected SQLResultFilter(String definition) {
+		this.definition = definition;
+
+		String operation = OperationDefinition.getOperation(definition);
+		rowMapper = rowMappers.get(operation);
+		if (rowMapper == null) {
+			throw new IllegalArgumentException("Unknown result filter '" + operation + "' in: " + definition);
+		}
+
+		// Column types of the definition are not needed, the filters read values by name
+		Collection<Parameter> parameter = OperationDefinition.getParameter(definition);
+		columnNames = new Object[parameter.size()];
+		int i = 0;
+		for (Parameter par : parameter) {
+			columnNames[i++] = par.getName();
+		}
+	}
+
+	/**
+	 * Get the result filter definition
+	 */
+	public String getDefinition() {
+		return definition;
+	}
+
+	/**
+	 * Apply the filter to all rows of a result set
+	 */
+	@Override
+	public Object handle(ResultSet sqlResult) {
+		return rowMapper.map(sqlResult, columnNames);
+	}
+}
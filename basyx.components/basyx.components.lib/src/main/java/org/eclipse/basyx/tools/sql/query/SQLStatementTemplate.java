@@ -0,0 +1,350 @@
+/*******************************************************************************
+ * Copyright (C) 2022 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.tools.sql.query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A dynamic SQL statement template that is compiled once into the shape of a
+ * JDBC prepared statement. Place holders are replaced by '?' markers and their
+ * values are bound as statement parameters instead of being spliced into the
+ * SQL string. Since equal templates always yield the identical SQL string, the
+ * database can reuse its parsed statements and plans across calls.
+ * 
+ * Supported place holders:
+ * - $x outside of a string literal binds the value as is, e.g. an integer
+ * - '$x' binds the value as string, i.e. the value's toString() representation
+ * - a string literal with place holders and further text, e.g. '%$x%', is
+ * replaced by a single marker. Its value is the literal text with the place
+ * holders replaced by their values, so no database specific string
+ * concatenation is required
+ * 
+ * Place holder names consist of letters, digits and underscores. Numeric names
+ * ($1, $2, ...) refer to positional parameters. Identifiers, e.g. table names,
+ * can not be bound and have to be part of the template itself.
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class SQLStatementTemplate {
+
+	/**
+	 * Maximum number of cached templates. The least recently used template is
+	 * evicted when this number is exceeded, e.g. when many tables or differently
+	 * sized multi-row statements are used
+	 */
+	private static final int MAX_CACHED_TEMPLATES = 4096;
+
+	/**
+	 * Compiled templates by their template string in access order
+	 */
+	private static final LinkedHashMap<String, SQLStatementTemplate> templateCache = new LinkedHashMap<String, SQLStatementTemplate>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, SQLStatementTemplate> eldest) {
+			return size() > MAX_CACHED_TEMPLATES;
+		}
+	};
+
+	/**
+	 * Template string with place holders
+	 */
+	private final String template;
+
+	/**
+	 * SQL string with '?' markers instead of place holders
+	 */
+	private final String sqlString;
+
+	/**
+	 * Place holder names in order of their occurrence
+	 */
+	private final List<String> parameterNames = new ArrayList<>();
+
+	/**
+	 * The values of the '?' markers in their order
+	 */
+	private final List<Marker> markers = new ArrayList<>();
+
+	/**
+	 * Get the compiled statement for a template string. Templates are compiled only
+	 * once and then retrieved from a cache.
+	 */
+	public static SQLStatementTemplate compile(String template) {
+		SQLStatementTemplate compiled;
+		synchronized (templateCache) {
+			compiled = templateCache.get(template);
+		}
+		if (compiled != null) {
+			return compiled;
+		}
+
+		// Templates are compiled outside of the lock, a concurrently compiled equal
+		// template is used instead
+		compiled = new SQLStatementTemplate(template);
+		synchronized (templateCache) {
+			SQLStatementTemplate cached = templateCache.putIfAbsent(template, compiled);
+			return cached == null ? compiled : cached;
+		}
+	}
+
+	/**
+	 * Constructor, compiles the given template
+	 */
+	protected SQLStatementTemplate(String template) {
+		this.template = template;
+		this.sqlString = parse(template);
+	}
+
+	/**
+	 * Get the template string with place holders
+	 */
+	public String getTemplate() {
+		return template;
+	}
+
+	/**
+	 * Get the SQL string that is passed to the prepared statement
+	 */
+	public String getSQLString() {
+		return sqlString;
+	}
+
+	/**
+	 * Get the place holder names in the order of their occurrence. A name occurs
+	 * multiple times if its place holder is used multiple times.
+	 */
+	public List<String> getParameterNames() {
+		return Collections.unmodifiableList(parameterNames);
+	}
+
+	/**
+	 * Bind named parameter values to the statement markers
+	 * 
+	 * @param parameter
+	 *            Parameter values by place holder name, may be null if the template
+	 *            does not contain place holders
+	 * @return Values in the order of the '?' markers
+	 */
+	public List<Object> bind(Map<String, Object> parameter) {
+		return bind(name -> {
+			if (parameter == null || !parameter.containsKey(name)) {
+				throw new IllegalArgumentException("Missing value for place holder $" + name + " in SQL statement: " + template);
+			}
+			return parameter.get(name);
+		});
+	}
+
+	/**
+	 * Bind positional parameter values ($1, $2, ...) to the statement markers
+	 * 
+	 * @param parameter
+	 *            Parameter values, the first value is bound to $1
+	 * @return Values in the order of the '?' markers
+	 */
+	public List<Object> bind(Object[] parameter) {
+		return bind(name -> {
+			int position = getPosition(name);
+			if (position < 1 || position > parameter.length) {
+				throw new IllegalArgumentException("Missing value for place holder $" + name + " in SQL statement: " + template);
+			}
+			return parameter[position - 1];
+		});
+	}
+
+	private List<Object> bind(Function<String, Object> values) {
+		List<Object> result = new ArrayList<>(markers.size());
+		for (Marker marker : markers) {
+			result.add(marker.bind(values));
+		}
+		return result;
+	}
+
+	private static int getPosition(String name) {
+		try {
+			return Integer.parseInt(name);
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+	/**
+	 * Replace place holders by markers and collect their names
+	 */
+	private String parse(String template) {
+		StringBuilder sql = new StringBuilder(template.length());
+		int i = 0;
+		while (i < template.length()) {
+			char c = template.charAt(i);
+			if (c == '\'') {
+				// String literal, may contain place holders
+				int end = getQuotedEnd(template, i);
+				appendLiteral(sql, template.substring(i + 1, end));
+				i = end + 1;
+			} else if (c == '"') {
+				// Quoted identifier, copied as is
+				int end = getQuotedEnd(template, i);
+				sql.append(template, i, Math.min(end + 1, template.length()));
+				i = end + 1;
+			} else if (c == '$' && isPlaceholderChar(template, i + 1)) {
+				int end = getPlaceholderEnd(template, i + 1);
+				addMarker(new Marker(template.substring(i + 1, end), false));
+				sql.append('?');
+				i = end;
+			} else {
+				sql.append(c);
+				i++;
+			}
+		}
+		return sql.toString();
+	}
+
+	/**
+	 * Append a string literal, its content is given without the enclosing quotes
+	 */
+	private void appendLiteral(StringBuilder sql, String content) {
+		List<String> texts = new ArrayList<>();
+		List<String> names = new ArrayList<>();
+		StringBuilder text = new StringBuilder();
+		int i = 0;
+		while (i < content.length()) {
+			char c = content.charAt(i);
+			if (c == '$' && isPlaceholderChar(content, i + 1)) {
+				int end = getPlaceholderEnd(content, i + 1);
+				texts.add(text.toString());
+				text.setLength(0);
+				names.add(content.substring(i + 1, end));
+				i = end;
+			} else {
+				text.append(c);
+				i++;
+			}
+		}
+		texts.add(text.toString());
+
+		if (names.isEmpty()) {
+			// Plain literal without place holders
+			sql.append('\'').append(content).append('\'');
+			return;
+		}
+
+		sql.append('?');
+		if (names.size() == 1 && texts.get(0).isEmpty() && texts.get(1).isEmpty()) {
+			addMarker(new Marker(names.get(0), true));
+		} else {
+			// The literal text is bound as part of the value, so it is unescaped
+			texts.replaceAll(t -> t.replace("''", "'"));
+			addMarker(new Marker(texts, names));
+		}
+	}
+
+	private void addMarker(Marker marker) {
+		parameterNames.addAll(marker.names);
+		markers.add(marker);
+	}
+
+	/**
+	 * Get the index of the closing quote, escaped quotes ('' or "") are skipped
+	 */
+	private static int getQuotedEnd(String template, int start) {
+		char quote = template.charAt(start);
+		int i = start + 1;
+		while (i < template.length()) {
+			if (template.charAt(i) == quote) {
+				if (i + 1 < template.length() && template.charAt(i + 1) == quote) {
+					i += 2;
+					continue;
+				}
+				return i;
+			}
+			i++;
+		}
+		return template.length();
+	}
+
+	private static int getPlaceholderEnd(String template, int start) {
+		int i = start;
+		while (isPlaceholderChar(template, i)) {
+			i++;
+		}
+		return i;
+	}
+
+	private static boolean isPlaceholderChar(String template, int index) {
+		if (index >= template.length()) {
+			return false;
+		}
+		char c = template.charAt(index);
+		return Character.isLetterOrDigit(c) || c == '_';
+	}
+
+	/**
+	 * The value of a '?' marker, either a single place holder or a string literal
+	 * with place holders
+	 */
+	private static class Marker {
+		/**
+		 * Literal texts around the place holders or null for a single place holder
+		 */
+		private final List<String> texts;
+		private final List<String> names;
+		private final boolean isString;
+
+		private Marker(String name, boolean isString) {
+			this.texts = null;
+			this.names = Collections.singletonList(name);
+			this.isString = isString;
+		}
+
+		private Marker(List<String> texts, List<String> names) {
+			this.texts = texts;
+			this.names = names;
+			this.isString = true;
+		}
+
+		private Object bind(Function<String, Object> values) {
+			if (texts == null) {
+				Object value = values.apply(names.get(0));
+				return value != null && isString ? value.toString() : value;
+			}
+
+			// Like a string concatenation in SQL, a null value yields null
+			StringBuilder bound = new StringBuilder(texts.get(0));
+			boolean isNull = false;
+			for (int i = 0; i < names.size(); i++) {
+				Object value = values.apply(names.get(i));
+				isNull |= value == null;
+				bound.append(value).append(texts.get(i + 1));
+			}
+			return isNull ? null : bound.toString();
+		}
+	}
+}
@@ -25,7 +25,6 @@
 package org.eclipse.basyx.tools.sqlproxy;
 
 import java.lang.reflect.Array;
-import java.sql.ResultSet;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -34,7 +33,6 @@ import java.util.List;
 import java.util.Map;
 
 import org.eclipse.basyx.tools.sql.driver.ISQLDriver;
-import org.eclipse.basyx.tools.sql.query.DynamicSQLQuery;
 import org.eclipse.basyx.tools.sql.query.DynamicSQLUpdate;
 
 /**
@@ -79,18 +77,8 @@ public class SQLCollection extends SQLProxy implements Collection<Object> {
 	 */
 	@Override
 	public int size() {
-		// Build query string
-		String queryString = "SELECT * FROM elements." + getSqlTableID();
-		// - Build dynamic query
-		// - basically, the last parameter is not used here, as getRaw does not post
-		// process query results
-		DynamicSQLQuery dynQuery = new DynamicSQLQuery(getDriver(), queryString, "mapArray(name:String,value:String,type:String)");
-
-		// Execute query and get result set
-		ResultSet result = dynQuery.getRaw();
-
-		// Calculate size
-		return getSize(result);
+		// Count rows in SQL database
+		return getRowCount(getDriver(), getSqlTableID());
 	}
 
 	/**
@@ -98,8 +86,8 @@ public class SQLCollection extends SQLProxy implements Collection<Object> {
 	 */
 	@Override
 	public boolean isEmpty() {
-		// Map is empty iff its size equals 0
-		return (size() == 0);
+		// Collection is empty iff its table has no row
+		return !hasRows(getDriver(), "SELECT 1 FROM elements." + getSqlTableID(), new HashMap<>());
 	}
 
 	/**
@@ -116,22 +104,15 @@ public class SQLCollection extends SQLProxy implements Collection<Object> {
 	 */
 	protected boolean contains(ISQLDriver drv, Object value) {
 		// Build query string
-		String queryString = "SELECT * FROM elements." + getSqlTableID() + " WHERE value='$value'";
-		// - Build dynamic query
-		// - basically, the last parameter is not used here, as getRaw does not post
-		// process query results
-		DynamicSQLQuery dynQuery = new DynamicSQLQuery(drv, queryString, "mapArray(value:String,type:String)");
+		String queryString = "SELECT 1 FROM elements." + getSqlTableID() + " WHERE value='$value'";
 
 		// Build query parameter
 		Map<String, Object> parameter = new HashMap<>();
 		// - Put name in map
 		parameter.put("value", SQLTableRow.getValueAsString(value));
 
-		// Execute query, get result set
-		ResultSet result = dynQuery.getRaw(parameter);
-
-		// Data base table contains key iff result set size > 1
-		return (getSize(result) > 0);
+		// Data base table contains value iff a row matches
+		return hasRows(drv, queryString, parameter);
 	}
 
 	/**
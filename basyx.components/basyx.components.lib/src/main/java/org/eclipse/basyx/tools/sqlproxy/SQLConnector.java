@@ -24,6 +24,7 @@
  ******************************************************************************/
 package org.eclipse.basyx.tools.sqlproxy;
 
+import org.eclipse.basyx.components.configuration.BaSyxSQLConfiguration;
 import org.eclipse.basyx.tools.sql.driver.ISQLDriver;
 import org.eclipse.basyx.tools.sql.driver.SQLDriver;
 
@@ -69,6 +70,21 @@ public abstract class SQLConnector {
 		this.driver = new SQLDriver(url, user, pass, prefix, driver);
 	}
 
+	/**
+	 * Constructor
+	 * 
+	 * @param config
+	 *            SQL configuration, including the connection pool settings
+	 * @param tableID
+	 *            ID of table for this element in database
+	 */
+	public SQLConnector(BaSyxSQLConfiguration config, String tableID) {
+		// ID of table hat contains elements of this element
+		sqlTableID = tableID;
+		// Instantiate a driver for the SQL Connector
+		this.driver = new SQLDriver(config);
+	}
+
 	/**
 	 * Constructor
 	 *
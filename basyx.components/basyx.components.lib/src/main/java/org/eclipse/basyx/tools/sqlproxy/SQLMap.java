@@ -24,7 +24,6 @@
  ******************************************************************************/
 package org.eclipse.basyx.tools.sqlproxy;
 
-import java.sql.ResultSet;
 import java.util.AbstractMap;
 import java.util.Collection;
 import java.util.HashMap;
@@ -35,7 +34,6 @@ import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.basyx.tools.sql.driver.ISQLDriver;
-import org.eclipse.basyx.tools.sql.query.DynamicSQLQuery;
 import org.eclipse.basyx.tools.sql.query.DynamicSQLUpdate;
 
 /**
@@ -106,18 +104,8 @@ public class SQLMap extends SQLProxy implements Map<String, Object> {
 	 */
 	@Override
 	public int size() {
-		// Build query string
-		String queryString = "SELECT * FROM elements." + getSqlTableID();
-		// - Build dynamic query
-		// - basically, the last parameter is not used here, as getRaw does not post
-		// process query results
-		DynamicSQLQuery dynQuery = new DynamicSQLQuery(getDriver(), queryString, "mapArray(name:String,value:String,type:String)");
-
-		// Execute query and get result set
-		ResultSet result = dynQuery.getRaw();
-
-		// Calculate size
-		return getSize(result);
+		// Count rows in SQL database
+		return getRowCount(getDriver(), getSqlTableID());
 	}
 
 	/**
@@ -125,8 +113,8 @@ public class SQLMap extends SQLProxy implements Map<String, Object> {
 	 */
 	@Override
 	public boolean isEmpty() {
-		// Map is empty iff its size equals 0
-		return (size() == 0);
+		// Map is empty iff its table has no row
+		return !hasRows(getDriver(), "SELECT 1 FROM elements." + getSqlTableID(), new HashMap<>());
 	}
 
 	/**
@@ -143,22 +131,15 @@ public class SQLMap extends SQLProxy implements Map<String, Object> {
 	 */
 	protected boolean containsKey(ISQLDriver drv, Object key) {
 		// Build query string
-		String queryString = "SELECT * FROM elements." + getSqlTableID() + " WHERE name='$name'";
-		// - Build dynamic query
-		// - basically, the last parameter is not used here, as getRaw does not post
-		// process query results
-		DynamicSQLQuery dynQuery = new DynamicSQLQuery(drv, queryString, "mapArray(name:String,value:String,type:String)");
+		String queryString = "SELECT 1 FROM elements." + getSqlTableID() + " WHERE name='$name'";
 
 		// Build query parameter
 		Map<String, Object> parameter = new HashMap<>();
 		// - Put name in map
 		parameter.put("name", key);
 
-		// Execute query, get result set
-		ResultSet result = dynQuery.getRaw(parameter);
-
-		// Data base table contains key iff result set size > 1
-		return getSize(result) > 0;
+		// Data base table contains key iff a row matches
+		return hasRows(drv, queryString, parameter);
 	}
 
 	/**
@@ -175,22 +156,15 @@ public class SQLMap extends SQLProxy implements Map<String, Object> {
 	 */
 	protected boolean containsValue(ISQLDriver drv, Object value) {
 		// Build query string
-		String queryString = "SELECT * FROM elements." + getSqlTableID() + " WHERE value='$value'";
-		// - Build dynamic query
-		// - basically, the last parameter is not used here, as getRaw does not post
-		// process query results
-		DynamicSQLQuery dynQuery = new DynamicSQLQuery(drv, queryString, "mapArray(name:String,value:String,type:String)");
+		String queryString = "SELECT 1 FROM elements." + getSqlTableID() + " WHERE value='$value'";
 
 		// Build query parameter
 		Map<String, Object> parameter = new HashMap<>();
 		// - Put name in map
 		parameter.put("value", SQLTableRow.getValueAsString(value));
 
-		// Execute query, get result set
-		ResultSet result = dynQuery.getRaw(parameter);
-
-		// Data base table contains key iff result set size > 1
-		return getSize(result) > 0;
+		// Data base table contains value iff a row matches
+		return hasRows(drv, queryString, parameter);
 	}
 
 	/**
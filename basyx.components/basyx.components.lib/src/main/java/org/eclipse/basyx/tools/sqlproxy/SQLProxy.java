@@ -92,6 +92,43 @@ public abstract class SQLProxy extends SQLConnector {
 		return -1;
 	}
 
+	/**
+	 * Helper function: count the rows of a table in the data base
+	 * 
+	 * @param drv
+	 *            JDBC driver to be used
+	 * @param tableName
+	 *            Name of the table
+	 */
+	protected int getRowCount(ISQLDriver drv, String tableName) {
+		// Count rows in the data base instead of transferring them
+		String queryString = "SELECT COUNT(*) FROM elements." + tableName;
+		DynamicSQLQuery dynQuery = new DynamicSQLQuery(drv, queryString, null);
+
+		// Get count, signal error with -1
+		Integer count = dynQuery.get(new HashMap<>(), result -> result.next() ? result.getInt(1) : 0);
+		return count == null ? -1 : count;
+	}
+
+	/**
+	 * Helper function: check if a query returns at least one row
+	 * 
+	 * @param drv
+	 *            JDBC driver to be used
+	 * @param queryString
+	 *            SQL query with place holders
+	 * @param parameter
+	 *            Parameter of the query
+	 */
+	protected boolean hasRows(ISQLDriver drv, String queryString, Map<String, Object> parameter) {
+		// The data base stops at the first matching row
+		DynamicSQLQuery dynQuery = new DynamicSQLQuery(drv, "SELECT EXISTS (" + queryString + ")", null);
+
+		// Get flag
+		Boolean exists = dynQuery.get(parameter, result -> result.next() && result.getBoolean(1));
+		return exists != null && exists;
+	}
+
 	/**
 	 * Insert an object into the data base
 	 * 
@@ -117,7 +154,7 @@ public abstract class SQLProxy extends SQLConnector {
 	 */
 	protected void addToMapSimple(ISQLDriver drv, String mapName, SQLTableRow sqlMapElement) {
 		// SQL insert statement
-		String updateString = "INSERT INTO elements." + mapName + " (name, value, type) VALUES ('$name', '$value', '$type')";
+		String updateString = "INSERT INTO elements." + mapName + " (name, value, type) VALUES ('$name', '$value', $type)";
 		DynamicSQLUpdate dynUpdate = new DynamicSQLUpdate(drv, updateString);
 
 		// Parameter for insert statement
@@ -155,7 +192,7 @@ public abstract class SQLProxy extends SQLConnector {
 	 */
 	protected void addToCollectionSimple(ISQLDriver drv, String collectionName, SQLTableRow sqlCollectionElement) {
 		// SQL insert statement
-		String updateString = "INSERT INTO elements." + collectionName + " (value, type) VALUES ('$value', '$type')";
+		String updateString = "INSERT INTO elements." + collectionName + " (value, type) VALUES ('$value', $type)";
 		DynamicSQLUpdate dynUpdate = new DynamicSQLUpdate(drv, updateString);
 
 		// Parameter for insert statement
@@ -191,16 +228,20 @@ public abstract class SQLProxy extends SQLConnector {
 	 *            row values
 	 */
 	protected void addToMapMultiple(ISQLDriver drv, String mapName, Collection<SQLTableRow> values) {
+		// Nothing to insert
+		if (values.isEmpty())
+			return;
+
 		// Build value variables for SQL insert string
 		StringBuffer valueVariables = new StringBuffer();
 		boolean firstEntry = true;
 		// - Add value variables
 		for (int i = 0; i < values.size(); i++) {
 			if (firstEntry) {
-				valueVariables.append("('$name" + i + "', '$value" + i + "', '$type" + i + "')");
+				valueVariables.append("('$name" + i + "', '$value" + i + "', $type" + i + ")");
 				firstEntry = false;
 			} else {
-				valueVariables.append(", ('$name" + i + "', '$value" + i + "', '$type" + i + "')");
+				valueVariables.append(", ('$name" + i + "', '$value" + i + "', $type" + i + ")");
 			}
 		}
 
@@ -248,7 +289,7 @@ public abstract class SQLProxy extends SQLConnector {
 	 */
 	protected void updateInMapSimple(ISQLDriver drv, String mapName, SQLTableRow sqlMapElement) {
 		// SQL update statement
-		String updateString = "UPDATE elements." + mapName + " SET value='$value', type='$type' WHERE name='$name'";
+		String updateString = "UPDATE elements." + mapName + " SET value='$value', type=$type WHERE name='$name'";
 		DynamicSQLUpdate dynUpdate = new DynamicSQLUpdate(getDriver(), updateString);
 
 		// Parameter for insert statement
@@ -272,25 +313,29 @@ public abstract class SQLProxy extends SQLConnector {
 	 * Remove elements with keys from map
 	 */
 	protected void removeAllKeys(ISQLDriver drv, Set<String> keys) {
+		// Nothing to remove
+		if (keys.isEmpty())
+			return;
+
 		// Builder for ID list
 		StringBuffer idList = new StringBuffer();
-		boolean firstElement = true;
+		// Parameter map
+		Map<String, Object> parameter = new HashMap<>();
+		int counter = 0;
 
 		// Build keys
 		for (String key : keys) {
-			if (firstElement) {
-				idList.append("'" + key + "'");
-				firstElement = false;
-			} else
-				idList.append(", '" + key + "'");
+			if (counter > 0)
+				idList.append(", ");
+			idList.append("'$key" + counter + "'");
+			parameter.put("key" + counter, key);
+			counter++;
 		}
 
 		// Delete elements from SQL data base
 		String updateString = "DELETE FROM elements." + getSqlTableID() + " WHERE name IN (" + idList.toString() + ")";
 		DynamicSQLUpdate dynUpdate = new DynamicSQLUpdate(drv, updateString);
 
-		// Empty parameter map
-		Map<String, Object> parameter = new HashMap<>();
 		// - Execute delete
 		dynUpdate.accept(parameter);
 	}
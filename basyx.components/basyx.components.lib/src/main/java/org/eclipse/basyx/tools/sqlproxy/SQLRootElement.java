@@ -30,6 +30,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.eclipse.basyx.components.configuration.BaSyxSQLConfiguration;
 import org.eclipse.basyx.tools.sql.query.DynamicSQLQuery;
 import org.eclipse.basyx.tools.sql.query.DynamicSQLUpdate;
 
@@ -64,6 +65,20 @@ public class SQLRootElement extends SQLConnector {
 		super(user, pass, url, driver, prefix, tableID);
 	}
 
+	/**
+	 * Constructor
+	 * 
+	 * @param config
+	 *            SQL configuration, including the connection pool settings
+	 * @param tableID
+	 *            ID of table for this element in database. Every element needs a
+	 *            unique ID
+	 */
+	public SQLRootElement(BaSyxSQLConfiguration config, String tableID) {
+		// Base constructor
+		super(config, tableID);
+	}
+
 	/**
 	 * Creates the root table if it does not exist (including a possibly missing
 	 * schema)
@@ -92,11 +107,13 @@ public class SQLRootElement extends SQLConnector {
 		int elementId = (int) sqlResult.get("NextElementID");
 
 		// SQL update statement
-		String updateString = "UPDATE elements." + getSqlTableID() + " SET NextElementID=" + (elementId + 1) + ", ElementPrefix='" + sqlResult.get("ElementPrefix") + "'";
+		String updateString = "UPDATE elements." + getSqlTableID() + " SET NextElementID=$nextElementID, ElementPrefix='$elementPrefix'";
 		DynamicSQLUpdate dynUpdate = new DynamicSQLUpdate(getDriver(), updateString);
 
-		// Empty parameter set
+		// Parameter for SQL update statement
 		Map<String, Object> parameter = new HashMap<>();
+		parameter.put("nextElementID", elementId + 1);
+		parameter.put("elementPrefix", sqlResult.get("ElementPrefix"));
 
 		// Execute SQL statement
 		dynUpdate.accept(parameter);
@@ -165,11 +182,12 @@ public class SQLRootElement extends SQLConnector {
 
 		if (!currentPointer.containsKey("NextElementID")) {
 			// Initially fill table if it is empty
-			String sqlInsertString = "INSERT INTO elements." + getSqlTableID() + " (NextElementID, ElementPrefix) VALUES (1, '" + getSqlTableID() + ":')";
+			String sqlInsertString = "INSERT INTO elements." + getSqlTableID() + " (NextElementID, ElementPrefix) VALUES (1, '$elementPrefix')";
 			DynamicSQLUpdate dynUpdate = new DynamicSQLUpdate(getDriver(), sqlInsertString);
 
-			// Clear parameter
+			// Set parameter
 			parameter.clear();
+			parameter.put("elementPrefix", getSqlTableID() + ":");
 
 			// Run SQL operation
 			dynUpdate.accept(parameter);
@@ -218,11 +236,13 @@ public class SQLRootElement extends SQLConnector {
 	@SuppressWarnings("unchecked")
 	private Set<String> getContainedTables() {
 		// SQL query string
-		String queryString = "SELECT table_name FROM information_schema.tables " + "WHERE table_type = 'BASE TABLE' AND table_schema = 'elements' " + "AND table_name LIKE '" + getSqlTableID() + "__%';";
+		String queryString = "SELECT table_name FROM information_schema.tables " + "WHERE table_type = 'BASE TABLE' AND table_schema = 'elements' " + "AND table_name LIKE '$tablePattern';";
 		DynamicSQLQuery dynQuery = new DynamicSQLQuery(getDriver(), queryString, "stringArray(table_name:String)");
 
-		// Get table row using no parameters
-		Collection<String> tableNames = (Collection<String>) dynQuery.get(new HashMap<>());
+		// Get table rows of contained elements
+		Map<String, Object> parameter = new HashMap<>();
+		parameter.put("tablePattern", getSqlTableID() + "__%");
+		Collection<String> tableNames = (Collection<String>) dynQuery.get(parameter);
 		return tableNames.stream().map(name -> "elements." + name).collect(Collectors.toSet());
 	}
 
@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.regression.mongodb;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.basyx.components.configuration.BaSyxMongoDBConfiguration;
+import org.eclipse.basyx.tools.mongodb.MongoDBClientRegistry;
+import org.junit.After;
+import org.junit.Test;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.ReadConcern;
+import com.mongodb.WriteConcern;
+import com.mongodb.client.MongoClient;
+
+/**
+ * Tests the shared client handling and the client settings created from a
+ * {@link BaSyxMongoDBConfiguration}. No MongoDB needs to be running, since
+ * clients connect lazily.
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class TestMongoDBClientRegistry {
+	private static final String URL_A = "mongodb://127.0.0.1:27017/";
+	private static final String URL_B = "mongodb://127.0.0.1:27018/";
+
+	@After
+	public void tearDown() {
+		MongoDBClientRegistry.closeAll();
+	}
+
+	@Test
+	public void clientIsSharedPerConnectionUrl() {
+		BaSyxMongoDBConfiguration configA = new BaSyxMongoDBConfiguration();
+		configA.setConnectionUrl(URL_A);
+		BaSyxMongoDBConfiguration otherConfigA = new BaSyxMongoDBConfiguration();
+		otherConfigA.setConnectionUrl(URL_A);
+		otherConfigA.setDatabase("other");
+		BaSyxMongoDBConfiguration configB = new BaSyxMongoDBConfiguration();
+		configB.setConnectionUrl(URL_B);
+
+		MongoClient clientA = MongoDBClientRegistry.getClient(configA);
+		assertSame(clientA, MongoDBClientRegistry.getClient(otherConfigA));
+		assertNotSame(clientA, MongoDBClientRegistry.getClient(configB));
+	}
+
+	@Test
+	public void closedClientIsRecreated() {
+		BaSyxMongoDBConfiguration config = new BaSyxMongoDBConfiguration();
+		config.setConnectionUrl(URL_A);
+
+		MongoClient client = MongoDBClientRegistry.getClient(config);
+		MongoDBClientRegistry.closeClient(URL_A);
+		assertNotSame(client, MongoDBClientRegistry.getClient(config));
+	}
+
+	@Test
+	public void defaultSettingsUseConnectionString() {
+		BaSyxMongoDBConfiguration config = new BaSyxMongoDBConfiguration();
+		config.setConnectionUrl("mongodb://127.0.0.1:27017/?maxPoolSize=7&w=majority");
+
+		MongoClientSettings settings = MongoDBClientRegistry.createSettings(config);
+		assertEquals(7, settings.getConnectionPoolSettings().getMaxSize());
+		assertEquals(WriteConcern.MAJORITY, settings.getWriteConcern());
+	}
+
+	@Test
+	public void configuredSettings() {
+		BaSyxMongoDBConfiguration config = new BaSyxMongoDBConfiguration();
+		config.setConnectionUrl("mongodb://127.0.0.1:27017/?maxPoolSize=7");
+		config.setPoolMaxSize(50);
+		config.setPoolMinSize(5);
+		config.setPoolMaxWaitTime(2000);
+		config.setConnectTimeout(3000);
+		config.setSocketTimeout(4000);
+		config.setServerSelectionTimeout(5000);
+		config.setReadConcern("majority");
+		config.setWriteConcern("2");
+
+		MongoClientSettings settings = MongoDBClientRegistry.createSettings(config);
+		assertEquals(50, settings.getConnectionPoolSettings().getMaxSize());
+		assertEquals(5, settings.getConnectionPoolSettings().getMinSize());
+		assertEquals(2000, settings.getConnectionPoolSettings().getMaxWaitTime(TimeUnit.MILLISECONDS));
+		assertEquals(3000, settings.getSocketSettings().getConnectTimeout(TimeUnit.MILLISECONDS));
+		assertEquals(4000, settings.getSocketSettings().getReadTimeout(TimeUnit.MILLISECONDS));
+		assertEquals(5000, settings.getClusterSettings().getServerSelectionTimeout(TimeUnit.MILLISECONDS));
+		assertEquals(ReadConcern.MAJORITY, settings.getReadConcern());
+		assertEquals(new WriteConcern(2), settings.getWriteConcern());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void unknownWriteConcern() {
+		BaSyxMongoDBConfiguration config = new BaSyxMongoDBConfiguration();
+		config.setWriteConcern("sometimes");
+		MongoDBClientRegistry.createSettings(config);
+	}
+}
@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (C) 2021 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.regression.mongodb;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.bson.Document;
+import org.eclipse.basyx.components.configuration.BaSyxMongoDBConfiguration;
+import org.eclipse.basyx.components.configuration.MongoDBIndexMode;
+import org.eclipse.basyx.tools.mongodb.MongoDBClientRegistry;
+import org.eclipse.basyx.tools.mongodb.MongoDBIndex;
+import org.eclipse.basyx.tools.mongodb.MongoDBIndexManager;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCollection;
+
+/**
+ * Tests the creation and verification of indexes by the
+ * {@link MongoDBIndexManager}. Requires a running MongoDB.
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class TestMongoDBIndexManager {
+	private static final String ID = "identification.id";
+	private static final String ID_SHORT = "idShort";
+	private static final String DATABASE = "basyxTest";
+
+	private MongoCollection<Document> collection;
+
+	@Before
+	public void setUp() {
+		BaSyxMongoDBConfiguration config = new BaSyxMongoDBConfiguration();
+		collection = MongoDBClientRegistry.getClient(config).getDatabase(DATABASE).getCollection("basyxTestIndexes");
+		collection.drop();
+	}
+
+	@After
+	public void tearDown() {
+		collection.drop();
+	}
+
+	@Test
+	public void missingIndexesAreCreated() {
+		MongoDBIndexManager manager = new MongoDBIndexManager(MongoDBIndexMode.CREATE, true);
+		List<MongoDBIndex> missing = manager.ensureIndexes(collection, MongoDBIndex.unique(ID), MongoDBIndex.ascending(ID_SHORT));
+		assertTrue(missing.isEmpty());
+		assertTrue(isIndexed(ID));
+		assertTrue(isIndexed(ID_SHORT));
+
+		// Existing indexes are not created again
+		assertTrue(manager.ensureIndexes(collection, MongoDBIndex.unique(ID), MongoDBIndex.ascending(ID_SHORT)).isEmpty());
+	}
+
+	@Test(expected = MongoException.class)
+	public void uniqueIndexRejectsDuplicates() {
+		new MongoDBIndexManager(MongoDBIndexMode.CREATE, true).ensureIndexes(collection, MongoDBIndex.unique(ID));
+		collection.insertOne(createDocument("duplicate"));
+		collection.insertOne(createDocument("duplicate"));
+	}
+
+	@Test
+	public void uniqueConstraintCanBeDisabled() {
+		new MongoDBIndexManager(MongoDBIndexMode.CREATE, false).ensureIndexes(collection, MongoDBIndex.unique(ID));
+		collection.insertOne(createDocument("duplicate"));
+		collection.insertOne(createDocument("duplicate"));
+		assertEquals(2, collection.countDocuments());
+	}
+
+	@Test
+	public void verifyModeOnlyReportsMissingIndexes() {
+		MongoDBIndexManager manager = new MongoDBIndexManager(MongoDBIndexMode.VERIFY, true);
+		List<MongoDBIndex> missing = manager.ensureIndexes(collection, MongoDBIndex.unique(ID), MongoDBIndex.ascending(ID_SHORT));
+		assertEquals(2, missing.size());
+		assertTrue(!isIndexed(ID));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void failedUniqueIndexIsThrown() {
+		collection.insertOne(createDocument("duplicate"));
+		collection.insertOne(createDocument("duplicate"));
+
+		new MongoDBIndexManager(MongoDBIndexMode.CREATE, true).ensureIndexes(collection, MongoDBIndex.unique(ID));
+	}
+
+	@Test
+	public void uniqueConstraintIsDisabledByDefault() {
+		collection.insertOne(createDocument("duplicate"));
+		collection.insertOne(createDocument("duplicate"));
+
+		List<MongoDBIndex> missing = new MongoDBIndexManager(new BaSyxMongoDBConfiguration()).ensureIndexes(collection, MongoDBIndex.unique(ID));
+		assertTrue(missing.isEmpty());
+		assertTrue(isIndexed(ID));
+	}
+
+	private Document createDocument(String id) {
+		return new Document("identification", new Document("id", id));
+	}
+
+	private boolean isIndexed(String field) {
+		for (Document index : collection.listIndexes()) {
+			if (index.get("key", Document.class).containsKey(field)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
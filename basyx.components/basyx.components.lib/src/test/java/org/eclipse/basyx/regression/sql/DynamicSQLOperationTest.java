@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (C) 2022 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.regression.sql;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Map;
+
+import org.eclipse.basyx.components.configuration.BaSyxSQLConfiguration;
+import org.eclipse.basyx.tools.sql.driver.SQLDriver;
+import org.eclipse.basyx.tools.sql.query.DynamicSQLOperation;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests binding the arguments of SQL operations on an in-memory database
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class DynamicSQLOperationTest {
+	private SQLDriver driver;
+
+	@Before
+	public void setUp() {
+		driver = new SQLDriver(new BaSyxSQLConfiguration("sa", "", "mem:operationtest;DB_CLOSE_DELAY=-1", "org.h2.Driver", "jdbc:h2:"));
+		driver.sqlUpdate("CREATE TABLE IF NOT EXISTS operationtest (id int, name varchar(255))");
+		driver.sqlUpdate("DELETE FROM operationtest");
+		driver.sqlUpdate("INSERT INTO operationtest (id, name) VALUES (1, '10'), (2, 'b')");
+	}
+
+	@After
+	public void tearDown() {
+		driver.sqlUpdate("DROP TABLE IF EXISTS operationtest");
+	}
+
+	@Test
+	public void testNonStringArgumentInStringContext() {
+		DynamicSQLOperation operation = new DynamicSQLOperation(driver, "SELECT * FROM operationtest WHERE name = $1", "mapArray(id:Integer,name:String)");
+		assertEquals(1, getId(operation.apply(new Object[] { 10 })));
+
+		operation = new DynamicSQLOperation(driver, "SELECT * FROM operationtest WHERE name = '$1'", "mapArray(id:Integer,name:String)");
+		assertEquals(1, getId(operation.apply(new Object[] { 10 })));
+	}
+
+	@Test
+	public void testStringArgumentInNumericContext() {
+		DynamicSQLOperation operation = new DynamicSQLOperation(driver, "SELECT * FROM operationtest WHERE id = $1", "mapArray(id:Integer,name:String)");
+		assertEquals(2, getId(operation.apply(new Object[] { "2" })));
+		assertEquals(2, getId(operation.apply(new Object[] { 2 })));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Object getId(Object result) {
+		return ((Map<String, Object>) result).get("id");
+	}
+}
@@ -4,6 +4,7 @@ import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 import java.io.ByteArrayInputStream;
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.HashMap;
@@ -95,14 +96,13 @@ public class DynamicSQLQueryTest {
 	private void writeTestData(Map<String, Object> testData) throws SQLException {
 		String updateString = generateUpdateTestDataSQLString(getColumnSQLTypes());
 		System.out.println(updateString);
-		driver.openConnection();
-		PreparedStatement statement = driver.getConnection().prepareStatement(updateString);
-		statement.setInt(1, (int) testData.get(COLNAME_INT));
-		statement.setString(3, (String) testData.get(COLNAME_STRING));
-		byte[] byteData = (byte[]) testData.get(COLNAME_BYTES);
-		statement.setBinaryStream(2, new ByteArrayInputStream(byteData), byteData.length);
-		statement.execute();
-		driver.closeConnection();
+		try (Connection connection = driver.borrowConnection(); PreparedStatement statement = connection.prepareStatement(updateString)) {
+			statement.setInt(1, (int) testData.get(COLNAME_INT));
+			statement.setString(3, (String) testData.get(COLNAME_STRING));
+			byte[] byteData = (byte[]) testData.get(COLNAME_BYTES);
+			statement.setBinaryStream(2, new ByteArrayInputStream(byteData), byteData.length);
+			statement.execute();
+		}
 	}
 
 	private String generateUpdateTestDataSQLString(Map<String, String> colSQLTypes) {
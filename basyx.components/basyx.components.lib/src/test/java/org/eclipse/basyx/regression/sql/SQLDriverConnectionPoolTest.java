@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (C) 2022 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.regression.sql;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.basyx.components.configuration.BaSyxSQLConfiguration;
+import org.eclipse.basyx.tools.sql.driver.SQLConnectionPoolMetrics;
+import org.eclipse.basyx.tools.sql.driver.SQLDriver;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the per-operation connection pooling of the SQLDriver on an in-memory
+ * database
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class SQLDriverConnectionPoolTest {
+	private static final int POOL_SIZE = 3;
+	private static final int THREADS = 8;
+	private static final int OPERATIONS = 50;
+
+	private SQLDriver driver;
+
+	@Before
+	public void setUp() {
+		BaSyxSQLConfiguration config = new BaSyxSQLConfiguration("sa", "", "mem:pooltest;DB_CLOSE_DELAY=-1", "org.h2.Driver", "jdbc:h2:");
+		config.setPoolMaxSize(POOL_SIZE);
+		driver = new SQLDriver(config);
+		driver.sqlUpdate("CREATE TABLE IF NOT EXISTS pooltest (id int, name varchar(255))");
+		driver.sqlUpdate("DELETE FROM pooltest");
+	}
+
+	@After
+	public void tearDown() {
+		driver.sqlUpdate("DROP TABLE IF EXISTS pooltest");
+	}
+
+	@Test
+	public void testConcurrentOperations() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < THREADS; t++) {
+				int thread = t;
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < OPERATIONS; i++) {
+						driver.sqlUpdate("INSERT INTO pooltest (id, name) VALUES (?, ?)", Arrays.asList(thread, "name" + i));
+						driver.sqlQuery("SELECT * FROM pooltest WHERE id = ?", Collections.singletonList(thread));
+					}
+					return null;
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		assertEquals(THREADS * OPERATIONS, countRows());
+
+		SQLConnectionPoolMetrics metrics = driver.getPoolMetrics();
+		assertEquals(POOL_SIZE, metrics.getMaxConnections());
+		assertTrue(metrics.getConnectionAcquisitions() >= 2 * THREADS * OPERATIONS);
+		assertEquals(0, metrics.getConnectionTimeouts());
+		assertTrue(metrics.getMaxWaitTime() >= metrics.getAverageWaitTime());
+	}
+
+	@Test
+	public void testBorrowedConnectionsAreSeparate() throws SQLException {
+		try (Connection first = driver.borrowConnection(); Connection second = driver.borrowConnection()) {
+			assertNotSame(first, second);
+			// Closing one connection does not affect operations of other threads
+			second.close();
+			assertEquals(0, countRows());
+			assertTrue(first.isValid(1));
+		}
+	}
+
+	private int countRows() throws SQLException {
+		ResultSet result = driver.sqlQuery("SELECT COUNT(*) FROM pooltest");
+		result.next();
+		return result.getInt(1);
+	}
+}
@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Copyright (C) 2022 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.regression.sql;
+
+import static org.junit.Assert.assertEquals;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import javax.sql.rowset.RowSetProvider;
+
+import org.eclipse.basyx.tools.sql.driver.ISQLDriver;
+import org.junit.Test;
+
+/**
+ * Tests the prepared statement fallbacks of drivers that only execute plain SQL
+ * strings
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class SQLDriverDefaultsTest {
+
+	/**
+	 * Driver that only records the executed SQL strings
+	 */
+	private static class StringOnlyDriver implements ISQLDriver {
+		private String lastSQL;
+
+		@Override
+		public ResultSet sqlQuery(String queryString) {
+			lastSQL = queryString;
+			try {
+				return RowSetProvider.newFactory().createCachedRowSet();
+			} catch (SQLException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		@Override
+		public void sqlUpdate(String updateString) {
+			lastSQL = updateString;
+		}
+	}
+
+	@Test
+	public void testValuesAreInlined() {
+		StringOnlyDriver driver = new StringOnlyDriver();
+		driver.sqlUpdate("INSERT INTO t (a, b, c) VALUES (?, ?, ?)", Arrays.asList(1, "it's", null));
+		assertEquals("INSERT INTO t (a, b, c) VALUES (1, 'it''s', NULL)", driver.lastSQL);
+	}
+
+	@Test
+	public void testQuotedMarkersAreKept() {
+		StringOnlyDriver driver = new StringOnlyDriver();
+		driver.sqlQuery("SELECT \"a?\" FROM t WHERE b = '?' AND c = ?", Arrays.asList("x"));
+		assertEquals("SELECT \"a?\" FROM t WHERE b = '?' AND c = 'x'", driver.lastSQL);
+	}
+
+	@Test
+	public void testHandlerProcessesResult() {
+		StringOnlyDriver driver = new StringOnlyDriver();
+		int rows = driver.sqlQuery("SELECT * FROM t WHERE a = ?", Arrays.asList(1), SQLDriverDefaultsTest::countRows);
+		assertEquals(0, rows);
+		assertEquals("SELECT * FROM t WHERE a = 1", driver.lastSQL);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMissingValue() {
+		new StringOnlyDriver().sqlUpdate("DELETE FROM t WHERE a = ? AND b = ?", Arrays.asList(1));
+	}
+
+	private static int countRows(ResultSet resultSet) throws SQLException {
+		int rows = 0;
+		while (resultSet.next()) {
+			rows++;
+		}
+		return rows;
+	}
+}
@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (C) 2022 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.regression.sql;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.basyx.components.configuration.BaSyxSQLConfiguration;
+import org.eclipse.basyx.tools.sql.driver.SQLDriver;
+import org.eclipse.basyx.tools.sql.query.DynamicSQLQuery;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests processing query results while the connection is open on an in-memory
+ * database
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class SQLDriverStreamingTest {
+	private static final int ROWS = 250;
+
+	private SQLDriver driver;
+
+	@Before
+	public void setUp() {
+		BaSyxSQLConfiguration config = new BaSyxSQLConfiguration("sa", "", "mem:streamtest;DB_CLOSE_DELAY=-1", "org.h2.Driver", "jdbc:h2:");
+		config.setPoolMaxSize(1);
+		config.setFetchSize(20);
+		driver = new SQLDriver(config);
+		driver.sqlUpdate("CREATE TABLE IF NOT EXISTS streamtest (id int, name varchar(255))");
+		driver.sqlUpdate("DELETE FROM streamtest");
+		for (int i = 0; i < ROWS; i++) {
+			driver.sqlUpdate("INSERT INTO streamtest (id, name) VALUES (?, ?)", Arrays.asList(i, "name" + i));
+		}
+	}
+
+	@After
+	public void tearDown() {
+		driver.sqlUpdate("DROP TABLE IF EXISTS streamtest");
+	}
+
+	@Test
+	public void testRowsAreHandled() {
+		long sum = driver.sqlQuery("SELECT id FROM streamtest WHERE id >= ?", Collections.singletonList(0), result -> {
+			long ids = 0;
+			while (result.next()) {
+				ids += result.getInt(1);
+			}
+			return ids;
+		});
+		assertEquals(ROWS * (ROWS - 1) / 2, sum);
+	}
+
+	@Test
+	public void testFilteredQuery() {
+		DynamicSQLQuery query = new DynamicSQLQuery(driver, "SELECT * FROM streamtest WHERE name='$name'", "mapArray(id:Integer,name:String)");
+		Map<String, Object> parameter = new HashMap<>();
+		parameter.put("name", "name42");
+
+		@SuppressWarnings("unchecked")
+		Map<String, Object> row = (Map<String, Object>) query.get(parameter);
+		assertEquals(42, row.get("id"));
+
+		@SuppressWarnings("unchecked")
+		List<Map<String, Object>> rows = (List<Map<String, Object>>) new DynamicSQLQuery(driver, "SELECT * FROM streamtest", "listOfMaps(id:Integer,name:String)").get();
+		assertEquals(ROWS, rows.size());
+	}
+
+	@Test
+	public void testFailingHandlerReleasesConnection() throws SQLException {
+		Object result = driver.sqlQuery("SELECT * FROM streamtest", Collections.emptyList(), resultSet -> {
+			throw new SQLException("Handler failed");
+		});
+		assertNull(result);
+
+		// The only pooled connection has been returned in auto-commit mode
+		try (Connection connection = driver.borrowConnection()) {
+			assertTrue(connection.getAutoCommit());
+		}
+	}
+}
@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (C) 2022 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.regression.sql;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.basyx.components.configuration.BaSyxSQLConfiguration;
+import org.eclipse.basyx.tools.sql.driver.SQLDriver;
+import org.eclipse.basyx.tools.sql.query.DynamicSQLOperation;
+import org.eclipse.basyx.tools.sql.query.SQLResultFilter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests compiled result filters on an in-memory database
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class SQLResultFilterTest {
+	private SQLDriver driver;
+
+	@Before
+	public void setUp() {
+		driver = new SQLDriver(new BaSyxSQLConfiguration("sa", "", "mem:filtertest;DB_CLOSE_DELAY=-1", "org.h2.Driver", "jdbc:h2:"));
+		driver.sqlUpdate("CREATE TABLE IF NOT EXISTS filtertest (id int, name varchar(255))");
+		driver.sqlUpdate("DELETE FROM filtertest");
+		driver.sqlUpdate("INSERT INTO filtertest (id, name) VALUES (1, 'a'), (2, 'b'), (3, 'b')");
+	}
+
+	@After
+	public void tearDown() {
+		driver.sqlUpdate("DROP TABLE IF EXISTS filtertest");
+	}
+
+	@Test
+	public void testCompileIsCached() {
+		assertSame(SQLResultFilter.compile("stringSet(name:String)"), SQLResultFilter.compile("stringSet(name:String)"));
+		assertNull(SQLResultFilter.compile(null));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownFilter() {
+		SQLResultFilter.compile("unknownFilter(name:String)");
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testStringFilters() {
+		Set<String> set = (Set<String>) driver.sqlQuery("SELECT name FROM filtertest", Arrays.asList(), SQLResultFilter.compile("stringSet(name:String)"));
+		assertEquals(new HashSet<>(Arrays.asList("a", "b")), set);
+
+		Collection<String> array = (Collection<String>) driver.sqlQuery("SELECT name FROM filtertest ORDER BY id", Arrays.asList(), SQLResultFilter.compile("stringArray(name:String)"));
+		assertEquals(Arrays.asList("a", "b", "b"), array);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testOperationFilter() {
+		DynamicSQLOperation operation = new DynamicSQLOperation(driver, "SELECT * FROM filtertest WHERE name='$1' ORDER BY id", "listOfMaps(id:Integer, name:String)");
+		List<Map<String, Object>> rows = (List<Map<String, Object>>) operation.apply(new Object[] { "b" });
+
+		assertEquals(2, rows.size());
+		assertEquals(2, rows.get(0).get("id"));
+		assertEquals(3, rows.get(1).get("id"));
+		assertEquals("b", rows.get(1).get("name"));
+	}
+}
@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (C) 2022 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.regression.sql;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.basyx.tools.sql.query.SQLStatementTemplate;
+import org.junit.Test;
+
+/**
+ * Tests the compilation of dynamic SQL templates into prepared statements
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+public class SQLStatementTemplateTest {
+
+	@Test
+	public void testNamedPlaceholders() {
+		SQLStatementTemplate statement = SQLStatementTemplate.compile("UPDATE elements.t SET value='$value', type=$type WHERE name='$name'");
+		assertEquals("UPDATE elements.t SET value=?, type=? WHERE name=?", statement.getSQLString());
+		assertEquals(Arrays.asList("value", "type", "name"), statement.getParameterNames());
+
+		Map<String, Object> parameter = new HashMap<>();
+		parameter.put("value", 12);
+		parameter.put("type", 2);
+		parameter.put("name", "it's");
+		// Quoted place holders are bound as string, unquoted ones keep their type
+		assertEquals(Arrays.asList("12", 2, "it's"), statement.bind(parameter));
+	}
+
+	@Test
+	public void testPlaceholderPrefixes() {
+		SQLStatementTemplate statement = SQLStatementTemplate.compile("INSERT INTO elements.t (name) VALUES ('$name1'), ('$name10')");
+		assertEquals(Arrays.asList("name1", "name10"), statement.getParameterNames());
+	}
+
+	@Test
+	public void testPlaceholderWithinLiteral() {
+		SQLStatementTemplate statement = SQLStatementTemplate.compile("SELECT * FROM t WHERE name LIKE '$prefix:%' AND kind = 'it''s $x'");
+		assertEquals("SELECT * FROM t WHERE name LIKE ? AND kind = ?", statement.getSQLString());
+		assertEquals(Arrays.asList("prefix", "x"), statement.getParameterNames());
+
+		Map<String, Object> parameter = new HashMap<>();
+		parameter.put("prefix", "a");
+		parameter.put("x", 1);
+		// The whole literal is bound as a single string parameter
+		assertEquals(Arrays.asList("a:%", "it's 1"), statement.bind(parameter));
+	}
+
+	@Test
+	public void testMultiplePlaceholdersWithinLiteral() {
+		SQLStatementTemplate statement = SQLStatementTemplate.compile("SELECT * FROM t WHERE path = '$1/$2' AND id = $2");
+		assertEquals("SELECT * FROM t WHERE path = ? AND id = ?", statement.getSQLString());
+		assertEquals(Arrays.asList("x/3", 3), statement.bind(new Object[] { "x", 3 }));
+		assertEquals(Arrays.asList(null, 3), statement.bind(new Object[] { null, 3 }));
+	}
+
+	@Test
+	public void testLiteralsAndIdentifiersArePreserved() {
+		String sql = "SELECT \"$col\" FROM t WHERE a = 'BASE TABLE' AND b = 'US$'";
+		SQLStatementTemplate statement = SQLStatementTemplate.compile(sql);
+		assertEquals(sql, statement.getSQLString());
+		assertEquals(Collections.emptyList(), statement.bind((Map<String, Object>) null));
+	}
+
+	@Test
+	public void testPositionalPlaceholders() {
+		SQLStatementTemplate statement = SQLStatementTemplate.compile("SELECT * FROM t WHERE id = $2 AND name = '$1'");
+		assertEquals("SELECT * FROM t WHERE id = ? AND name = ?", statement.getSQLString());
+		assertEquals(Arrays.asList(7, "abc"), statement.bind(new Object[] { "abc", 7 }));
+	}
+
+	@Test
+	public void testTemplatesAreCompiledOnce() {
+		String sql = "DELETE FROM elements.t WHERE name='$name'";
+		assertSame(SQLStatementTemplate.compile(sql), SQLStatementTemplate.compile(new String(sql)));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMissingParameter() {
+		SQLStatementTemplate.compile("DELETE FROM elements.t WHERE name='$name'").bind(new HashMap<>());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMissingPositionalParameter() {
+		SQLStatementTemplate.compile("SELECT * FROM t WHERE id = $2").bind(new Object[] { 1 });
+	}
+}
@@ -0,0 +1,226 @@
+/*******************************************************************************
+ * Copyright (C) 2022 the Eclipse BaSyx Authors
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ * 
+ * SPDX-License-Identifier: MIT
+ ******************************************************************************/
+package org.eclipse.basyx.regression.sqlproxy;
+
+import java.lang.reflect.InvocationTargetException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.basyx.components.configuration.BaSyxSQLConfiguration;
+import org.eclipse.basyx.components.tools.propertyfile.opdef.OperationDefinition;
+import org.eclipse.basyx.components.tools.propertyfile.opdef.Parameter;
+import org.eclipse.basyx.components.tools.propertyfile.opdef.ResultFilter;
+import org.eclipse.basyx.tools.sql.driver.ISQLDriver;
+import org.eclipse.basyx.tools.sql.query.DynamicSQLQuery;
+import org.eclipse.basyx.tools.sql.query.SQLResultFilter;
+import org.eclipse.basyx.tools.sqlproxy.SQLMap;
+import org.eclipse.basyx.tools.sqlproxy.SQLRootElement;
+import org.eclipse.basyx.tools.sqlproxy.SQLTableRow;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compares SQLMap.get with the compiled result filter dispatch against the
+ * former dispatch that parsed the result filter definition and invoked the
+ * filter operation by reflection on every call. The dispatch is measured on its
+ * own on a cached result set and as part of SQLMap.get, which includes the
+ * database round trip. This test is ignored by default, as it needs the
+ * database and only reports its results to the log.
+ * 
+ * The benchmark uses the database of the other SQL proxy tests, or the
+ * database of the configuration file that is given by the BASYX_SQL system
+ * property or environment variable. E.g. an in-memory H2 database is
+ * configured by:
+ * 
+ * <pre>
+ * dbuser=sa
+ * dbpass=
+ * dburl=mem:sqlmapbenchmark;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;INIT=CREATE DOMAIN IF NOT EXISTS TEXT AS VARCHAR
+ * sqlDriver=org.h2.Driver
+ * sqlPrefix=jdbc:h2:
+ * </pre>
+ * 
+ * The TEXT domain lets the map values be read as strings, H2 would return
+ * them as CLOBs otherwise.
+ * 
+ * @author the Eclipse BaSyx Authors
+ *
+ */
+@Ignore
+public class SQLMapGetBenchmark {
+	private static Logger logger = LoggerFactory.getLogger(SQLMapGetBenchmark.class);
+
+	private static final String RESULT_FILTER = "mapArray(name:String,value:String,type:Integer)";
+	private static final int ENTRIES = 1000;
+	private static final int WARMUP_ROUNDS = 2;
+	private static final int DISPATCH_CALLS = 200000;
+	private static final int GET_CALLS = 5000;
+
+	private SQLRootElement sqlRootElement;
+	private SQLMap sqlMap;
+	private SQLMap legacyMap;
+
+	@Before
+	public void setUp() {
+		sqlRootElement = new SQLRootElement(getSQLConfiguration(), "root_el_bench");
+		sqlRootElement.dropTable(1);
+		sqlRootElement.drop();
+		sqlRootElement.createRootTableIfNotExists();
+
+		sqlMap = sqlRootElement.createMap(1);
+		Map<String, Object> entries = new HashMap<>();
+		for (int i = 0; i < ENTRIES; i++) {
+			entries.put("key" + i, "value" + i);
+		}
+		sqlMap.putAll(entries);
+		legacyMap = new LegacyDispatchMap(sqlRootElement, 1);
+	}
+
+	@After
+	public void tearDown() {
+		sqlRootElement.dropTable(1);
+		sqlRootElement.drop();
+	}
+
+	@Test
+	public void compareDispatch() throws SQLException {
+		ResultSet row = sqlRootElement.getDriver().sqlQuery("SELECT * FROM elements." + sqlMap.getSqlTableID() + " WHERE name=?", Collections.singletonList("key0"));
+		SQLResultFilter compiled = SQLResultFilter.compile(RESULT_FILTER);
+
+		double compiledNanos = 0;
+		double legacyNanos = 0;
+		for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+			long start = System.nanoTime();
+			for (int i = 0; i < DISPATCH_CALLS; i++) {
+				row.beforeFirst();
+				compiled.handle(row);
+			}
+			compiledNanos = (System.nanoTime() - start) / (double) DISPATCH_CALLS;
+
+			start = System.nanoTime();
+			for (int i = 0; i < DISPATCH_CALLS; i++) {
+				row.beforeFirst();
+				processLegacy(row, RESULT_FILTER);
+			}
+			legacyNanos = (System.nanoTime() - start) / (double) DISPATCH_CALLS;
+		}
+
+		logger.info("Result filter dispatch: compiled {} ns/op, reflective {} ns/op", format(compiledNanos), format(legacyNanos));
+	}
+
+	@Test
+	public void compareGet() {
+		double compiled = 0;
+		double legacy = 0;
+		for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+			compiled = measureGet(sqlMap);
+			legacy = measureGet(legacyMap);
+		}
+
+		logger.info("SQLMap.get of {} entries: compiled {} ops/s, reflective {} ops/s", ENTRIES, format(compiled), format(legacy));
+	}
+
+	private static BaSyxSQLConfiguration getSQLConfiguration() {
+		BaSyxSQLConfiguration config = new BaSyxSQLConfiguration(SQLConfig.SQLUSER, SQLConfig.SQLPW, "//localhost/basyx-map?", "org.postgresql.Driver", "jdbc:postgresql:");
+		String configFilePath = System.getProperty(BaSyxSQLConfiguration.DEFAULT_FILE_KEY, System.getenv(BaSyxSQLConfiguration.DEFAULT_FILE_KEY));
+		if (configFilePath != null && !configFilePath.isEmpty()) {
+			config.loadFromFile(configFilePath);
+		}
+		return config;
+	}
+
+	private double measureGet(SQLMap map) {
+		long start = System.nanoTime();
+		for (int i = 0; i < GET_CALLS; i++) {
+			map.get("key" + (i % ENTRIES));
+		}
+		return GET_CALLS / ((System.nanoTime() - start) / 1e9);
+	}
+
+	private static String format(double value) {
+		return String.format("%.1f", value);
+	}
+
+	/**
+	 * Former result filter dispatch of DynamicSQLQuery.processResult
+	 */
+	private static Object processLegacy(ResultSet sqlResult, String resultFilterString) {
+		Collection<Parameter> parameter = OperationDefinition.getParameter(resultFilterString);
+		try {
+			Object[] columnNames = new Object[parameter.size()];
+			int i = 0;
+			for (Parameter par : parameter)
+				columnNames[i++] = par.getName();
+			return ResultFilter.class.getMethod(OperationDefinition.getOperation(resultFilterString), ResultSet.class, Object[].class).invoke(null, sqlResult, columnNames);
+		} catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+			logger.error("Could not invoke result filter", e);
+		}
+		return null;
+	}
+
+	/**
+	 * Query that uses the former result filter dispatch
+	 */
+	private static class LegacyDispatchQuery extends DynamicSQLQuery {
+		public LegacyDispatchQuery(ISQLDriver driver, String query, String sqlResultFilter) {
+			super(driver, query, sqlResultFilter);
+		}
+
+		@Override
+		protected Object processResult(ResultSet sqlResult) {
+			return processLegacy(sqlResult, resultFilterString);
+		}
+	}
+
+	/**
+	 * Map that reads its entries with the former result filter dispatch
+	 */
+	private static class LegacyDispatchMap extends SQLMap {
+		public LegacyDispatchMap(SQLRootElement rootElement, int tableId) {
+			super(rootElement, tableId);
+		}
+
+		@Override
+		protected Object getValueFromMap(ISQLDriver drv, String mapName, String key) {
+			DynamicSQLQuery dynQuery = new LegacyDispatchQuery(drv, "SELECT * FROM elements." + mapName + " WHERE name='$name'", RESULT_FILTER);
+			Map<String, Object> parameter = new HashMap<>();
+			parameter.put("name", key);
+
+			@SuppressWarnings("unchecked")
+			Map<String, Object> result = (Map<String, Object>) dynQuery.get(parameter);
+			if (result.get("type") == null)
+				return null;
+			return SQLTableRow.getValueFromString(sqlRootElement, (int) result.get("type"), (String) result.get("value"));
+		}
+	}
+}